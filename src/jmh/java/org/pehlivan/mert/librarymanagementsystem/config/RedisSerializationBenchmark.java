@@ -0,0 +1,98 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.AuthorResponseDtoCodec;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.BookResponseDtoCodec;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.CompactCacheSerializer;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.LoanResponseDtoCodec;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.UserResponseDtoCodec;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Round-trips cached books through the value serializers the Redis cache manager can use:
+ * the previous JSON format and the compact binary format. The encoded size of each
+ * payload, including a 20-book search page, is printed once per trial, so bytes per entry
+ * can be compared with throughput. Pages are not timed because the JSON format cannot
+ * read a {@code PageImpl} back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RedisSerializationBenchmark {
+
+    @Param({"json", "binary"})
+    private String format;
+
+    // book: book::id:{id}, list: book::all (100 kitap)
+    @Param({"book", "list"})
+    private String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] serializedValue;
+
+    @Setup
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        serializer = "json".equals(format)
+                ? json
+                : new CompactCacheSerializer(List.of(new BookResponseDtoCodec(), new LoanResponseDtoCodec(),
+                new UserResponseDtoCodec(), new AuthorResponseDtoCodec()), json, 1024);
+        value = "list".equals(payload) ? books(100) : book(1);
+        serializedValue = serializer.serialize(value);
+        System.out.printf("%n%s/%s: %d bytes, %s/page: %d bytes%n", format, payload, serializedValue.length,
+                format, serializer.serialize(new PageImpl<>(books(20), PageRequest.of(0, 20), 250)).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serializedValue);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private static List<BookResponseDto> books(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(RedisSerializationBenchmark::book)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static BookResponseDto book(int id) {
+        return BookResponseDto.builder()
+                .id((long) id)
+                .title("Kar " + id)
+                .isbn("9789750507806")
+                .stock(10)
+                .availableCount(7)
+                .pageCount(432)
+                .publicationDate(new Date())
+                .publisher("Yapı Kredi Yayınları")
+                .status(BookStatus.AVAILABLE)
+                .bookType(BookType.FICTION)
+                .authorId(1L)
+                .authorName("Orhan")
+                .authorSurname("Pamuk")
+                .build();
+    }
+}
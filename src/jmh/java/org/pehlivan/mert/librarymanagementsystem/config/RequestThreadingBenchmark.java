@@ -0,0 +1,132 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Compares Tomcat's platform-thread pool with {@code spring.threads.virtual.enabled=true} for
+ * request handlers that mostly wait on I/O. Every invocation sends a wave of
+ * {@code concurrency} requests; each request holds a database connection from a pool of
+ * {@code dbPoolSize} for {@code dbMillis} and then waits {@code remoteMillis} on Redis, SMTP or
+ * Kafka. Per-request latencies of the measurement iterations are collected and p50/p99 and
+ * requests per second are printed when the trial ends; JMH reports the time per wave.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class RequestThreadingBenchmark {
+
+    // server.tomcat.threads.max varsayılanı
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"200", "2000"})
+    private int concurrency;
+
+    @Param({"10", "50"})
+    private int dbPoolSize;
+
+    @Param({"1"})
+    private int dbMillis;
+
+    @Param({"20"})
+    private int remoteMillis;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+    private long[] latencies;
+    private int recorded;
+    private long measuredNanos;
+    private int waves;
+    private volatile boolean measuring;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        connectionPool = new Semaphore(dbPoolSize, true);
+        latencies = new long[concurrency * 64];
+    }
+
+    // Isınma turlarının dalgaları sayılmaz
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+        measuring = iteration.getType() == IterationType.MEASUREMENT;
+    }
+
+    @Benchmark
+    public int requestWave() throws InterruptedException {
+        long[] waveLatencies = new long[concurrency];
+        AtomicInteger index = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long waveStart = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            // Gecikme kuyrukta beklenen süreyi de içerir: istek geldiği anda sayılır
+            long arrival = System.nanoTime();
+            executor.execute(() -> {
+                handleRequest();
+                waveLatencies[index.getAndIncrement()] = System.nanoTime() - arrival;
+                done.countDown();
+            });
+        }
+        done.await();
+        if (measuring) {
+            record(waveLatencies, System.nanoTime() - waveStart);
+        }
+        return index.get();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        if (sorted.length > 0) {
+            System.out.printf("%n%s, concurrency=%d, dbPool=%d: p50 %.1f ms, p99 %.1f ms, %.0f req/s%n",
+                    mode, concurrency, dbPoolSize,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    (double) waves * concurrency / (measuredNanos / 1e9));
+        }
+    }
+
+    private void handleRequest() {
+        connectionPool.acquireUninterruptibly();
+        try {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(dbMillis));
+        } finally {
+            connectionPool.release();
+        }
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(remoteMillis));
+    }
+
+    // Ölçüm turlarındaki tüm dalgalar tutulur; dizi dolunca büyütülür
+    private synchronized void record(long[] waveLatencies, long waveNanos) {
+        if (recorded + waveLatencies.length > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, recorded + waveLatencies.length));
+        }
+        System.arraycopy(waveLatencies, 0, latencies, recorded, waveLatencies.length);
+        recorded += waveLatencies.length;
+        measuredNanos += waveNanos;
+        waves++;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,195 @@
+package org.pehlivan.mert.librarymanagementsystem.model;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.*;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.Loan;
+import org.pehlivan.mert.librarymanagementsystem.model.user.Role;
+import org.pehlivan.mert.librarymanagementsystem.model.user.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rows per second for batch creation of books and loans with the real entity mappings.
+ * {@code pooled} uses the sequence ids introduced in V5, {@code identity} overrides them back
+ * to {@code GenerationType.IDENTITY} through {@code META-INF/identity-ids.orm.xml}; both run
+ * with the application's batching settings. Each invocation persists {@value #ROWS} rows in
+ * one transaction, so JMH's ops/s is rows/s. The number of JDBC statements prepared per
+ * inserted row is printed when the trial ends; with batching it is one statement per batch plus
+ * one sequence call per block of ids.
+ * <p>
+ * In-memory H2 answers a statement almost for free, which hides the cost IDENTITY really has.
+ * {@code roundTripMicros} charges every prepared statement a simulated network round trip;
+ * 200 µs is typical for a database in the same data centre.
+ * <p>
+ * An in-memory H2 database is used by default. Set {@code BENCHMARK_JDBC_URL},
+ * {@code BENCHMARK_JDBC_USER} and {@code BENCHMARK_JDBC_PASSWORD} to measure against a
+ * throwaway PostgreSQL database, where the saved round trips dominate; the schema is created
+ * and dropped by the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int BOOKS_FOR_LOANS = 100;
+
+    @Param({"identity", "pooled"})
+    private String idGeneration;
+
+    // application.yml: hibernate.jdbc.batch_size
+    @Param({"50"})
+    private int batchSize;
+
+    @Param({"0", "200"})
+    private long roundTripMicros;
+
+    private SessionFactory sessionFactory;
+    private Long authorId;
+    private Long userId;
+    private List<Long> bookIds;
+    private long isbnSequence;
+    private long rowsInserted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String url = System.getenv().getOrDefault("BENCHMARK_JDBC_URL",
+                "jdbc:h2:mem:batch-insert-" + idGeneration + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, url)
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "sa"))
+                .applySetting(AvailableSettings.JAKARTA_JDBC_PASSWORD, System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", ""))
+                .applySetting(AvailableSettings.POOL_SIZE, 1)
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.ORDER_UPDATES, true)
+                // Ölçülen yalnızca id üretimi ve insert yolu; bean validation devre dışı
+                .applySetting(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .applySetting(AvailableSettings.STATEMENT_INSPECTOR, roundTrip())
+                .build();
+        MetadataSources sources = new MetadataSources(registry)
+                .addAnnotatedClasses(Author.class, Book.class, Loan.class, User.class);
+        if ("identity".equals(idGeneration)) {
+            sources.addResource("META-INF/identity-ids.orm.xml");
+        }
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            Author author = Author.builder().name("Benchmark").surname("Author").build();
+            session.persist(author);
+            User user = User.builder().username("benchmark").email("benchmark@example.com").name("Benchmark")
+                    .password("benchmark1").roles(List.of(Role.READER)).build();
+            session.persist(user);
+            authorId = author.getId();
+            userId = user.getId();
+        });
+        bookIds = new ArrayList<>(BOOKS_FOR_LOANS);
+        sessionFactory.inTransaction(session -> {
+            Author author = session.getReference(Author.class, authorId);
+            for (int i = 0; i < BOOKS_FOR_LOANS; i++) {
+                Book book = newBook(author);
+                session.persist(book);
+                bookIds.add(book.getId());
+            }
+        });
+        sessionFactory.getStatistics().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (rowsInserted > 0) {
+            System.out.printf("%n%s, batchSize=%d, roundTrip=%dus: %.3f statements per row%n",
+                    idGeneration, batchSize, roundTripMicros,
+                    (double) sessionFactory.getStatistics().getPrepareStatementCount() / rowsInserted);
+        }
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int createBooks() {
+        return sessionFactory.fromTransaction(session -> {
+            Author author = session.getReference(Author.class, authorId);
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(newBook(author));
+                flushBatch(session, i);
+            }
+            rowsInserted += ROWS;
+            return ROWS;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int createLoans() {
+        return sessionFactory.fromTransaction(session -> {
+            User user = session.getReference(User.class, userId);
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < ROWS; i++) {
+                session.persist(Loan.builder()
+                        .book(session.getReference(Book.class, bookIds.get(i % BOOKS_FOR_LOANS)))
+                        .user(user)
+                        .borrowedDate(today)
+                        .dueDate(today.plusWeeks(2))
+                        .penaltyAmount(0.0)
+                        .build());
+                flushBatch(session, i);
+            }
+            rowsInserted += ROWS;
+            return ROWS;
+        });
+    }
+
+    // Her hazırlanan ifade (tekil insert, batch veya sequence çağrısı) bir ağ gidiş-dönüşü sayılır
+    private StatementInspector roundTrip() {
+        long nanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        return sql -> {
+            if (nanos > 0) {
+                LockSupport.parkNanos(nanos);
+            }
+            return sql;
+        };
+    }
+
+    // Kalıcılık bağlamı batch boyutunda boşaltılır; referanslar yeniden yüklenmeden kullanılır
+    private void flushBatch(Session session, int index) {
+        if ((index + 1) % batchSize == 0) {
+            session.flush();
+            session.clear();
+        }
+    }
+
+    private Book newBook(Author author) {
+        return Book.builder()
+                .title("Benchmark Book " + isbnSequence)
+                .isbn(String.format("978%010d", isbnSequence++))
+                .stock(3)
+                .availableCount(3)
+                .pageCount(250)
+                .publicationDate(new Date())
+                .publisher("Benchmark Press")
+                .status(BookStatus.AVAILABLE)
+                .bookType(BookType.FICTION)
+                .author(author)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.Loan;
+import org.pehlivan.mert.librarymanagementsystem.model.user.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the Criteria query for a search request, i.e. what
+ * {@code BookRepository.findAll(spec, pageable)} does before any SQL is sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookSpecificationBenchmark {
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private BookSearchCriteriaDTO fullCriteria;
+    private BookSearchCriteriaDTO titleOnlyCriteria;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Author.class)
+                .addAnnotatedClass(Book.class)
+                .addAnnotatedClass(Loan.class)
+                .addAnnotatedClass(User.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .setProperty("jakarta.persistence.validation.mode", "none")
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+
+        fullCriteria = new BookSearchCriteriaDTO();
+        fullCriteria.setTitle("kar");
+        fullCriteria.setAuthorName("orhan");
+        fullCriteria.setAuthorSurname("pamuk");
+        fullCriteria.setIsbn("9789750507806");
+        fullCriteria.setBookType(BookType.FICTION);
+        fullCriteria.setStatus(BookStatus.AVAILABLE);
+
+        titleOnlyCriteria = new BookSearchCriteriaDTO();
+        titleOnlyCriteria.setTitle("kar");
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Book> withAllCriteria() {
+        return buildQuery(fullCriteria);
+    }
+
+    @Benchmark
+    public CriteriaQuery<Book> withTitleOnly() {
+        return buildQuery(titleOnlyCriteria);
+    }
+
+    private CriteriaQuery<Book> buildQuery(BookSearchCriteriaDTO criteria) {
+        Specification<Book> specification = BookSpecification.withSearchCriteria(criteria);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = criteriaBuilder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        query.where(specification.toPredicate(root, query, criteriaBuilder));
+        return query;
+    }
+}
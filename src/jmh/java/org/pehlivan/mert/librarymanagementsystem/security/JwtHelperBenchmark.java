@@ -0,0 +1,51 @@
+package org.pehlivan.mert.librarymanagementsystem.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtHelperBenchmark {
+
+    // application.yml'deki varsayılan anahtarla aynı uzunlukta test anahtarı
+    private static final String SECRET = "Yp/KI2jI5L7yM7xmcnVCGW4jO2smrdXknmXWeQ/rhaY=";
+
+    private JwtHelper jwtHelper;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtHelper = new JwtHelper();
+        ReflectionTestUtils.setField(jwtHelper, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtHelper, "jwtExpiration", 3_600_000L);
+        jwtHelper.init();
+
+        userDetails = new User("reader@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_READER")));
+        token = jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtHelper.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtHelper.parseClaims(token);
+    }
+}
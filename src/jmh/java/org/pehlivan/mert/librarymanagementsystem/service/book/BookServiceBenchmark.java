@@ -0,0 +1,50 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import org.openjdk.jmh.annotations.*;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookServiceBenchmark {
+
+    private BookService bookService;
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        // convertToResponseDto sadece entity'yi okur; diğer bağımlılıklar kullanılmaz
+        bookService = new BookService(null, null, null, null, null, null, null, null);
+
+        Author author = Author.builder()
+                .id(1L)
+                .name("Orhan")
+                .surname("Pamuk")
+                .build();
+        book = Book.builder()
+                .id(1L)
+                .title("Kar")
+                .isbn("9789750507806")
+                .stock(10)
+                .availableCount(7)
+                .pageCount(432)
+                .publicationDate(new Date())
+                .publisher("Yapı Kredi Yayınları")
+                .status(BookStatus.AVAILABLE)
+                .bookType(BookType.FICTION)
+                .author(author)
+                .build();
+    }
+
+    @Benchmark
+    public BookResponseDto convertToResponseDto() {
+        return bookService.convertToResponseDto(book);
+    }
+}
@@ -0,0 +1,50 @@
+package org.pehlivan.mert.librarymanagementsystem.service.loan;
+
+import org.openjdk.jmh.annotations.*;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.Loan;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.user.User;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoanServiceBenchmark {
+
+    private LoanService loanService;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        // convertToDto sadece entity'yi okur; diğer bağımlılıklar kullanılmaz
+        loanService = new LoanService(null, null, null, null, null, null, null);
+
+        Book book = Book.builder()
+                .id(1L)
+                .title("Kar")
+                .build();
+        User user = User.builder()
+                .id(1L)
+                .username("reader")
+                .email("reader@example.com")
+                .build();
+        loan = Loan.builder()
+                .id(1L)
+                .book(book)
+                .user(user)
+                .borrowedDate(LocalDate.now().minusDays(3))
+                .dueDate(LocalDate.now().plusDays(11))
+                .status(LoanStatus.BORROWED)
+                .penaltyAmount(0.0)
+                .build();
+    }
+
+    @Benchmark
+    public LoanResponseDto convertToDto() {
+        return loanService.convertToDto(loan);
+    }
+}
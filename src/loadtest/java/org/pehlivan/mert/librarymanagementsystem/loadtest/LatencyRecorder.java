@@ -0,0 +1,90 @@
+package org.pehlivan.mert.librarymanagementsystem.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects request latencies per endpoint and turns them into throughput and percentiles.
+ * Every sample is kept, which is fine for runs of a few minutes.
+ */
+class LatencyRecorder {
+
+    enum Outcome {
+        OK,
+        // İş kuralı gereği reddedilen istek (ör. kitap stokta yok); hata sayılmaz
+        CONFLICT,
+        ERROR
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long startedAt = System.nanoTime();
+
+    void record(String endpoint, long latencyNanos, Outcome outcome) {
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(latencyNanos, outcome);
+    }
+
+    /**
+     * Drops everything recorded so far; called when the warm-up ends.
+     */
+    void reset() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+    }
+
+    Map<String, Summary> summarize() {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> summaries.put(entry.getKey(), entry.getValue().summarize(seconds)));
+        return summaries;
+    }
+
+    record Summary(long count, long conflicts, long errors, double throughput,
+                   double p50Millis, double p90Millis, double p99Millis, double maxMillis) {
+    }
+
+    private static final class Endpoint {
+
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private long[] latencies = new long[1024];
+        private int size;
+
+        void add(long latencyNanos, Outcome outcome) {
+            if (outcome == Outcome.CONFLICT) {
+                conflicts.increment();
+            } else if (outcome == Outcome.ERROR) {
+                errors.increment();
+            }
+            synchronized (this) {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size * 2);
+                }
+                latencies[size++] = latencyNanos;
+            }
+        }
+
+        Summary summarize(double seconds) {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(latencies, size);
+            }
+            Arrays.sort(sorted);
+            return new Summary(sorted.length, conflicts.sum(), errors.sum(), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
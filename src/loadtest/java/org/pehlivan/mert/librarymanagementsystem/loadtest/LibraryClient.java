@@ -0,0 +1,131 @@
+package org.pehlivan.mert.librarymanagementsystem.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin JSON client for the REST API. Every call is timed and recorded under the given
+ * endpoint name; setup calls pass {@code null} and are not recorded.
+ */
+class LibraryClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration timeout;
+    private final LatencyRecorder recorder;
+
+    LibraryClient(HttpClient httpClient, String baseUrl, Duration timeout, LatencyRecorder recorder) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.recorder = recorder;
+    }
+
+    Response get(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).GET().build());
+    }
+
+    Response post(String endpoint, String path, String token, Map<String, ?> body) {
+        return send(endpoint, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .build());
+    }
+
+    Response put(String endpoint, String path, String token) {
+        return send(endpoint, request(path, token).PUT(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    /**
+     * Logs in and returns the JWT, or {@code null} when the credentials are rejected.
+     */
+    String login(String endpoint, String email, String password) {
+        Response response = post(endpoint, "/api/v1/auth/login", null, Map.of("email", email, "password", password));
+        return response.ok() ? response.json().path("token").asText(null) : null;
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Response result = new Response(response.statusCode(), response.body());
+            if (endpoint != null) {
+                recorder.record(endpoint, System.nanoTime() - start, result.outcome());
+            }
+            return result;
+        } catch (IOException e) {
+            if (endpoint != null) {
+                recorder.record(endpoint, System.nanoTime() - start, LatencyRecorder.Outcome.ERROR);
+            }
+            return new Response(-1, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, "interrupted");
+        }
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized", e);
+        }
+    }
+
+    final class Response {
+
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        int status() {
+            return status;
+        }
+
+        String body() {
+            return body;
+        }
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        JsonNode json() {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                return objectMapper.missingNode();
+            }
+        }
+
+        LatencyRecorder.Outcome outcome() {
+            if (ok()) {
+                return LatencyRecorder.Outcome.OK;
+            }
+            return status == 409 ? LatencyRecorder.Outcome.CONFLICT : LatencyRecorder.Outcome.ERROR;
+        }
+    }
+}
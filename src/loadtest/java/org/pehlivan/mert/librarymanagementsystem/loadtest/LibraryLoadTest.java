@@ -0,0 +1,228 @@
+package org.pehlivan.mert.librarymanagementsystem.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test against a running instance (see {@code docker-compose.loadtest.yml}).
+ * <p>
+ * Every virtual user loops over the library's real traffic mix with a short think time:
+ * catalogue search, book detail reads, logins and borrow/return bursts done by the librarian
+ * for a reader account of its own. A separate set of clients keeps the availability SSE
+ * stream open. After the warm-up, latencies are recorded per endpoint; p50/p90/p99 and
+ * throughput are printed and written as JSON to {@code loadtest.result-file}.
+ * <p>
+ * Settings are system properties: {@code loadtest.base-url}, {@code loadtest.users},
+ * {@code loadtest.sse-subscribers}, {@code loadtest.duration}, {@code loadtest.warmup},
+ * {@code loadtest.think-time-ms}, {@code loadtest.result-file}.
+ */
+public class LibraryLoadTest {
+
+    // Trafik karışımı (yüzde): arama, kitap detayı, giriş, ödünç alma/iade
+    private static final int SEARCH_WEIGHT = 50;
+    private static final int DETAIL_WEIGHT = 30;
+    private static final int LOGIN_WEIGHT = 10;
+
+    private static final String LIBRARIAN_EMAIL = "librarian@library.com";
+    private static final String LIBRARIAN_PASSWORD = "librarian123";
+    private static final String READER_PASSWORD = "loadtest123";
+    private static final int MAX_LOANS_PER_READER = 3;
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final int sseSubscribers = Integer.getInteger("loadtest.sse-subscribers", 20);
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT2M"));
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT20S"));
+    private final long thinkTimeMs = Long.getLong("loadtest.think-time-ms", 100);
+    private final Path resultFile = Path.of(System.getProperty("loadtest.result-file", "target/loadtest-result.json"));
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final LibraryClient client = new LibraryClient(httpClient, baseUrl, Duration.ofSeconds(30), recorder);
+
+    private String librarianToken;
+    private List<Long> bookIds;
+    private List<String> searchTerms;
+
+    public static void main(String[] args) throws Exception {
+        new LibraryLoadTest().run();
+        // HttpClient ve SSE bağlantıları kapatılmadan JVM bekletilmez
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        setUp();
+        List<Reader> readers = registerReaders();
+        System.out.printf("Load test against %s: %d users, %d SSE subscribers, warm-up %s, duration %s%n",
+                baseUrl, users, sseSubscribers, warmup, duration);
+
+        ExecutorService sse = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < sseSubscribers; i++) {
+            sse.execute(new SseSubscriber(httpClient, baseUrl + "/api/v1/books/availability",
+                    readers.get(i % readers.size()).token, recorder));
+        }
+
+        long end = System.nanoTime() + warmup.plus(duration).toNanos();
+        ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor();
+        for (Reader reader : readers) {
+            virtualUsers.execute(() -> userLoop(reader, end));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        recorder.reset();
+        long eventsBefore = SseSubscriber.EVENTS.sum();
+        Thread.sleep(duration.toMillis());
+
+        Map<String, LatencyRecorder.Summary> summary = recorder.summarize();
+        virtualUsers.shutdownNow();
+        sse.shutdownNow();
+        virtualUsers.awaitTermination(10, TimeUnit.SECONDS);
+        report(summary, SseSubscriber.EVENTS.sum() - eventsBefore);
+    }
+
+    private void setUp() {
+        librarianToken = client.login(null, LIBRARIAN_EMAIL, LIBRARIAN_PASSWORD);
+        if (librarianToken == null) {
+            throw new IllegalStateException("Librarian login failed; is the application running at " + baseUrl + "?");
+        }
+        JsonNode books = client.get(null, "/api/v1/books", librarianToken).json();
+        bookIds = new ArrayList<>();
+        searchTerms = new ArrayList<>();
+        for (JsonNode book : books) {
+            bookIds.add(book.path("id").asLong());
+            for (String word : book.path("title").asText("").split("\\s+")) {
+                if (word.length() > 3) {
+                    searchTerms.add(word);
+                }
+            }
+        }
+        if (bookIds.isEmpty()) {
+            throw new IllegalStateException("No books found; the load test needs the seeded catalogue");
+        }
+    }
+
+    // Her sanal kullanıcının kendi okuyucu hesabı vardır; ödünç limiti kullanıcılar arasında paylaşılmaz
+    private List<Reader> registerReaders() {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Reader> readers = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "loadtest-" + runId + "-" + i + "@example.com";
+            LibraryClient.Response registered = client.post(null, "/api/v1/auth/register", null, Map.of(
+                    "name", "Load Test " + i,
+                    "username", "loadtest-" + runId + "-" + i,
+                    "email", email,
+                    "password", READER_PASSWORD));
+            if (!registered.ok()) {
+                throw new IllegalStateException("Reader registration failed with " + registered.status()
+                        + " (rate limits raised? see docker-compose.loadtest.yml): " + registered.body());
+            }
+            String token = client.login(null, email, READER_PASSWORD);
+            readers.add(new Reader(registered.json().path("id").asLong(), email, token));
+        }
+        return readers;
+    }
+
+    private void userLoop(Reader reader, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+            int dice = random.nextInt(100);
+            if (dice < SEARCH_WEIGHT) {
+                String term = searchTerms.get(random.nextInt(searchTerms.size()));
+                client.get("book.search", "/api/v1/books/search?title=" + URLEncoder.encode(term, StandardCharsets.UTF_8)
+                        + "&page=0&size=10", reader.token);
+            } else if (dice < SEARCH_WEIGHT + DETAIL_WEIGHT) {
+                client.get("book.detail", "/api/v1/books/" + bookIds.get(random.nextInt(bookIds.size())), reader.token);
+            } else if (dice < SEARCH_WEIGHT + DETAIL_WEIGHT + LOGIN_WEIGHT) {
+                String token = client.login("auth.login", reader.email, READER_PASSWORD);
+                if (token != null) {
+                    reader.token = token;
+                }
+            } else {
+                borrowAndReturn(reader, random);
+            }
+            try {
+                Thread.sleep(thinkTimeMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Gişede art arda birkaç kitap verilip hemen iade alınır; SSE abonelerine olay üretir
+    private void borrowAndReturn(Reader reader, ThreadLocalRandom random) {
+        int burst = 1 + random.nextInt(MAX_LOANS_PER_READER);
+        List<Long> loanIds = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            LibraryClient.Response borrowed = client.post("loan.borrow", "/api/v1/loans", librarianToken, Map.of(
+                    "bookId", bookIds.get(random.nextInt(bookIds.size())),
+                    "userId", reader.id,
+                    "borrowedDate", LocalDate.now().toString()));
+            if (borrowed.ok()) {
+                loanIds.add(borrowed.json().path("id").asLong());
+            }
+        }
+        for (Long loanId : loanIds) {
+            client.put("loan.return", "/api/v1/loans/" + loanId, librarianToken);
+        }
+    }
+
+    private void report(Map<String, LatencyRecorder.Summary> summary, long sseEvents) throws IOException {
+        System.out.printf("%n%-14s %8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "conflicts", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        summary.forEach((endpoint, stats) -> System.out.printf("%-14s %8d %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                endpoint, stats.count(), stats.conflicts(), stats.errors(), stats.throughput(),
+                stats.p50Millis(), stats.p90Millis(), stats.p99Millis(), stats.maxMillis()));
+        System.out.printf("SSE: %d subscribers, %d events, %d heartbeats, %d reconnects%n",
+                sseSubscribers, sseEvents, SseSubscriber.HEARTBEATS.sum(), SseSubscriber.RECONNECTS.sum());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("baseUrl", baseUrl);
+        result.put("users", users);
+        result.put("durationSeconds", duration.toSeconds());
+        ObjectNode endpoints = result.putObject("endpoints");
+        summary.forEach((endpoint, stats) -> endpoints.set(endpoint, objectMapper.valueToTree(stats)));
+        ObjectNode sse = result.putObject("sse");
+        sse.put("subscribers", sseSubscribers);
+        sse.put("events", sseEvents);
+        sse.put("reconnects", SseSubscriber.RECONNECTS.sum());
+        if (resultFile.getParent() != null) {
+            Files.createDirectories(resultFile.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), result);
+        System.out.println("Results written to " + resultFile.toAbsolutePath());
+    }
+
+    private static final class Reader {
+        private final long id;
+        private final String email;
+        private volatile String token;
+
+        private Reader(long id, String email, String token) {
+            this.id = id;
+            this.email = email;
+            this.token = token;
+        }
+    }
+}
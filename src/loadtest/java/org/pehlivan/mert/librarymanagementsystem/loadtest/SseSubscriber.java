@@ -0,0 +1,87 @@
+package org.pehlivan.mert.librarymanagementsystem.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps one availability stream open like a browser {@code EventSource}: it counts events
+ * and heartbeats and reconnects with {@code Last-Event-ID} when the stream ends. The time
+ * until the response headers arrive is recorded as {@code sse.connect}.
+ */
+class SseSubscriber implements Runnable {
+
+    static final LongAdder EVENTS = new LongAdder();
+    static final LongAdder HEARTBEATS = new LongAdder();
+    static final LongAdder RECONNECTS = new LongAdder();
+
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final HttpClient httpClient;
+    private final String url;
+    private final String token;
+    private final LatencyRecorder recorder;
+    private String lastEventId;
+
+    SseSubscriber(HttpClient httpClient, String url, String token, LatencyRecorder recorder) {
+        this.httpClient = httpClient;
+        this.url = url;
+        this.token = token;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                readStream();
+            } catch (IOException e) {
+                // Bağlantı koptu; EventSource gibi kısa bir beklemeden sonra yeniden bağlanılır
+            } catch (InterruptedException e) {
+                return;
+            }
+            RECONNECTS.increment();
+            try {
+                Thread.sleep(RECONNECT_DELAY_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void readStream() throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Accept", "text/event-stream")
+                .header("Authorization", "Bearer " + token)
+                .GET();
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        recorder.record("sse.connect", System.nanoTime() - start,
+                response.statusCode() == 200 ? LatencyRecorder.Outcome.OK : LatencyRecorder.Outcome.ERROR);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() != 200) {
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    lastEventId = line.substring(3).trim();
+                } else if (line.startsWith("data:")) {
+                    EVENTS.increment();
+                } else if (line.startsWith(":")) {
+                    HEARTBEATS.increment();
+                }
+            }
+        }
+    }
+}
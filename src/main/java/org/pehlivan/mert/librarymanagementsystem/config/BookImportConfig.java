@@ -0,0 +1,28 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class BookImportConfig {
+
+    @Value("${library.book-import.concurrency:1}")
+    private int concurrency;
+
+    @Value("${library.book-import.queue-capacity:5}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Aktarım işleri veritabanına yoğun yazar; aynı anda az sayıda çalışır, kuyruk dolunca yeni iş reddedilir
+    @Bean
+    public ThreadPoolTaskExecutor bookImportExecutor() {
+        ThreadPoolTaskExecutor executor = BoundedExecutors.boundedExecutor("book-import-", concurrency, queueCapacity, virtualThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,28 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Builds the fixed-size, bounded-queue executors used by the background jobs. In virtual
+ * thread mode the workers are virtual threads; the pool size still caps how many tasks
+ * run at once. The executor is returned uninitialized so the caller can add its own
+ * rejection and shutdown policy before calling {@code initialize()}.
+ */
+final class BoundedExecutors {
+
+    private BoundedExecutors() {
+    }
+
+    static ThreadPoolTaskExecutor boundedExecutor(String threadNamePrefix, int concurrency,
+                                                  int queueCapacity, boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,29 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EmailOutboxConfig {
+
+    @Value("${library.email.outbox.concurrency:4}")
+    private int concurrency;
+
+    @Value("${library.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // SMTP'ye aynı anda en fazla 'concurrency' kadar gönderim yapılır; kuyruk bir batch'i alacak kadardır
+    @Bean
+    public ThreadPoolTaskExecutor emailOutboxExecutor() {
+        ThreadPoolTaskExecutor executor = BoundedExecutors.boundedExecutor("email-outbox-", concurrency, batchSize, virtualThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -4,22 +4,36 @@ import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRegistrationNotification;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 import org.springframework.kafka.support.converter.StringJsonMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class KafkaConfig {
@@ -30,6 +44,33 @@ public class KafkaConfig {
     @Value("${kafka.consumer.group-id:notification-group}")
     private String groupId;
 
+    @Value("${kafka.topics.user-registration.partitions:6}")
+    private int userRegistrationPartitions;
+
+    @Value("${kafka.consumer.concurrency:3}")
+    private int consumerConcurrency;
+
+    @Value("${kafka.consumer.listener.batch-size:200}")
+    private int batchSize;
+
+    @Value("${kafka.consumer.listener.poll-timeout:5000}")
+    private long pollTimeout;
+
+    @Value("${library.notification.concurrency:8}")
+    private int notificationConcurrency;
+
+    @Value("${library.notification.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${kafka.topics.book-availability.partitions:3}")
+    private int bookAvailabilityPartitions;
+
+    @Value("${kafka.topics.book-availability.retention-ms:3600000}")
+    private long bookAvailabilityRetentionMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -37,9 +78,26 @@ public class KafkaConfig {
         return new KafkaAdmin(configs);
     }
 
+    // Tüketici sayısı bölüm sayısını aşamaz; mevcut konunun bölümleri gerekirse artırılır
     @Bean
     public NewTopic userRegistrationTopic() {
-        return new NewTopic("user-registration", 1, (short) 1);
+        return TopicBuilder.name("user-registration").partitions(userRegistrationPartitions).replicas(1).build();
+    }
+
+    // Kayıt, orijinal bölüm numarasıyla DLT'ye yazıldığı için DLT en az aynı sayıda bölüme sahiptir
+    @Bean
+    public NewTopic userRegistrationDeadLetterTopic() {
+        return TopicBuilder.name("user-registration.DLT").partitions(userRegistrationPartitions).replicas(1).build();
+    }
+
+    // Müsaitlik olayları yalnızca anlık yayın içindir; kısa süre saklanır
+    @Bean
+    public NewTopic bookAvailabilityTopic() {
+        return TopicBuilder.name("book-availability")
+                .partitions(bookAvailabilityPartitions)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(bookAvailabilityRetentionMs))
+                .build();
     }
 
     @Bean
@@ -62,15 +120,72 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    // Kaybolan bir olay bir sonraki değişiklikle telafi edilir; broker kapalıyken gönderim kısa süre bekler.
+    // Gönderim en geç 3 sn'de başarısız sayılır, böylece yerel yayına düşüş 10 sn'lik Kafka beklemesinden önce olur
+    @Bean
+    public ProducerFactory<String, BookAvailabilityEvent> availabilityProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 1000);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 2000);
+        // linger.ms + request.timeout.ms değerinden küçük olamaz
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 3000);
+        configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, BookAvailabilityEvent> availabilityKafkaTemplate() {
+        return new KafkaTemplate<>(availabilityProducerFactory());
+    }
+
+    // Çözümlenemeyen kayıtlar ham byte olarak, diğerleri JSON olarak DLT'ye yazılır
+    @Bean
+    public ProducerFactory<String, Object> deadLetterProducerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000);
+        Map<Class<?>, Serializer<?>> valueSerializers = new LinkedHashMap<>();
+        valueSerializers.put(byte[].class, new ByteArraySerializer());
+        valueSerializers.put(Object.class, new JsonSerializer<>());
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(),
+                new DelegatingByTypeSerializer(valueSerializers, true));
+    }
+
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+        return new DeadLetterPublishingRecoverer(new KafkaTemplate<>(deadLetterProducerFactory()));
+    }
+
+    // Bir partideki kayıtlar bu havuzda paralel işlenir; kuyruk dolarsa tüketici thread'i kendisi çalıştırır
+    @Bean
+    public ThreadPoolTaskExecutor notificationExecutor() {
+        // Sanal thread modunda da havuz boyutu SMTP'ye giden eşzamanlı gönderimi sınırlar
+        ThreadPoolTaskExecutor executor = BoundedExecutors.boundedExecutor("notification-", notificationConcurrency, batchSize, virtualThreads);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
     @Bean
     public ConsumerFactory<String, UserRegistrationNotification> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // Bozuk kayıt tüketiciyi durdurmaz; değer null gelir ve kayıt DLT'ye yazılır
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
         props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000); // 5 minutes
         props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000); // 30 seconds
         props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 10000); // 10 seconds
@@ -81,15 +196,59 @@ public class KafkaConfig {
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
+    // Grup yok: her düğüm tüm bölümleri kendisi atar, commit edilmiş offset olmadığından yalnızca yeni olayları alır
+    @Bean
+    public ConsumerFactory<String, BookAvailabilityEvent> availabilityConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, BookAvailabilityEvent.class.getName());
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "org.pehlivan.mert.librarymanagementsystem.dto");
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaConsumerFactory<>(props);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, BookAvailabilityEvent> availabilityListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, BookAvailabilityEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(availabilityConsumerFactory());
+        factory.setBatchListener(true);
+        // Offset hiç commit edilmez (grup olmadan commit mümkün de değildir)
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAssignmentCommitOption(ContainerProperties.AssignmentCommitOption.NEVER);
+        factory.getContainerProperties().setPollTimeout(pollTimeout);
+        // Yeniden deneme yok: başarısız parti loglanıp atlanır
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(0, 0)));
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("availability-consumer-"));
+        }
+        return factory;
+    }
+
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, UserRegistrationNotification> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, UserRegistrationNotification> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.setBatchListener(true);
+        factory.setConcurrency(consumerConcurrency);
+        // Offset'ler her parti için bir kez, dinleyici döndükten sonra commit edilir
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
         factory.getContainerProperties().setSyncCommits(true);
         factory.getContainerProperties().setConsumerStartTimeout(Duration.ofSeconds(30));
-        factory.getContainerProperties().setPollTimeout(5000); // 5 seconds
+        factory.getContainerProperties().setPollTimeout(pollTimeout);
+        // Dinleyici BatchListenerFailedException fırlatırsa öncesi commit edilir, parti o kayıttan itibaren
+        // yeniden denenir; denemeler bitince yalnızca o kayıt DLT'ye gönderilir
+        factory.setCommonErrorHandler(new DefaultErrorHandler(deadLetterPublishingRecoverer(),
+                new FixedBackOff(retryBackoffMs, 2)));
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("notification-consumer-"));
+        }
         return factory;
     }
 } 
\ No newline at end of file
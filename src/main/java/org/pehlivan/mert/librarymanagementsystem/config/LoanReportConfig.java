@@ -0,0 +1,28 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class LoanReportConfig {
+
+    @Value("${library.report.concurrency:1}")
+    private int concurrency;
+
+    @Value("${library.report.queue-capacity:10}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Rapor işleri uzun sürebilir; aynı anda az sayıda çalışır, kuyruk dolunca yeni iş reddedilir
+    @Bean
+    public ThreadPoolTaskExecutor loanReportExecutor() {
+        ThreadPoolTaskExecutor executor = BoundedExecutors.boundedExecutor("loan-report-", concurrency, queueCapacity, virtualThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,29 @@
+package org.pehlivan.mert.librarymanagementsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class MailSenderConfig {
+
+    @Value("${library.email.smtp.workers:2}")
+    private int workers;
+
+    // Her thread kuyruğu boşaltan uzun ömürlü bir SMTP göndericisidir; iş kuyruğu gerekmez.
+    // Sanal thread modunda da platform thread kalır: Jakarta Mail soket G/Ç'sini synchronized
+    // metodlar içinde yapar ve sanal thread'i taşıyıcısına sabitlerdi
+    @Bean
+    public ThreadPoolTaskExecutor mailSenderExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("mail-sender-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,24 +1,105 @@
 package org.pehlivan.mert.librarymanagementsystem.config;
 
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.redis.lettuce.cas.LettuceBasedProxyManager;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import org.pehlivan.mert.librarymanagementsystem.service.ratelimit.RateLimitGroup;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.util.StringUtils;
 
 import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Configuration
 public class RateLimitConfig {
 
+    @Value("${spring.data.redis.host:localhost}")
+    private String redisHost;
+
+    @Value("${spring.data.redis.port:6379}")
+    private int redisPort;
+
+    @Value("${spring.data.redis.password:}")
+    private String redisPassword;
+
+    @Value("${library.rate-limit.redis-timeout-ms:500}")
+    private long redisTimeoutMs;
+
+    @Value("${library.rate-limit.auth.capacity:10}")
+    private long authCapacity;
+
+    @Value("${library.rate-limit.auth.period:PT1M}")
+    private Duration authPeriod;
+
+    @Value("${library.rate-limit.write.capacity:50}")
+    private long writeCapacity;
+
+    @Value("${library.rate-limit.write.period:PT15M}")
+    private Duration writePeriod;
+
+    @Value("${library.rate-limit.read.capacity:100}")
+    private long readCapacity;
+
+    @Value("${library.rate-limit.read.period:PT15M}")
+    private Duration readPeriod;
+
     @Bean
-    public Bucket createNewBucket() {
-        // Her kullanıcı için 100 istek hakkı
-        // Her 15 dakikada 100 token yenilenir
-        Bandwidth limit = Bandwidth.simple(100, Duration.ofMinutes(15));
-        return Bucket4j.builder()
-                .addLimit(limit)
+    public Map<RateLimitGroup, BucketConfiguration> rateLimitBucketConfigurations() {
+        // Her istemci, her grup için ayrı bir bucket alır; kapasite periyot boyunca kademeli dolar
+        Map<RateLimitGroup, BucketConfiguration> configurations = new EnumMap<>(RateLimitGroup.class);
+        configurations.put(RateLimitGroup.AUTH, bucketConfiguration(authCapacity, authPeriod));
+        configurations.put(RateLimitGroup.WRITE, bucketConfiguration(writeCapacity, writePeriod));
+        configurations.put(RateLimitGroup.READ, bucketConfiguration(readCapacity, readPeriod));
+        return configurations;
+    }
+
+    // Redis bağlantısı ilk istekte kurulur; Redis yokken uygulama yine açılabilir
+    @Lazy
+    @Bean(destroyMethod = "shutdown")
+    public RedisClient rateLimitRedisClient() {
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(redisHost)
+                .withPort(redisPort)
+                .withTimeout(Duration.ofMillis(redisTimeoutMs));
+        if (StringUtils.hasText(redisPassword)) {
+            uri.withPassword(redisPassword.toCharArray());
+        }
+        RedisClient client = RedisClient.create(uri.build());
+        // Bağlantı koptuğunda komutlar beklemeden hata verir, istek yerel bucket'a düşer
+        client.setOptions(ClientOptions.builder()
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build());
+        return client;
+    }
+
+    @Lazy
+    @Bean
+    public ProxyManager<String> rateLimitProxyManager(RedisClient rateLimitRedisClient) {
+        StatefulRedisConnection<String, byte[]> connection =
+                rateLimitRedisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+        // Bucket tamamen dolduktan kısa süre sonra Redis anahtarı kendiliğinden silinir
+        return LettuceBasedProxyManager.builderFor(connection)
+                .withExpirationStrategy(
+                        ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofSeconds(10)))
+                .build();
+    }
+
+    private BucketConfiguration bucketConfiguration(long capacity, Duration period) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(capacity).refillGreedy(capacity, period).build())
                 .build();
     }
-} 
\ No newline at end of file
+}
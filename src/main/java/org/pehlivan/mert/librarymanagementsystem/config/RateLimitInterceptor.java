@@ -1,12 +1,16 @@
 package org.pehlivan.mert.librarymanagementsystem.config;
 
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.exception.rate.RateLimitExceededException;
+import org.pehlivan.mert.librarymanagementsystem.service.ratelimit.RateLimitGroup;
+import org.pehlivan.mert.librarymanagementsystem.service.ratelimit.RateLimitService;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
@@ -15,38 +19,49 @@ import org.springframework.web.servlet.HandlerInterceptor;
 @RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final Bucket bucket;
+    private final RateLimitService rateLimitService;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
-        String clientIp = request.getRemoteAddr();
+        String clientKey = resolveClientKey(request);
+        RateLimitGroup group = RateLimitGroup.resolve(request);
         String requestURI = request.getRequestURI();
-        
-        log.info("Rate limit check for IP: {} and URI: {}", clientIp, requestURI);
-        
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
-        
+
+        log.debug("Rate limit check for client: {}, group: {} and URI: {}", clientKey, group, requestURI);
+
+        ConsumptionProbe probe = rateLimitService.tryConsume(clientKey, group);
+
         if (probe.isConsumed()) {
             response.addHeader("X-Rate-Limit-Remaining", String.valueOf(probe.getRemainingTokens()));
             response.addHeader("X-Rate-Limit-Reset", String.valueOf(probe.getNanosToWaitForReset() / 1_000_000_000));
-            
-            log.info("Request allowed. Remaining tokens: {}, Reset in: {} seconds", 
-                    probe.getRemainingTokens(), 
+
+            log.debug("Request allowed. Remaining tokens: {}, Reset in: {} seconds",
+                    probe.getRemainingTokens(),
                     probe.getNanosToWaitForReset() / 1_000_000_000);
-            
+
             return true;
         }
-        
+
         long waitForRefill = probe.getNanosToWaitForRefill() / 1_000_000_000;
         response.addHeader("X-Rate-Limit-Retry-After-Seconds", String.valueOf(waitForRefill));
-        
-        log.warn("Rate limit exceeded for IP: {} and URI: {}. Try again in {} seconds", 
-                clientIp, requestURI, waitForRefill);
-        
+
+        log.warn("Rate limit exceeded for client: {}, group: {} and URI: {}. Try again in {} seconds",
+                clientKey, group, requestURI, waitForRefill);
+
         throw new RateLimitExceededException(
                 "Rate limit exceeded. Please try again in " + waitForRefill + " seconds.",
                 waitForRefill,
                 (int) probe.getRemainingTokens()
         );
     }
-} 
\ No newline at end of file
+
+    // Oturum açmış kullanıcı token subject'i ile, diğerleri IP adresi ile sınırlanır
+    private String resolveClientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
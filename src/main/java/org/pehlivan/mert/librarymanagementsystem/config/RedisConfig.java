@@ -2,25 +2,40 @@ package org.pehlivan.mert.librarymanagementsystem.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.CacheInvalidationPublisher;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.CacheLoadCoordinator;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.TwoLevelCache;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.TwoLevelCacheManager;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.CacheValueCodec;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.codec.CompactCacheSerializer;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RequiredArgsConstructor
 @Configuration
@@ -57,42 +72,132 @@ public class RedisConfig {
         return template;
     }
 
+    // Cache başına TTL; Redis (L2) ve yerel Caffeine (L1) katmanı aynı değerleri kullanır
+    static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(15);
+    static final Map<String, Duration> CACHE_TTLS = Map.ofEntries(
+            // Book service caches - different TTLs
+            Map.entry("books", Duration.ofHours(1)), // 1 saat
+            Map.entry("book", Duration.ofMinutes(30)), // 30 dakika
+            Map.entry("bookSearch", Duration.ofMinutes(10)), // 10 dakika
+
+            // User service caches - different TTLs
+            Map.entry("users", Duration.ofHours(2)), // 2 saat
+            Map.entry("user", Duration.ofHours(1)), // 1 saat
+            Map.entry("userSearch", Duration.ofMinutes(15)), // 15 dakika
+
+            // Author service caches - different TTLs
+            Map.entry("authors", Duration.ofHours(4)), // 4 saat
+            Map.entry("author", Duration.ofHours(2)), // 2 saat
+            Map.entry("authorSearch", Duration.ofMinutes(20)), // 20 dakika
+
+            // Loan service caches - different TTLs
+            Map.entry("loans", Duration.ofMinutes(30)), // 30 dakika
+            Map.entry("loan", Duration.ofMinutes(15)), // 15 dakika
+            Map.entry("overdueLoans", Duration.ofMinutes(5)) // 5 dakika
+    );
+
+    @Value("${library.cache.local.max-entries:10000}")
+    private long localCacheMaxEntries;
+
+    @Value("${library.cache.serialization:binary}")
+    private String cacheSerialization;
+
+    @Value("${library.cache.compression-threshold-bytes:1024}")
+    private int cacheCompressionThreshold;
+
     @Bean
-    public CacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory,
+                                               List<CacheValueCodec<?>> cacheValueCodecs) {
         // Default cache configuration (15 minutes TTL)
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(15))
+                .entryTtl(DEFAULT_CACHE_TTL)
                 .disableCachingNullValues()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer(cacheValueCodecs)));
 
         // Create cache configurations for different services
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-
-        // Book service caches - different TTLs
-        cacheConfigurations.put("books", defaultConfig.entryTtl(Duration.ofHours(1))); // 1 saat
-        cacheConfigurations.put("book", defaultConfig.entryTtl(Duration.ofMinutes(30))); // 30 dakika
-        cacheConfigurations.put("bookSearch", defaultConfig.entryTtl(Duration.ofMinutes(10))); // 10 dakika
-
-        // User service caches - different TTLs
-        cacheConfigurations.put("users", defaultConfig.entryTtl(Duration.ofHours(2))); // 2 saat
-        cacheConfigurations.put("user", defaultConfig.entryTtl(Duration.ofHours(1))); // 1 saat
-        cacheConfigurations.put("userSearch", defaultConfig.entryTtl(Duration.ofMinutes(15))); // 15 dakika
-
-        // Author service caches - different TTLs
-        cacheConfigurations.put("authors", defaultConfig.entryTtl(Duration.ofHours(4))); // 4 saat
-        cacheConfigurations.put("author", defaultConfig.entryTtl(Duration.ofHours(2))); // 2 saat
-        cacheConfigurations.put("authorSearch", defaultConfig.entryTtl(Duration.ofMinutes(20))); // 20 dakika
-
-        // Loan service caches - different TTLs
-        cacheConfigurations.put("loans", defaultConfig.entryTtl(Duration.ofMinutes(30))); // 30 dakika
-        cacheConfigurations.put("loan", defaultConfig.entryTtl(Duration.ofMinutes(15))); // 15 dakika
-        cacheConfigurations.put("overdueLoans", defaultConfig.entryTtl(Duration.ofMinutes(5))); // 5 dakika
+        CACHE_TTLS.forEach((cacheName, ttl) -> cacheConfigurations.put(cacheName, defaultConfig.entryTtl(ttl)));
 
         return RedisCacheManager.RedisCacheManagerBuilder
                 .fromConnectionFactory(redisConnectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
                 .build();
     }
+
+    // "binary": kayıtlı DTO'lar sıkıştırılabilir ikili biçimde, diğer değerler JSON olarak yazılır
+    private RedisSerializer<Object> cacheValueSerializer(List<CacheValueCodec<?>> cacheValueCodecs) {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        if ("json".equalsIgnoreCase(cacheSerialization)) {
+            return json;
+        }
+        return new CompactCacheSerializer(cacheValueCodecs, json, cacheCompressionThreshold);
+    }
+
+    /**
+     * Cache manager used by the services: a local Caffeine L1 per cache name in front of
+     * the Redis L2 above. Writes are announced over Redis pub/sub so other nodes drop
+     * their local copy.
+     */
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             RedisTemplate<String, Object> redisTemplate,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             CacheLoadCoordinator cacheLoadCoordinator) {
+        return new TwoLevelCacheManager(redisCacheManager,
+                cacheName -> CACHE_TTLS.getOrDefault(cacheName, DEFAULT_CACHE_TTL),
+                (cacheName, key) -> remainingTtl(redisCacheManager, redisTemplate, cacheName, key),
+                localCacheMaxEntries,
+                cacheInvalidationPublisher,
+                cacheLoadCoordinator);
+    }
+
+    // Redis anahtarının kalan süresi (PTTL); anahtar yoksa veya okunamazsa null döner
+    private static Duration remainingTtl(RedisCacheManager redisCacheManager, RedisTemplate<String, Object> redisTemplate,
+                                         String cacheName, String key) {
+        if (!(redisCacheManager.getCache(cacheName) instanceof RedisCache redisCache)) {
+            return null;
+        }
+        try {
+            Long millis = redisTemplate.getExpire(
+                    redisCache.getCacheConfiguration().getKeyPrefixFor(cacheName) + key, TimeUnit.MILLISECONDS);
+            return millis == null || millis <= 0 ? null : Duration.ofMillis(millis);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(RedisCacheManager redisCacheManager, TwoLevelCacheManager cacheManager) {
+        // Cache başına hit oranı: hits / (hits + misses); Redis yalnızca yerel kaçırmaları görür
+        return registry -> redisCacheManager.getCacheNames().forEach(cacheName -> {
+            Gauge.builder("library.cache.hit.ratio", redisCacheManager, manager -> hitRatio(manager, cacheName))
+                    .tag("cache", cacheName)
+                    .description("Ratio of cache hits to total cache reads")
+                    .register(registry);
+            Gauge.builder("library.cache.local.hit.ratio", cacheManager, manager -> localHitRatio(manager, cacheName))
+                    .tag("cache", cacheName)
+                    .description("Ratio of local (L1) cache hits to total cache reads")
+                    .register(registry);
+        });
+    }
+
+    private static double localHitRatio(CacheManager cacheManager, String cacheName) {
+        if (!(cacheManager.getCache(cacheName) instanceof TwoLevelCache twoLevelCache)) {
+            return Double.NaN;
+        }
+        return twoLevelCache.getLocalCache().stats().hitRate();
+    }
+
+    private static double hitRatio(CacheManager cacheManager, String cacheName) {
+        if (!(cacheManager.getCache(cacheName) instanceof RedisCache redisCache)) {
+            return Double.NaN;
+        }
+        CacheStatistics statistics = redisCache.getStatistics();
+        long reads = statistics.getHits() + statistics.getMisses();
+        return reads == 0 ? 0.0 : (double) statistics.getHits() / reads;
+    }
 }
\ No newline at end of file
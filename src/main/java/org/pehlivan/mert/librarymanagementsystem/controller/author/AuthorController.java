@@ -13,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.service.author.AuthorService;
 import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -56,6 +57,21 @@ public class AuthorController {
         return ResponseEntity.ok(authorService.getAllAuthors());
     }
 
+    @Operation(summary = "List authors by cursor", description = "Pages through authors by id using an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Authors retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<AuthorResponseDto>> getAuthorsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Getting authors by cursor: {}", cursor);
+        return ResponseEntity.ok(authorService.getAuthorsByCursor(cursor, size, includeTotal));
+    }
+
     @Operation(summary = "Get author by ID", description = "Retrieves a specific author by their ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Author retrieved successfully",
@@ -11,14 +11,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
 import org.pehlivan.mert.librarymanagementsystem.service.book.BookAvailabilityService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/books/availability")
@@ -29,8 +34,12 @@ public class BookAvailabilityController {
 
     private final BookAvailabilityService bookAvailabilityService;
 
+    @Value("${library.availability.heartbeat-interval:PT15S}")
+    private Duration heartbeatInterval;
+
     @Operation(summary = "Stream all book availability changes", 
-              description = "Get real-time updates for all book availability changes")
+              description = "Get real-time updates for all book availability changes. Clients reconnecting with "
+                      + "Last-Event-ID receive the events they missed, or a snapshot when those are no longer available")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stream started successfully",
                     content = @Content(schema = @Schema(implementation = BookAvailabilityEvent.class))),
@@ -38,13 +47,16 @@ public class BookAvailabilityController {
     })
     @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasAnyRole('LIBRARIAN', 'READER')")
-    public Flux<BookAvailabilityEvent> streamAllBookAvailability() {
-        log.info("Starting stream for all book availability changes");
-        return bookAvailabilityService.getAvailabilityStream();
+    public Flux<ServerSentEvent<BookAvailabilityEvent>> streamAllBookAvailability(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Starting stream for all book availability changes (Last-Event-ID: {})", lastEventId);
+        return withHeartbeats(lastEventId == null
+                ? bookAvailabilityService.getAvailabilityStream()
+                : bookAvailabilityService.resumeAvailabilityStream(lastEventId));
     }
 
     @Operation(summary = "Stream book availability changes for a specific book", 
-              description = "Get real-time updates for a specific book's availability")
+              description = "Get real-time updates for a specific book's availability, resuming after Last-Event-ID if given")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Stream started successfully",
                     content = @Content(schema = @Schema(implementation = BookAvailabilityEvent.class))),
@@ -53,8 +65,21 @@ public class BookAvailabilityController {
     })
     @GetMapping(value = "/{bookId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasAnyRole('LIBRARIAN', 'READER')")
-    public Flux<BookAvailabilityEvent> streamBookAvailability(@PathVariable Long bookId) {
-        log.info("Starting stream for book availability changes for book: {}", bookId);
-        return bookAvailabilityService.getAvailabilityStreamForBook(bookId);
+    public Flux<ServerSentEvent<BookAvailabilityEvent>> streamBookAvailability(
+            @PathVariable Long bookId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Starting stream for book availability changes for book: {} (Last-Event-ID: {})", bookId, lastEventId);
+        return withHeartbeats(lastEventId == null
+                ? bookAvailabilityService.getAvailabilityStreamForBook(bookId)
+                : bookAvailabilityService.resumeAvailabilityStreamForBook(bookId, lastEventId));
+    }
+
+    // Sessiz akışlarda proxy'lerin bağlantıyı kapatmaması ve kopan istemcilerin fark edilmesi için yorum satırı gönderilir
+    private Flux<ServerSentEvent<BookAvailabilityEvent>> withHeartbeats(Flux<BookAvailabilityEvent> events) {
+        Flux<ServerSentEvent<BookAvailabilityEvent>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<BookAvailabilityEvent>builder().comment("heartbeat").build());
+        return events
+                .map(event -> ServerSentEvent.builder(event).id(bookAvailabilityService.eventId(event)).build())
+                .publish(shared -> Flux.merge(shared, heartbeats.takeUntilOther(shared.ignoreElements())));
     }
 } 
\ No newline at end of file
@@ -10,18 +10,24 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportJobResponse;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportFormat;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportJobService;
 import org.pehlivan.mert.librarymanagementsystem.service.book.BookService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -34,6 +40,7 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportJobService bookImportJobService;
 
     @Operation(summary = "Create a new book", description = "Creates a new book in the library")
     @ApiResponses(value = {
@@ -49,6 +56,38 @@ public class BookController {
         return new ResponseEntity<>(bookService.createBook(bookRequestDto), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Start bulk book import",
+            description = "Uploads a CSV or JSON catalogue and imports it in the background (Librarian only). " +
+                    "CSV needs a header row with the book request fields; JSON may be an array or one object per line. " +
+                    "Missing authors are created.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import job accepted",
+                    content = @Content(schema = @Schema(implementation = BookImportJobResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "413", description = "File too large")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<BookImportJobResponse> importBooks(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) BookImportFormat format) {
+        log.info("Starting book import from {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bookImportJobService.submit(file, format));
+    }
+
+    @Operation(summary = "Get bulk book import job",
+            description = "Returns the progress and row errors of a book import job (Librarian only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import job retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = BookImportJobResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<BookImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(bookImportJobService.getJob(jobId));
+    }
+
     @Operation(summary = "Get all books", description = "Retrieves all books in the library")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
@@ -122,4 +161,21 @@ public class BookController {
         }
         return ResponseEntity.ok(bookService.searchBooks(criteria, pageable));
     }
+
+    @Operation(summary = "List books by cursor",
+            description = "Filters books like search and pages through them by id using an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Books retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageResponse<BookResponseDto>> getBooksByCursor(
+            @Valid BookSearchCriteriaDTO criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Received cursor request with criteria: {}, cursor: {}", criteria, cursor);
+        return ResponseEntity.ok(bookService.getBooksByCursor(criteria, cursor, size, includeTotal));
+    }
 }
\ No newline at end of file
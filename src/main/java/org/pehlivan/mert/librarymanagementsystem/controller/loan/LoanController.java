@@ -12,19 +12,36 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.service.loan.LoanService;
 import org.pehlivan.mert.librarymanagementsystem.service.user.UserService;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReturnBatchRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.UserLoanRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
+import org.pehlivan.mert.librarymanagementsystem.dto.report.LoanReportJobResponse;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportFormat;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportJobService;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportService;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportSummary;
 import org.pehlivan.mert.librarymanagementsystem.exception.user.UserNotFoundException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 
 @Slf4j
@@ -37,6 +54,8 @@ public class LoanController {
 
     private final LoanService loanService;
     private final UserService userService;
+    private final LoanReportService loanReportService;
+    private final LoanReportJobService loanReportJobService;
 
     @Operation(summary = "Borrow a book", description = "Creates a new loan for a book (Librarian only)")
     @ApiResponses(value = {
@@ -98,6 +117,36 @@ public class LoanController {
         return ResponseEntity.ok(loanService.returnBook(id));
     }
 
+    @Operation(summary = "Borrow books in batch",
+            description = "Creates up to 50 loans in one transaction and reports the result of each item (Librarian only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see each item's result",
+                    content = @Content(schema = @Schema(implementation = LoanBatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<LoanBatchResponseDto> borrowBooks(@Valid @RequestBody LoanBatchRequestDto loanBatchRequestDto) {
+        log.info("Librarian borrowing {} books in batch", loanBatchRequestDto.getLoans().size());
+        return ResponseEntity.ok(loanService.borrowBooks(loanBatchRequestDto.getLoans()));
+    }
+
+    @Operation(summary = "Return books in batch",
+            description = "Returns up to 50 loans in one transaction and reports the result of each item (Librarian only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed; see each item's result",
+                    content = @Content(schema = @Schema(implementation = LoanBatchResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/batch/return")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<LoanBatchResponseDto> returnBooks(@Valid @RequestBody LoanReturnBatchRequestDto loanReturnBatchRequestDto) {
+        log.info("Returning {} loans in batch", loanReturnBatchRequestDto.getLoanIds().size());
+        return ResponseEntity.ok(loanService.returnBooks(loanReturnBatchRequestDto.getLoanIds()));
+    }
+
     @Operation(summary = "Get loan history by user", description = "Retrieves loan history for a specific user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Loan history retrieved successfully",
@@ -126,6 +175,44 @@ public class LoanController {
         return ResponseEntity.ok(loanService.getAllLoanHistory());
     }
 
+    @Operation(summary = "List loan history by cursor",
+            description = "Pages through all loans, newest first, using an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Loan history retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/history/cursor")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<CursorPageResponse<LoanResponseDto>> getAllLoanHistoryByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Getting loan history by cursor: {}", cursor);
+        return ResponseEntity.ok(loanService.getAllLoanHistoryByCursor(cursor, size, includeTotal));
+    }
+
+    @Operation(summary = "List loan history of a user by cursor",
+            description = "Pages through a user's loans, newest first, using an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Loan history retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/history/user/{userId}/cursor")
+    @PreAuthorize("hasAnyRole('LIBRARIAN', 'READER')")
+    public ResponseEntity<CursorPageResponse<LoanResponseDto>> getLoanHistoryByUserCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Getting loan history for user: {} by cursor: {}", userId, cursor);
+        return ResponseEntity.ok(loanService.getLoanHistoryByUserCursor(userId, cursor, size, includeTotal));
+    }
+
     @Operation(summary = "Get late loans", description = "Retrieves all late loans")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Late loans retrieved successfully",
@@ -154,17 +241,78 @@ public class LoanController {
         return ResponseEntity.ok(loanService.getLoanById(id));
     }
 
-    @Operation(summary = "Generate loan report", description = "Generates and saves a detailed report of all loans to a text file")
+    @Operation(summary = "Download loan report",
+            description = "Streams a report of all loans as plain text or CSV without building it in memory")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Loan report generated and saved successfully"),
+            @ApiResponse(responseCode = "200", description = "Loan report streamed successfully"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
-            @ApiResponse(responseCode = "500", description = "Error generating or saving report")
+            @ApiResponse(responseCode = "404", description = "No loans found")
     })
     @GetMapping("/report")
     @PreAuthorize("hasRole('LIBRARIAN')")
-    public ResponseEntity<String> generateLoanReport() {
-        log.info("Generating loan report");
-        String result = loanService.generateLoanReport();
-        return ResponseEntity.ok(result);
+    public ResponseEntity<StreamingResponseBody> generateLoanReport(
+            @RequestParam(defaultValue = "TEXT") LoanReportFormat format) {
+        log.info("Streaming loan report as {}", format);
+        LoanReportSummary summary = loanReportService.summarize(LocalDate.now());
+        StreamingResponseBody body = out -> loanReportService.writeReport(summary, format, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(format.fileName(summary.getDate()))
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    @Operation(summary = "Start loan report job",
+            description = "Generates the loan report in the background and returns a handle to poll and download it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Report job accepted",
+                    content = @Content(schema = @Schema(implementation = LoanReportJobResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PostMapping("/report/jobs")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<LoanReportJobResponse> startLoanReportJob(
+            @RequestParam(defaultValue = "TEXT") LoanReportFormat format) {
+        log.info("Starting loan report job as {}", format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(loanReportJobService.submit(format));
+    }
+
+    @Operation(summary = "Get loan report job", description = "Returns the status of a background report job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Report job retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = LoanReportJobResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Report job not found")
+    })
+    @GetMapping("/report/jobs/{jobId}")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<LoanReportJobResponse> getLoanReportJob(@PathVariable String jobId) {
+        log.info("Getting loan report job: {}", jobId);
+        return ResponseEntity.ok(loanReportJobService.getJob(jobId));
+    }
+
+    @Operation(summary = "Download loan report job result", description = "Streams the file of a completed report job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Loan report streamed successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Report job not found"),
+            @ApiResponse(responseCode = "409", description = "Report job has not completed")
+    })
+    @GetMapping("/report/jobs/{jobId}/download")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<StreamingResponseBody> downloadLoanReport(@PathVariable String jobId) throws IOException {
+        log.info("Downloading loan report job: {}", jobId);
+        LoanReportJobResponse job = loanReportJobService.getJob(jobId);
+        Path file = loanReportJobService.getReportFile(jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(job.getFormat().fileName(job.getCreatedAt().toLocalDate()))
+                        .build()
+                        .toString())
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .contentLength(Files.size(file))
+                .body(out -> Files.copy(file, out));
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.service.user.UserService;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserUpdateRequestDto;
@@ -78,6 +79,23 @@ public class UserController {
         }
     }
 
+    @Operation(summary = "List users by cursor", description = "Pages through users by id using an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = CursorPageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('LIBRARIAN')")
+    public ResponseEntity<CursorPageResponse<UserResponseDto>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("Retrieving users by cursor: {}", cursor);
+        return ResponseEntity.ok(userService.getUsersByCursor(cursor, size, includeTotal));
+    }
+
     @Operation(summary = "Get user by ID", description = "Retrieves a specific user by their ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User retrieved successfully",
@@ -16,5 +16,6 @@ public class BookAvailabilityEvent {
     private String bookTitle;
     private boolean available;
     private LocalDateTime timestamp;
-    private String eventType; // BORROWED, RETURNED, UPDATED
+    private String eventType; // BORROWED, RETURNED, UPDATED, SNAPSHOT
+    private Long sequence; // Düğüm içinde artan sıra numarası, SSE id'sinin parçası
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportFormat;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookImportJobResponse {
+    private String id;
+    private BookImportFormat format;
+    private BookImportJobStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    // En fazla library.book-import.max-errors satır hatası tutulur; failedRows toplam sayıdır
+    private List<BookImportRowError> errors;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.book;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookImportRowError {
+    private long row;
+    private String isbn;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanNotificationPayload {
+    private String username;
+    private String bookTitle;
+    private LocalDate borrowedDate;
+    private LocalDate dueDate;
+}
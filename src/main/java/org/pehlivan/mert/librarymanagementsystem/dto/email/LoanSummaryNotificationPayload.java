@@ -0,0 +1,28 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSummaryNotificationPayload {
+    private String username;
+    private List<LoanedBook> loanedBooks;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoanedBook {
+        private String title;
+        private LocalDate borrowedDate;
+        private LocalDate dueDate;
+    }
+}
@@ -0,0 +1,30 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.email;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueNotificationPayload {
+    private String username;
+    private List<OverdueBook> overdueBooks;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OverdueBook {
+        private String title;
+        private LocalDate borrowedDate;
+        private LocalDate dueDate;
+        private long overdueDays;
+        private double penaltyAmount;
+    }
+}
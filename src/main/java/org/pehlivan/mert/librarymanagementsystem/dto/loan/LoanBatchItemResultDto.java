@@ -0,0 +1,45 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Outcome of one item of a batch borrow or return, in request order. A failed item
+ * carries the HTTP status and message the single-item endpoint would have returned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanBatchItemResultDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int index;
+    private boolean success;
+    private LoanResponseDto loan;
+    private Integer errorStatus;
+    private String error;
+
+    public static LoanBatchItemResultDto success(int index, LoanResponseDto loan) {
+        return LoanBatchItemResultDto.builder()
+                .index(index)
+                .success(true)
+                .loan(loan)
+                .build();
+    }
+
+    public static LoanBatchItemResultDto failure(int index, int errorStatus, String error) {
+        return LoanBatchItemResultDto.builder()
+                .index(index)
+                .success(false)
+                .errorStatus(errorStatus)
+                .error(error)
+                .build();
+    }
+}
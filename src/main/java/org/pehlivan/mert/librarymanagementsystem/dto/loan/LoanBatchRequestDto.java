@@ -0,0 +1,28 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.loan;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanBatchRequestDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_ITEMS = 50;
+
+    @NotEmpty(message = "Loans cannot be empty")
+    @Size(max = MAX_ITEMS, message = "A batch can contain at most " + MAX_ITEMS + " loans")
+    private List<@Valid LoanRequestDto> loans;
+}
@@ -0,0 +1,32 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanBatchResponseDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int succeeded;
+    private int failed;
+    private List<LoanBatchItemResultDto> results;
+
+    public static LoanBatchResponseDto of(List<LoanBatchItemResultDto> results) {
+        int succeeded = (int) results.stream().filter(LoanBatchItemResultDto::isSuccess).count();
+        return LoanBatchResponseDto.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReportRow {
+    private Long loanId;
+    private String bookTitle;
+    private String username;
+    private LocalDate borrowedDate;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+    private LoanStatus status;
+    private Double penaltyAmount;
+}
@@ -0,0 +1,26 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.loan;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReturnBatchRequestDto implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty(message = "Loan IDs cannot be empty")
+    @Size(max = LoanBatchRequestDto.MAX_ITEMS, message = "A batch can contain at most " + LoanBatchRequestDto.MAX_ITEMS + " loans")
+    private List<@NotNull(message = "Loan ID is required") Long> loanIds;
+}
@@ -0,0 +1,22 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueLoanSummary {
+    private Long loanId;
+    private Long userId;
+    private String email;
+    private String username;
+    private String bookTitle;
+    private LocalDate borrowedDate;
+    private LocalDate dueDate;
+}
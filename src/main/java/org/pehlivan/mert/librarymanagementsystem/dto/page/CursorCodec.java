@@ -0,0 +1,39 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.page;
+
+import org.pehlivan.mert.librarymanagementsystem.exception.page.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the last seen sort key into an opaque, URL-safe cursor. The version prefix lets
+ * the key format change later without misreading cursors that clients still hold.
+ */
+public final class CursorCodec {
+
+    private static final String PREFIX = "v1:";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Cursor yoksa ilk sayfa istenmiştir
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
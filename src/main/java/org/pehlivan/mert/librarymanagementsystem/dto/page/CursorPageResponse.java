@@ -0,0 +1,53 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.page;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is passed back as the
+ * {@code cursor} parameter to fetch the following page; it is {@code null} on the last
+ * page. {@code totalElements} is only filled when the client asked for it.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+
+    // Geçersiz boyutlar sessizce 1..MAX_PAGE_SIZE aralığına çekilir
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    public static <E, T> CursorPageResponse<T> of(Slice<E> slice, Function<E, Long> idExtractor,
+                                                  Function<E, T> mapper, Long totalElements) {
+        List<E> rows = slice.getContent();
+        String nextCursor = slice.hasNext() && !rows.isEmpty()
+                ? CursorCodec.encode(idExtractor.apply(rows.get(rows.size() - 1)))
+                : null;
+        return CursorPageResponse.<T>builder()
+                .content(rows.stream().map(mapper).collect(Collectors.toList()))
+                .size(rows.size())
+                .hasNext(slice.hasNext())
+                .nextCursor(nextCursor)
+                .totalElements(totalElements)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.report;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportFormat;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportJobStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoanReportJobResponse {
+    private String id;
+    private LoanReportFormat format;
+    private LoanReportJobStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private String downloadUrl;
+    private String error;
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorAlreadyExistException;
 import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookAlreadyExistsException;
+import org.pehlivan.mert.librarymanagementsystem.exception.book.BookImportJobNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotAvailableException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookStockException;
@@ -11,7 +12,10 @@ import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanLimitExceede
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanAlreadyReturnedException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.UserLoanHistoryNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.exception.page.InvalidCursorException;
 import org.pehlivan.mert.librarymanagementsystem.exception.rate.RateLimitExceededException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportJobNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportNotReadyException;
 import org.pehlivan.mert.librarymanagementsystem.exception.user.UnauthorizedException;
 import org.pehlivan.mert.librarymanagementsystem.exception.user.UnauthorizedRoleException;
 import org.pehlivan.mert.librarymanagementsystem.exception.user.UserAlreadyExistsException;
@@ -26,6 +30,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 
 import java.time.LocalDateTime;
@@ -194,6 +199,29 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(BookImportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleBookImportJobNotFoundException(BookImportJobNotFoundException ex) {
+        log.error("Book import job not found: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    // Aktarım dosyası spring.servlet.multipart.max-file-size sınırını aşarsa
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponse> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        log.error("Upload too large: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.PAYLOAD_TOO_LARGE.value(),
+            "Uploaded file exceeds the maximum allowed size",
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     // Loan Exceptions
     @ExceptionHandler(LoanNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleLoanNotFoundException(LoanNotFoundException ex) {
@@ -263,6 +291,40 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        log.error("Invalid cursor: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Report Exceptions
+    @ExceptionHandler(ReportJobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReportJobNotFoundException(ReportJobNotFoundException ex) {
+        log.error("Report job not found: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ReportNotReadyException.class)
+    public ResponseEntity<ErrorResponse> handleReportNotReadyException(ReportNotReadyException ex) {
+        log.error("Report not ready: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException ex) {
         log.error("Rate limit exceeded: {}", ex.getMessage());
@@ -0,0 +1,11 @@
+package org.pehlivan.mert.librarymanagementsystem.exception.book;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class BookImportJobNotFoundException extends RuntimeException {
+    public BookImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package org.pehlivan.mert.librarymanagementsystem.exception.report;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ReportJobNotFoundException extends RuntimeException {
+    public ReportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package org.pehlivan.mert.librarymanagementsystem.exception.report;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ReportNotReadyException extends RuntimeException {
+    public ReportNotReadyException(String message) {
+        super(message);
+    }
+}
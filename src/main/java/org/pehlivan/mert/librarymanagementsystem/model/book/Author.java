@@ -24,7 +24,8 @@ import java.util.List;
 public class Author {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_id_seq")
+    @SequenceGenerator(name = "authors_id_seq", sequenceName = "authors_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
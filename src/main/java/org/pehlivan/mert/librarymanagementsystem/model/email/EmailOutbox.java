@@ -0,0 +1,60 @@
+package org.pehlivan.mert.librarymanagementsystem.model.email;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@ToString(exclude = "payload")
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_id_seq")
+    @SequenceGenerator(name = "email_outbox_id_seq", sequenceName = "email_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private EmailType type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    // Şablon değişkenleri JSON olarak saklanır
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EmailOutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package org.pehlivan.mert.librarymanagementsystem.model.email;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
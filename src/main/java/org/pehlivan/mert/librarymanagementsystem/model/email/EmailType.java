@@ -0,0 +1,7 @@
+package org.pehlivan.mert.librarymanagementsystem.model.email;
+
+public enum EmailType {
+    LOAN_NOTIFICATION,
+    LOAN_SUMMARY_NOTIFICATION,
+    OVERDUE_NOTIFICATION
+}
@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode(exclude = {"book", "user"})
 public class Loan {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loans_id_seq")
+    @SequenceGenerator(name = "loans_id_seq", sequenceName = "loans_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
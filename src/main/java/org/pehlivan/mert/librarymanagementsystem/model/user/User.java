@@ -24,7 +24,8 @@ import java.util.ArrayList;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Email(message = "Email should be valid")
@@ -49,6 +50,11 @@ public class User {
     @Enumerated(EnumType.STRING)
     private List<Role> roles;
 
+    // Şifre veya rol değişiminde artırılır; eski token'lar bu sayede geçersiz olur
+    @Builder.Default
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnoreProperties("user")
     private List<Loan> loans = new ArrayList<>();
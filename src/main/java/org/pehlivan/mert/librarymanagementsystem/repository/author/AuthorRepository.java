@@ -1,13 +1,23 @@
 package org.pehlivan.mert.librarymanagementsystem.repository.author;
 
 import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
     Optional<Author> findByNameAndSurname(String name, String surname);
     boolean existsByNameAndSurname(String name, String surname);
+
+    // Toplu aktarımda bir parçanın yazarları tek sorguyla çözülür; ad eşleşmesi bellekte yapılır
+    List<Author> findBySurnameIn(Collection<String> surnames);
+
+    // Keyset sayfalama: Slice döndüğü için count sorgusu çalışmaz
+    Slice<Author> findByIdGreaterThan(Long id, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set-based duplicate checks for the bulk catalogue import: one query answers a whole chunk
+ * instead of one {@code exists} query per book.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookImportRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT isbn FROM books WHERE isbn IN (:isbns)",
+                new MapSqlParameterSource("isbns", isbns), String.class));
+    }
+
+    // Aynı yazarın aynı başlıklı kitabı tekil tutulur; anahtar "authorId:title" biçimindedir
+    public Set<String> findExistingTitles(Collection<Long> authorIds, Collection<String> titles) {
+        if (authorIds.isEmpty() || titles.isEmpty()) {
+            return Set.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("authorIds", authorIds)
+                .addValue("titles", titles);
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query("SELECT author_id, title FROM books WHERE author_id IN (:authorIds) AND title IN (:titles)",
+                params, rs -> {
+                    existing.add(titleKey(rs.getLong("author_id"), rs.getString("title")));
+                });
+        return existing;
+    }
+
+    public static String titleKey(Long authorId, String title) {
+        return authorId + ":" + title;
+    }
+}
@@ -5,10 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,9 +19,58 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
     @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.id = :id")
     Book findByIdWithAuthor(@Param("id") Long id);
 
+    @Query("SELECT b FROM Book b LEFT JOIN FETCH b.author WHERE b.id IN :ids")
+    List<Book> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
     Optional<Book> findByIsbn(String isbn);
 
     boolean existsByIsbn(String isbn);
 
     boolean existsByTitleAndAuthor_Id(String title, Long authorId);
+
+    // Stok kontrolü ve düşümü tek bir koşullu UPDATE ile yapılır; 0 dönerse stok yoktur.
+    // Bekleyen değişiklikler önce yazılır; UPDATE yönetilen kitabı güncellemez, okuyan onu yenilemelidir
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCount = b.availableCount - 1, " +
+            "b.status = CASE WHEN b.availableCount = 1 " +
+            "THEN org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus.UNAVAILABLE " +
+            "ELSE org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus.AVAILABLE END, " +
+            "b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.availableCount > 0")
+    int decrementAvailableCount(@Param("id") Long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCount = b.availableCount + 1, " +
+            "b.status = org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus.AVAILABLE, " +
+            "b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.availableCount < b.stock")
+    int incrementAvailableCount(@Param("id") Long id);
+
+    // Toplu ödünç/iade: aynı kitabın kopyaları tek koşullu UPDATE ile düşülür/eklenir
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCount = b.availableCount - :count, " +
+            "b.status = CASE WHEN b.availableCount = :count " +
+            "THEN org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus.UNAVAILABLE " +
+            "ELSE org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus.AVAILABLE END, " +
+            "b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.availableCount >= :count")
+    int decrementAvailableCountBy(@Param("id") Long id, @Param("count") int count);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCount = b.availableCount + :count, " +
+            "b.status = org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus.AVAILABLE, " +
+            "b.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE b.id = :id AND b.availableCount + :count <= b.stock")
+    int incrementAvailableCountBy(@Param("id") Long id, @Param("count") int count);
+
+    // Entity yüklenmeden güncel stok okunur; kitap yoksa null döner
+    @Query("SELECT b.availableCount FROM Book b WHERE b.id = :id")
+    Integer findAvailableCountById(@Param("id") Long id);
+
+    // Geride kalan SSE istemcileri için müsaitlik özeti: [id, title, availableCount]
+    @Query("SELECT b.id, b.title, b.availableCount FROM Book b ORDER BY b.id")
+    List<Object[]> findAvailabilitySnapshot();
+
+    @Query("SELECT b.id, b.title, b.availableCount FROM Book b WHERE b.id = :id")
+    List<Object[]> findAvailabilitySnapshotById(@Param("id") Long id);
 }
@@ -0,0 +1,16 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Backend for book search. The implementation is chosen with {@code library.search.engine}:
+ * {@code postgres} uses the trigram indexes and ranks by relevance, {@code jpa} runs the
+ * portable {@link BookSpecification} query and is used with H2 in tests.
+ */
+public interface BookSearchEngine {
+
+    Page<Book> search(BookSearchCriteriaDTO criteria, Pageable pageable);
+}
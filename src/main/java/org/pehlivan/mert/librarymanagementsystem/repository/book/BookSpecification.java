@@ -6,6 +6,8 @@ import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
 import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
 import org.springframework.data.jpa.domain.Specification;
 
+import jakarta.persistence.criteria.JoinType;
+
 public class BookSpecification {
 
     public static Specification<Book> withSearchCriteria(BookSearchCriteriaDTO criteria) {
@@ -55,4 +57,20 @@ public class BookSpecification {
         return (root, query, criteriaBuilder) -> 
             status == null ? null : criteriaBuilder.equal(root.get("status"), status);
     }
-} 
\ No newline at end of file
+
+    // Keyset sayfalama için son görülen id'den sonrası
+    public static Specification<Book> idGreaterThan(Long id) {
+        return (root, query, criteriaBuilder) ->
+            id == null ? null : criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+
+    // Sayfadaki kitapların yazarları ayrı sorgularla değil, aynı sorguda yüklenir
+    public static Specification<Book> fetchAuthor() {
+        return (root, query, criteriaBuilder) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("author", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+}
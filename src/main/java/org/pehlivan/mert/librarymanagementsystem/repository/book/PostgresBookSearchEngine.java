@@ -0,0 +1,122 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked book search on PostgreSQL. Text criteria keep their substring semantics but are
+ * answered from the pg_trgm GIN indexes added in V4, and matches are ordered by trigram
+ * similarity so the closest titles and authors come first. A request with an explicit
+ * sort is handed to the specification query, which benefits from the same indexes.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.search.engine", havingValue = "postgres")
+public class PostgresBookSearchEngine implements BookSearchEngine {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BookRepository bookRepository;
+
+    @Override
+    public Page<Book> search(BookSearchCriteriaDTO criteria, Pageable pageable) {
+        if (pageable.getSort().isSorted()) {
+            return bookRepository.findAll(BookSpecification.withSearchCriteria(criteria), pageable);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhereClause(criteria, params);
+        String orderBy = buildOrderByClause(criteria);
+
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM books b LEFT JOIN authors a ON a.id = b.author_id" + where,
+                params, Long.class);
+        if (total == null || total == 0 || pageable.getOffset() >= total) {
+            return new PageImpl<>(Collections.emptyList(), pageable, total == null ? 0 : total);
+        }
+
+        params.addValue("limit", pageable.getPageSize());
+        params.addValue("offset", pageable.getOffset());
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT b.id FROM books b LEFT JOIN authors a ON a.id = b.author_id" + where +
+                        orderBy + " LIMIT :limit OFFSET :offset",
+                params, Long.class);
+
+        // Sayfadaki kitaplar yazarlarıyla tek sorguda yüklenir, sıralama korunur
+        Map<Long, Book> booksById = bookRepository.findAllWithAuthorByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Book> content = ids.stream()
+                .map(booksById::get)
+                .filter(book -> book != null)
+                .collect(Collectors.toList());
+        log.debug("Ranked book search matched {} books, returning {}", total, content.size());
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    String buildWhereClause(BookSearchCriteriaDTO criteria, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        addTextCondition(conditions, params, "lower(b.title)", "title", criteria.getTitle());
+        addTextCondition(conditions, params, "lower(a.name)", "authorName", criteria.getAuthorName());
+        addTextCondition(conditions, params, "lower(a.surname)", "authorSurname", criteria.getAuthorSurname());
+        if (criteria.getIsbn() != null) {
+            conditions.add("b.isbn = :isbn");
+            params.addValue("isbn", criteria.getIsbn());
+        }
+        if (criteria.getBookType() != null) {
+            conditions.add("b.book_type = :bookType");
+            params.addValue("bookType", criteria.getBookType().name());
+        }
+        if (criteria.getStatus() != null) {
+            conditions.add("b.status = :status");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    String buildOrderByClause(BookSearchCriteriaDTO criteria) {
+        // Metin kriteri yoksa sıralanacak benzerlik yok; PostgreSQL "ORDER BY 0" ifadesini sütun sırası sayar
+        String rank = buildRankExpression(criteria);
+        return rank == null ? " ORDER BY b.id" : " ORDER BY " + rank + " DESC, b.id";
+    }
+
+    String buildRankExpression(BookSearchCriteriaDTO criteria) {
+        List<String> terms = new ArrayList<>();
+        if (criteria.getTitle() != null) {
+            terms.add("similarity(lower(b.title), :title)");
+        }
+        if (criteria.getAuthorName() != null) {
+            terms.add("similarity(lower(a.name), :authorName)");
+        }
+        if (criteria.getAuthorSurname() != null) {
+            terms.add("similarity(lower(a.surname), :authorSurname)");
+        }
+        return terms.isEmpty() ? null : "(" + String.join(" + ", terms) + ")";
+    }
+
+    private void addTextCondition(List<String> conditions, MapSqlParameterSource params,
+                                  String column, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        String term = value.toLowerCase();
+        conditions.add(column + " LIKE :" + name + "Pattern");
+        params.addValue(name, term);
+        params.addValue(name + "Pattern", "%" + term + "%");
+    }
+}
@@ -0,0 +1,22 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import lombok.RequiredArgsConstructor;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.search.engine", havingValue = "jpa", matchIfMissing = true)
+public class SpecificationBookSearchEngine implements BookSearchEngine {
+
+    private final BookRepository bookRepository;
+
+    @Override
+    public Page<Book> search(BookSearchCriteriaDTO criteria, Pageable pageable) {
+        return bookRepository.findAll(BookSpecification.withSearchCriteria(criteria), pageable);
+    }
+}
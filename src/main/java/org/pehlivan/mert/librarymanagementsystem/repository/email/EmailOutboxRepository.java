@@ -0,0 +1,49 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.email;
+
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutbox;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Kayıt, nextAttemptAt ileri alınarak sahiplenilir; 0 dönerse başka bir node almıştır
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.nextAttemptAt = :leaseUntil, e.attempts = e.attempts + 1, e.updatedAt = :now " +
+            "WHERE e.id = :id AND e.status = org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus.PENDING " +
+            "AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus.SENT, " +
+            "e.sentAt = :now, e.lastError = NULL, e.updatedAt = :now WHERE e.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.lastError = :lastError, e.updatedAt = :now WHERE e.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") EmailOutboxStatus status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("lastError") String lastError,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus.SENT " +
+            "AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+
+    long countByStatus(EmailOutboxStatus status);
+}
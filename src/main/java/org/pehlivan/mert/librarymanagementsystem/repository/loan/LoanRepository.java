@@ -1,19 +1,117 @@
 package org.pehlivan.mert.librarymanagementsystem.repository.loan;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.OverdueLoanSummary;
 import org.pehlivan.mert.librarymanagementsystem.model.loan.Loan;
 import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
-    List<Loan> findByStatusAndDueDateBefore(LoanStatus status, LocalDate date);
-    List<Loan> findByStatus(LoanStatus status);
-    List<Loan> findByUser_Id(Long userId);
     long countByUser_IdAndStatus(Long userId, LoanStatus status);
     List<Loan> findByUser_IdAndStatus(Long userId, LoanStatus status);
+    long countByUser_Id(Long userId);
+
+    // Toplu iade: ödünçler kullanıcılarıyla tek sorguda okunur, kitap stok güncellemesinden sonra yüklenir
+    @EntityGraph(attributePaths = {"user"})
+    List<Loan> findByIdIn(Collection<Long> ids);
+
+    // Toplu ödünç: kullanıcı başına aktif ve geciken ödünç sayıları tek sorguda okunur
+    @Query("SELECT l.user.id, l.status, COUNT(l) FROM Loan l " +
+            "WHERE l.user.id IN :userIds AND l.status IN :statuses GROUP BY l.user.id, l.status")
+    List<Object[]> countByUserIdsAndStatusesGrouped(@Param("userIds") Collection<Long> userIds,
+                                                    @Param("statuses") Collection<LoanStatus> statuses);
+
+    // Liste endpoint'leri için LoanResponseDto tek sorguda ve yalnızca gereken sütunlarla okunur;
+    // kitap ve kullanıcı için kayıt başına ek sorgu çalışmaz
+    String RESPONSE_DTO = "SELECT new org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto(" +
+            "l.id, b.id, b.title, u.id, u.username, l.borrowedDate, l.dueDate, l.returnDate, l.status, " +
+            "l.penaltyAmount) FROM Loan l JOIN l.book b JOIN l.user u ";
+
+    @Query(RESPONSE_DTO + "ORDER BY l.id")
+    List<LoanResponseDto> findAllResponses();
+
+    @Query(RESPONSE_DTO + "WHERE u.id = :userId ORDER BY l.id")
+    List<LoanResponseDto> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query(RESPONSE_DTO + "WHERE l.status = :status ORDER BY l.id")
+    List<LoanResponseDto> findResponsesByStatus(@Param("status") LoanStatus status);
+
+    // Geçmiş en yeni kayıttan geriye doğru id ile sayfalanır; kitap ve kullanıcı aynı sorguda gelir
+    @EntityGraph(attributePaths = {"book", "user"})
+    Slice<Loan> findByIdLessThan(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"book", "user"})
+    Slice<Loan> findByUser_IdAndIdLessThan(Long userId, Long id, Pageable pageable);
+
+    // Gecikme taraması kullanıcı id'sine göre parça parça ilerler
+    @Query("SELECT DISTINCT l.user.id FROM Loan l WHERE l.status = :status AND l.dueDate < :date " +
+            "AND l.user.id > :afterUserId ORDER BY l.user.id")
+    List<Long> findUserIdsByStatusAndDueDateBefore(@Param("status") LoanStatus status,
+                                                   @Param("date") LocalDate date,
+                                                   @Param("afterUserId") Long afterUserId,
+                                                   Pageable pageable);
+
+    @Query("SELECT new org.pehlivan.mert.librarymanagementsystem.dto.loan.OverdueLoanSummary(" +
+            "l.id, u.id, u.email, u.username, b.title, l.borrowedDate, l.dueDate) " +
+            "FROM Loan l JOIN l.user u JOIN l.book b " +
+            "WHERE l.status = :status AND l.dueDate < :date AND u.id IN :userIds")
+    List<OverdueLoanSummary> findSummariesByStatusAndDueDateBefore(@Param("status") LoanStatus status,
+                                                                   @Param("date") LocalDate date,
+                                                                   @Param("userIds") Collection<Long> userIds);
+
+    // Aynı son tarihe sahip ödünçlerin cezası aynıdır; tek UPDATE ile işaretlenir
+    @Modifying
+    @Query("UPDATE Loan l SET l.status = org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus.OVERDUE, " +
+            "l.penaltyAmount = :penaltyAmount, l.updatedAt = :now " +
+            "WHERE l.status = org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus.BORROWED " +
+            "AND l.dueDate = :dueDate AND l.user.id IN :userIds")
+    int markOverdueByDueDate(@Param("userIds") Collection<Long> userIds,
+                             @Param("dueDate") LocalDate dueDate,
+                             @Param("penaltyAmount") Double penaltyAmount,
+                             @Param("now") LocalDateTime now);
+
+    // Rapor satırları entity yerine projeksiyon olarak, sunucu tarafı cursor ile parça parça okunur
+    String REPORT_ROW = "SELECT new org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow(" +
+            "l.id, b.title, u.username, l.borrowedDate, l.dueDate, l.returnDate, l.status, l.penaltyAmount) " +
+            "FROM Loan l JOIN l.book b JOIN l.user u ";
+    String REPORT_FETCH_SIZE = "500";
+
+    @Query("SELECT l.status, COUNT(l) FROM Loan l GROUP BY l.status")
+    List<Object[]> countGroupedByStatus();
+
+    long countByStatusAndDueDateAfterAndDueDateBefore(LoanStatus status, LocalDate after, LocalDate before);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    @Query(REPORT_ROW + "WHERE l.status = :status ORDER BY l.dueDate, l.id")
+    Stream<LoanReportRow> streamReportRowsByStatus(@Param("status") LoanStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    @Query(REPORT_ROW + "WHERE l.status = :status AND l.dueDate > :after AND l.dueDate < :before " +
+            "ORDER BY l.dueDate, l.id")
+    Stream<LoanReportRow> streamReportRowsByStatusAndDueDateBetween(@Param("status") LoanStatus status,
+                                                                    @Param("after") LocalDate after,
+                                                                    @Param("before") LocalDate before);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = REPORT_FETCH_SIZE))
+    @Query(REPORT_ROW + "WHERE l.status = :status ORDER BY l.returnDate DESC, l.id")
+    Stream<LoanReportRow> streamReportRowsByStatusOrderByReturnDateDesc(@Param("status") LoanStatus status);
 }
@@ -1,7 +1,11 @@
 package org.pehlivan.mert.librarymanagementsystem.repository.user;
 
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +16,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    // Keyset sayfalama: Slice döndüğü için count sorgusu çalışmaz
+    Slice<User> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // Sadece tek kolon okunur; roller (EAGER) yüklenmez
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.email = :email")
+    Optional<Integer> findTokenVersionByEmail(@Param("email") String email);
+
 }
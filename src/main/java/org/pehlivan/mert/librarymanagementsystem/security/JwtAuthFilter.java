@@ -1,5 +1,6 @@
 package org.pehlivan.mert.librarymanagementsystem.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +9,10 @@ import org.springframework.lang.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.service.user.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -27,6 +30,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtHelper jwtHelper;
     private final CustomUserDetailsService userDetailsService;
+    private final UserTokenStampCache tokenStampCache;
+
+    // Açıkken principal doğrudan token claim'lerinden kurulur, kullanıcı veritabanından yüklenmez
+    @Value("${library.security.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -36,23 +44,21 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
             if (jwt != null) {
-                String username = jwtHelper.getUsernameFromToken(jwt);
+                // Token tek seferde doğrulanır; claim'ler istek boyunca yeniden kullanılır
+                Claims claims = jwtHelper.parseClaims(jwt);
+                String username = claims != null ? claims.getSubject() : null;
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UsernamePasswordAuthenticationToken authentication = statelessAuth
+                            ? authenticateFromClaims(claims, username)
+                            : authenticateFromDatabase(claims, username);
 
-                    if (jwtHelper.validateToken(jwt, userDetails)) {
-                        List<GrantedAuthority> authorities = jwtHelper.getAuthoritiesFromToken(jwt);
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(
-                                        userDetails,
-                                        null,
-                                        authorities);
+                    if (authentication != null) {
                         authentication.setDetails(
                                 new WebAuthenticationDetailsSource().buildDetails(request));
 
                         SecurityContextHolder.getContext().setAuthentication(authentication);
-                        log.info("User {} authenticated successfully with roles: {}", username, authorities);
+                        log.info("User {} authenticated successfully with roles: {}", username, authentication.getAuthorities());
                     } else {
                         log.warn("JWT token is not valid for user: {}", username);
                     }
@@ -65,6 +71,25 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(Claims claims, String username) {
+        // İmza ve süre parseClaims'te doğrulandı; geriye yalnızca iptal/versiyon kontrolü kalır
+        if (!tokenStampCache.isCurrent(username, jwtHelper.getTokenVersionFromClaims(claims))) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = jwtHelper.getAuthoritiesFromClaims(claims);
+        UserDetails principal = new User(username, "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(Claims claims, String username) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtHelper.validateClaims(claims, userDetails)) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(
+                userDetails, null, jwtHelper.getAuthoritiesFromClaims(claims));
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -2,12 +2,15 @@ package org.pehlivan.mert.librarymanagementsystem.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,6 +18,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -25,12 +29,38 @@ import java.util.stream.Collectors;
 @Component
 public class JwtHelper {
 
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // Anahtar ve parser uygulama açılışında bir kez oluşturulur
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secret);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
+    /**
+     * Verifies the signature and expiration of the token once and returns its claims,
+     * or {@code null} if the token is invalid or expired. Callers should reuse the result
+     * for the rest of the request instead of parsing the token again.
+     */
+    public Claims parseClaims(String token) {
+        try {
+            return jwtParser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException | SignatureException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -39,28 +69,28 @@ public class JwtHelper {
         return getClaimFromToken(token, Claims::getExpiration);
     }
 
+    /**
+     * Applies the resolver to the verified claims of the token. Unlike {@link #parseClaims},
+     * an invalid or expired token is reported with a {@link JwtException}.
+     */
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        return claimsResolver.apply(getAllClaimsFromToken(token));
-    }
-
-    private Claims getAllClaimsFromToken(String token) {
-        try {
-            return Jwts.parserBuilder().setSigningKey(getSignInKey()).build().parseClaimsJws(token).getBody();
-        } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException | SignatureException | IllegalArgumentException e) {
-            return null;
-        }
+        return claimsResolver.apply(requireClaims(token));
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, 0L);
     }
 
-    public String generateToken(UserDetails userDetails) {
+    /**
+     * Issues a token carrying the user's current token version, which stateless
+     * authentication compares against {@link UserTokenStampCache} on every request.
+     */
+    public String generateToken(UserDetails userDetails, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("authorities", userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -70,26 +100,47 @@ public class JwtHelper {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(parseClaims(token), userDetails);
+    }
+
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims != null
+                && claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !claims.getExpiration().before(new Date());
+    }
+
+    // Versiyon içermeyen eski token'lar 0 kabul edilir
+    public long getTokenVersionFromClaims(Claims claims) {
+        Number version = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+        return version == null ? 0L : version.longValue();
     }
 
-    @SuppressWarnings("unchecked")
     public List<GrantedAuthority> getAuthoritiesFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
+        return getAuthoritiesFromClaims(requireClaims(token));
+    }
+
+    private Claims requireClaims(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired JWT token");
+        }
+        return claims;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<GrantedAuthority> getAuthoritiesFromClaims(Claims claims) {
         List<String> authorities = (List<String>) claims.get("authorities");
+        if (authorities == null) {
+            return Collections.emptyList();
+        }
         return authorities.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-}
\ No newline at end of file
+}
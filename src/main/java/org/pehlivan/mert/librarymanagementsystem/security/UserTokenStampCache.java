@@ -0,0 +1,99 @@
+package org.pehlivan.mert.librarymanagementsystem.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived, node-local cache of each user's token version. Stateless authentication
+ * compares the version embedded in the JWT with this stamp instead of loading the user
+ * and its roles on every request. A password or role change bumps the version and a
+ * deleted user has no stamp at all, so old tokens are rejected at the latest after one TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserTokenStampCache {
+
+    // Silinmiş kullanıcılar da önbelleğe alınır, böylece her istek veritabanına gitmez
+    private static final long REVOKED = -1L;
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${library.security.token-stamp.ttl-ms:5000}")
+    private long ttlMs;
+
+    @Value("${library.security.token-stamp.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Stamp> stamps = new ConcurrentHashMap<>();
+
+    private Counter loadCounter;
+
+    @PostConstruct
+    public void init() {
+        loadCounter = meterRegistry.counter("library.security.token.stamp.loads");
+    }
+
+    public boolean isCurrent(String email, long tokenVersion) {
+        long now = System.currentTimeMillis();
+        Stamp stamp = stamps.get(email);
+        if (stamp == null || stamp.expiresAt() <= now) {
+            stamp = load(email, now);
+        }
+        return stamp.version() != REVOKED && stamp.version() == tokenVersion;
+    }
+
+    /**
+     * Reads the current version straight from the database, e.g. when a token is issued.
+     */
+    public long currentVersion(String email) {
+        return load(email, System.currentTimeMillis()).version();
+    }
+
+    /**
+     * Drops the local stamp once the surrounding transaction has committed, so a request
+     * served by this node right after the change cannot cache the old version again.
+     */
+    public void evict(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stamps.remove(email);
+                }
+            });
+        } else {
+            stamps.remove(email);
+        }
+    }
+
+    private Stamp load(String email, long now) {
+        loadCounter.increment();
+        long version = userRepository.findTokenVersionByEmail(email)
+                .map(Integer::longValue)
+                .orElse(REVOKED);
+        // Sınır aşılırsa tablo temizlenir; girdiler zaten birkaç saniyede yenilenir
+        if (stamps.size() >= maxEntries) {
+            stamps.clear();
+        }
+        Stamp stamp = new Stamp(version, now + ttlMs);
+        stamps.put(email, stamp);
+        log.debug("Token stamp loaded for {}: {}", email, version);
+        return stamp;
+    }
+
+    private record Stamp(long version, long expiresAt) {
+    }
+}
@@ -11,6 +11,7 @@ import org.pehlivan.mert.librarymanagementsystem.exception.user.UserAlreadyExist
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
 import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
 import org.pehlivan.mert.librarymanagementsystem.security.JwtHelper;
+import org.pehlivan.mert.librarymanagementsystem.security.UserTokenStampCache;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -24,7 +25,7 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@CacheConfig(cacheNames = "user", cacheManager = "redisCacheManager")
+@CacheConfig(cacheNames = "user", cacheManager = "cacheManager")
 public class AuthenticationService {
 
     private final UserRepository userRepository;
@@ -33,6 +34,7 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final ModelMapper modelMapper;
     private final KafkaTemplate<String, UserRegistrationNotification> kafkaTemplate;
+    private final UserTokenStampCache tokenStampCache;
 
     public AuthenticationResponseDto login(AuthenticationRequestDto authRequestDto) {
         log.info("Entering login method for user: {}", authRequestDto.getEmail());
@@ -50,7 +52,9 @@ public class AuthenticationService {
 
         // Token üretimi
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        String token = jwtHelper.generateToken(userDetails);
+        // Token, kullanıcının güncel versiyonunu taşır; şifre/rol değişiminde geçersizleşir
+        long tokenVersion = tokenStampCache.currentVersion(userDetails.getUsername());
+        String token = jwtHelper.generateToken(userDetails, tokenVersion);
         log.info("User {} logged in successfully", authRequestDto.getEmail());
 
         // DTO'ya sar ve dön
@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorCodec;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.exception.ErrorResponse;
 import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorAlreadyExistException;
 import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorNotFoundException;
@@ -14,6 +16,9 @@ import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import io.micrometer.core.instrument.Counter;
@@ -26,7 +31,7 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "author", cacheManager = "redisCacheManager")
+@CacheConfig(cacheNames = "author", cacheManager = "cacheManager")
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
@@ -100,7 +105,7 @@ public class AuthorService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'all'", unless = "#result.isEmpty()")
+    @Cacheable(key = "'all'", sync = true)
     public List<AuthorResponseDto> getAllAuthors() {
         log.info("Getting all authors");
         return authorRepository.findAll().stream()
@@ -108,6 +113,17 @@ public class AuthorService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuthorResponseDto> getAuthorsByCursor(String cursor, int size, boolean includeTotal) {
+        log.info("Getting authors by cursor: {}, size: {}", cursor, size);
+        Long afterId = CursorCodec.decode(cursor);
+        Slice<Author> slice = authorRepository.findByIdGreaterThan(afterId == null ? 0L : afterId,
+                PageRequest.of(0, CursorPageResponse.clampSize(size), Sort.by("id")));
+        Long total = includeTotal ? authorRepository.count() : null;
+        return CursorPageResponse.of(slice, Author::getId,
+                author -> modelMapper.map(author, AuthorResponseDto.class), total);
+    }
+
     @Transactional
     @CacheEvict(allEntries = true)
     public AuthorResponseDto updateAuthor(Long id, AuthorRequestDto authorRequestDto) {
@@ -0,0 +1,53 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads {@code book-availability} on every node and hands the events to the local SSE
+ * subscribers. Each node assigns itself all partitions without a consumer group and
+ * never commits offsets, so restarts leave no groups behind on the broker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.availability.fanout", havingValue = "kafka", matchIfMissing = true)
+public class BookAvailabilityEventListener {
+
+    private final BookAvailabilityService bookAvailabilityService;
+
+    @KafkaListener(
+        topicPartitions = @TopicPartition(
+            topic = BookAvailabilityService.TOPIC,
+            partitions = "#{'0-' + (${kafka.topics.book-availability.partitions:3} - 1)}"
+        ),
+        id = "book-availability-consumer",
+        idIsGroup = false,
+        containerFactory = "availabilityListenerContainerFactory"
+    )
+    public void handleAvailabilityEvents(List<ConsumerRecord<String, BookAvailabilityEvent>> records) {
+        // Birden çok düğümden gelen olaylar da kitap başına en son duruma indirgenir
+        Map<Long, BookAvailabilityEvent> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, BookAvailabilityEvent> record : records) {
+            BookAvailabilityEvent event = record.value();
+            if (event == null || event.getBookId() == null) {
+                log.warn("Skipping unreadable availability event at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            latest.remove(event.getBookId());
+            latest.put(event.getBookId(), event);
+        }
+        latest.values().forEach(bookAvailabilityService::publishLocally);
+    }
+}
@@ -0,0 +1,90 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Numbers the availability events delivered on this node and keeps the most recent
+ * {@code library.availability.replay.buffer-size} of them in a ring buffer, so SSE clients
+ * reconnecting with {@code Last-Event-ID} can be sent only what they missed.
+ * <p>
+ * Sequence numbers are local to this node and process, so event ids are prefixed with a
+ * random stream id chosen at startup: an id from another node or from before a restart
+ * is recognised as unknown instead of being replayed from the wrong position.
+ * <p>
+ * Not thread-safe on its own; {@link BookAvailabilityService} appends and reads it under
+ * one lock so that appending an event and emitting it to subscribers happen atomically
+ * with respect to a replay.
+ */
+@Component
+public class BookAvailabilityEventLog {
+
+    private static final char ID_SEPARATOR = '-';
+
+    private final String streamId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final BookAvailabilityEvent[] ring;
+    private long lastSequence;
+
+    public BookAvailabilityEventLog(@Value("${library.availability.replay.buffer-size:1024}") int bufferSize) {
+        this.ring = new BookAvailabilityEvent[bufferSize];
+    }
+
+    /**
+     * Assigns the next sequence number to the event and stores it, evicting the oldest one
+     * when the buffer is full.
+     */
+    public void append(BookAvailabilityEvent event) {
+        event.setSequence(++lastSequence);
+        ring[(int) (lastSequence % ring.length)] = event;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Events after {@code sequence} in order, or empty when some of them have already been
+     * evicted (or the sequence was never issued) and the caller needs a snapshot instead.
+     */
+    public Optional<List<BookAvailabilityEvent>> since(long sequence) {
+        long oldest = Math.max(1, lastSequence - ring.length + 1);
+        if (sequence > lastSequence || sequence < oldest - 1) {
+            return Optional.empty();
+        }
+        List<BookAvailabilityEvent> missed = new ArrayList<>((int) (lastSequence - sequence));
+        for (long next = sequence + 1; next <= lastSequence; next++) {
+            missed.add(ring[(int) (next % ring.length)]);
+        }
+        return Optional.of(missed);
+    }
+
+    public String eventId(long sequence) {
+        return streamId + ID_SEPARATOR + sequence;
+    }
+
+    /**
+     * Sequence encoded in an id issued by this log, or empty for ids from another node,
+     * an earlier run or malformed input.
+     */
+    public OptionalLong parseEventId(String eventId) {
+        if (eventId == null) {
+            return OptionalLong.empty();
+        }
+        int separator = eventId.lastIndexOf(ID_SEPARATOR);
+        if (separator != streamId.length() || !eventId.startsWith(streamId)) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(eventId.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link BookAvailabilityService#flushPending()} every coalesce window on a thread of
+ * its own. The shared scheduler also runs the email outbox dispatch and the overdue sweep,
+ * which can hold its threads for seconds, so the flush is kept off it. The executor is not
+ * exposed as a bean, which would replace the application's default task scheduler.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookAvailabilityFlushScheduler {
+
+    private final BookAvailabilityService bookAvailabilityService;
+
+    @Value("${library.availability.coalesce-window-ms:200}")
+    private long coalesceWindowMs;
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("availability-flush-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        executor.scheduleWithFixedDelay(this::flush, coalesceWindowMs, coalesceWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Bir hata zamanlanmış görevi sonlandırmamalı; sonraki pencerede yeniden denenir
+    private void flush() {
+        try {
+            bookAvailabilityService.flushPending();
+        } catch (RuntimeException e) {
+            log.error("Book availability flush failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -1,21 +1,119 @@
 package org.pehlivan.mert.librarymanagementsystem.service.book;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
 import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.repository.book.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Publishes availability changes to every node and routes them to local SSE subscribers.
+ * Changes are coalesced per book for {@code library.availability.coalesce-window-ms}, so a
+ * burst of borrows on one title produces a single event carrying the latest state. With
+ * {@code library.availability.fanout=kafka} the event goes through the
+ * {@code book-availability} topic and each node fans it out to its own subscribers via
+ * {@link BookAvailabilityEventListener}; if Kafka is unreachable it is still delivered
+ * locally. {@code local} keeps events inside this JVM (single node).
+ * <p>
+ * Each book that is being watched has its
+ * own sink, created for its first subscriber and dropped with its last one, so an event
+ * only reaches the clients watching that book (plus the clients of the all-books stream).
+ * Sinks never wait for slow clients: every subscriber gets its own bounded buffer and
+ * {@code library.availability.overflow} decides what it loses when it falls behind.
+ * <p>
+ * Delivered events are numbered by {@link BookAvailabilityEventLog}. A client reconnecting
+ * with {@code Last-Event-ID} first receives the events it missed from the log, or a
+ * snapshot of the current availability ({@code SNAPSHOT} events) when the log no longer
+ * holds them, and then continues with the live stream.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookAvailabilityService {
-    private final Sinks.Many<BookAvailabilityEvent> bookAvailabilitySink =
-        Sinks.many().multicast().onBackpressureBuffer();
+
+    public enum OverflowStrategy {
+        /** Keeps the newest {@code buffer-size} events, dropping the oldest. */
+        DROP_OLDEST,
+        /** Keeps only the most recent event. */
+        LATEST
+    }
+
+    public enum Fanout {
+        /** Publishes to the {@code book-availability} topic, every node delivers to its subscribers. */
+        KAFKA,
+        /** Delivers only to subscribers of this node. */
+        LOCAL
+    }
+
+    public static final String TOPIC = "book-availability";
+
+    private static final Duration KAFKA_RETRY_BACKOFF = Duration.ofSeconds(10);
+
+    private final MeterRegistry meterRegistry;
+    private final KafkaTemplate<String, BookAvailabilityEvent> availabilityKafkaTemplate;
+    private final BookAvailabilityEventLog eventLog;
+    private final BookRepository bookRepository;
+
+    private final Sinks.Many<BookAvailabilityEvent> allBooksSink = Sinks.many().multicast().directBestEffort();
+    private final Map<Long, BookTopic> bookTopics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Map<Long, BookAvailabilityEvent> pending = new ConcurrentHashMap<>();
+    // synchronized yerine: aboneye iletim G/Ç yapabilir ve sanal thread'i taşıyıcısına sabitlememelidir
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private volatile long kafkaRetryAt = System.nanoTime();
+    private volatile Snapshot lastSnapshot;
+
+    @Value("${library.availability.fanout:kafka}")
+    private Fanout fanout;
+
+    @Value("${library.availability.overflow:drop-oldest}")
+    private OverflowStrategy overflowStrategy;
+
+    @Value("${library.availability.buffer-size:64}")
+    private int bufferSize;
+
+    private Counter publishedCounter;
+    private Counter coalescedCounter;
+    private Counter publishFailedCounter;
+    private Counter replayedCounter;
+    private Counter snapshotCounter;
+
+    @PostConstruct
+    public void init() {
+        publishedCounter = meterRegistry.counter("library.availability.published");
+        coalescedCounter = meterRegistry.counter("library.availability.coalesced");
+        publishFailedCounter = meterRegistry.counter("library.availability.publish.failed");
+        replayedCounter = meterRegistry.counter("library.availability.resume", "result", "replay");
+        snapshotCounter = meterRegistry.counter("library.availability.resume", "result", "snapshot");
+        Gauge.builder("library.availability.subscribers", subscribers, AtomicInteger::get)
+                .description("Open availability streams")
+                .register(meterRegistry);
+        Gauge.builder("library.availability.topics", bookTopics, Map::size)
+                .description("Books with at least one availability subscriber")
+                .register(meterRegistry);
+    }
 
     public void notifyAvailabilityChange(Book book, String eventType) {
         BookAvailabilityEvent event = BookAvailabilityEvent.builder()
@@ -26,16 +124,214 @@ public class BookAvailabilityService {
                 .eventType(eventType)
                 .build();
 
-        bookAvailabilitySink.tryEmitNext(event);
-        log.info("Book availability event emitted: {}", event);
+        // Pencere içinde aynı kitap için gelen olay öncekinin yerini alır
+        if (pending.put(event.getBookId(), event) != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    /**
+     * Publishes the events coalesced since the last flush; run by {@link BookAvailabilityFlushScheduler}.
+     */
+    public void flushPending() {
+        for (Long bookId : pending.keySet()) {
+            BookAvailabilityEvent event = pending.remove(bookId);
+            if (event == null) {
+                continue;
+            }
+            // Son gönderim başarısızsa Kafka bir süre denenmez, her olay broker zaman aşımını beklemez
+            if (fanout == Fanout.KAFKA && System.nanoTime() - kafkaRetryAt >= 0) {
+                publishToKafka(event);
+            } else {
+                publishLocally(event);
+            }
+            publishedCounter.increment();
+        }
+    }
+
+    /**
+     * Delivers an event to the subscribers of this node.
+     */
+    public void publishLocally(BookAvailabilityEvent event) {
+        // Numaralandırma ve yayın, devam eden bir yeniden oynatmaya göre atomiktir
+        publishLock.lock();
+        try {
+            eventLog.append(event);
+            // Aboneliği olmayan kitaplar için yalnızca bir map araması yapılır
+            emit(allBooksSink, event);
+            BookTopic topic = bookTopics.get(event.getBookId());
+            if (topic != null) {
+                emit(topic.sink, event);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+        log.debug("Book availability event emitted: {}", event);
     }
 
     public Flux<BookAvailabilityEvent> getAvailabilityStream() {
-        return bookAvailabilitySink.asFlux();
+        return counted(bounded(allBooksSink.asFlux()));
     }
 
     public Flux<BookAvailabilityEvent> getAvailabilityStreamForBook(Long bookId) {
-        return bookAvailabilitySink.asFlux()
-                .filter(event -> event.getBookId().equals(bookId));
+        return counted(bounded(bookTopic(bookId)));
+    }
+
+    /**
+     * All-books stream for a client that reconnects with {@code Last-Event-ID}.
+     */
+    public Flux<BookAvailabilityEvent> resumeAvailabilityStream(String lastEventId) {
+        return counted(resume(lastEventId, null, allBooksSink.asFlux()));
+    }
+
+    /**
+     * Single-book stream for a client that reconnects with {@code Last-Event-ID}.
+     */
+    public Flux<BookAvailabilityEvent> resumeAvailabilityStreamForBook(Long bookId, String lastEventId) {
+        return counted(resume(lastEventId, bookId, bookTopic(bookId)));
+    }
+
+    /**
+     * SSE id of a delivered event, {@code null} for events that were never numbered.
+     */
+    public String eventId(BookAvailabilityEvent event) {
+        return event.getSequence() != null ? eventLog.eventId(event.getSequence()) : null;
+    }
+
+    private Flux<BookAvailabilityEvent> resume(String lastEventId, Long bookId, Flux<BookAvailabilityEvent> live) {
+        return Flux.defer(() -> {
+            // Kaçırılanlar oynatılırken gelen canlı olaylar sırayla beklemede tutulur
+            Sinks.Many<BookAvailabilityEvent> pending = Sinks.many().unicast().onBackpressureBuffer();
+            Disposable upstream;
+            Optional<List<BookAvailabilityEvent>> missed;
+            long current;
+            publishLock.lock();
+            try {
+                upstream = live.subscribe(pending::tryEmitNext, pending::tryEmitError, pending::tryEmitComplete);
+                current = eventLog.getLastSequence();
+                OptionalLong lastSeen = eventLog.parseEventId(lastEventId);
+                missed = lastSeen.isPresent() ? eventLog.since(lastSeen.getAsLong()) : Optional.empty();
+            } finally {
+                publishLock.unlock();
+            }
+
+            Flux<BookAvailabilityEvent> catchUp;
+            if (missed.isPresent()) {
+                replayedCounter.increment();
+                catchUp = Flux.fromIterable(missed.get())
+                        .filter(event -> bookId == null || bookId.equals(event.getBookId()));
+            } else {
+                snapshotCounter.increment();
+                catchUp = snapshot(bookId, current);
+            }
+            return catchUp
+                    .concatWith(bounded(pending.asFlux()))
+                    .doFinally(signal -> upstream.dispose());
+        });
+    }
+
+    // Olay numarası bilinmeyen veya çok geride kalan istemci güncel durumu alır; sonraki olaylar bu durumu günceller
+    private Flux<BookAvailabilityEvent> snapshot(Long bookId, long sequence) {
+        return Flux.defer(() -> {
+                    List<Object[]> rows = bookId != null
+                            ? bookRepository.findAvailabilitySnapshotById(bookId)
+                            : allBooksSnapshot(sequence);
+                    LocalDateTime now = LocalDateTime.now();
+                    return Flux.fromIterable(rows).map(row -> BookAvailabilityEvent.builder()
+                            .bookId((Long) row[0])
+                            .bookTitle((String) row[1])
+                            .available(row[2] != null && (Integer) row[2] > 0)
+                            .timestamp(now)
+                            .eventType("SNAPSHOT")
+                            .sequence(sequence)
+                            .build());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Yeniden başlatma sonrası aynı anda bağlanan istemciler aynı özeti paylaşır
+    private List<Object[]> allBooksSnapshot(long sequence) {
+        Snapshot snapshot = lastSnapshot;
+        if (snapshot == null || snapshot.sequence() != sequence) {
+            snapshot = new Snapshot(sequence, bookRepository.findAvailabilitySnapshot());
+            lastSnapshot = snapshot;
+        }
+        return snapshot.rows();
+    }
+
+    private Flux<BookAvailabilityEvent> bookTopic(Long bookId) {
+        return Flux.defer(() -> {
+            BookTopic topic = bookTopics.compute(bookId, (id, existing) -> {
+                BookTopic acquired = existing != null ? existing : new BookTopic();
+                acquired.subscribers++;
+                return acquired;
+            });
+            return topic.sink.asFlux()
+                    .doFinally(signal -> bookTopics.computeIfPresent(bookId,
+                            (id, current) -> current == topic && --current.subscribers == 0 ? null : current));
+        });
+    }
+
+    // Broker'a ulaşılamazsa olay en azından bu düğümün abonelerine iletilir
+    private void publishToKafka(BookAvailabilityEvent event) {
+        try {
+            availabilityKafkaTemplate.send(TOPIC, String.valueOf(event.getBookId()), event)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            publishFailed(event, ex);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            publishFailed(event, e);
+        }
+    }
+
+    private void publishFailed(BookAvailabilityEvent event, Throwable cause) {
+        kafkaRetryAt = System.nanoTime() + KAFKA_RETRY_BACKOFF.toNanos();
+        publishFailedCounter.increment();
+        log.warn("Book availability event for book {} not published to Kafka, delivering locally: {}",
+                event.getBookId(), cause.getMessage());
+        publishLocally(event);
+    }
+
+    int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    int getTopicCount() {
+        return bookTopics.size();
+    }
+
+    // Tampon abone başınadır; yavaş bir istemci sink'i veya diğer aboneleri bekletmez
+    private Flux<BookAvailabilityEvent> bounded(Flux<BookAvailabilityEvent> source) {
+        return overflowStrategy == OverflowStrategy.LATEST
+                ? source.onBackpressureLatest()
+                : source.onBackpressureBuffer(bufferSize,
+                        dropped -> log.debug("Dropped availability event for slow subscriber: {}", dropped),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private Flux<BookAvailabilityEvent> counted(Flux<BookAvailabilityEvent> stream) {
+        return stream
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    // Yalnızca publishLock altında çağrılır, bu yüzden eşzamanlı yayın (FAIL_NON_SERIALIZED) olmaz;
+    // emitNext'in aksine hata sink'i sonlandırmaz
+    private static void emit(Sinks.Many<BookAvailabilityEvent> sink, BookAvailabilityEvent event) {
+        Sinks.EmitResult result = sink.tryEmitNext(event);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("Book availability event for book {} not emitted: {}", event.getBookId(), result);
+        }
+    }
+
+    private record Snapshot(long sequence, List<Object[]> rows) {
+    }
+
+    private static final class BookTopic {
+        private final Sinks.Many<BookAvailabilityEvent> sink = Sinks.many().multicast().directBestEffort();
+        // Yalnızca bookTopics.compute içinde değiştirilir
+        private int subscribers;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum BookImportFormat {
+    CSV("csv"),
+    JSON("json");
+
+    private final String extension;
+
+    /**
+     * Picks the format from the uploaded file name; anything that is not {@code .json} or
+     * {@code .ndjson} is read as CSV.
+     */
+    public static BookImportFormat fromFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") || name.endsWith(".ndjson") ? JSON : CSV;
+    }
+
+    BookImportReader newReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        return this == JSON ? new JsonBookImportReader(in, objectMapper) : new CsvBookImportReader(in, objectMapper);
+    }
+}
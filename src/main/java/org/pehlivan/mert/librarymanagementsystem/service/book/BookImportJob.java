@@ -0,0 +1,70 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import lombok.Getter;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportRowError;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Sayaçları yalnızca çalışan thread yazar, istek thread'leri ilerlemeyi okur
+@Getter
+class BookImportJob {
+
+    private final String id;
+    private final BookImportFormat format;
+    private final LocalDateTime createdAt;
+    private final Queue<BookImportRowError> errors = new ConcurrentLinkedQueue<>();
+    private volatile BookImportJobStatus status;
+    private volatile LocalDateTime completedAt;
+    private volatile Path file;
+    private volatile long processedRows;
+    private volatile long importedRows;
+    private volatile long failedRows;
+    private volatile String error;
+
+    BookImportJob(BookImportFormat format) {
+        this.id = UUID.randomUUID().toString();
+        this.format = format;
+        this.createdAt = LocalDateTime.now();
+        this.status = BookImportJobStatus.PENDING;
+    }
+
+    void accept(Path file) {
+        this.file = file;
+    }
+
+    void markRunning() {
+        status = BookImportJobStatus.RUNNING;
+    }
+
+    void rowFailed(BookImportRowError rowError, int maxErrors) {
+        if (failedRows < maxErrors) {
+            errors.add(rowError);
+        }
+        failedRows++;
+        processedRows++;
+    }
+
+    void chunkWritten(int rows, int imported, List<BookImportRowError> rowErrors, int maxErrors) {
+        for (BookImportRowError rowError : rowErrors) {
+            rowFailed(rowError, maxErrors);
+        }
+        importedRows += imported;
+        processedRows += rows - rowErrors.size();
+    }
+
+    void complete() {
+        this.completedAt = LocalDateTime.now();
+        this.status = BookImportJobStatus.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = BookImportJobStatus.FAILED;
+    }
+}
@@ -0,0 +1,249 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportJobResponse;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportRowError;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.exception.book.BookImportJobNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.CacheVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalogue import. The upload is stored under {@code library.book-import.directory}
+ * and read back one record at a time by a background job, so a file of any size needs only
+ * one chunk of books in memory. Each chunk of {@code library.book-import.chunk-size} valid
+ * rows is written by {@link BookImportWriter} in its own transaction; the book and author
+ * caches are evicted once when the job ends. Progress and per-row errors are polled through
+ * the returned handle. Jobs are kept on the instance that ran them and removed after the
+ * retention period.
+ * <p>
+ * Imported books do not publish availability events one by one; stream subscribers see them
+ * in the next snapshot.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookImportJobService {
+
+    private static final String BOOK_CACHE = "book";
+    private static final String AUTHOR_CACHE = "author";
+
+    private final BookImportWriter bookImportWriter;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CacheVersionService cacheVersionService;
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+    private final TaskExecutor bookImportExecutor;
+
+    @Value("${library.book-import.directory:${java.io.tmpdir}/library-imports}")
+    private Path directory;
+
+    @Value("${library.book-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${library.book-import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${library.book-import.retention:PT1H}")
+    private Duration retention;
+
+    private final Map<String, BookImportJob> jobs = new ConcurrentHashMap<>();
+
+    public BookImportJobResponse submit(MultipartFile file, BookImportFormat format) {
+        BookImportJob job = new BookImportJob(format != null ? format : BookImportFormat.fromFileName(file.getOriginalFilename()));
+        jobs.put(job.getId(), job);
+        // Multipart geçici dosyası istek bitince silinir; iş kendi kopyasını okur
+        Path upload = directory.resolve(job.getId() + "." + job.getFormat().getExtension());
+        try {
+            Files.createDirectories(directory);
+            file.transferTo(upload);
+            job.accept(upload);
+        } catch (IOException e) {
+            log.error("Book import job {} could not store upload: {}", job.getId(), e.getMessage());
+            deleteQuietly(upload);
+            job.fail("Upload could not be stored: " + e.getMessage());
+            return toResponse(job);
+        }
+        try {
+            bookImportExecutor.execute(() -> run(job));
+            log.info("Book import job {} queued as {} ({} bytes)", job.getId(), job.getFormat(), file.getSize());
+        } catch (TaskRejectedException e) {
+            log.warn("Book import job {} rejected: {}", job.getId(), e.getMessage());
+            deleteQuietly(upload);
+            job.fail("Import queue is full, please try again later");
+        }
+        return toResponse(job);
+    }
+
+    public BookImportJobResponse getJob(String jobId) {
+        BookImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BookImportJobNotFoundException("Book import job not found with id: " + jobId);
+        }
+        return toResponse(job);
+    }
+
+    @Scheduled(fixedDelayString = "${library.book-import.cleanup-interval-ms:600000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.getCompletedAt() == null || job.getCompletedAt().isAfter(threshold)) {
+                return false;
+            }
+            log.debug("Book import job {} expired", job.getId());
+            return true;
+        });
+    }
+
+    void run(BookImportJob job) {
+        job.markRunning();
+        ImportTotals totals = new ImportTotals();
+        List<BookImportRow> chunk = new ArrayList<>(chunkSize);
+        try (InputStream in = Files.newInputStream(job.getFile());
+             BookImportReader reader = job.getFormat().newReader(in, objectMapper)) {
+            BookImportRow row;
+            while ((row = reader.next()) != null) {
+                String error = row.error() != null ? row.error() : validate(row.book());
+                if (error != null) {
+                    job.rowFailed(BookImportRowError.builder().row(row.row()).isbn(row.isbn()).message(error).build(),
+                            maxErrors);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk, totals);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            writeChunk(job, chunk, totals);
+            job.complete();
+            log.info("Book import job {} completed: {} rows, {} imported, {} failed",
+                    job.getId(), job.getProcessedRows(), job.getImportedRows(), job.getFailedRows());
+        } catch (Exception e) {
+            // Yazılmış parçalar kalıcıdır; iş kaldığı satırı bildirerek başarısız olur
+            log.error("Book import job {} failed after {} rows: {}", job.getId(), job.getProcessedRows(), e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            evictCaches(totals);
+            recordMetrics(job, totals);
+            deleteQuietly(job.getFile());
+        }
+    }
+
+    private void writeChunk(BookImportJob job, List<BookImportRow> chunk, ImportTotals totals) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            BookImportWriter.ChunkResult result = bookImportWriter.write(chunk);
+            totals.add(result);
+            job.chunkWritten(chunk.size(), result.imported(), result.errors(), maxErrors);
+        } catch (DataAccessException e) {
+            // Parça geri alındı (ör. eşzamanlı eklenen ISBN); satırları hatalı sayılır, aktarım sürer
+            String message = "Chunk could not be written: " + e.getMostSpecificCause().getMessage();
+            log.warn("Book import job {}: {}", job.getId(), message);
+            for (BookImportRow row : chunk) {
+                job.rowFailed(BookImportRowError.builder().row(row.row()).isbn(row.isbn()).message(message).build(),
+                        maxErrors);
+            }
+        }
+    }
+
+    private String validate(BookRequestDto book) {
+        Set<ConstraintViolation<BookRequestDto>> violations = validator.validate(book);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; "));
+    }
+
+    // Tek tek createBook çağrısındaki gibi her kitapta değil, iş sonunda bir kez
+    private void evictCaches(ImportTotals totals) {
+        if (totals.imported > 0) {
+            cacheVersionService.bumpVersion(BOOK_CACHE);
+        }
+        if (totals.authorsCreated > 0) {
+            Cache authorCache = cacheManager.getCache(AUTHOR_CACHE);
+            if (authorCache != null) {
+                authorCache.clear();
+            }
+        }
+    }
+
+    private void recordMetrics(BookImportJob job, ImportTotals totals) {
+        meterRegistry.counter("library.books.total").increment(totals.imported);
+        meterRegistry.counter("library.books.category").increment(totals.imported);
+        meterRegistry.counter("library.books.stock.change").increment(totals.stock);
+        meterRegistry.counter("library.books.import.rows", "result", "imported").increment(job.getImportedRows());
+        meterRegistry.counter("library.books.import.rows", "result", "failed").increment(job.getFailedRows());
+    }
+
+    private BookImportJobResponse toResponse(BookImportJob job) {
+        return BookImportJobResponse.builder()
+                .id(job.getId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .processedRows(job.getProcessedRows())
+                .importedRows(job.getImportedRows())
+                .failedRows(job.getFailedRows())
+                .errors(job.getErrors().isEmpty() ? null : List.copyOf(job.getErrors()))
+                .error(job.getError())
+                .build();
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static final class ImportTotals {
+        private long imported;
+        private long authorsCreated;
+        private long stock;
+
+        void add(BookImportWriter.ChunkResult result) {
+            imported += result.imported();
+            authorsCreated += result.authorsCreated();
+            stock += result.stock();
+        }
+    }
+}
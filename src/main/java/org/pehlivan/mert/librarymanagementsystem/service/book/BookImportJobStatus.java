@@ -0,0 +1,8 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+public enum BookImportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,17 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one record at a time so that an upload of any size is never held
+ * in memory. A record that cannot be converted to a book is returned as an invalid row;
+ * an {@link IOException} means the file itself is unreadable and the import stops.
+ */
+interface BookImportReader extends Closeable {
+
+    /**
+     * Returns the next record, or {@code null} at the end of the file.
+     */
+    BookImportRow next() throws IOException;
+}
@@ -0,0 +1,42 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
+
+import java.io.IOException;
+
+/**
+ * One record of an import file. {@code book} is {@code null} when the record could not be
+ * converted, in which case {@code error} says why.
+ */
+record BookImportRow(long row, BookRequestDto book, String error) {
+
+    static BookImportRow of(long row, BookRequestDto book) {
+        return new BookImportRow(row, book, null);
+    }
+
+    static BookImportRow invalid(long row, String error) {
+        return new BookImportRow(row, null, error);
+    }
+
+    // Her iki biçim de kaydı önce JSON ağacına çevirir; alan dönüşümü hataları satır hatası olur
+    static BookImportRow convert(long row, JsonNode node, ObjectReader bookReader) {
+        if (!node.isObject()) {
+            return invalid(row, "Record must be an object");
+        }
+        try {
+            return of(row, bookReader.readValue(node));
+        } catch (InvalidFormatException e) {
+            String field = e.getPath().isEmpty() ? "value" : e.getPath().get(e.getPath().size() - 1).getFieldName();
+            return invalid(row, "Invalid value for " + field + ": " + e.getValue());
+        } catch (IOException | IllegalArgumentException e) {
+            return invalid(row, "Record cannot be read: " + e.getMessage());
+        }
+    }
+
+    String isbn() {
+        return book == null ? null : book.getIsbn();
+    }
+}
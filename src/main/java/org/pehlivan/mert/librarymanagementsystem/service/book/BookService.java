@@ -1,12 +1,15 @@
 package org.pehlivan.mert.librarymanagementsystem.service.book;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorCodec;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookAlreadyExistsException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotFoundException;
@@ -17,32 +20,51 @@ import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
 import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
 import org.pehlivan.mert.librarymanagementsystem.repository.author.AuthorRepository;
 import org.pehlivan.mert.librarymanagementsystem.repository.book.BookRepository;
+import org.pehlivan.mert.librarymanagementsystem.repository.book.BookSearchEngine;
 import org.pehlivan.mert.librarymanagementsystem.repository.book.BookSpecification;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.CacheVersionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@CacheConfig(cacheNames = "book", cacheManager = "redisCacheManager")
+@CacheConfig(cacheNames = "book", cacheManager = "cacheManager")
 public class BookService {
 
+    private static final String CACHE_NAME = "book";
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final ModelMapper modelMapper;
     private final BookAvailabilityService bookAvailabilityService;
     private final MeterRegistry meterRegistry;
+    private final CacheVersionService cacheVersionService;
+    private final BookSearchEngine bookSearchEngine;
+    private final CacheManager cacheManager;
+    private final EntityManager entityManager;
 
     private Counter totalBooksCounter;
     private Counter categoryBooksCounter;
@@ -64,7 +86,6 @@ public class BookService {
     }
 
     @Transactional
-    @CacheEvict(allEntries = true)
     public BookResponseDto createBook(BookRequestDto bookRequestDto) {
         log.info("Creating new book: {}", bookRequestDto.getTitle());
         
@@ -107,6 +128,7 @@ public class BookService {
                 .build();
 
         Book savedBook = bookRepository.save(book);
+        cacheVersionService.bumpVersion(CACHE_NAME);
         bookAvailabilityService.notifyAvailabilityChange(savedBook, "CREATED");
         
         totalBooksCounter.increment();
@@ -118,7 +140,7 @@ public class BookService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'all'", unless = "#result.isEmpty()")
+    @Cacheable(key = "'all:v' + @cacheVersionService.currentVersion('book')", sync = true)
     public List<BookResponseDto> getAllBooks() {
         log.info("Fetching all books");
         return bookRepository.findAll().stream()
@@ -146,16 +168,38 @@ public class BookService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'search:' + #criteria.toString() + ':' + #pageable.toString()", unless = "#result.isEmpty()")
+    @Cacheable(key = "'search:v' + @cacheVersionService.currentVersion('book') + ':' + #criteria.toString() + ':' + #pageable.toString()", sync = true)
     public Page<BookResponseDto> searchBooks(BookSearchCriteriaDTO criteria, Pageable pageable) {
         log.info("Entering pageable searchBooks method with criteria: {} and pageable: {}", criteria, pageable);
-        Specification<Book> spec = BookSpecification.withSearchCriteria(criteria);
-        Page<Book> books = bookRepository.findAll(spec, pageable);
+        Page<Book> books = bookSearchEngine.search(criteria, pageable);
         return books.map(this::convertToResponseDto);
     }
 
+    // Keyset sayfalama: OFFSET yerine son görülen id'den devam edilir, toplam sayı istenmedikçe hesaplanmaz
+    @Transactional(readOnly = true)
+    public CursorPageResponse<BookResponseDto> getBooksByCursor(BookSearchCriteriaDTO criteria, String cursor,
+                                                                int size, boolean includeTotal) {
+        log.info("Fetching books by cursor with criteria: {}, cursor: {}, size: {}", criteria, cursor, size);
+        int pageSize = CursorPageResponse.clampSize(size);
+        Specification<Book> filter = BookSpecification.withSearchCriteria(criteria);
+        Specification<Book> seek = filter
+                .and(BookSpecification.idGreaterThan(CursorCodec.decode(cursor)))
+                .and(BookSpecification.fetchAuthor());
+
+        // Bir fazla kayıt okunarak sonraki sayfanın varlığı anlaşılır
+        List<Book> rows = bookRepository.findBy(seek, query -> query
+                .sortBy(Sort.by("id"))
+                .limit(pageSize + 1)
+                .all());
+        boolean hasNext = rows.size() > pageSize;
+        SliceImpl<Book> slice = new SliceImpl<>(hasNext ? rows.subList(0, pageSize) : rows,
+                PageRequest.of(0, pageSize), hasNext);
+
+        Long total = includeTotal ? bookRepository.count(filter) : null;
+        return CursorPageResponse.of(slice, Book::getId, this::convertToResponseDto, total);
+    }
+
     @Transactional
-    @CacheEvict(allEntries = true)
     public void deleteBook(Long id) {
         log.info("Deleting book with id: {}", id);
         if (!bookRepository.existsById(id)) {
@@ -163,11 +207,12 @@ public class BookService {
             throw new BookNotFoundException("Book not found with id: " + id);
         }
         bookRepository.deleteById(id);
+        cacheVersionService.bumpVersion(CACHE_NAME);
+        evictAfterCommit(List.of(id));
         log.info("Book deleted successfully with id: {}", id);
     }
 
     @Transactional
-    @CacheEvict(allEntries = true)
     public BookResponseDto updateBook(Long id, BookRequestDto bookRequestDto) {
         log.info("Updating book with id: {}", id);
         
@@ -228,56 +273,184 @@ public class BookService {
         existingBook.setAuthor(author);
 
         Book updatedBook = bookRepository.save(existingBook);
+        cacheVersionService.bumpVersion(CACHE_NAME);
+        evictAfterCommit(List.of(id));
         bookAvailabilityService.notifyAvailabilityChange(updatedBook, "UPDATED");
         log.info("Book updated successfully: {}", updatedBook);
         return convertToResponseDto(updatedBook);
     }
 
     @Transactional
-    @CacheEvict(allEntries = true)
-    public void decreaseAvailableCount(Long id) {
+    public Book decreaseAvailableCount(Long id) {
         log.info("Decreasing available count for book: {}", id);
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
-        
-        if (book.getAvailableCount() <= 0) {
+        if (bookRepository.decrementAvailableCount(id) == 0) {
+            if (!bookRepository.existsById(id)) {
+                throw new BookNotFoundException("Book not found with id: " + id);
+            }
             throw new BookNotAvailableException("Book is not available for loan");
         }
-        
-        book.setAvailableCount(book.getAvailableCount() - 1);
-        BookStatus newStatus = book.getAvailableCount() == 0 ? BookStatus.UNAVAILABLE : BookStatus.AVAILABLE;
-        book.setStatus(newStatus);
-        Book updatedBook = bookRepository.save(book);
+
+        Book updatedBook = reloadBook(id);
+        cacheVersionService.bumpVersion(CACHE_NAME);
+        evictAfterCommit(List.of(id));
         bookAvailabilityService.notifyAvailabilityChange(updatedBook, "BORROWED");
         
         stockChangeCounter.increment(-1);
+        return updatedBook;
     }
 
     @Transactional
-    @CacheEvict(allEntries = true)
     public void increaseAvailableCount(Long id) {
         log.info("Increasing available count for book: {}", id);
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
-        
-        if (book.getAvailableCount() >= book.getStock()) {
+        if (bookRepository.incrementAvailableCount(id) == 0) {
+            if (!bookRepository.existsById(id)) {
+                throw new BookNotFoundException("Book not found with id: " + id);
+            }
             throw new BookStockException("Available count cannot exceed stock");
         }
-        
-        book.setAvailableCount(book.getAvailableCount() + 1);
-        book.setStatus(BookStatus.AVAILABLE);
-        Book updatedBook = bookRepository.save(book);
+
+        Book updatedBook = reloadBook(id);
+        cacheVersionService.bumpVersion(CACHE_NAME);
+        evictAfterCommit(List.of(id));
         bookAvailabilityService.notifyAvailabilityChange(updatedBook, "RETURNED");
         
         stockChangeCounter.increment(1);
     }
 
+    /**
+     * Batch counterpart of {@link #decreaseAvailableCount(Long)}: takes up to the requested
+     * number of copies of each book with one conditional UPDATE per book and returns how
+     * many copies were taken. Instead of throwing, a book without enough copies gives what
+     * is left and a missing book is left out of the result, so callers can report both per
+     * item without rolling back the rest of the batch.
+     */
+    @Transactional
+    public Map<Long, Integer> decreaseAvailableCounts(Map<Long, Integer> requestedCopies) {
+        log.info("Decreasing available counts for {} books", requestedCopies.size());
+        Map<Long, Integer> taken = new HashMap<>();
+        requestedCopies.forEach((id, requested) -> {
+            if (bookRepository.decrementAvailableCountBy(id, requested) == 1) {
+                taken.put(id, requested);
+                return;
+            }
+            // İstenen kadar kopya yok; kalan kopyalar alınır
+            Integer available = bookRepository.findAvailableCountById(id);
+            if (available == null) {
+                return;
+            }
+            int copies = Math.min(available, requested);
+            taken.put(id, copies > 0 && bookRepository.decrementAvailableCountBy(id, copies) == 1 ? copies : 0);
+        });
+
+        int total = taken.values().stream().mapToInt(Integer::intValue).sum();
+        afterAvailableCountsChanged(taken, "BORROWED");
+        stockChangeCounter.increment(-total);
+        return taken;
+    }
+
+    /**
+     * Batch counterpart of {@link #increaseAvailableCount(Long)}. Each book is updated with
+     * one conditional UPDATE; books that are missing or would exceed their stock are left
+     * out of the result instead of failing the batch.
+     */
+    @Transactional
+    public Set<Long> increaseAvailableCounts(Map<Long, Integer> returnedCopies) {
+        log.info("Increasing available counts for {} books", returnedCopies.size());
+        Map<Long, Integer> updated = new HashMap<>();
+        returnedCopies.forEach((id, returned) -> {
+            if (bookRepository.incrementAvailableCountBy(id, returned) == 1) {
+                updated.put(id, returned);
+            }
+        });
+
+        int total = updated.values().stream().mapToInt(Integer::intValue).sum();
+        afterAvailableCountsChanged(updated, "RETURNED");
+        stockChangeCounter.increment(total);
+        return updated.keySet();
+    }
+
+    // Liste sürümü bir kez artırılır; her kitap için tek cache kaydı silinir ve tek olay yayınlanır
+    private void afterAvailableCountsChanged(Map<Long, Integer> changedCopies, String eventType) {
+        List<Long> changedIds = changedCopies.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (changedIds.isEmpty()) {
+            return;
+        }
+
+        cacheVersionService.bumpVersion(CACHE_NAME);
+        evictAfterCommit(changedIds);
+        reloadBooks(changedIds).forEach(book -> bookAvailabilityService.notifyAvailabilityChange(book, eventType));
+    }
+
+    // Tekil kayıtlar da liste sürümüyle birlikte commit'ten sonra silinir; önce silinirse eşzamanlı bir okuma
+    // commit edilmemiş değişiklikten önceki satırı cache'e geri yazabilir
+    private void evictAfterCommit(Collection<Long> ids) {
+        Runnable evict = () -> {
+            Cache cache = cacheManager.getCache(CACHE_NAME);
+            if (cache != null) {
+                ids.forEach(id -> cache.evict("id:" + id));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    // Stok UPDATE'i kalıcılık bağlamını atlar. Bu işlemde zaten yüklü kitap yenilenir, diğeri yazarıyla
+    // okunur; iki durumda da UPDATE'ten sonra kitap başına tek SELECT çalışır
+    private Book reloadBook(Long id) {
+        Book loaded = loadedBook(id);
+        if (loaded != null) {
+            entityManager.refresh(loaded);
+            return loaded;
+        }
+        return bookRepository.findByIdWithAuthor(id);
+    }
+
+    private List<Book> reloadBooks(Collection<Long> ids) {
+        List<Book> books = new ArrayList<>(ids.size());
+        List<Long> notLoaded = new ArrayList<>();
+        for (Long id : ids) {
+            Book loaded = loadedBook(id);
+            if (loaded != null) {
+                entityManager.refresh(loaded);
+                books.add(loaded);
+            } else {
+                notLoaded.add(id);
+            }
+        }
+        if (!notLoaded.isEmpty()) {
+            books.addAll(bookRepository.findAllWithAuthorByIdIn(notLoaded));
+        }
+        return books;
+    }
+
+    // getReference SQL çalıştırmaz: bağlamdaki kitabı ya da başlatılmamış bir proxy döndürür
+    private Book loadedBook(Long id) {
+        Book reference = entityManager.getReference(Book.class, id);
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(reference) ? reference : null;
+    }
+
+    public Map<Long, Book> getBookEntities(Collection<Long> ids) {
+        return bookRepository.findAllWithAuthorByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, book -> book));
+    }
+
     public Book getBookEntity(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
     }
 
-    private BookResponseDto convertToResponseDto(Book book) {
+    BookResponseDto convertToResponseDto(Book book) {
         log.info("Converting book to response DTO: {}", book);
         if (book.getAuthor() == null) {
             log.error("Book author is null for book: {}", book);
@@ -0,0 +1,136 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * RFC 4180 style CSV with a header row naming the {@link BookRequestDto} fields, e.g.
+ * {@code title,isbn,stock,pageCount,publicationDate,publisher,bookType,authorName,authorSurname}.
+ * Header names are matched case-insensitively, unknown columns are ignored and quoted fields
+ * may contain commas, doubled quotes and line breaks. Rows are numbered from 1 after the header.
+ */
+class CsvBookImportReader implements BookImportReader {
+
+    private static final char BOM = '\uFEFF';
+
+    // Başlık adları büyük/küçük harf duyarsız olarak DTO alan adlarına eşlenir
+    private static final Map<String, String> FIELDS = Arrays.stream(BookRequestDto.class.getDeclaredFields())
+            .map(Field::getName)
+            .collect(Collectors.toMap(name -> name.toLowerCase(Locale.ROOT), Function.identity()));
+
+    private final BufferedReader in;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader bookReader;
+    private List<String> header;
+    private long row;
+
+    CsvBookImportReader(InputStream in, ObjectMapper objectMapper) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        this.bookReader = objectMapper.readerFor(BookRequestDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public BookImportRow next() throws IOException {
+        if (header == null) {
+            header = readRecord();
+            if (header == null) {
+                return null;
+            }
+            if (!header.isEmpty() && !header.get(0).isEmpty() && header.get(0).charAt(0) == BOM) {
+                header.set(0, header.get(0).substring(1));
+            }
+            header.replaceAll(name -> {
+                String trimmed = name.trim();
+                return FIELDS.getOrDefault(trimmed.toLowerCase(Locale.ROOT), trimmed);
+            });
+        }
+
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        row++;
+        if (fields.size() != header.size()) {
+            return BookImportRow.invalid(row, "Expected " + header.size() + " columns but found " + fields.size());
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        for (int i = 0; i < header.size(); i++) {
+            String value = fields.get(i).trim();
+            // Boş hücre eksik alan sayılır; doğrulama hangi alanın zorunlu olduğunu söyler
+            if (!value.isEmpty()) {
+                node.put(header.get(i), value);
+            }
+        }
+        return BookImportRow.convert(row, node, bookReader);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (; c != -1; c = in.read()) {
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                in.mark(1);
+                int next = in.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        in.reset();
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in row " + (row + 1));
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,44 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Either a JSON array of {@link BookRequestDto} objects or a sequence of objects such as
+ * newline-delimited JSON. Only the current object is materialized; rows are numbered from 1
+ * in file order.
+ */
+class JsonBookImportReader implements BookImportReader {
+
+    private final MappingIterator<JsonNode> records;
+    private final ObjectReader bookReader;
+    private long row;
+
+    JsonBookImportReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        // Kök dizi MappingIterator tarafından açılır; elemanlar tek tek okunur
+        this.records = objectMapper.readerFor(JsonNode.class).readValues(in);
+        this.bookReader = objectMapper.readerFor(BookRequestDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public BookImportRow next() throws IOException {
+        if (!records.hasNextValue()) {
+            return null;
+        }
+        JsonNode node = records.nextValue();
+        return BookImportRow.convert(++row, node, bookReader);
+    }
+
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
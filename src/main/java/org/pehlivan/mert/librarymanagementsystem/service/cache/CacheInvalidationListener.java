@@ -0,0 +1,47 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.io.IOException;
+
+/**
+ * Drops local cache entries that another node has changed and takes over the list
+ * versions it announces. Messages sent by this node are ignored, its own local cache was
+ * already updated by the write.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final TwoLevelCacheManager cacheManager;
+    private final CacheVersionService cacheVersionService;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        if (invalidation.version() != null) {
+            log.debug("Cache {} list version {} announced by node {}",
+                    invalidation.cacheName(), invalidation.version(), invalidation.origin());
+            cacheVersionService.applyVersion(invalidation.cacheName(), invalidation.version());
+            return;
+        }
+        log.debug("Evicting local cache entry {}::{} changed by node {}",
+                invalidation.cacheName(), invalidation.key(), invalidation.origin());
+        cacheManager.evictLocal(invalidation.cacheName(), invalidation.key());
+    }
+}
@@ -0,0 +1,13 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+/**
+ * Published on the invalidation channel after a cache write. A {@code null} key means
+ * the whole cache was cleared. {@code origin} identifies the sending node. A message with
+ * a {@code version} announces a new list version of the cache and evicts nothing.
+ */
+public record CacheInvalidationMessage(String origin, String cacheName, String key, Long version) {
+
+    public CacheInvalidationMessage(String origin, String cacheName, String key) {
+        this(origin, cacheName, key, null);
+    }
+}
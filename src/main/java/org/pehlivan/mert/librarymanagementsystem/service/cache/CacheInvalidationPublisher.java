@@ -0,0 +1,68 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Announces local cache changes to the other nodes over Redis pub/sub. A failed publish
+ * is only logged: the write itself already reached Redis, and stale local copies on the
+ * other nodes still expire with the cache TTL.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationPublisher {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Counter failedCounter;
+
+    public CacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate,
+                                      ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${library.cache.invalidation-channel:library:cache:invalidation}") String channel) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.failedCounter = meterRegistry.counter("library.cache.invalidation.failed");
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null));
+    }
+
+    public void publishVersion(String cacheName, long version) {
+        publish(new CacheInvalidationMessage(nodeId, cacheName, null, version));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException | RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Cache invalidation for {}::{} could not be published: {}",
+                    message.cacheName(), message.key(), e.getMessage());
+        }
+    }
+}
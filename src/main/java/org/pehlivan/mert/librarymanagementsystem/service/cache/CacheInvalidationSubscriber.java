@@ -0,0 +1,93 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the node subscribed to the cache invalidation channel. The listener container is
+ * managed here instead of as a bean, because a container bean is started with the context
+ * and would stop the application from starting while Redis is down. The subscription is
+ * retried periodically and local cache reads only run while it is up.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationSubscriber {
+
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final TwoLevelCacheManager cacheManager;
+    private final CacheVersionService cacheVersionService;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final ObjectMapper objectMapper;
+
+    // Abonelik denemesi Redis'e bağlanırken bekler; synchronized sanal thread'i taşıyıcısına sabitlerdi
+    private final ReentrantLock subscribeLock = new ReentrantLock();
+
+    private RedisMessageListenerContainer container;
+
+    @PostConstruct
+    public void init() {
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                new CacheInvalidationListener(cacheManager, cacheVersionService, objectMapper, invalidationPublisher.getNodeId()),
+                new ChannelTopic(invalidationPublisher.getChannel()));
+        container.afterPropertiesSet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        ensureSubscribed();
+    }
+
+    @Scheduled(fixedDelayString = "${library.cache.invalidation-retry-interval-ms:30000}",
+            initialDelayString = "${library.cache.invalidation-retry-interval-ms:30000}")
+    public void ensureSubscribed() {
+        subscribeLock.lock();
+        try {
+            if (container.isListening()) {
+                if (!cacheManager.isLocalReadsEnabled()) {
+                    setLocalReadsEnabled(true);
+                }
+                return;
+            }
+            if (cacheManager.isLocalReadsEnabled()) {
+                setLocalReadsEnabled(false);
+            }
+            try {
+                // Başarısız bir başlatmadan sonra konteyner çalışıyor görünür; önce durdurulmalı
+                container.stop();
+                container.start();
+                setLocalReadsEnabled(true);
+                log.info("Subscribed to cache invalidation channel {}", invalidationPublisher.getChannel());
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation subscription failed, local cache stays off: {}", e.getMessage());
+            }
+        } finally {
+            subscribeLock.unlock();
+        }
+    }
+
+    // Kaçırılmış olabilecek sürüm duyuruları yüzünden bellekteki sürümler de Redis'ten yeniden okunur
+    private void setLocalReadsEnabled(boolean enabled) {
+        cacheVersionService.clearLocalVersions();
+        cacheManager.setLocalReadsEnabled(enabled);
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        container.destroy();
+    }
+}
@@ -0,0 +1,233 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Protects {@code @Cacheable(sync = true)} methods against cache stampedes. Concurrent
+ * misses for the same key on this node wait for a single loader; with the distributed
+ * lock enabled, nodes also take a short Redis lock per key so only one of them queries
+ * the database while the others wait for the value to appear in Redis. Hot keys can be
+ * recomputed shortly before they expire (probabilistic early refresh, "XFetch"): the
+ * closer an entry is to its TTL and the slower its loader, the more likely a read is to
+ * refresh it while everyone else keeps getting the cached value.
+ * <p>
+ * Redis failures never block a load; the loader then simply runs on this node.
+ */
+@Slf4j
+@Component
+public class CacheLoadCoordinator {
+
+    private static final String LOCK_PREFIX = "cache-lock:";
+    private static final long LOCK_POLL_INTERVAL_MS = 50;
+    private static final double LOAD_TIME_SMOOTHING = 0.2;
+
+    // Kilit yalnızca sahibi tarafından silinir; süresi dolmuş kilit başka düğüme geçmiş olabilir
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // Anahtar türü başına ("book::id", "book::all", "book::search"): hızlı tekil okumalar yavaş liste yüklemeleriyle karışmaz
+    private final Map<String, Double> loadTimeNanos = new ConcurrentHashMap<>();
+
+    @Value("${library.cache.stampede.distributed-lock:false}")
+    private boolean distributedLock;
+
+    @Value("${library.cache.stampede.lock-ttl:PT10S}")
+    private Duration lockTtl;
+
+    @Value("${library.cache.stampede.lock-wait:PT5S}")
+    private Duration lockWait;
+
+    @Value("${library.cache.stampede.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+
+    public CacheLoadCoordinator(StringRedisTemplate stringRedisTemplate, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the value for {@code key}, running {@code loader} at most once per key on
+     * this node at a time. Callers arriving while a load is running wait for its result;
+     * when {@code staleValue} is given they return it immediately instead.
+     *
+     * @param cached looks the key up in Redis before loading, may return {@code null}
+     * @param store  writes a freshly loaded value to the cache
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String cacheName, String key, Object staleValue,
+                      Supplier<Cache.ValueWrapper> cached, Callable<T> loader, Consumer<Object> store) {
+        String flightKey = cacheName + "::" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            if (staleValue != null) {
+                return (T) staleValue;
+            }
+            meterRegistry.counter("library.cache.load.coalesced", "cache", cacheName).increment();
+            return (T) await(running, key, loader);
+        }
+
+        try {
+            Object value = loadOnce(cacheName, key, staleValue, cached, loader, store);
+            flight.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * XFetch: refreshes when {@code loadTime * beta * -ln(random)} reaches the time left
+     * before the entry expires. The load time is measured per key prefix (the part before
+     * the first {@code ':'}), so keys of the same kind share one estimate. Without a
+     * measured load time nothing is refreshed early.
+     */
+    public boolean shouldRefreshEarly(String cacheName, String key, Duration age, Duration ttl) {
+        Double loadTime = loadTimeNanos.get(loadTimeKey(cacheName, key));
+        if (earlyRefreshBeta <= 0 || loadTime == null || age == null) {
+            return false;
+        }
+        double remaining = ttl.toNanos() - age.toNanos();
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        boolean refresh = loadTime * earlyRefreshBeta * -Math.log(random) >= remaining;
+        if (refresh) {
+            meterRegistry.counter("library.cache.early.refresh", "cache", cacheName).increment();
+        }
+        return refresh;
+    }
+
+    private Object loadOnce(String cacheName, String key, Object staleValue, Supplier<Cache.ValueWrapper> cached,
+                            Callable<?> loader, Consumer<Object> store) {
+        // Erken yenilemede Redis'teki kopya yerel kopyadan yeni değildir, doğrudan yüklenir
+        if (staleValue == null) {
+            Cache.ValueWrapper wrapper = cached.get();
+            if (wrapper != null && wrapper.get() != null) {
+                return wrapper.get();
+            }
+        }
+
+        String lockKey = LOCK_PREFIX + cacheName + "::" + key;
+        String token = distributedLock ? tryLock(lockKey) : null;
+        try {
+            if (distributedLock && token == null) {
+                if (staleValue != null) {
+                    return staleValue;
+                }
+                // Başka bir düğüm yüklüyor; değer Redis'e yazılana kadar kısa süre beklenir
+                Object loadedElsewhere = awaitRemoteValue(cached);
+                if (loadedElsewhere != null) {
+                    return loadedElsewhere;
+                }
+            }
+            long start = System.nanoTime();
+            Object value = call(key, loader);
+            recordLoadTime(loadTimeKey(cacheName, key), System.nanoTime() - start);
+            meterRegistry.counter("library.cache.load", "cache", cacheName).increment();
+            store.accept(value);
+            return value;
+        } finally {
+            if (token != null) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    private String tryLock(String lockKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.warn("Cache load lock {} unavailable, loading without it: {}", lockKey, e.getMessage());
+            return "";
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        if (token.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            log.warn("Cache load lock {} could not be released, it expires in {}: {}",
+                    lockKey, lockTtl, e.getMessage());
+        }
+    }
+
+    private Object awaitRemoteValue(Supplier<Cache.ValueWrapper> cached) {
+        long deadline = System.nanoTime() + lockWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Cache.ValueWrapper wrapper = cached.get();
+            if (wrapper != null && wrapper.get() != null) {
+                return wrapper.get();
+            }
+        }
+        return null;
+    }
+
+    private Object await(CompletableFuture<Object> running, String key, Callable<?> loader) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Cache.ValueRetrievalException(key, loader, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Cache.ValueRetrievalException retrievalException) {
+                throw retrievalException;
+            }
+            throw new Cache.ValueRetrievalException(key, loader, e.getCause());
+        }
+    }
+
+    private static Object call(String key, Callable<?> loader) {
+        try {
+            return loader.call();
+        } catch (Exception e) {
+            throw new Cache.ValueRetrievalException(key, loader, e);
+        }
+    }
+
+    private void recordLoadTime(String loadTimeKey, long nanos) {
+        loadTimeNanos.merge(loadTimeKey, (double) nanos,
+                (previous, sample) -> previous + LOAD_TIME_SMOOTHING * (sample - previous));
+    }
+
+    // "search:v3:..." -> "book::search"; sürüm ve parametreler tahmini bölmez
+    private static String loadTimeKey(String cacheName, String key) {
+        int separator = key.indexOf(':');
+        return cacheName + "::" + (separator < 0 ? key : key.substring(0, separator));
+    }
+}
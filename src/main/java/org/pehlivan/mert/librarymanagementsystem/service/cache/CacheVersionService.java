@@ -0,0 +1,93 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a version number per cache name in Redis. List and search entries embed the
+ * current version in their key, so bumping it retires all of them at once without
+ * touching the per-id entries of the same cache. Old entries simply expire by TTL.
+ * <p>
+ * While local cache reads are enabled the version is also held in memory, read from Redis
+ * once and then kept current by the version announcements on the invalidation channel, so
+ * list and search reads do not leave the JVM. Without the subscription every read asks Redis.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheVersionService {
+
+    private static final String KEY_PREFIX = "cache-version:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TwoLevelCacheManager cacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final Map<String, Long> localVersions = new ConcurrentHashMap<>();
+
+    public long currentVersion(String cacheName) {
+        if (!cacheManager.isLocalReadsEnabled()) {
+            return remoteVersion(cacheName);
+        }
+        Long version = localVersions.get(cacheName);
+        if (version != null) {
+            return version;
+        }
+        // Okuma sırasında gelen bir duyuru kaybolmaz; büyük olan sürüm kalır
+        return localVersions.merge(cacheName, remoteVersion(cacheName), Math::max);
+    }
+
+    /**
+     * Bumps the version once the surrounding transaction has committed, so a concurrent
+     * reader cannot repopulate the new version with data from before the commit.
+     */
+    public void bumpVersion(String cacheName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(cacheName);
+                }
+            });
+        } else {
+            increment(cacheName);
+        }
+    }
+
+    /**
+     * Applies a version announced by another node. Versions only move forward, so a late
+     * or repeated announcement cannot bring back an older one.
+     */
+    public void applyVersion(String cacheName, long version) {
+        localVersions.merge(cacheName, version, Math::max);
+    }
+
+    /**
+     * Forgets the in-memory versions; announcements may have been missed while this node
+     * was not subscribed, so they are read from Redis again.
+     */
+    public void clearLocalVersions() {
+        localVersions.clear();
+    }
+
+    private long remoteVersion(String cacheName) {
+        String value = stringRedisTemplate.opsForValue().get(KEY_PREFIX + cacheName);
+        return value == null ? 0L : Long.parseLong(value);
+    }
+
+    private void increment(String cacheName) {
+        Long version = stringRedisTemplate.opsForValue().increment(KEY_PREFIX + cacheName);
+        log.debug("Cache {} list version bumped to {}", cacheName, version);
+        if (version != null) {
+            applyVersion(cacheName, version);
+            invalidationPublisher.publishVersion(cacheName, version);
+        }
+    }
+}
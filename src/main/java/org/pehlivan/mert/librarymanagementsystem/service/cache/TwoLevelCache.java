@@ -0,0 +1,213 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * A cache that answers reads from an in-process Caffeine map first and falls back to the
+ * shared Redis cache. Every write goes to Redis as well and is announced to the other
+ * nodes, which drop their local copy of the key so the next read fetches the new value.
+ * While this node is not subscribed to those announcements, reads skip the local map.
+ * Local entries are the same object instances handed to callers, so cached values must
+ * not be modified after they are returned.
+ * <p>
+ * A value written by this node expires locally after the full TTL, the same moment its
+ * Redis copy does. A value read from Redis is kept locally only for the time its Redis
+ * copy has left, so a local copy never outlives the shared one.
+ * <p>
+ * Loads for {@code @Cacheable(sync = true)} methods go through {@link CacheLoadCoordinator},
+ * which runs a single loader per key and may refresh hot local entries before they expire.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final Duration ttl;
+    private final Function<String, Duration> remainingTtl;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final BooleanSupplier localReadsEnabled;
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                         Cache remote,
+                         Duration ttl,
+                         Function<String, Duration> remainingTtl,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheLoadCoordinator loadCoordinator,
+                         BooleanSupplier localReadsEnabled) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.ttl = ttl;
+        this.remainingTtl = remainingTtl;
+        this.invalidationPublisher = invalidationPublisher;
+        this.loadCoordinator = loadCoordinator;
+        this.localReadsEnabled = localReadsEnabled;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (!localReadsEnabled.getAsBoolean()) {
+            return remote.get(key);
+        }
+        Object value = local.getIfPresent(localKey(key));
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            putLocalFromRemote(localKey(key), wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object staleValue = null;
+        if (localReadsEnabled.getAsBoolean()) {
+            Object value = local.getIfPresent(localKey);
+            if (value != null && !loadCoordinator.shouldRefreshEarly(name, localKey, localAge(localKey), ttl)) {
+                @SuppressWarnings("unchecked")
+                T cached = (T) value;
+                return cached;
+            }
+            // Süresi dolmak üzere olan değer yenilenirken diğer okumalar eski değeri alır
+            staleValue = value;
+        }
+        return loadCoordinator.load(name, localKey, staleValue, () -> getRemote(key), valueLoader, loaded -> {
+            if (loaded != null) {
+                put(key, loaded);
+            }
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null && localReadsEnabled.getAsBoolean()) {
+            local.put(localKey(key), value);
+        }
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            if (value != null && localReadsEnabled.getAsBoolean()) {
+                local.put(localKey(key), value);
+            }
+            invalidationPublisher.publishEvict(name, localKey(key));
+        } else if (existing.get() != null && localReadsEnabled.getAsBoolean()) {
+            putLocalFromRemote(localKey(key), existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        invalidationPublisher.publishEvict(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = remote.invalidate();
+        local.invalidateAll();
+        invalidationPublisher.publishClear(name);
+        return present;
+    }
+
+    private ValueWrapper getRemote(Object key) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null && localReadsEnabled.getAsBoolean()) {
+            putLocalFromRemote(localKey(key), wrapper.get());
+        }
+        return wrapper;
+    }
+
+    // Redis'teki kalan süre bilinmiyorsa yerel kopya tutulmaz, okuma Redis'ten devam eder
+    private void putLocalFromRemote(String localKey, Object value) {
+        Duration remaining = remainingTtl.apply(localKey);
+        if (remaining == null || remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+        local.policy().expireVariably().ifPresentOrElse(
+                expiration -> expiration.put(localKey, value, remaining),
+                () -> local.put(localKey, value));
+    }
+
+    // Yaş, Redis kopyasının yazılışından itibaren sayılır: TTL eksi kalan süre
+    private Duration localAge(String localKey) {
+        return local.policy().expireVariably()
+                .flatMap(expiration -> expiration.getExpiresAfter(localKey))
+                .map(ttl::minus)
+                .orElse(null);
+    }
+
+    /**
+     * Drops a key from the local map only. Used when another node reports a change.
+     */
+    void evictLocal(String key) {
+        local.invalidate(key);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // Redis anahtarları da metne çevrilir; düğümler arası mesajlarda aynı biçim kullanılır
+    private static String localKey(Object key) {
+        return key instanceof String value ? value : String.valueOf(key);
+    }
+}
@@ -0,0 +1,129 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Puts a size-bounded Caffeine map in front of every cache of the Redis cache manager.
+ * Local entries expire together with their Redis copy: a local write gets the TTL of the
+ * Redis cache of the same name, a value read from Redis gets the time its Redis key has
+ * left, looked up with one extra Redis call per local miss. A node therefore never serves
+ * an entry longer than Redis would have kept it. Local reads stay off until
+ * the node is subscribed to the invalidation channel; without it a node could keep
+ * serving entries that another node has already changed.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Function<String, Duration> ttlResolver;
+    private final BiFunction<String, String, Duration> remainingTtlResolver;
+    private final long localMaximumSize;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private volatile boolean localReadsEnabled;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                Function<String, Duration> ttlResolver,
+                                BiFunction<String, String, Duration> remainingTtlResolver,
+                                long localMaximumSize,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                CacheLoadCoordinator loadCoordinator) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.ttlResolver = ttlResolver;
+        this.remainingTtlResolver = remainingTtlResolver;
+        this.localMaximumSize = localMaximumSize;
+        this.invalidationPublisher = invalidationPublisher;
+        this.loadCoordinator = loadCoordinator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> createCache(key, remote));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    public boolean isLocalReadsEnabled() {
+        return localReadsEnabled;
+    }
+
+    /**
+     * Turns local reads on or off. Local entries are dropped either way, invalidations
+     * sent while this node was not listening have been missed.
+     */
+    public void setLocalReadsEnabled(boolean enabled) {
+        caches.values().forEach(TwoLevelCache::clearLocal);
+        localReadsEnabled = enabled;
+        log.info("Local cache reads {}", enabled ? "enabled" : "disabled");
+    }
+
+    /**
+     * Applies an invalidation received from another node. A {@code null} key clears the
+     * whole local cache. Caches this node has not used yet hold nothing to invalidate.
+     */
+    public void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(key);
+        }
+    }
+
+    private TwoLevelCache createCache(String name, Cache remote) {
+        Duration ttl = ttlResolver.apply(name);
+        log.debug("Creating local cache {} with TTL {} and maximum size {}", name, ttl, localMaximumSize);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfter(new WriteExpiry(ttl))
+                .recordStats()
+                .build();
+        return new TwoLevelCache(name, local, remote, ttl, key -> remainingTtlResolver.apply(name, key),
+                invalidationPublisher, loadCoordinator, this::isLocalReadsEnabled);
+    }
+
+    // Okuma süreyi uzatmaz; Redis'ten okunan değerler kalan süreleriyle ayrıca yazılır
+    record WriteExpiry(Duration ttl) implements Expiry<String, Object> {
+
+        @Override
+        public long expireAfterCreate(String key, Object value, long currentTime) {
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+            return ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
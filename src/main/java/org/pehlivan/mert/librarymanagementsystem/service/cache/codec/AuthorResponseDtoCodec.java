@@ -0,0 +1,41 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorResponseDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AuthorResponseDtoCodec implements CacheValueCodec<AuthorResponseDto> {
+
+    @Override
+    public Class<AuthorResponseDto> type() {
+        return AuthorResponseDto.class;
+    }
+
+    @Override
+    public int typeId() {
+        return 4;
+    }
+
+    @Override
+    public int schemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(AuthorResponseDto author, CacheBinaryOutput out) {
+        out.beginRecord(author.getId(), author.getName(), author.getSurname());
+        out.writeLong(author.getId());
+        out.writeString(author.getName());
+        out.writeString(author.getSurname());
+    }
+
+    @Override
+    public AuthorResponseDto read(CacheBinaryInput in) {
+        in.beginRecord();
+        return AuthorResponseDto.builder()
+                .id(in.readLong())
+                .name(in.readString())
+                .surname(in.readString())
+                .build();
+    }
+}
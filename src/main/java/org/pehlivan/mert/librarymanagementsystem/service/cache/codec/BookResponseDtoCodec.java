@@ -0,0 +1,65 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookResponseDtoCodec implements CacheValueCodec<BookResponseDto> {
+
+    @Override
+    public Class<BookResponseDto> type() {
+        return BookResponseDto.class;
+    }
+
+    @Override
+    public int typeId() {
+        return 1;
+    }
+
+    @Override
+    public int schemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(BookResponseDto book, CacheBinaryOutput out) {
+        out.beginRecord(book.getId(), book.getTitle(), book.getIsbn(), book.getStock(), book.getAvailableCount(),
+                book.getPageCount(), book.getPublicationDate(), book.getPublisher(), book.getStatus(),
+                book.getBookType(), book.getAuthorId(), book.getAuthorName(), book.getAuthorSurname());
+        out.writeLong(book.getId());
+        out.writeString(book.getTitle());
+        out.writeString(book.getIsbn());
+        out.writeInt(book.getStock());
+        out.writeInt(book.getAvailableCount());
+        out.writeInt(book.getPageCount());
+        out.writeDate(book.getPublicationDate());
+        out.writeString(book.getPublisher());
+        out.writeEnum(book.getStatus());
+        out.writeEnum(book.getBookType());
+        out.writeLong(book.getAuthorId());
+        out.writeString(book.getAuthorName());
+        out.writeString(book.getAuthorSurname());
+    }
+
+    @Override
+    public BookResponseDto read(CacheBinaryInput in) {
+        in.beginRecord();
+        return BookResponseDto.builder()
+                .id(in.readLong())
+                .title(in.readString())
+                .isbn(in.readString())
+                .stock(in.readInt())
+                .availableCount(in.readInt())
+                .pageCount(in.readInt())
+                .publicationDate(in.readDate())
+                .publisher(in.readString())
+                .status(in.readEnum(BookStatus.class))
+                .bookType(in.readEnum(BookType.class))
+                .authorId(in.readLong())
+                .authorName(in.readString())
+                .authorSurname(in.readString())
+                .build();
+    }
+}
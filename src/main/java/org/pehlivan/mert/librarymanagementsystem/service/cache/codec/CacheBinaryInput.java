@@ -0,0 +1,116 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+
+/**
+ * Reads what {@link CacheBinaryOutput} wrote. After {@link #beginRecord()} every typed
+ * read consumes the next field and returns {@code null} when it was not present.
+ * Truncated input raises {@link IllegalStateException}.
+ */
+public final class CacheBinaryInput {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private long presence;
+    private int field;
+
+    public CacheBinaryInput(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    public void beginRecord() {
+        presence = readVarLong();
+        field = 0;
+    }
+
+    public Long readLong() {
+        if (!nextFieldPresent()) {
+            return null;
+        }
+        long encoded = readVarLong();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    public Integer readInt() {
+        Long value = readLong();
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    public Double readDouble() {
+        if (!nextFieldPresent()) {
+            return null;
+        }
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buffer[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    public String readString() {
+        if (!nextFieldPresent()) {
+            return null;
+        }
+        return readUtf8();
+    }
+
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    public Date readDate() {
+        Long millis = readLong();
+        return millis == null ? null : new Date(millis);
+    }
+
+    public LocalDate readLocalDate() {
+        Long epochDay = readLong();
+        return epochDay == null ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint");
+    }
+
+    public String readUtf8() {
+        int length = Math.toIntExact(readVarLong());
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    private boolean nextFieldPresent() {
+        return (presence & (1L << field++)) != 0;
+    }
+
+    private void require(int length) {
+        if (length < 0 || position + length > limit) {
+            throw new IllegalStateException("Unexpected end of cached value");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Growable byte buffer for {@link CacheValueCodec}s. A record starts with
+ * {@link #beginRecord(Object...)}, which stores one presence bit per field; the typed
+ * write methods that follow skip {@code null} fields entirely. Integers are written as
+ * zigzag varints, so small ids and counts take one or two bytes.
+ */
+public final class CacheBinaryOutput {
+
+    private static final int MAX_RECORD_FIELDS = 64;
+
+    private byte[] buffer;
+    private int size;
+
+    public CacheBinaryOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    public void beginRecord(Object... fields) {
+        if (fields.length > MAX_RECORD_FIELDS) {
+            throw new IllegalArgumentException("A record can have at most " + MAX_RECORD_FIELDS + " fields");
+        }
+        long presence = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                presence |= 1L << i;
+            }
+        }
+        writeVarLong(presence);
+    }
+
+    public void writeLong(Long value) {
+        if (value != null) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+    }
+
+    public void writeInt(Integer value) {
+        if (value != null) {
+            writeLong(value.longValue());
+        }
+    }
+
+    public void writeDouble(Double value) {
+        if (value != null) {
+            long bits = Double.doubleToLongBits(value);
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+    }
+
+    public void writeString(String value) {
+        if (value != null) {
+            writeUtf8(value);
+        }
+    }
+
+    // Enum sırası değişse de eski kayıtlar bozulmasın diye ad yazılır
+    public void writeEnum(Enum<?> value) {
+        if (value != null) {
+            writeString(value.name());
+        }
+    }
+
+    public void writeDate(Date value) {
+        if (value != null) {
+            writeLong(value.getTime());
+        }
+    }
+
+    public void writeLocalDate(LocalDate value) {
+        if (value != null) {
+            writeLong(value.toEpochDay());
+        }
+    }
+
+    public void writeUtf8(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        writeVarLong(bytes.length);
+        writeRaw(bytes, 0, bytes.length);
+    }
+
+    public void writeRaw(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
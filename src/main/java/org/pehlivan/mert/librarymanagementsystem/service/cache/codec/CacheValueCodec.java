@@ -0,0 +1,22 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+/**
+ * Binary layout of one cached DTO type. Register an implementation as a bean to store
+ * that type in the compact format; other types keep using JSON.
+ * <p>
+ * {@link #typeId()} is written into every value and must never be reused for another
+ * type. Bump {@link #schemaVersion()} whenever fields are added, removed or reordered;
+ * values written with an older version are then treated as cache misses.
+ */
+public interface CacheValueCodec<T> {
+
+    Class<T> type();
+
+    int typeId();
+
+    int schemaVersion();
+
+    void write(T value, CacheBinaryOutput out);
+
+    T read(CacheBinaryInput in);
+}
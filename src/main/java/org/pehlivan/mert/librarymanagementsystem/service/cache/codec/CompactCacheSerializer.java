@@ -0,0 +1,236 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Redis value serializer that writes the DTO types with a registered
+ * {@link CacheValueCodec} in a compact binary layout without per-value class names. A
+ * single DTO, a list of DTOs of one type and a page of them are supported; any other
+ * value (entities, empty lists, mixed lists) goes through the fallback JSON serializer.
+ * <p>
+ * Binary values start with a byte that never begins valid UTF-8, so JSON values already
+ * in Redis are still read. Payloads larger than the compression threshold are deflated.
+ * Values with an unknown type id or an outdated schema version deserialize to
+ * {@code null}, which the cache treats as a miss.
+ */
+@Slf4j
+public class CompactCacheSerializer implements RedisSerializer<Object> {
+
+    static final int FORMAT_BINARY = 0xC0;
+    static final int FORMAT_DEFLATED = 0xC1;
+
+    private static final int KIND_SINGLE = 0;
+    private static final int KIND_LIST = 1;
+    private static final int KIND_PAGE = 2;
+
+    private final Map<Class<?>, CacheValueCodec<?>> codecsByType = new HashMap<>();
+    private final Map<Integer, CacheValueCodec<?>> codecsById = new HashMap<>();
+    private final RedisSerializer<Object> fallback;
+    private final int compressionThreshold;
+
+    public CompactCacheSerializer(Collection<? extends CacheValueCodec<?>> codecs,
+                                  RedisSerializer<Object> fallback,
+                                  int compressionThreshold) {
+        for (CacheValueCodec<?> codec : codecs) {
+            CacheValueCodec<?> previous = codecsById.put(codec.typeId(), codec);
+            if (previous != null) {
+                throw new IllegalStateException("Cache codecs " + previous.getClass().getSimpleName() + " and "
+                        + codec.getClass().getSimpleName() + " share type id " + codec.typeId());
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+        this.fallback = fallback;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        CacheValueCodec<Object> codec = codecFor(value);
+        if (codec == null) {
+            return fallback.serialize(value);
+        }
+
+        CacheBinaryOutput out = new CacheBinaryOutput(256);
+        out.writeByte(FORMAT_BINARY);
+        out.writeVarLong(codec.typeId());
+        out.writeVarLong(codec.schemaVersion());
+        if (value instanceof Page<?> page) {
+            out.writeByte(KIND_PAGE);
+            writePage(page, codec, out);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(KIND_LIST);
+            writeElements(list, codec, out);
+        } else {
+            out.writeByte(KIND_SINGLE);
+            codec.write(value, out);
+        }
+        return out.size() > compressionThreshold ? deflate(out) : out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        int format = bytes[0] & 0xFF;
+        if (format == FORMAT_DEFLATED) {
+            return read(inflate(bytes));
+        }
+        if (format == FORMAT_BINARY) {
+            return read(bytes);
+        }
+        return fallback.deserialize(bytes);
+    }
+
+    private Object read(byte[] bytes) {
+        try {
+            CacheBinaryInput in = new CacheBinaryInput(bytes, 1, bytes.length);
+            int typeId = Math.toIntExact(in.readVarLong());
+            int schemaVersion = Math.toIntExact(in.readVarLong());
+            CacheValueCodec<?> codec = codecsById.get(typeId);
+            if (codec == null || codec.schemaVersion() != schemaVersion) {
+                // Eski şemayla yazılmış değer okunmaz; önbellek kaçırması olarak yeniden yüklenir
+                log.debug("Ignoring cached value with type id {} and schema version {}", typeId, schemaVersion);
+                return null;
+            }
+            int kind = in.readByte();
+            return switch (kind) {
+                case KIND_SINGLE -> codec.read(in);
+                case KIND_LIST -> readElements(codec, in);
+                case KIND_PAGE -> readPage(codec, in);
+                default -> throw new IllegalStateException("Unknown value kind " + kind);
+            };
+        } catch (RuntimeException e) {
+            throw new SerializationException("Cannot deserialize cached value", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheValueCodec<Object> codecFor(Object value) {
+        if (value instanceof Page<?> page) {
+            return page.getPageable().isPaged() ? elementCodec(page.getContent()) : null;
+        }
+        if (value instanceof List<?> list) {
+            return elementCodec(list);
+        }
+        return (CacheValueCodec<Object>) codecsByType.get(value.getClass());
+    }
+
+    // Liste yalnızca aynı tipte, null olmayan elemanlardan oluşuyorsa ikili yazılır
+    @SuppressWarnings("unchecked")
+    private CacheValueCodec<Object> elementCodec(List<?> elements) {
+        if (elements.isEmpty() || elements.get(0) == null) {
+            return null;
+        }
+        Class<?> type = elements.get(0).getClass();
+        CacheValueCodec<?> codec = codecsByType.get(type);
+        if (codec == null) {
+            return null;
+        }
+        for (Object element : elements) {
+            if (element == null || element.getClass() != type) {
+                return null;
+            }
+        }
+        return (CacheValueCodec<Object>) codec;
+    }
+
+    private void writePage(Page<?> page, CacheValueCodec<Object> codec, CacheBinaryOutput out) {
+        out.writeVarLong(page.getNumber());
+        out.writeVarLong(page.getSize());
+        out.writeVarLong(page.getTotalElements());
+        List<Sort.Order> orders = page.getSort().toList();
+        out.writeVarLong(orders.size());
+        for (Sort.Order order : orders) {
+            out.writeUtf8(order.getProperty());
+            out.writeByte(order.getDirection().ordinal());
+        }
+        writeElements(page.getContent(), codec, out);
+    }
+
+    private Page<Object> readPage(CacheValueCodec<?> codec, CacheBinaryInput in) {
+        int number = Math.toIntExact(in.readVarLong());
+        int size = Math.toIntExact(in.readVarLong());
+        long total = in.readVarLong();
+        int orderCount = Math.toIntExact(in.readVarLong());
+        List<Sort.Order> orders = new ArrayList<>(orderCount);
+        for (int i = 0; i < orderCount; i++) {
+            String property = in.readUtf8();
+            orders.add(new Sort.Order(Sort.Direction.values()[in.readByte()], property));
+        }
+        return new PageImpl<>(readElements(codec, in), PageRequest.of(number, size, Sort.by(orders)), total);
+    }
+
+    private void writeElements(List<?> elements, CacheValueCodec<Object> codec, CacheBinaryOutput out) {
+        out.writeVarLong(elements.size());
+        for (Object element : elements) {
+            codec.write(element, out);
+        }
+    }
+
+    private List<Object> readElements(CacheValueCodec<?> codec, CacheBinaryInput in) {
+        int count = Math.toIntExact(in.readVarLong());
+        List<Object> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            elements.add(codec.read(in));
+        }
+        return elements;
+    }
+
+    private byte[] deflate(CacheBinaryOutput out) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(out.buffer(), 1, out.size() - 1);
+            deflater.finish();
+            CacheBinaryOutput compressed = new CacheBinaryOutput(out.size() / 2);
+            compressed.writeByte(FORMAT_DEFLATED);
+            compressed.writeVarLong(out.size());
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                compressed.writeRaw(chunk, 0, length);
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Açılan veri, ikili biçim baytıyla birlikte orijinal değerin aynısıdır
+    private byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            CacheBinaryInput header = new CacheBinaryInput(bytes, 1, bytes.length);
+            int originalSize = Math.toIntExact(header.readVarLong());
+            byte[] original = new byte[originalSize];
+            original[0] = (byte) FORMAT_BINARY;
+            inflater.setInput(bytes, header.position(), bytes.length - header.position());
+            if (inflater.inflate(original, 1, originalSize - 1) != originalSize - 1) {
+                throw new IllegalStateException("Compressed cached value is truncated");
+            }
+            return original;
+        } catch (DataFormatException | RuntimeException e) {
+            throw new SerializationException("Cannot inflate cached value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LoanResponseDtoCodec implements CacheValueCodec<LoanResponseDto> {
+
+    @Override
+    public Class<LoanResponseDto> type() {
+        return LoanResponseDto.class;
+    }
+
+    @Override
+    public int typeId() {
+        return 2;
+    }
+
+    @Override
+    public int schemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(LoanResponseDto loan, CacheBinaryOutput out) {
+        out.beginRecord(loan.getId(), loan.getBookId(), loan.getBookTitle(), loan.getUserId(), loan.getUserName(),
+                loan.getBorrowedDate(), loan.getDueDate(), loan.getReturnDate(), loan.getStatus(),
+                loan.getPenaltyAmount());
+        out.writeLong(loan.getId());
+        out.writeLong(loan.getBookId());
+        out.writeString(loan.getBookTitle());
+        out.writeLong(loan.getUserId());
+        out.writeString(loan.getUserName());
+        out.writeLocalDate(loan.getBorrowedDate());
+        out.writeLocalDate(loan.getDueDate());
+        out.writeLocalDate(loan.getReturnDate());
+        out.writeEnum(loan.getStatus());
+        out.writeDouble(loan.getPenaltyAmount());
+    }
+
+    @Override
+    public LoanResponseDto read(CacheBinaryInput in) {
+        in.beginRecord();
+        return LoanResponseDto.builder()
+                .id(in.readLong())
+                .bookId(in.readLong())
+                .bookTitle(in.readString())
+                .userId(in.readLong())
+                .userName(in.readString())
+                .borrowedDate(in.readLocalDate())
+                .dueDate(in.readLocalDate())
+                .returnDate(in.readLocalDate())
+                .status(in.readEnum(LoanStatus.class))
+                .penaltyAmount(in.readDouble())
+                .build();
+    }
+}
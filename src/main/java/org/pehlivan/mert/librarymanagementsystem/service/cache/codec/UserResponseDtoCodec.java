@@ -0,0 +1,43 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.user.UserResponseDto;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserResponseDtoCodec implements CacheValueCodec<UserResponseDto> {
+
+    @Override
+    public Class<UserResponseDto> type() {
+        return UserResponseDto.class;
+    }
+
+    @Override
+    public int typeId() {
+        return 3;
+    }
+
+    @Override
+    public int schemaVersion() {
+        return 1;
+    }
+
+    @Override
+    public void write(UserResponseDto user, CacheBinaryOutput out) {
+        out.beginRecord(user.getId(), user.getName(), user.getUsername(), user.getEmail());
+        out.writeLong(user.getId());
+        out.writeString(user.getName());
+        out.writeString(user.getUsername());
+        out.writeString(user.getEmail());
+    }
+
+    @Override
+    public UserResponseDto read(CacheBinaryInput in) {
+        in.beginRecord();
+        return UserResponseDto.builder()
+                .id(in.readLong())
+                .name(in.readString())
+                .username(in.readString())
+                .email(in.readString())
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanSummaryNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.OverdueNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutbox;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Polls the email outbox and delivers claimed rows on a bounded executor, so SMTP latency
+ * never holds a request thread or a database connection.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor emailOutboxExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${library.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${library.email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private Counter sentCounter;
+    private Timer deliveryLatencyTimer;
+
+    @PostConstruct
+    public void init() {
+        sentCounter = meterRegistry.counter("library.emails.outbox.sent");
+        deliveryLatencyTimer = Timer.builder("library.emails.outbox.delivery.latency")
+                .description("Time from enqueue to successful delivery")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${library.email.outbox.poll-interval-ms:2000}")
+    public void dispatchPending() {
+        List<EmailOutbox> batch = emailOutboxService.claimDue(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+        log.debug("Dispatching {} outbox emails", batch.size());
+
+        // Bir sonraki poll, bu batch tamamlanmadan başlamaz
+        CompletableFuture.allOf(batch.stream()
+                        .map(entry -> CompletableFuture.runAsync(() -> deliver(entry), emailOutboxExecutor))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+    }
+
+    @Scheduled(cron = "${library.email.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = emailOutboxService.purgeSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        log.info("Purged {} sent outbox emails older than {} days", deleted, retentionDays);
+    }
+
+    void deliver(EmailOutbox entry) {
+        try {
+            send(entry);
+            emailOutboxService.markSent(entry.getId());
+            sentCounter.increment();
+            if (entry.getCreatedAt() != null) {
+                deliveryLatencyTimer.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+            }
+        } catch (Exception e) {
+            emailOutboxService.markFailed(entry, e.getMessage());
+        }
+    }
+
+    private void send(EmailOutbox entry) throws JsonProcessingException {
+        switch (entry.getType()) {
+            case LOAN_NOTIFICATION -> {
+                LoanNotificationPayload payload = objectMapper.readValue(entry.getPayload(), LoanNotificationPayload.class);
+                emailService.sendLoanNotification(
+                        entry.getRecipient(),
+                        payload.getUsername(),
+                        payload.getBookTitle(),
+                        payload.getBorrowedDate(),
+                        payload.getDueDate()
+                );
+            }
+            case LOAN_SUMMARY_NOTIFICATION -> {
+                LoanSummaryNotificationPayload payload = objectMapper.readValue(entry.getPayload(), LoanSummaryNotificationPayload.class);
+                emailService.sendLoanSummaryNotification(
+                        entry.getRecipient(),
+                        payload.getUsername(),
+                        payload.getLoanedBooks().stream().map(this::toTemplateModel).toList()
+                );
+            }
+            case OVERDUE_NOTIFICATION -> {
+                OverdueNotificationPayload payload = objectMapper.readValue(entry.getPayload(), OverdueNotificationPayload.class);
+                emailService.sendOverdueNotification(
+                        entry.getRecipient(),
+                        payload.getUsername(),
+                        payload.getOverdueBooks().stream().map(this::toTemplateModel).toList()
+                );
+            }
+        }
+    }
+
+    private Map<String, Object> toTemplateModel(LoanSummaryNotificationPayload.LoanedBook book) {
+        Map<String, Object> bookInfo = new HashMap<>();
+        bookInfo.put("title", book.getTitle());
+        bookInfo.put("borrowedDate", book.getBorrowedDate());
+        bookInfo.put("dueDate", book.getDueDate());
+        return bookInfo;
+    }
+
+    private Map<String, Object> toTemplateModel(OverdueNotificationPayload.OverdueBook book) {
+        Map<String, Object> bookInfo = new HashMap<>();
+        bookInfo.put("title", book.getTitle());
+        bookInfo.put("borrowedDate", book.getBorrowedDate());
+        bookInfo.put("dueDate", book.getDueDate());
+        bookInfo.put("overdueDays", book.getOverdueDays());
+        bookInfo.put("penaltyAmount", String.format("%.2f TL", book.getPenaltyAmount()));
+        return bookInfo;
+    }
+}
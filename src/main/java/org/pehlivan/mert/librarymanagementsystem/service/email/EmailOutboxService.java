@@ -0,0 +1,171 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanSummaryNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.OverdueNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutbox;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailType;
+import org.pehlivan.mert.librarymanagementsystem.repository.email.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes outgoing emails to the email_outbox table inside the caller's transaction and
+ * manages their delivery state. Rows are delivered by {@link EmailOutboxDispatcher}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${library.email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${library.email.outbox.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${library.email.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    private Counter enqueuedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        enqueuedCounter = meterRegistry.counter("library.emails.outbox.enqueued");
+        retriedCounter = meterRegistry.counter("library.emails.outbox.retried");
+        failedCounter = meterRegistry.counter("library.emails.outbox.failed");
+        Gauge.builder("library.emails.outbox.pending", emailOutboxRepository,
+                        repository -> repository.countByStatus(EmailOutboxStatus.PENDING))
+                .description("Number of emails waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    // Kayıt, ödünç işlemiyle aynı transaction'da yazılır; commit olmazsa e-posta da gönderilmez
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueLoanNotification(String to, String username, String bookTitle,
+                                        LocalDate borrowedDate, LocalDate dueDate) {
+        LoanNotificationPayload payload = LoanNotificationPayload.builder()
+                .username(username)
+                .bookTitle(bookTitle)
+                .borrowedDate(borrowedDate)
+                .dueDate(dueDate)
+                .build();
+        enqueue(EmailType.LOAN_NOTIFICATION, to, payload);
+    }
+
+    // Toplu ödünçte kullanıcı başına tek e-posta
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueLoanSummaryNotification(String to, String username,
+                                               List<LoanSummaryNotificationPayload.LoanedBook> loanedBooks) {
+        LoanSummaryNotificationPayload payload = LoanSummaryNotificationPayload.builder()
+                .username(username)
+                .loanedBooks(loanedBooks)
+                .build();
+        enqueue(EmailType.LOAN_SUMMARY_NOTIFICATION, to, payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOverdueNotification(String to, String username,
+                                           List<OverdueNotificationPayload.OverdueBook> overdueBooks) {
+        OverdueNotificationPayload payload = OverdueNotificationPayload.builder()
+                .username(username)
+                .overdueBooks(overdueBooks)
+                .build();
+        enqueue(EmailType.OVERDUE_NOTIFICATION, to, payload);
+    }
+
+    /**
+     * Claims up to {@code limit} due rows for this node. A claimed row stays PENDING but its
+     * next attempt is pushed out by the lease, so a crashed dispatcher's rows are retried
+     * once the lease expires.
+     */
+    @Transactional
+    public List<EmailOutbox> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = emailOutboxRepository.findDueIds(now, PageRequest.of(0, limit));
+        if (dueIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        LocalDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000L);
+        List<Long> claimedIds = dueIds.stream()
+                .filter(id -> emailOutboxRepository.claim(id, now, leaseUntil) == 1)
+                .toList();
+        return claimedIds.isEmpty() ? Collections.emptyList() : emailOutboxRepository.findAllById(claimedIds);
+    }
+
+    @Transactional
+    public void markSent(Long id) {
+        emailOutboxRepository.markSent(id, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void markFailed(EmailOutbox entry, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        if (entry.getAttempts() >= maxAttempts) {
+            emailOutboxRepository.markAttemptFailed(entry.getId(), EmailOutboxStatus.FAILED, now, lastError, now);
+            failedCounter.increment();
+            log.error("Email {} to {} failed after {} attempts: {}", entry.getId(), entry.getRecipient(), entry.getAttempts(), lastError);
+            return;
+        }
+
+        // Üstel geri çekilme: backoff * 2^(deneme - 1)
+        long delayMs = retryBackoffMs << Math.min(entry.getAttempts() - 1, 10);
+        emailOutboxRepository.markAttemptFailed(entry.getId(), EmailOutboxStatus.PENDING,
+                now.plusNanos(delayMs * 1_000_000L), lastError, now);
+        retriedCounter.increment();
+        log.warn("Email {} to {} failed on attempt {}, retrying in {} ms", entry.getId(), entry.getRecipient(), entry.getAttempts(), delayMs);
+    }
+
+    @Transactional
+    public int purgeSentBefore(LocalDateTime before) {
+        return emailOutboxRepository.deleteSentBefore(before);
+    }
+
+    private void enqueue(EmailType type, String to, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize email payload", e);
+        }
+
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .type(type)
+                .recipient(to)
+                .payload(json)
+                .status(EmailOutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        enqueuedCounter.increment();
+        log.info("{} queued for: {}", type, to);
+    }
+}
@@ -26,6 +26,7 @@ public class EmailService {
 
     private final TemplateEngine templateEngine;
     private final JavaMailSender mailSender;
+    private final MailSendQueue mailSendQueue;
     private final MeterRegistry meterRegistry;
 
     @Value("${spring.mail.username}")
@@ -48,16 +49,7 @@ public class EmailService {
         try {
             Context context = new Context();
             context.setVariable("username", username);
-            String emailContent = templateEngine.process("welcome-notification", context);
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject("Welcome to Library Management System");
-            helper.setText(emailContent, true);
-
-            mailSender.send(message);
+            sendHtml(to, "Welcome to Library Management System", "welcome-notification", context);
             welcomeEmailsSentCounter.increment();
             log.info("Welcome email sent to: {}", to);
         } catch (Exception e) {
@@ -74,16 +66,7 @@ public class EmailService {
             context.setVariable("bookTitle", bookTitle);
             context.setVariable("borrowedDate", borrowedDate);
             context.setVariable("dueDate", dueDate);
-            String emailContent = templateEngine.process("loan-notification", context);
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject("Book Loan Notification");
-            helper.setText(emailContent, true);
-
-            mailSender.send(message);
+            sendHtml(to, "Book Loan Notification", "loan-notification", context);
             loanNotificationsSentCounter.increment();
             log.info("Loan notification sent to: {}", to);
         } catch (Exception e) {
@@ -93,21 +76,27 @@ public class EmailService {
         }
     }
 
+    public void sendLoanSummaryNotification(String to, String username, List<Map<String, Object>> loanedBooks) {
+        try {
+            Context context = new Context();
+            context.setVariable("username", username);
+            context.setVariable("loanedBooks", loanedBooks);
+            sendHtml(to, "Book Loan Notification", "loan-summary-notification", context);
+            loanNotificationsSentCounter.increment();
+            log.info("Loan summary notification for {} books sent to: {}", loanedBooks.size(), to);
+        } catch (Exception e) {
+            emailErrorsCounter.increment();
+            log.error("Failed to send loan summary notification to: {}", to, e);
+            throw new RuntimeException("Failed to send loan summary notification", e);
+        }
+    }
+
     public void sendOverdueNotification(String to, String username, List<Map<String, Object>> overdueBooks) {
         try {
             Context context = new Context();
             context.setVariable("username", username);
             context.setVariable("overdueBooks", overdueBooks);
-            String emailContent = templateEngine.process("overdue-notification", context);
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject("Overdue Books Notification");
-            helper.setText(emailContent, true);
-
-            mailSender.send(message);
+            sendHtml(to, "Overdue Books Notification", "overdue-notification", context);
             overdueNotificationsSentCounter.increment();
             log.info("Overdue notification sent to: {}", to);
         } catch (Exception e) {
@@ -144,4 +133,18 @@ public class EmailService {
             throw new RuntimeException("Failed to send overdue notification", e);
         }
     }
-} 
\ No newline at end of file
+
+    // Şablon önbelleği (spring.thymeleaf.cache) açıkken her gönderimde yalnızca bağlam işlenir
+    private void sendHtml(String to, String subject, String template, Context context) throws MessagingException {
+        String emailContent = templateEngine.process(template, context);
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(emailContent, true);
+
+        mailSendQueue.send(message);
+    }
+}
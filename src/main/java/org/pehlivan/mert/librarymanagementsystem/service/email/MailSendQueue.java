@@ -0,0 +1,347 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded send queue in front of the SMTP server. Callers hand over rendered messages;
+ * a fixed number of sender workers drain the queue, each over its own persistent SMTP
+ * connection, so a burst of emails costs one connect/handshake/login per worker instead
+ * of one per message. Connections are closed after {@code library.email.smtp.idle-timeout-ms}
+ * without traffic and reopened on demand. A full queue pushes back on callers and
+ * eventually rejects the message.
+ * <p>
+ * When the {@link JavaMailSender} is not a {@link JavaMailSenderImpl} (e.g. a test double)
+ * each drained batch is handed to {@link JavaMailSender#send(MimeMessage...)} instead.
+ */
+@Slf4j
+@Component
+public class MailSendQueue {
+
+    private static final long POLL_TIMEOUT_MS = 1000;
+
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor mailSenderExecutor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${library.email.smtp.workers:2}")
+    private int workers;
+
+    @Value("${library.email.smtp.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${library.email.smtp.batch-size:50}")
+    private int batchSize;
+
+    @Value("${library.email.smtp.enqueue-timeout-ms:5000}")
+    private long enqueueTimeoutMs;
+
+    @Value("${library.email.smtp.send-timeout-ms:60000}")
+    private long sendTimeoutMs;
+
+    @Value("${library.email.smtp.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    private BlockingQueue<PendingMail> queue;
+    private volatile boolean running;
+
+    private Counter sentCounter;
+    private Counter rejectedCounter;
+    private Counter connectionsCounter;
+    private DistributionSummary batchSizeSummary;
+    private Timer batchTimer;
+
+    public MailSendQueue(JavaMailSender mailSender, ThreadPoolTaskExecutor mailSenderExecutor, MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.mailSenderExecutor = mailSenderExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        Gauge.builder("library.emails.queue.size", queue, BlockingQueue::size)
+                .description("Rendered emails waiting for an SMTP connection")
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("library.emails.smtp.sent");
+        rejectedCounter = meterRegistry.counter("library.emails.queue.rejected");
+        connectionsCounter = meterRegistry.counter("library.emails.smtp.connections");
+        batchSizeSummary = DistributionSummary.builder("library.emails.smtp.batch.size")
+                .description("Messages taken from the queue in one drain")
+                .register(meterRegistry);
+        batchTimer = meterRegistry.timer("library.emails.smtp.batch");
+
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            mailSenderExecutor.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Kuyrukta kalanlar işçiler çıkmadan önce gönderilir
+        running = false;
+    }
+
+    /**
+     * Queues the message and waits until it has been handed to the SMTP server, so callers
+     * keep their retry and bookkeeping semantics. Throws {@link MailSendException} when the
+     * queue stays full for {@code enqueue-timeout-ms} or delivery fails. A message that is
+     * still queued when {@code send-timeout-ms} runs out is cancelled, so the caller's retry
+     * does not send it a second time.
+     */
+    public void send(MimeMessage message) {
+        CompletableFuture<Void> delivery = submit(message);
+        try {
+            delivery.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for email delivery", e);
+        } catch (TimeoutException e) {
+            // İptal tutmazsa mesaj bu arada gönderilmiştir; çağırana başarı döner
+            if (delivery.cancel(false) || delivery.isCompletedExceptionally()) {
+                throw new MailSendException("Email delivery did not complete within " + sendTimeoutMs + " ms", e);
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new MailSendException("Email delivery failed", e.getCause());
+        }
+    }
+
+    /**
+     * Queues the message without waiting for delivery. Rejected once the queue is stopped.
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        if (!running) {
+            rejectedCounter.increment();
+            throw new MailSendException("Email send queue is stopped");
+        }
+        PendingMail pending = new PendingMail(message, new CompletableFuture<>());
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while queueing email", e);
+        }
+        if (!accepted) {
+            rejectedCounter.increment();
+            throw new MailSendException("Email send queue is full (" + queueCapacity + " messages)");
+        }
+        // Kuyruk bu arada durdurulduysa işçiler çıkmış olabilir; mesaj geri alınır
+        if (!running && queue.remove(pending)) {
+            rejectedCounter.increment();
+            throw new MailSendException("Email send queue is stopped");
+        }
+        return pending.delivery();
+    }
+
+    private void drain() {
+        SmtpConnection connection = mailSender instanceof JavaMailSenderImpl impl ? new SmtpConnection(impl) : null;
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingMail first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (connection != null) {
+                        connection.closeIfIdle(idleTimeoutMs);
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch, connection);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+    }
+
+    void deliver(List<PendingMail> drained, SmtpConnection connection) {
+        // Zaman aşımıyla iptal edilen mesajlar gönderilmez; çağıran onları yeniden deneyecektir
+        List<PendingMail> batch = drained.stream().filter(pending -> !pending.delivery().isDone()).toList();
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            if (connection == null) {
+                deliverAll(batch);
+                return;
+            }
+            for (PendingMail pending : batch) {
+                if (pending.delivery().isDone()) {
+                    continue;
+                }
+                try {
+                    connection.send(pending.message());
+                    sentCounter.increment();
+                    pending.delivery().complete(null);
+                } catch (MessagingException e) {
+                    log.warn("SMTP delivery failed: {}", e.getMessage());
+                    pending.delivery().completeExceptionally(new MailSendException("Failed to deliver email", e));
+                } catch (RuntimeException e) {
+                    log.warn("SMTP delivery failed: {}", e.getMessage());
+                    pending.delivery().completeExceptionally(e);
+                }
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // JavaMailSender dizi halinde verilen mesajları tek bir Transport bağlantısı üzerinden gönderir
+    private void deliverAll(List<PendingMail> batch) {
+        MimeMessage[] messages = batch.stream().map(PendingMail::message).toArray(MimeMessage[]::new);
+        connectionsCounter.increment();
+        Map<Object, Exception> failed = Map.of();
+        RuntimeException failure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages();
+            failure = e;
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+
+        for (PendingMail pending : batch) {
+            Exception cause = failure == null ? null
+                    : failed.isEmpty() ? failure : failed.get(pending.message());
+            if (cause == null) {
+                sentCounter.increment();
+                pending.delivery().complete(null);
+            } else {
+                pending.delivery().completeExceptionally(cause instanceof RuntimeException ? cause
+                        : new MailSendException("Failed to deliver email", cause));
+            }
+        }
+        if (failure != null) {
+            log.warn("SMTP batch of {} emails had failures: {}", messages.length, failure.getMessage());
+        }
+    }
+
+    /**
+     * One worker's SMTP connection, opened lazily and kept across messages and batches.
+     */
+    final class SmtpConnection {
+
+        private final JavaMailSenderImpl sender;
+        private Transport transport;
+        private long lastUsed;
+
+        SmtpConnection(JavaMailSenderImpl sender) {
+            this.sender = sender;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            boolean reused = transport != null;
+            if (!reused) {
+                connect();
+            }
+            prepare(message);
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException e) {
+                // Kopan bağlantı da SendFailedException ([EOF]) olarak gelebilir; bağlantı sağlamsa alıcı reddedilmiştir
+                if (e instanceof SendFailedException && transport.isConnected()) {
+                    lastUsed = System.nanoTime();
+                    throw e;
+                }
+                close();
+                if (!reused) {
+                    throw e;
+                }
+                // Sunucu boştaki bağlantıyı kapatmış olabilir; yeni bağlantıyla bir kez denenir
+                connect();
+                transport.sendMessage(message, message.getAllRecipients());
+            }
+            lastUsed = System.nanoTime();
+        }
+
+        void closeIfIdle(long idleTimeoutMs) {
+            if (transport != null && System.nanoTime() - lastUsed > TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs)) {
+                close();
+            }
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection: {}", e.getMessage());
+            } finally {
+                transport = null;
+            }
+        }
+
+        private void connect() throws MessagingException {
+            Transport opened = sender.getSession().getTransport(sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+            String username = sender.getUsername();
+            String password = sender.getPassword();
+            if ("".equals(username)) {
+                username = null;
+                if ("".equals(password)) {
+                    password = null;
+                }
+            }
+            opened.connect(sender.getHost(), sender.getPort(), username, password);
+            transport = opened;
+            lastUsed = System.nanoTime();
+            connectionsCounter.increment();
+        }
+
+        // JavaMailSenderImpl#doSend ile aynı hazırlık: gönderim tarihi ve mevcut Message-ID korunur
+        private void prepare(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            String messageId = message.getMessageID();
+            message.saveChanges();
+            if (messageId != null) {
+                message.setHeader("Message-ID", messageId);
+            }
+        }
+    }
+
+    record PendingMail(MimeMessage message, CompletableFuture<Void> delivery) {
+    }
+}
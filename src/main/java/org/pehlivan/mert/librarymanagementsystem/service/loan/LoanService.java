@@ -3,7 +3,12 @@ package org.pehlivan.mert.librarymanagementsystem.service.loan;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,9 +20,10 @@ import org.pehlivan.mert.librarymanagementsystem.model.loan.Loan;
 import org.pehlivan.mert.librarymanagementsystem.repository.loan.LoanRepository;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorCodec;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanLimitExceededException;
-import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotAvailableException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanAlreadyReturnedException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.UserLoanHistoryNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.user.UserNotFoundException;
@@ -25,19 +31,30 @@ import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
 import org.pehlivan.mert.librarymanagementsystem.service.book.BookService;
 import org.pehlivan.mert.librarymanagementsystem.service.user.UserService;
 import org.pehlivan.mert.librarymanagementsystem.service.email.EmailService;
+import org.pehlivan.mert.librarymanagementsystem.service.email.EmailOutboxService;
 import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.UserLoanRequestDto;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
-
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.OverdueLoanSummary;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.OverdueNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanSummaryNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchItemResultDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchResponseDto;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
@@ -47,14 +64,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 @Service
 @Slf4j
 @Transactional
-@CacheConfig(cacheNames = "loan", cacheManager = "redisCacheManager")
+@CacheConfig(cacheNames = "loan", cacheManager = "cacheManager")
 public class LoanService {
 
     private final LoanRepository loanRepository;
     private final BookService bookService;
     private final UserService userService;
     private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
 
     private Counter loanCounter;
     private Counter overdueCounter;
@@ -69,68 +88,90 @@ public class LoanService {
     private static final int LOAN_PERIOD_DAYS = 14;
     private static final double DAILY_PENALTY_AMOUNT = 5.0;
     private static final int MAX_EMAIL_DAYS = 30;
+    private static final int OVERDUE_SWEEP_CHUNK_SIZE = 500;
 
     //@Scheduled(cron = "0 0 8 * * *") // Her gün saat 8'da
     @Scheduled(fixedRate = 30000) // Test Her 30 saniyede bir
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     @CacheEvict(allEntries = true)
     public void checkAndUpdateOverdueLoans() {
         log.info("Checking for overdue loans");
         LocalDate today = LocalDate.now();
 
-        List<Loan> overdueLoans = loanRepository.findByStatusAndDueDateBefore(LoanStatus.BORROWED, today);
-
-        if (!overdueLoans.isEmpty()) {
-            log.info("Found {} overdue loans", overdueLoans.size());
-
-            for (Loan loan : overdueLoans) {
-                long daysOverdue = ChronoUnit.DAYS.between(loan.getDueDate(), today);
-
-                // Her durumda ceza hesapla
-                double penaltyAmount = daysOverdue * DAILY_PENALTY_AMOUNT;
-                loan.setPenaltyAmount(penaltyAmount);
-                loan.setStatus(LoanStatus.OVERDUE);
-                loanRepository.save(loan);
-                log.info("Updated loan {} to OVERDUE status with penalty amount: {}", loan.getId(), penaltyAmount);
-
-                overdueCounter.increment();
-
-                // Sadece 30 güne kadar mail gönder
-                if (daysOverdue <= MAX_EMAIL_DAYS) {
-                    Map<String, Object> bookInfo = new HashMap<>();
-                    bookInfo.put("title", loan.getBook().getTitle());
-                    bookInfo.put("borrowedDate", loan.getBorrowedDate());
-                    bookInfo.put("dueDate", loan.getDueDate());
-                    bookInfo.put("overdueDays", daysOverdue);
-                    bookInfo.put("penaltyAmount", String.format("%.2f TL", penaltyAmount));
-
-                    emailService.sendOverdueNotification(
-                            loan.getUser().getEmail(),
-                            loan.getUser().getUsername(),
-                            List.of(bookInfo)
-                    );
-                    log.info("Sent overdue notification for book: {} to user: {}",
-                            loan.getBook().getTitle(), loan.getUser().getEmail());
-                }
+        // Her parça kendi kısa transaction'ında işlenir; tarama boyunca kilit tutulmaz
+        long afterUserId = 0L;
+        int totalUpdated = 0;
+        while (true) {
+            List<Long> userIds = loanRepository.findUserIdsByStatusAndDueDateBefore(
+                    LoanStatus.BORROWED, today, afterUserId, PageRequest.of(0, OVERDUE_SWEEP_CHUNK_SIZE));
+            if (userIds.isEmpty()) {
+                break;
             }
+            Integer updated = transactionTemplate.execute(status -> markOverdueForUsers(userIds, today));
+            totalUpdated += updated != null ? updated : 0;
+            afterUserId = userIds.get(userIds.size() - 1);
+        }
+
+        if (totalUpdated > 0) {
+            log.info("Updated {} loans to OVERDUE status", totalUpdated);
         } else {
             log.info("No overdue loans found");
         }
     }
 
+    private int markOverdueForUsers(List<Long> userIds, LocalDate today) {
+        List<OverdueLoanSummary> overdueLoans =
+                loanRepository.findSummariesByStatusAndDueDateBefore(LoanStatus.BORROWED, today, userIds);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Ceza gecikme gününe bağlı olduğundan aynı son tarihli ödünçler tek UPDATE ile işaretlenir
+        int updated = 0;
+        for (LocalDate dueDate : overdueLoans.stream().map(OverdueLoanSummary::getDueDate).distinct().toList()) {
+            double penaltyAmount = ChronoUnit.DAYS.between(dueDate, today) * DAILY_PENALTY_AMOUNT;
+            int count = loanRepository.markOverdueByDueDate(userIds, dueDate, penaltyAmount, now);
+            log.info("Updated {} loans due {} to OVERDUE status with penalty amount: {}", count, dueDate, penaltyAmount);
+            updated += count;
+        }
+        overdueCounter.increment(updated);
+
+        // Kullanıcı başına tek e-posta; sadece 30 güne kadar gecikenler listelenir
+        Map<Long, List<OverdueLoanSummary>> loansByUser = overdueLoans.stream()
+                .filter(loan -> ChronoUnit.DAYS.between(loan.getDueDate(), today) <= MAX_EMAIL_DAYS)
+                .collect(Collectors.groupingBy(OverdueLoanSummary::getUserId, LinkedHashMap::new, Collectors.toList()));
+
+        loansByUser.values().forEach(userLoans -> {
+            OverdueLoanSummary first = userLoans.get(0);
+            List<OverdueNotificationPayload.OverdueBook> overdueBooks = userLoans.stream()
+                    .map(loan -> {
+                        long daysOverdue = ChronoUnit.DAYS.between(loan.getDueDate(), today);
+                        return OverdueNotificationPayload.OverdueBook.builder()
+                                .title(loan.getBookTitle())
+                                .borrowedDate(loan.getBorrowedDate())
+                                .dueDate(loan.getDueDate())
+                                .overdueDays(daysOverdue)
+                                .penaltyAmount(daysOverdue * DAILY_PENALTY_AMOUNT)
+                                .build();
+                    })
+                    .toList();
+            emailOutboxService.enqueueOverdueNotification(first.getEmail(), first.getUsername(), overdueBooks);
+            log.info("Queued overdue notification for {} books to user: {}", overdueBooks.size(), first.getEmail());
+        });
+
+        return updated;
+    }
+
     @Transactional
     @CacheEvict(allEntries = true)
     public LoanResponseDto borrowBook(LoanRequestDto loanRequestDto) {
         log.info("Borrowing book with request: {}", loanRequestDto);
 
         User user = userService.getUserEntity(loanRequestDto.getUserId());
-        Book book = bookService.getBookEntity(loanRequestDto.getBookId());
-
-        if (book.getAvailableCount() <= 0) {
-            throw new BookNotAvailableException("Book is not available for loan");
-        }
 
         validateBorrowRequest(loanRequestDto);
 
+        // Stok tek bir koşullu UPDATE ile düşülür; stok yoksa BookNotAvailableException fırlatılır
+        Book book = bookService.decreaseAvailableCount(loanRequestDto.getBookId());
+
         LocalDate borrowedDate = loanRequestDto.getBorrowedDate() != null ?
                 loanRequestDto.getBorrowedDate() : LocalDate.now();
         LocalDate dueDate = borrowedDate.plusDays(LOAN_PERIOD_DAYS);
@@ -147,14 +188,8 @@ public class LoanService {
 
         loanCounter.increment();
 
-        try {
-            bookService.decreaseAvailableCount(book.getId());
-        } catch (BookNotAvailableException e) {
-            loanRepository.delete(savedLoan);
-            throw e;
-        }
-
-        emailService.sendLoanNotification(
+        // E-posta outbox'a yazılır, commit sonrası arka planda gönderilir
+        emailOutboxService.enqueueLoanNotification(
                 user.getEmail(),
                 user.getUsername(),
                 book.getTitle(),
@@ -171,11 +206,6 @@ public class LoanService {
         log.info("User {} borrowing book with request: {}", userId, userLoanRequestDto);
 
         User user = userService.getUserEntity(userId);
-        Book book = bookService.getBookEntity(userLoanRequestDto.getBookId());
-
-        if (book.getAvailableCount() <= 0) {
-            throw new BookNotAvailableException("Book is not available for loan");
-        }
 
         validateBorrowRequest(LoanRequestDto.builder()
                 .userId(userId)
@@ -183,6 +213,8 @@ public class LoanService {
                 .borrowedDate(userLoanRequestDto.getBorrowedDate())
                 .build());
 
+        Book book = bookService.decreaseAvailableCount(userLoanRequestDto.getBookId());
+
         LocalDate borrowedDate = userLoanRequestDto.getBorrowedDate() != null ?
                 userLoanRequestDto.getBorrowedDate() : LocalDate.now();
         LocalDate dueDate = borrowedDate.plusDays(LOAN_PERIOD_DAYS);
@@ -199,14 +231,7 @@ public class LoanService {
 
         loanCounter.increment();
 
-        try {
-            bookService.decreaseAvailableCount(book.getId());
-        } catch (BookNotAvailableException e) {
-            loanRepository.delete(savedLoan);
-            throw e;
-        }
-
-        emailService.sendLoanNotification(
+        emailOutboxService.enqueueLoanNotification(
                 user.getEmail(),
                 user.getUsername(),
                 book.getTitle(),
@@ -248,6 +273,238 @@ public class LoanService {
         return convertToDto(updatedLoan);
     }
 
+    /**
+     * Borrows several books in one transaction. Every item is checked like
+     * {@link #borrowBook(LoanRequestDto)}, but a failing item is reported in its result
+     * instead of rolling back the others. Users and their loan counts are read once for the
+     * batch, stock is updated once per book, the loan cache is flushed once and each user
+     * gets a single email listing all of their new loans. An item that fails on stock gives
+     * its loan-limit slot back, so later items of the same user that were held back by the
+     * limit are retried in another stock round.
+     */
+    @Transactional
+    @CacheEvict(allEntries = true)
+    public LoanBatchResponseDto borrowBooks(List<LoanRequestDto> requests) {
+        log.info("Borrowing {} books in one batch", requests.size());
+        LoanBatchItemResultDto[] results = new LoanBatchItemResultDto[requests.size()];
+
+        Set<Long> userIds = requests.stream().map(LoanRequestDto::getUserId).collect(Collectors.toSet());
+        Map<Long, User> users = userService.getUserEntities(userIds);
+        Map<Long, Long> activeLoans = new HashMap<>();
+        Set<Long> usersWithOverdueLoans = new HashSet<>();
+        for (Object[] row : loanRepository.countByUserIdsAndStatusesGrouped(userIds,
+                List.of(LoanStatus.BORROWED, LoanStatus.OVERDUE))) {
+            if (row[1] == LoanStatus.OVERDUE) {
+                usersWithOverdueLoans.add((Long) row[0]);
+            } else {
+                activeLoans.put((Long) row[0], (Long) row[2]);
+            }
+        }
+
+        // Kullanıcı kontrolleri istek sırasıyla yapılır
+        List<Integer> waiting = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Long userId = requests.get(i).getUserId();
+            if (!users.containsKey(userId)) {
+                results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.NOT_FOUND.value(),
+                        "User not found with id: " + userId);
+            } else if (usersWithOverdueLoans.contains(userId)) {
+                results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                        "User has overdue books that need to be returned before borrowing new books");
+            } else {
+                waiting.add(i);
+            }
+        }
+
+        // Limit, partide kabul edilen ödünçleri de sayar. Stokta olmayan kayıt limit hakkını geri verir;
+        // hak boşalırsa limit yüzünden bekleyen sonraki kayıtlar yeni bir turda denenir
+        Set<Long> missingBooks = new HashSet<>();
+        Set<Long> soldOutBooks = new HashSet<>();
+        Map<Long, Integer> borrowedCopies = new HashMap<>();
+        List<Integer> loanItems = new ArrayList<>();
+        while (!waiting.isEmpty()) {
+            Map<Long, List<Integer>> itemsByBook = new LinkedHashMap<>();
+            List<Integer> overLimit = new ArrayList<>();
+            for (int i : waiting) {
+                LoanRequestDto request = requests.get(i);
+                if (missingBooks.contains(request.getBookId())) {
+                    results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.NOT_FOUND.value(),
+                            "Book not found with id: " + request.getBookId());
+                } else if (soldOutBooks.contains(request.getBookId())) {
+                    results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                            "Book is not available for loan");
+                } else if (activeLoans.getOrDefault(request.getUserId(), 0L) >= MAX_LOANS_PER_USER) {
+                    overLimit.add(i);
+                } else {
+                    activeLoans.merge(request.getUserId(), 1L, Long::sum);
+                    itemsByBook.computeIfAbsent(request.getBookId(), id -> new ArrayList<>()).add(i);
+                }
+            }
+            if (itemsByBook.isEmpty()) {
+                waiting = overLimit;
+                break;
+            }
+
+            // Stok kitap başına tek UPDATE ile düşülür; yetmeyen kopyalar sıradaki son kayıtlara düşer
+            Map<Long, Integer> requestedCopies = new HashMap<>();
+            itemsByBook.forEach((bookId, items) -> requestedCopies.put(bookId, items.size()));
+            Map<Long, Integer> takenCopies = bookService.decreaseAvailableCounts(requestedCopies);
+
+            boolean slotReleased = false;
+            for (Map.Entry<Long, List<Integer>> entry : itemsByBook.entrySet()) {
+                Long bookId = entry.getKey();
+                List<Integer> items = entry.getValue();
+                Integer taken = takenCopies.get(bookId);
+                if (taken == null) {
+                    missingBooks.add(bookId);
+                } else {
+                    borrowedCopies.merge(bookId, taken, Integer::sum);
+                    if (taken < items.size()) {
+                        soldOutBooks.add(bookId);
+                    }
+                }
+                for (int n = 0; n < items.size(); n++) {
+                    int i = items.get(n);
+                    if (taken == null) {
+                        results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.NOT_FOUND.value(),
+                                "Book not found with id: " + bookId);
+                    } else if (n >= taken) {
+                        results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                                "Book is not available for loan");
+                    } else {
+                        loanItems.add(i);
+                        continue;
+                    }
+                    activeLoans.merge(requests.get(i).getUserId(), -1L, Long::sum);
+                    slotReleased = true;
+                }
+            }
+
+            waiting = overLimit;
+            if (!slotReleased) {
+                break;
+            }
+        }
+        for (int i : waiting) {
+            results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                    "User has reached maximum loan limit of " + MAX_LOANS_PER_USER);
+        }
+
+        Map<Long, Book> books = bookService.getBookEntities(borrowedCopies.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList());
+
+        Collections.sort(loanItems);
+        List<Loan> loans = new ArrayList<>();
+        for (int i : loanItems) {
+            LoanRequestDto request = requests.get(i);
+            LocalDate borrowedDate = request.getBorrowedDate() != null ?
+                    request.getBorrowedDate() : LocalDate.now();
+            loans.add(Loan.builder()
+                    .book(books.get(request.getBookId()))
+                    .user(users.get(request.getUserId()))
+                    .borrowedDate(borrowedDate)
+                    .dueDate(borrowedDate.plusDays(LOAN_PERIOD_DAYS))
+                    .status(LoanStatus.BORROWED)
+                    .build());
+        }
+
+        List<Loan> savedLoans = loanRepository.saveAll(loans);
+        for (int n = 0; n < savedLoans.size(); n++) {
+            results[loanItems.get(n)] = LoanBatchItemResultDto.success(loanItems.get(n), convertToDto(savedLoans.get(n)));
+        }
+        loanCounter.increment(savedLoans.size());
+
+        // Kullanıcı başına tek e-posta; tek kitap alan kullanıcıya tekil bildirim gider
+        savedLoans.stream()
+                .collect(Collectors.groupingBy(loan -> loan.getUser().getId(), LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(this::enqueueLoanNotifications);
+
+        log.info("Batch borrow finished: {} of {} loans created", savedLoans.size(), requests.size());
+        return LoanBatchResponseDto.of(Arrays.asList(results));
+    }
+
+    /**
+     * Returns several loans in one transaction, reporting each failing item in its result
+     * instead of rolling back the others. Loans are read with one query and stock is
+     * increased once per book.
+     */
+    @Transactional
+    @CacheEvict(allEntries = true)
+    public LoanBatchResponseDto returnBooks(List<Long> loanIds) {
+        log.info("Returning {} loans in one batch", loanIds.size());
+        LoanBatchItemResultDto[] results = new LoanBatchItemResultDto[loanIds.size()];
+
+        Map<Long, Loan> loans = loanRepository.findByIdIn(loanIds.stream().filter(Objects::nonNull).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Loan::getId, loan -> loan));
+
+        Set<Long> seenLoanIds = new HashSet<>();
+        Map<Long, List<Integer>> itemsByBook = new LinkedHashMap<>();
+        for (int i = 0; i < loanIds.size(); i++) {
+            Long loanId = loanIds.get(i);
+            Loan loan = loans.get(loanId);
+            if (loan == null) {
+                results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.NOT_FOUND.value(),
+                        "Loan not found with id: " + loanId);
+            } else if (!seenLoanIds.add(loanId)) {
+                results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                        "Loan with id " + loanId + " appears more than once in the batch");
+            } else if (loan.getStatus() == LoanStatus.RETURNED) {
+                results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                        "Loan with id " + loanId + " is already returned");
+            } else {
+                itemsByBook.computeIfAbsent(loan.getBook().getId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        Map<Long, Integer> returnedCopies = new HashMap<>();
+        itemsByBook.forEach((bookId, items) -> returnedCopies.put(bookId, items.size()));
+        Set<Long> updatedBooks = returnedCopies.isEmpty()
+                ? Set.of() : bookService.increaseAvailableCounts(returnedCopies);
+
+        LocalDate returnDate = LocalDate.now();
+        List<Loan> returnedLoans = new ArrayList<>();
+        itemsByBook.forEach((bookId, items) -> items.forEach(i -> {
+            if (!updatedBooks.contains(bookId)) {
+                results[i] = LoanBatchItemResultDto.failure(i, HttpStatus.BAD_REQUEST.value(),
+                        "Available count cannot exceed stock");
+                return;
+            }
+            // Tekil iadede olduğu gibi gecikme taramasının işlediği ceza korunur
+            Loan loan = loans.get(loanIds.get(i));
+            loan.setReturnDate(returnDate);
+            loan.setStatus(LoanStatus.RETURNED);
+            returnedLoans.add(loan);
+            results[i] = LoanBatchItemResultDto.success(i, convertToDto(loan));
+        }));
+        loanRepository.saveAll(returnedLoans);
+
+        log.info("Batch return finished: {} of {} loans returned", returnedLoans.size(), loanIds.size());
+        return LoanBatchResponseDto.of(Arrays.asList(results));
+    }
+
+    private void enqueueLoanNotifications(List<Loan> userLoans) {
+        User user = userLoans.get(0).getUser();
+        if (userLoans.size() == 1) {
+            Loan loan = userLoans.get(0);
+            emailOutboxService.enqueueLoanNotification(user.getEmail(), user.getUsername(),
+                    loan.getBook().getTitle(), loan.getBorrowedDate(), loan.getDueDate());
+            return;
+        }
+
+        List<LoanSummaryNotificationPayload.LoanedBook> loanedBooks = userLoans.stream()
+                .map(loan -> LoanSummaryNotificationPayload.LoanedBook.builder()
+                        .title(loan.getBook().getTitle())
+                        .borrowedDate(loan.getBorrowedDate())
+                        .dueDate(loan.getDueDate())
+                        .build())
+                .toList();
+        emailOutboxService.enqueueLoanSummaryNotification(user.getEmail(), user.getUsername(), loanedBooks);
+    }
+
     @Transactional(readOnly = true)
     @Cacheable(key = "'id:' + #loanId", unless = "#result == null")
     public LoanResponseDto getLoanById(Long loanId) {
@@ -271,23 +528,50 @@ public class LoanService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'all'", unless = "#result.isEmpty()")
+    @Cacheable(key = "'all'", sync = true)
     public List<LoanResponseDto> getAllLoanHistory() {
         log.info("Getting all loan history");
-        List<Loan> loans = loanRepository.findAll();
+        List<LoanResponseDto> loans = loanRepository.findAllResponses();
         if (loans.isEmpty()) {
             throw new LoanNotFoundException("No loan history found");
         }
-        return loans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return loans;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'user:' + #userId", unless = "#result.isEmpty()")
+    @Cacheable(key = "'user:' + #userId", sync = true)
     public List<LoanResponseDto> getLoanHistoryByUser(Long userId) {
         log.info("Getting loan history for user: {}", userId);
+        checkLoanHistoryAccess(userId);
 
+        List<LoanResponseDto> loans = loanRepository.findResponsesByUserId(userId);
+        if (loans.isEmpty()) {
+            throw new UserLoanHistoryNotFoundException("No loan history found for user with id: " + userId);
+        }
+        return loans;
+    }
+
+    // Geçmiş en yeni ödünçten eskiye doğru sayfalanır; boş sayfa hata değildir
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LoanResponseDto> getAllLoanHistoryByCursor(String cursor, int size, boolean includeTotal) {
+        log.info("Getting loan history by cursor: {}, size: {}", cursor, size);
+        Slice<Loan> slice = loanRepository.findByIdLessThan(beforeId(cursor), newestFirst(size));
+        Long total = includeTotal ? loanRepository.count() : null;
+        return CursorPageResponse.of(slice, Loan::getId, this::convertToDto, total);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LoanResponseDto> getLoanHistoryByUserCursor(Long userId, String cursor, int size,
+                                                                          boolean includeTotal) {
+        log.info("Getting loan history for user: {} by cursor: {}, size: {}", userId, cursor, size);
+        checkLoanHistoryAccess(userId);
+
+        Slice<Loan> slice = loanRepository.findByUser_IdAndIdLessThan(userId, beforeId(cursor), newestFirst(size));
+        Long total = includeTotal ? loanRepository.countByUser_Id(userId) : null;
+        return CursorPageResponse.of(slice, Loan::getId, this::convertToDto, total);
+    }
+
+    private void checkLoanHistoryAccess(Long userId) {
         // Check if current user is a reader and trying to access someone else's history
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getAuthorities().stream()
@@ -306,168 +590,22 @@ public class LoanService {
         } catch (Exception e) {
             throw new UserNotFoundException("User not found with id: " + userId);
         }
+    }
 
-        List<Loan> loans = loanRepository.findByUser_Id(userId);
-        if (loans.isEmpty()) {
-            throw new UserLoanHistoryNotFoundException("No loan history found for user with id: " + userId);
-        }
+    private Long beforeId(String cursor) {
+        Long id = CursorCodec.decode(cursor);
+        return id == null ? Long.MAX_VALUE : id;
+    }
 
-        return loans.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    private PageRequest newestFirst(int size) {
+        return PageRequest.of(0, CursorPageResponse.clampSize(size), Sort.by(Sort.Direction.DESC, "id"));
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'late'", unless = "#result.isEmpty()")
+    @Cacheable(key = "'late'", sync = true)
     public List<LoanResponseDto> getLateLoans() {
         log.info("Getting all late loans");
-        return loanRepository.findByStatus(LoanStatus.OVERDUE).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    @Cacheable(key = "'report'", unless = "#result == null")
-    public String generateLoanReport() {
-        log.info("Generating loan report");
-
-        List<Loan> allLoans = loanRepository.findAll();
-        if (allLoans.isEmpty()) {
-            throw new LoanNotFoundException("No loans found to generate report");
-        }
-
-        LocalDate today = LocalDate.now();
-
-        // Kategorilere göre ayır
-        List<Loan> overdueLoans = allLoans.stream()
-                .filter(loan -> loan.getStatus() == LoanStatus.OVERDUE)
-                .sorted(Comparator.comparing(Loan::getDueDate))
-                .collect(Collectors.toList());
-
-        List<Loan> upcomingDueLoans = allLoans.stream()
-                .filter(loan -> loan.getStatus() == LoanStatus.BORROWED &&
-                        loan.getDueDate().isAfter(today) &&
-                        loan.getDueDate().isBefore(today.plusDays(7)))
-                .sorted(Comparator.comparing(Loan::getDueDate))
-                .collect(Collectors.toList());
-
-        List<Loan> returnedLoans = allLoans.stream()
-                .filter(loan -> loan.getStatus() == LoanStatus.RETURNED)
-                .sorted(Comparator.comparing(Loan::getReturnDate).reversed())
-                .collect(Collectors.toList());
-
-        List<Loan> activeLoans = allLoans.stream()
-                .filter(loan -> loan.getStatus() == LoanStatus.BORROWED)
-                .sorted(Comparator.comparing(Loan::getDueDate))
-                .collect(Collectors.toList());
-
-        // Rapor oluştur
-        StringBuilder report = new StringBuilder();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        report.append("KÜTÜPHANE ÖDÜNÇ KİTAP RAPORU\n");
-        report.append("Oluşturulma Tarihi: ").append(today.format(formatter)).append("\n\n");
-
-        report.append("GENEL İSTATİSTİKLER\n");
-        report.append("===================\n");
-        report.append("Toplam Ödünç Kitap Sayısı: ").append(allLoans.size()).append("\n");
-        report.append("Aktif Ödünç Kitap Sayısı: ").append(activeLoans.size()).append("\n");
-        report.append("Geciken Kitap Sayısı: ").append(overdueLoans.size()).append("\n");
-        report.append("Yaklaşan Son Tarihli Kitap Sayısı: ").append(upcomingDueLoans.size()).append("\n");
-        report.append("İade Edilen Kitap Sayısı: ").append(returnedLoans.size()).append("\n\n");
-
-        report.append("AKTİF ÖDÜNÇ KİTAPLAR\n");
-        report.append("===================\n");
-        if (activeLoans.isEmpty()) {
-            report.append("Aktif ödünç kitap bulunmamaktadır.\n");
-        } else {
-            report.append(String.format("%-5s %-30s %-20s %-15s %-15s %-10s\n",
-                    "ID", "Kitap Adı", "Ödünç Alan", "Ödünç Tarihi", "Son Tarih", "Kalan Gün"));
-            report.append("-".repeat(100)).append("\n");
-
-            for (Loan loan : activeLoans) {
-                long daysRemaining = ChronoUnit.DAYS.between(today, loan.getDueDate());
-                report.append(String.format("%-5d %-30s %-20s %-15s %-15s %-10d\n",
-                        loan.getId(),
-                        loan.getBook().getTitle(),
-                        loan.getUser().getUsername(),
-                        loan.getBorrowedDate().format(formatter),
-                        loan.getDueDate().format(formatter),
-                        daysRemaining));
-            }
-        }
-
-        report.append("\nGECİKEN KİTAPLAR\n");
-        report.append("================\n");
-        if (overdueLoans.isEmpty()) {
-            report.append("Geciken kitap bulunmamaktadır.\n");
-        } else {
-            report.append(String.format("%-5s %-30s %-20s %-15s %-15s %-10s %-10s\n",
-                    "ID", "Kitap Adı", "Ödünç Alan", "Ödünç Tarihi", "Son Tarih", "Gecikme (Gün)", "Ceza (TL)"));
-            report.append("-".repeat(110)).append("\n");
-
-            for (Loan loan : overdueLoans) {
-                long daysOverdue = ChronoUnit.DAYS.between(loan.getDueDate(), today);
-                report.append(String.format("%-5d %-30s %-20s %-15s %-15s %-10d %-10.2f\n",
-                        loan.getId(),
-                        loan.getBook().getTitle(),
-                        loan.getUser().getUsername(),
-                        loan.getBorrowedDate().format(formatter),
-                        loan.getDueDate().format(formatter),
-                        daysOverdue,
-                        loan.getPenaltyAmount()));
-            }
-        }
-
-        report.append("\nYAKLAŞAN SON TARİHLİ KİTAPLAR\n");
-        report.append("===========================\n");
-        if (upcomingDueLoans.isEmpty()) {
-            report.append("Yaklaşan son tarihli kitap bulunmamaktadır.\n");
-        } else {
-            report.append(String.format("%-5s %-30s %-20s %-15s %-15s\n",
-                    "ID", "Kitap Adı", "Ödünç Alan", "Ödünç Tarihi", "Son Tarih"));
-            report.append("-".repeat(90)).append("\n");
-
-            for (Loan loan : upcomingDueLoans) {
-                report.append(String.format("%-5d %-30s %-20s %-15s %-15s\n",
-                        loan.getId(),
-                        loan.getBook().getTitle(),
-                        loan.getUser().getUsername(),
-                        loan.getBorrowedDate().format(formatter),
-                        loan.getDueDate().format(formatter)));
-            }
-        }
-
-        report.append("\nSON İADE EDİLEN KİTAPLAR\n");
-        report.append("=======================\n");
-        if (returnedLoans.isEmpty()) {
-            report.append("İade edilen kitap bulunmamaktadır.\n");
-        } else {
-            report.append(String.format("%-5s %-30s %-20s %-15s %-15s\n",
-                    "ID", "Kitap Adı", "Ödünç Alan", "İade Tarihi", "Durum"));
-            report.append("-".repeat(90)).append("\n");
-
-            for (Loan loan : returnedLoans) {
-                report.append(String.format("%-5d %-30s %-20s %-15s %-15s\n",
-                        loan.getId(),
-                        loan.getBook().getTitle(),
-                        loan.getUser().getUsername(),
-                        loan.getReturnDate().format(formatter),
-                        loan.getStatus()));
-            }
-        }
-
-        // Dosyaya kaydet
-        String fileName = "loan_report_" + today.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + ".txt";
-        try (FileWriter writer = new FileWriter(fileName)) {
-            writer.write(report.toString());
-            log.info("Loan report saved to file: {}", fileName);
-        } catch (IOException e) {
-            log.error("Error saving loan report to file: {}", e.getMessage());
-            throw new RuntimeException("Error saving loan report to file", e);
-        }
-
-        return report.toString();
+        return loanRepository.findResponsesByStatus(LoanStatus.OVERDUE);
     }
 
     private void validateBorrowRequest(LoanRequestDto loanRequestDto) {
@@ -483,7 +621,7 @@ public class LoanService {
         }
     }
 
-    private LoanResponseDto convertToDto(Loan loan) {
+    LoanResponseDto convertToDto(Loan loan) {
         return LoanResponseDto.builder()
                 .id(loan.getId())
                 .bookId(loan.getBook().getId())
@@ -2,15 +2,37 @@ package org.pehlivan.mert.librarymanagementsystem.service.notification;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRegistrationNotification;
 import org.pehlivan.mert.librarymanagementsystem.service.email.EmailService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Consumes {@code user-registration} in batches and sends the welcome emails of a batch
+ * in parallel on {@code notificationExecutor}. Offsets are committed once the whole batch
+ * is done. Records that cannot be processed (unreadable or incomplete payloads, or emails
+ * that still fail after {@code library.notification.max-attempts}) go to
+ * {@code user-registration.DLT} instead of being dropped.
+ * <p>
+ * If a record cannot even be dead-lettered, the batch fails with a
+ * {@link BatchListenerFailedException} pointing at that record: the records before it are
+ * committed and only the rest is redelivered. Records after it that were already handled
+ * are remembered and skipped on redelivery, so their emails are not sent twice.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -18,16 +40,28 @@ public class NotificationService {
 
     private final EmailService emailService;
     private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor notificationExecutor;
+    private final ConsumerRecordRecoverer deadLetterPublishingRecoverer;
+    // Başarısız kayıttan sonra işlenen ve yeniden teslim edilecek kayıtlar (topic-partition@offset)
+    private final Set<String> handledBeforeRedelivery = ConcurrentHashMap.newKeySet();
+
+    @Value("${library.notification.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${library.notification.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
 
     private Counter notificationsReceivedCounter;
     private Counter notificationsProcessedCounter;
     private Counter notificationErrorsCounter;
+    private Counter notificationsDeadLetteredCounter;
 
     @PostConstruct
     public void init() {
         notificationsReceivedCounter = meterRegistry.counter("library.notifications.received");
         notificationsProcessedCounter = meterRegistry.counter("library.notifications.processed");
         notificationErrorsCounter = meterRegistry.counter("library.notifications.errors");
+        notificationsDeadLetteredCounter = meterRegistry.counter("library.notifications.dead.lettered");
     }
 
     @KafkaListener(
@@ -37,30 +71,84 @@ public class NotificationService {
         containerFactory = "kafkaListenerContainerFactory",
         autoStartup = "true"
     )
-    public void handleUserRegistration(UserRegistrationNotification userData, Acknowledgment ack) {
-        try {
-            log.info("Received user registration notification: {}", userData);
-            notificationsReceivedCounter.increment();
-            
-            if (userData == null || userData.getEmail() == null || userData.getUsername() == null) {
-                log.error("Invalid user data received: {}", userData);
-                notificationErrorsCounter.increment();
-                ack.acknowledge();
+    public void handleUserRegistrations(List<ConsumerRecord<String, UserRegistrationNotification>> records) {
+        log.info("Received {} user registration notifications", records.size());
+
+        List<CompletableFuture<Void>> results = records.stream()
+                .map(record -> handledBeforeRedelivery.remove(key(record))
+                        ? CompletableFuture.<Void>completedFuture(null)
+                        : CompletableFuture.runAsync(() -> handleUserRegistration(record), notificationExecutor))
+                .toList();
+
+        // Parti tamamlanmadan dönülmez; DLT'ye de yazılamayan ilk kayıttan itibaren parti yeniden teslim edilir
+        int failedIndex = -1;
+        Throwable failure = null;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).join();
+                if (failedIndex >= 0) {
+                    handledBeforeRedelivery.add(key(records.get(i)));
+                }
+            } catch (CompletionException e) {
+                if (failedIndex < 0) {
+                    failedIndex = i;
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failedIndex >= 0) {
+            throw new BatchListenerFailedException("User registration could not be processed or dead-lettered",
+                    failure, failedIndex);
+        }
+    }
+
+    void handleUserRegistration(ConsumerRecord<String, UserRegistrationNotification> record) {
+        notificationsReceivedCounter.increment();
+        UserRegistrationNotification userData = record.value();
+
+        // Çözümlenemeyen kayıtlar ErrorHandlingDeserializer'dan null değerle gelir
+        if (userData == null || userData.getEmail() == null || userData.getUsername() == null) {
+            log.error("Invalid user data received at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), userData);
+            deadLetter(record, new IllegalArgumentException("Invalid user registration notification"));
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                emailService.sendWelcomeEmail(userData.getEmail(), userData.getUsername());
+                log.info("Successfully processed user registration for: {}", userData.getUsername());
+                notificationsProcessedCounter.increment();
                 return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Welcome email to {} failed after {} attempts: {}", userData.getEmail(), attempt, e.getMessage());
+                    deadLetter(record, e);
+                    return;
+                }
+                log.warn("Welcome email to {} failed on attempt {}, retrying: {}", userData.getEmail(), attempt, e.getMessage());
+                backOff(attempt);
             }
-            
-            log.info("Processing user registration for: {}", userData.getUsername());
-            
-            emailService.sendWelcomeEmail(userData.getEmail(), userData.getUsername());
-            
-            log.info("Successfully processed user registration for: {}", userData.getUsername());
-            notificationsProcessedCounter.increment();
-            ack.acknowledge();
-            
-        } catch (Exception e) {
-            log.error("Error processing user registration notification: {}", e.getMessage(), e);
-            notificationErrorsCounter.increment();
-            ack.acknowledge();
         }
     }
-} 
\ No newline at end of file
+
+    private static String key(ConsumerRecord<?, ?> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    private void deadLetter(ConsumerRecord<String, UserRegistrationNotification> record, Exception cause) {
+        notificationErrorsCounter.increment();
+        deadLetterPublishingRecoverer.accept(record, cause);
+        notificationsDeadLetteredCounter.increment();
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+        } catch (InterruptedException e) {
+            // Kapanış sırasında kesilirse parti commit edilmez, kayıtlar yeniden okunur
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying welcome email", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.pehlivan.mert.librarymanagementsystem.service.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Endpoint groups that get their own bandwidth. A client has one bucket per group, so
+ * heavy catalogue reads do not use up the budget for logins or writes.
+ */
+public enum RateLimitGroup {
+    AUTH,
+    WRITE,
+    READ;
+
+    public static RateLimitGroup resolve(HttpServletRequest request) {
+        if (request.getRequestURI().startsWith("/api/v1/auth")) {
+            return AUTH;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method) ? READ : WRITE;
+    }
+}
@@ -0,0 +1,112 @@
+package org.pehlivan.mert.librarymanagementsystem.service.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Consumes tokens from per-client buckets. Bucket state lives in Redis through Bucket4j's
+ * proxy manager, so every instance shares the same budget. Only lightweight proxy handles
+ * are kept locally and they are dropped after the client has been idle for a while.
+ * If Redis cannot be reached the check falls back to node-local buckets for a short
+ * period instead of rejecting or blocking requests.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    private static final String KEY_PREFIX = "rate-limit:";
+
+    private final ObjectProvider<ProxyManager<String>> proxyManagerProvider;
+    private final Map<RateLimitGroup, BucketConfiguration> rateLimitBucketConfigurations;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${library.rate-limit.local-idle-timeout:PT15M}")
+    private Duration localIdleTimeout;
+
+    @Value("${library.rate-limit.local-max-entries:100000}")
+    private long localMaxEntries;
+
+    @Value("${library.rate-limit.redis-retry-interval:PT30S}")
+    private Duration redisRetryInterval;
+
+    private Cache<String, Bucket> buckets;
+    private Cache<String, Bucket> fallbackBuckets;
+    private volatile long redisRetryAt;
+
+    private Counter rejectedCounter;
+    private Counter fallbackCounter;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .expireAfterAccess(localIdleTimeout)
+                .maximumSize(localMaxEntries)
+                .build();
+        fallbackBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(localIdleTimeout)
+                .maximumSize(localMaxEntries)
+                .build();
+        rejectedCounter = meterRegistry.counter("library.ratelimit.rejected");
+        fallbackCounter = meterRegistry.counter("library.ratelimit.fallback");
+    }
+
+    public ConsumptionProbe tryConsume(String clientKey, RateLimitGroup group) {
+        String key = KEY_PREFIX + group.name().toLowerCase() + ":" + clientKey;
+        ConsumptionProbe probe = redisAvailable()
+                ? tryConsumeDistributed(key, group)
+                : null;
+        if (probe == null) {
+            fallbackCounter.increment();
+            probe = fallbackBuckets.get(key, k -> localBucket(group)).tryConsumeAndReturnRemaining(1);
+        }
+        if (!probe.isConsumed()) {
+            rejectedCounter.increment();
+        }
+        return probe;
+    }
+
+    private ConsumptionProbe tryConsumeDistributed(String key, RateLimitGroup group) {
+        try {
+            Bucket bucket = buckets.get(key, k -> proxyManagerProvider.getObject()
+                    .builder()
+                    .build(k, () -> rateLimitBucketConfigurations.get(group)));
+            return bucket.tryConsumeAndReturnRemaining(1);
+        } catch (RuntimeException e) {
+            // Redis'e bir süre gidilmez; her istekte bağlantı zaman aşımı beklenmez
+            redisRetryAt = System.currentTimeMillis() + redisRetryInterval.toMillis();
+            log.warn("Distributed rate limit unavailable, using local buckets for {} s: {}",
+                    redisRetryInterval.toSeconds(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Bucket localBucket(RateLimitGroup group) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : rateLimitBucketConfigurations.get(group).getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisRetryAt;
+    }
+}
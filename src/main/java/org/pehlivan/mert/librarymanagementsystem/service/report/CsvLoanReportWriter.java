@@ -0,0 +1,74 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+
+class CsvLoanReportWriter implements LoanReportWriter {
+
+    private static final String HEADER =
+            "section,loan_id,book_title,username,borrowed_date,due_date,return_date,status,penalty_amount\n";
+
+    private final Writer out;
+
+    CsvLoanReportWriter(Writer out) {
+        this.out = out;
+    }
+
+    // Özet sayılar satırlardan türetilebilir; CSV yalnızca veri satırlarını içerir
+    @Override
+    public void writeSummary(LoanReportSummary summary) throws IOException {
+        out.write(HEADER);
+    }
+
+    @Override
+    public void startSection(LoanReportSection section) {
+    }
+
+    @Override
+    public void writeRow(LoanReportSection section, LoanReportRow row) throws IOException {
+        out.write(section.name());
+        out.write(',');
+        out.write(String.valueOf(row.getLoanId()));
+        out.write(',');
+        out.write(escape(row.getBookTitle()));
+        out.write(',');
+        out.write(escape(row.getUsername()));
+        out.write(',');
+        out.write(value(row.getBorrowedDate()));
+        out.write(',');
+        out.write(value(row.getDueDate()));
+        out.write(',');
+        out.write(value(row.getReturnDate()));
+        out.write(',');
+        out.write(value(row.getStatus()));
+        out.write(',');
+        out.write(value(row.getPenaltyAmount()));
+        out.write('\n');
+    }
+
+    @Override
+    public void endSection(LoanReportSection section) {
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private String value(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    // RFC 4180: virgül, tırnak veya satır sonu içeren alanlar tırnak içine alınır
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,28 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+@Getter
+@RequiredArgsConstructor
+public enum LoanReportFormat {
+    TEXT("txt", "text/plain;charset=UTF-8"),
+    CSV("csv", "text/csv;charset=UTF-8");
+
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final String extension;
+    private final String contentType;
+
+    public String fileName(LocalDate date) {
+        return "loan_report_" + date.format(FILE_DATE) + "." + extension;
+    }
+
+    LoanReportWriter newWriter(Writer out) {
+        return this == CSV ? new CsvLoanReportWriter(out) : new TextLoanReportWriter(out);
+    }
+}
@@ -0,0 +1,43 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// İş durumu çalışan thread tarafından güncellenir, istek thread'leri tarafından okunur
+@Getter
+class LoanReportJob {
+
+    private final String id;
+    private final LoanReportFormat format;
+    private final LocalDateTime createdAt;
+    private volatile LoanReportJobStatus status;
+    private volatile LocalDateTime completedAt;
+    private volatile Path file;
+    private volatile String error;
+
+    LoanReportJob(LoanReportFormat format) {
+        this.id = UUID.randomUUID().toString();
+        this.format = format;
+        this.createdAt = LocalDateTime.now();
+        this.status = LoanReportJobStatus.PENDING;
+    }
+
+    void markRunning() {
+        status = LoanReportJobStatus.RUNNING;
+    }
+
+    void complete(Path file) {
+        this.file = file;
+        this.completedAt = LocalDateTime.now();
+        this.status = LoanReportJobStatus.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = LoanReportJobStatus.FAILED;
+    }
+}
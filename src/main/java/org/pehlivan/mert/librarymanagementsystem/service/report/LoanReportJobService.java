@@ -0,0 +1,134 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.report.LoanReportJobResponse;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportJobNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportNotReadyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs loan reports in the background for libraries where a synchronous download would
+ * take too long. The report is streamed to a file under {@code library.report.directory}
+ * and the caller polls the returned handle until it can be downloaded. Jobs and files
+ * are kept on the instance that ran them and removed after the retention period.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanReportJobService {
+
+    private final LoanReportService loanReportService;
+    private final TaskExecutor loanReportExecutor;
+
+    @Value("${library.report.directory:${java.io.tmpdir}/library-reports}")
+    private Path directory;
+
+    @Value("${library.report.retention:PT1H}")
+    private Duration retention;
+
+    private final Map<String, LoanReportJob> jobs = new ConcurrentHashMap<>();
+
+    public LoanReportJobResponse submit(LoanReportFormat format) {
+        LoanReportJob job = new LoanReportJob(format);
+        jobs.put(job.getId(), job);
+        try {
+            loanReportExecutor.execute(() -> run(job));
+            log.info("Loan report job {} queued as {}", job.getId(), format);
+        } catch (TaskRejectedException e) {
+            log.warn("Loan report job {} rejected: {}", job.getId(), e.getMessage());
+            job.fail("Report queue is full, please try again later");
+        }
+        return toResponse(job);
+    }
+
+    public LoanReportJobResponse getJob(String jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    public Path getReportFile(String jobId) {
+        LoanReportJob job = findJob(jobId);
+        if (job.getStatus() != LoanReportJobStatus.COMPLETED) {
+            throw new ReportNotReadyException("Report job " + jobId + " is " + job.getStatus());
+        }
+        return job.getFile();
+    }
+
+    @Scheduled(fixedDelayString = "${library.report.cleanup-interval-ms:600000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.getCompletedAt() == null || job.getCompletedAt().isAfter(threshold)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            log.debug("Loan report job {} expired", job.getId());
+            return true;
+        });
+    }
+
+    void run(LoanReportJob job) {
+        job.markRunning();
+        Path file = directory.resolve(job.getId() + "." + job.getFormat().getExtension());
+        try {
+            Files.createDirectories(directory);
+            LoanReportSummary summary = loanReportService.summarize(LocalDate.now());
+            try (OutputStream out = Files.newOutputStream(file)) {
+                loanReportService.writeReport(summary, job.getFormat(), out);
+            }
+            job.complete(file);
+            log.info("Loan report job {} completed: {}", job.getId(), file);
+        } catch (Exception e) {
+            log.error("Loan report job {} failed: {}", job.getId(), e.getMessage());
+            deleteQuietly(file);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private LoanReportJob findJob(String jobId) {
+        LoanReportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ReportJobNotFoundException("Report job not found with id: " + jobId);
+        }
+        return job;
+    }
+
+    private LoanReportJobResponse toResponse(LoanReportJob job) {
+        return LoanReportJobResponse.builder()
+                .id(job.getId())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .downloadUrl(job.getStatus() == LoanReportJobStatus.COMPLETED
+                        ? "/api/v1/loans/report/jobs/" + job.getId() + "/download"
+                        : null)
+                .error(job.getError())
+                .build();
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}: {}", file, e.getMessage());
+        }
+    }
+}
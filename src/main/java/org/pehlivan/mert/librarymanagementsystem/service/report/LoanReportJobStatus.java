@@ -0,0 +1,8 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+public enum LoanReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,17 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Raporda bölümler bu sırayla yazılır
+@Getter
+@RequiredArgsConstructor
+public enum LoanReportSection {
+    ACTIVE("AKTİF ÖDÜNÇ KİTAPLAR", "Aktif ödünç kitap bulunmamaktadır."),
+    OVERDUE("GECİKEN KİTAPLAR", "Geciken kitap bulunmamaktadır."),
+    UPCOMING("YAKLAŞAN SON TARİHLİ KİTAPLAR", "Yaklaşan son tarihli kitap bulunmamaktadır."),
+    RETURNED("SON İADE EDİLEN KİTAPLAR", "İade edilen kitap bulunmamaktadır.");
+
+    private final String title;
+    private final String emptyMessage;
+}
@@ -0,0 +1,89 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow;
+import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.pehlivan.mert.librarymanagementsystem.repository.loan.LoanRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes the loan report section by section. Counts come from aggregate queries and each
+ * section is read through a forward-only cursor of projected rows, so neither the loans
+ * nor the rendered report are ever held in memory as a whole.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoanReportService {
+
+    private static final int UPCOMING_DAYS = 7;
+
+    private final LoanRepository loanRepository;
+
+    @Transactional(readOnly = true)
+    public LoanReportSummary summarize(LocalDate today) {
+        Map<LoanStatus, Long> counts = new EnumMap<>(LoanStatus.class);
+        for (Object[] row : loanRepository.countGroupedByStatus()) {
+            counts.put((LoanStatus) row[0], (Long) row[1]);
+        }
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        if (total == 0) {
+            throw new LoanNotFoundException("No loans found to generate report");
+        }
+        return LoanReportSummary.builder()
+                .date(today)
+                .total(total)
+                .active(counts.getOrDefault(LoanStatus.BORROWED, 0L))
+                .overdue(counts.getOrDefault(LoanStatus.OVERDUE, 0L))
+                .upcoming(loanRepository.countByStatusAndDueDateAfterAndDueDateBefore(
+                        LoanStatus.BORROWED, today, today.plusDays(UPCOMING_DAYS)))
+                .returned(counts.getOrDefault(LoanStatus.RETURNED, 0L))
+                .build();
+    }
+
+    // Akış bitene kadar transaction ve veritabanı cursor'ı açık kalır
+    @Transactional(readOnly = true)
+    public void writeReport(LoanReportSummary summary, LoanReportFormat format, OutputStream outputStream)
+            throws IOException {
+        log.info("Writing loan report as {} for {} loans", format, summary.getTotal());
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        LoanReportWriter writer = format.newWriter(out);
+
+        writer.writeSummary(summary);
+        for (LoanReportSection section : LoanReportSection.values()) {
+            writer.startSection(section);
+            try (Stream<LoanReportRow> rows = streamSection(section, summary.getDate())) {
+                Iterator<LoanReportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeRow(section, iterator.next());
+                }
+            }
+            writer.endSection(section);
+        }
+        writer.finish();
+    }
+
+    private Stream<LoanReportRow> streamSection(LoanReportSection section, LocalDate today) {
+        return switch (section) {
+            case ACTIVE -> loanRepository.streamReportRowsByStatus(LoanStatus.BORROWED);
+            case OVERDUE -> loanRepository.streamReportRowsByStatus(LoanStatus.OVERDUE);
+            case UPCOMING -> loanRepository.streamReportRowsByStatusAndDueDateBetween(
+                    LoanStatus.BORROWED, today, today.plusDays(UPCOMING_DAYS));
+            case RETURNED -> loanRepository.streamReportRowsByStatusOrderByReturnDateDesc(LoanStatus.RETURNED);
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanReportSummary {
+    private LocalDate date;
+    private long total;
+    private long active;
+    private long overdue;
+    private long upcoming;
+    private long returned;
+}
@@ -0,0 +1,22 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow;
+
+import java.io.IOException;
+
+/**
+ * Receives the report one row at a time and writes it straight to the underlying
+ * writer, so memory use does not grow with the number of loans.
+ */
+interface LoanReportWriter {
+
+    void writeSummary(LoanReportSummary summary) throws IOException;
+
+    void startSection(LoanReportSection section) throws IOException;
+
+    void writeRow(LoanReportSection section, LoanReportRow row) throws IOException;
+
+    void endSection(LoanReportSection section) throws IOException;
+
+    void finish() throws IOException;
+}
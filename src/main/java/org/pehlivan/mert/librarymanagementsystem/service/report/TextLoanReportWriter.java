@@ -0,0 +1,109 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+class TextLoanReportWriter implements LoanReportWriter {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final Writer out;
+    private LocalDate today;
+    private long sectionRows;
+
+    TextLoanReportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeSummary(LoanReportSummary summary) throws IOException {
+        today = summary.getDate();
+        out.write("KÜTÜPHANE ÖDÜNÇ KİTAP RAPORU\n");
+        out.write("Oluşturulma Tarihi: " + today.format(DATE_FORMAT) + "\n\n");
+
+        out.write("GENEL İSTATİSTİKLER\n");
+        out.write("===================\n");
+        out.write("Toplam Ödünç Kitap Sayısı: " + summary.getTotal() + "\n");
+        out.write("Aktif Ödünç Kitap Sayısı: " + summary.getActive() + "\n");
+        out.write("Geciken Kitap Sayısı: " + summary.getOverdue() + "\n");
+        out.write("Yaklaşan Son Tarihli Kitap Sayısı: " + summary.getUpcoming() + "\n");
+        out.write("İade Edilen Kitap Sayısı: " + summary.getReturned() + "\n");
+    }
+
+    @Override
+    public void startSection(LoanReportSection section) throws IOException {
+        sectionRows = 0;
+        out.write("\n" + section.getTitle() + "\n");
+        out.write("=".repeat(section.getTitle().length()) + "\n");
+    }
+
+    @Override
+    public void writeRow(LoanReportSection section, LoanReportRow row) throws IOException {
+        // Sütun başlığı yalnızca bölümde en az bir kayıt varsa yazılır
+        if (sectionRows++ == 0) {
+            writeHeader(section);
+        }
+        switch (section) {
+            case ACTIVE -> out.write(String.format("%-5d %-30s %-20s %-15s %-15s %-10d\n",
+                    row.getLoanId(), row.getBookTitle(), row.getUsername(),
+                    format(row.getBorrowedDate()), format(row.getDueDate()),
+                    ChronoUnit.DAYS.between(today, row.getDueDate())));
+            case OVERDUE -> out.write(String.format("%-5d %-30s %-20s %-15s %-15s %-10d %-10.2f\n",
+                    row.getLoanId(), row.getBookTitle(), row.getUsername(),
+                    format(row.getBorrowedDate()), format(row.getDueDate()),
+                    ChronoUnit.DAYS.between(row.getDueDate(), today), row.getPenaltyAmount()));
+            case UPCOMING -> out.write(String.format("%-5d %-30s %-20s %-15s %-15s\n",
+                    row.getLoanId(), row.getBookTitle(), row.getUsername(),
+                    format(row.getBorrowedDate()), format(row.getDueDate())));
+            case RETURNED -> out.write(String.format("%-5d %-30s %-20s %-15s %-15s\n",
+                    row.getLoanId(), row.getBookTitle(), row.getUsername(),
+                    format(row.getReturnDate()), row.getStatus()));
+        }
+    }
+
+    @Override
+    public void endSection(LoanReportSection section) throws IOException {
+        if (sectionRows == 0) {
+            out.write(section.getEmptyMessage() + "\n");
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void writeHeader(LoanReportSection section) throws IOException {
+        switch (section) {
+            case ACTIVE -> {
+                out.write(String.format("%-5s %-30s %-20s %-15s %-15s %-10s\n",
+                        "ID", "Kitap Adı", "Ödünç Alan", "Ödünç Tarihi", "Son Tarih", "Kalan Gün"));
+                out.write("-".repeat(100) + "\n");
+            }
+            case OVERDUE -> {
+                out.write(String.format("%-5s %-30s %-20s %-15s %-15s %-10s %-10s\n",
+                        "ID", "Kitap Adı", "Ödünç Alan", "Ödünç Tarihi", "Son Tarih", "Gecikme (Gün)", "Ceza (TL)"));
+                out.write("-".repeat(110) + "\n");
+            }
+            case UPCOMING -> {
+                out.write(String.format("%-5s %-30s %-20s %-15s %-15s\n",
+                        "ID", "Kitap Adı", "Ödünç Alan", "Ödünç Tarihi", "Son Tarih"));
+                out.write("-".repeat(90) + "\n");
+            }
+            case RETURNED -> {
+                out.write(String.format("%-5s %-30s %-20s %-15s %-15s\n",
+                        "ID", "Kitap Adı", "Ödünç Alan", "İade Tarihi", "Durum"));
+                out.write("-".repeat(90) + "\n");
+            }
+        }
+    }
+
+    private String format(LocalDate date) {
+        return date == null ? "-" : date.format(DATE_FORMAT);
+    }
+}
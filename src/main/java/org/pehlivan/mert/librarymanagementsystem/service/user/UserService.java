@@ -3,6 +3,8 @@ package org.pehlivan.mert.librarymanagementsystem.service.user;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorCodec;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRegistrationNotification;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserResponseDto;
@@ -12,9 +14,13 @@ import org.pehlivan.mert.librarymanagementsystem.exception.user.UserNotFoundExce
 import org.pehlivan.mert.librarymanagementsystem.model.user.Role;
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
 import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
+import org.pehlivan.mert.librarymanagementsystem.security.UserTokenStampCache;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,6 +32,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.security.access.AccessDeniedException;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -36,7 +43,7 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 @RequiredArgsConstructor
-@CacheConfig(cacheNames = "user", cacheManager = "redisCacheManager")
+@CacheConfig(cacheNames = "user", cacheManager = "cacheManager")
 public class UserService {
 
     private final UserRepository userRepository;
@@ -44,6 +51,7 @@ public class UserService {
     private final ModelMapper modelMapper;
     private final MeterRegistry meterRegistry;
     private final KafkaTemplate<String, UserRegistrationNotification> kafkaTemplate;
+    private final UserTokenStampCache tokenStampCache;
 
     private Counter totalUsersCounter;
     private Counter activeUsersCounter;
@@ -118,7 +126,7 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(key = "'all'", unless = "#result.isEmpty()")
+    @Cacheable(key = "'all'", sync = true)
     public List<UserResponseDto> getAllUsers() {
         List<User> users = userRepository.findAll();
         List<UserResponseDto> userResponseDtos = users.stream()
@@ -128,6 +136,17 @@ public class UserService {
         return userResponseDtos;
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponseDto> getUsersByCursor(String cursor, int size, boolean includeTotal) {
+        log.info("Entering getUsersByCursor method with cursor: {}, size: {}", cursor, size);
+        Long afterId = CursorCodec.decode(cursor);
+        Slice<User> slice = userRepository.findByIdGreaterThan(afterId == null ? 0L : afterId,
+                PageRequest.of(0, CursorPageResponse.clampSize(size), Sort.by("id")));
+        Long total = includeTotal ? userRepository.count() : null;
+        return CursorPageResponse.of(slice, User::getId,
+                user -> modelMapper.map(user, UserResponseDto.class), total);
+    }
+
     @Transactional(readOnly = true)
     @Cacheable(key = "'id:' + #id", unless = "#result == null")
     public UserResponseDto getUser(Long id) {
@@ -151,6 +170,10 @@ public class UserService {
                     return new UserNotFoundException("User not found with id: " + id);
                 });
 
+        String previousEmail = existingUser.getEmail();
+        boolean rolesChanged = userRequestDto.getRoles() != null
+                && !userRequestDto.getRoles().equals(existingUser.getRoles());
+
         Optional.ofNullable(userRequestDto.getEmail()).ifPresent(existingUser::setEmail);
         Optional.ofNullable(userRequestDto.getName()).ifPresent(existingUser::setName);
         Optional.ofNullable(userRequestDto.getUsername()).ifPresent(existingUser::setUsername);
@@ -159,6 +182,9 @@ public class UserService {
         if (userRequestDto.getPassword() != null) {
             existingUser.setPassword(passwordEncoder.encode(userRequestDto.getPassword()));
         }
+        if (userRequestDto.getPassword() != null || rolesChanged) {
+            revokeTokens(existingUser, previousEmail);
+        }
 
         User savedUser = userRepository.save(existingUser);
         log.info("User updated successfully with id: {}", id);
@@ -174,6 +200,7 @@ public class UserService {
             return new UserNotFoundException("User not found with id: " + id);
         });
         userRepository.delete(user);
+        tokenStampCache.evict(user.getEmail());
         
         totalUsersCounter.increment(-1);
         activeUsersCounter.increment(-1);
@@ -243,6 +270,13 @@ public class UserService {
         return user;
     }
 
+    // Bulunamayan id'ler sonuçta yer almaz; hata çağıran tarafından kayıt bazında raporlanır
+    public Map<Long, User> getUserEntities(Collection<Long> ids) {
+        log.info("Getting user entities for {} ids", ids.size());
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+    }
+
     @Transactional(readOnly = true)
     @Cacheable(key = "'username:' + #username", unless = "#result == null")
     public User getUserByUsername(String username) {
@@ -265,6 +299,7 @@ public class UserService {
                     log.error("User not found with id: {}", id);
                     return new UserNotFoundException("User not found with id: " + id);
                 });
+        String previousEmail = existingUser.getEmail();
 
         if (!existingUser.getRoles().contains(Role.READER)) {
             log.error("Access denied: User {} is not a reader", id);
@@ -277,10 +312,18 @@ public class UserService {
 
         if (userUpdateRequestDto.getPassword() != null) {
             existingUser.setPassword(passwordEncoder.encode(userUpdateRequestDto.getPassword()));
+            revokeTokens(existingUser, previousEmail);
         }
 
         User savedUser = userRepository.save(existingUser);
         log.info("User self-update completed successfully for id: {}", id);
         return modelMapper.map(savedUser, UserResponseDto.class);
     }
-}
\ No newline at end of file
+
+    // Versiyon artırılır; önceden verilmiş token'lar stamp TTL'i içinde reddedilir
+    private void revokeTokens(User user, String previousEmail) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        tokenStampCache.evict(previousEmail);
+        log.info("Token version bumped to {} for user id: {}", user.getTokenVersion(), user.getId());
+    }
+}
@@ -0,0 +1,2 @@
+-- Token version stamp; bumped on password/role changes so previously issued JWTs stop working
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
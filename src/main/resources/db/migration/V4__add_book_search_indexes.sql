@@ -0,0 +1,6 @@
+-- Trigram indexes for book search; they serve both LIKE '%term%' filters and similarity ranking
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_authors_name_trgm ON authors USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_authors_surname_trgm ON authors USING gin (lower(surname) gin_trgm_ops);
@@ -0,0 +1,15 @@
+-- Entities take ids from their sequence in blocks of 50 (Hibernate pooled optimizer) instead of IDENTITY,
+-- which lets Hibernate batch inserts. The BIGSERIAL sequences and existing ids are kept: each sequence
+-- now advances by 50 and is moved past the current maximum so that the first block starts at MAX(id) + 1.
+-- Plain inserts that use the column default still work; they take the top id of an unused block.
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'authors', 'books', 'loans', 'email_outbox'] LOOP
+        seq := pg_get_serial_sequence(t, 'id');
+        EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', seq);
+        EXECUTE format('SELECT setval(%L, COALESCE((SELECT MAX(id) FROM %I), 0) + 50, false)', seq, t);
+    END LOOP;
+END $$;
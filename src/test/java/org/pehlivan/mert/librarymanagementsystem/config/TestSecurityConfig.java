@@ -9,6 +9,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.pehlivan.mert.librarymanagementsystem.security.JwtAuthFilter;
 import org.pehlivan.mert.librarymanagementsystem.security.JwtHelper;
+import org.pehlivan.mert.librarymanagementsystem.security.UserTokenStampCache;
 import org.pehlivan.mert.librarymanagementsystem.service.user.CustomUserDetailsService;
 
 @TestConfiguration
@@ -16,7 +17,8 @@ import org.pehlivan.mert.librarymanagementsystem.service.user.CustomUserDetailsS
 public class TestSecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtHelper jwtHelper, CustomUserDetailsService userDetailsService) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtHelper jwtHelper, CustomUserDetailsService userDetailsService,
+                                                   UserTokenStampCache tokenStampCache) throws Exception {
         http
             .csrf().disable()
             .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -26,7 +28,7 @@ public class TestSecurityConfig {
                 .requestMatchers("/api/v1/authors/**").hasAnyRole("LIBRARIAN", "READER")
                 .anyRequest().authenticated()
             .and()
-            .addFilterBefore(new JwtAuthFilter(jwtHelper, userDetailsService), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new JwtAuthFilter(jwtHelper, userDetailsService, tokenStampCache), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
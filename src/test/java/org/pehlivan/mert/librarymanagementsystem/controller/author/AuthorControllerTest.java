@@ -1,7 +1,6 @@
 package org.pehlivan.mert.librarymanagementsystem.controller.author;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,7 +8,9 @@ import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.exception.rate.RateLimitExceededException;
 import org.pehlivan.mert.librarymanagementsystem.service.author.AuthorService;
+import org.pehlivan.mert.librarymanagementsystem.service.ratelimit.RateLimitService;
 import org.pehlivan.mert.librarymanagementsystem.security.JwtHelper;
+import org.pehlivan.mert.librarymanagementsystem.security.UserTokenStampCache;
 import org.pehlivan.mert.librarymanagementsystem.config.TestSecurityConfig;
 import org.pehlivan.mert.librarymanagementsystem.service.user.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,7 +53,7 @@ class AuthorControllerTest {
     private AuthorService authorService;
 
     @MockBean
-    private Bucket bucket;
+    private RateLimitService rateLimitService;
 
     @MockBean
     private JwtHelper jwtHelper;
@@ -59,6 +61,9 @@ class AuthorControllerTest {
     @MockBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @MockBean
+    private UserTokenStampCache userTokenStampCache;
+
     private AuthorRequestDto authorRequestDto;
     private AuthorResponseDto authorDto;
     private ConsumptionProbe successProbe;
@@ -93,7 +98,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "LIBRARIAN")
     void createAuthor_ShouldReturnCreatedAuthor() throws Exception {
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
         when(authorService.createAuthor(any(AuthorRequestDto.class))).thenReturn(authorDto);
 
         mockMvc.perform(post("/api/v1/authors")
@@ -108,7 +113,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = {"LIBRARIAN", "READER"})
     void getAllAuthors_ShouldReturnAuthorList() throws Exception {
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
         List<AuthorResponseDto> authors = Arrays.asList(authorDto);
         when(authorService.getAllAuthors()).thenReturn(authors);
 
@@ -121,7 +126,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = {"LIBRARIAN", "READER"})
     void getAuthorById_ShouldReturnAuthor() throws Exception {
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
         when(authorService.getAuthor(anyLong())).thenReturn(authorDto);
 
         mockMvc.perform(get("/api/v1/authors/1"))
@@ -133,7 +138,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "LIBRARIAN")
     void updateAuthor_ShouldReturnUpdatedAuthor() throws Exception {
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
         when(authorService.updateAuthor(anyLong(), any(AuthorRequestDto.class))).thenReturn(authorDto);
 
         mockMvc.perform(put("/api/v1/authors/1")
@@ -147,7 +152,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "LIBRARIAN")
     void deleteAuthor_ShouldReturnNoContent() throws Exception {
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
         doNothing().when(authorService).deleteAuthor(anyLong());
 
         mockMvc.perform(delete("/api/v1/authors/1"))
@@ -157,7 +162,7 @@ class AuthorControllerTest {
     @Test
     @WithMockUser(roles = "READER")
     void createAuthor_WithReaderRole_ShouldReturnForbidden() throws Exception {
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
         mockMvc.perform(post("/api/v1/authors")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authorRequestDto)))
@@ -171,7 +176,7 @@ class AuthorControllerTest {
 
         // İlk 100 istek başarılı
         for (int i = 0; i < 100; i++) {
-            when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+            when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
             mockMvc.perform(post("/api/v1/authors")
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(authorRequestDto)))
@@ -179,7 +184,7 @@ class AuthorControllerTest {
         }
 
         // 101. istek başarısız olmalı
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(failProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(failProbe);
         mockMvc.perform(post("/api/v1/authors")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authorRequestDto)))
@@ -200,13 +205,13 @@ class AuthorControllerTest {
 
         // İlk 100 istek başarılı
         for (int i = 0; i < 100; i++) {
-            when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+            when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
             mockMvc.perform(get("/api/v1/authors"))
                     .andExpect(status().isOk());
         }
 
         // 101. istek başarısız olmalı
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(failProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(failProbe);
         mockMvc.perform(get("/api/v1/authors"))
                 .andExpect(status().isTooManyRequests())
                 .andExpect(result -> {
@@ -224,13 +229,13 @@ class AuthorControllerTest {
 
         // İlk 100 istek başarılı
         for (int i = 0; i < 100; i++) {
-            when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(successProbe);
+            when(rateLimitService.tryConsume(anyString(), any())).thenReturn(successProbe);
             mockMvc.perform(get("/api/v1/authors/1"))
                     .andExpect(status().isOk());
         }
 
         // 101. istek başarısız olmalı
-        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(failProbe);
+        when(rateLimitService.tryConsume(anyString(), any())).thenReturn(failProbe);
         mockMvc.perform(get("/api/v1/authors/1"))
                 .andExpect(status().isTooManyRequests())
                 .andExpect(result -> {
@@ -10,13 +10,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import reactor.core.publisher.Flux;
 
 import java.time.LocalDateTime;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -104,4 +109,29 @@ class BookAvailabilityControllerTest {
                 .accept(MediaType.TEXT_EVENT_STREAM_VALUE))
                 .andExpect(status().isOk());
     }
-} 
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "READER")
+    void streamBookAvailability_ShouldWriteServerSentEvents() throws Exception {
+        BookAvailabilityEvent event = BookAvailabilityEvent.builder()
+                .bookId(1L)
+                .bookTitle("Test Book")
+                .available(true)
+                .timestamp(LocalDateTime.now())
+                .eventType("RETURNED")
+                .build();
+
+        when(bookAvailabilityService.getAvailabilityStreamForBook(1L))
+                .thenReturn(Flux.just(event));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/books/availability/1")
+                .accept(MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Olay akışı bitince kalp atışları da durur ve yanıt tamamlanır
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("data:{\"bookId\":1,\"bookTitle\":\"Test Book\"")));
+    }
+}
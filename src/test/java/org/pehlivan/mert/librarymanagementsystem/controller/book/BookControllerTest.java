@@ -3,11 +3,16 @@ package org.pehlivan.mert.librarymanagementsystem.controller.book;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportJobResponse;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.exception.book.BookImportJobNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
 import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportFormat;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportJobService;
+import org.pehlivan.mert.librarymanagementsystem.service.book.BookImportJobStatus;
 import org.pehlivan.mert.librarymanagementsystem.service.book.BookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -17,15 +22,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,6 +52,9 @@ class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookImportJobService bookImportJobService;
+
     private BookRequestDto bookRequestDto;
     private BookResponseDto bookResponseDto;
 
@@ -89,6 +101,40 @@ class BookControllerTest {
                 .andExpect(jsonPath("$.isbn").value("9781234567890"));
     }
 
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void importBooks_ShouldAcceptJob() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "books.csv", "text/csv",
+                "title,isbn\n".getBytes(StandardCharsets.UTF_8));
+        when(bookImportJobService.submit(any(MultipartFile.class), isNull())).thenReturn(BookImportJobResponse.builder()
+                .id("job-1").format(BookImportFormat.CSV).status(BookImportJobStatus.PENDING).build());
+
+        mockMvc.perform(multipart("/api/v1/books/import").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "READER")
+    void importBooks_AsReader_ShouldBeForbidden() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "books.csv", "text/csv",
+                "title,isbn\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/v1/books/import").file(file))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void getImportJob_Unknown_ShouldReturnNotFound() throws Exception {
+        when(bookImportJobService.getJob("missing"))
+                .thenThrow(new BookImportJobNotFoundException("Book import job not found with id: missing"));
+
+        mockMvc.perform(get("/api/v1/books/import/missing"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser(roles = {"LIBRARIAN", "READER"})
     void getAllBooks_ShouldReturnBookList() throws Exception {
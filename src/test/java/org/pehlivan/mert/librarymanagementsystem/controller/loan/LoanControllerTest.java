@@ -3,11 +3,18 @@ package org.pehlivan.mert.librarymanagementsystem.controller.loan;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchItemResultDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReturnBatchRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.UserLoanRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
 import org.pehlivan.mert.librarymanagementsystem.service.loan.LoanService;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportFormat;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportService;
+import org.pehlivan.mert.librarymanagementsystem.service.report.LoanReportSummary;
 import org.pehlivan.mert.librarymanagementsystem.service.user.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -16,13 +23,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,6 +55,9 @@ class LoanControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private LoanReportService loanReportService;
+
     private LoanRequestDto loanRequestDto;
     private UserLoanRequestDto userLoanRequestDto;
     private LoanResponseDto loanResponseDto;
@@ -121,6 +136,51 @@ class LoanControllerTest {
                 .andExpect(jsonPath("$.status").value("RETURNED"));
     }
 
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void borrowBooks_ShouldReturnResultPerItem() throws Exception {
+        LoanBatchRequestDto request = LoanBatchRequestDto.builder()
+                .loans(List.of(loanRequestDto, loanRequestDto))
+                .build();
+        when(loanService.borrowBooks(any())).thenReturn(LoanBatchResponseDto.of(List.of(
+                LoanBatchItemResultDto.success(0, loanResponseDto),
+                LoanBatchItemResultDto.failure(1, 400, "Book is not available for loan"))));
+
+        mockMvc.perform(post("/api/v1/loans/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].loan.id").value(1))
+                .andExpect(jsonPath("$.results[1].errorStatus").value(400));
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void borrowBooks_WithEmptyBatch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/loans/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(LoanBatchRequestDto.builder().loans(List.of()).build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "LIBRARIAN")
+    void returnBooks_ShouldReturnResultPerItem() throws Exception {
+        loanResponseDto.setStatus(LoanStatus.RETURNED);
+        when(loanService.returnBooks(List.of(1L, 2L))).thenReturn(LoanBatchResponseDto.of(List.of(
+                LoanBatchItemResultDto.success(0, loanResponseDto),
+                LoanBatchItemResultDto.failure(1, 404, "Loan not found with id: 2"))));
+
+        mockMvc.perform(post("/api/v1/loans/batch/return")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(LoanReturnBatchRequestDto.builder().loanIds(List.of(1L, 2L)).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].loan.status").value("RETURNED"))
+                .andExpect(jsonPath("$.results[1].error").value("Loan not found with id: 2"));
+    }
+
     @Test
     @WithMockUser(roles = "LIBRARIAN")
     void getLoanHistoryByUser_ShouldReturnLoanList() throws Exception {
@@ -168,12 +228,23 @@ class LoanControllerTest {
 
     @Test
     @WithMockUser(roles = "LIBRARIAN")
-    void generateLoanReport_ShouldReturnSuccessMessage() throws Exception {
-        when(loanService.generateLoanReport()).thenReturn("Report generated successfully");
+    void generateLoanReport_ShouldStreamReportAsAttachment() throws Exception {
+        LoanReportSummary summary = LoanReportSummary.builder().date(LocalDate.of(2024, 3, 10)).total(1).build();
+        when(loanReportService.summarize(any(LocalDate.class))).thenReturn(summary);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("section\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(loanReportService).writeReport(eq(summary), eq(LoanReportFormat.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/loans/report").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        mockMvc.perform(get("/api/v1/loans/report"))
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Report generated successfully"));
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"loan_report_20240310.csv\""))
+                .andExpect(content().string("section\n"));
     }
 
     @Test
@@ -0,0 +1,56 @@
+package org.pehlivan.mert.librarymanagementsystem.dto.page;
+
+import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.exception.page.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void encodeDecode_RoundTripsId() {
+        String cursor = CursorCodec.encode(42L);
+
+        assertFalse(cursor.contains("42"));
+        assertEquals(42L, CursorCodec.decode(cursor));
+    }
+
+    @Test
+    void decode_BlankCursor_ReturnsNull() {
+        assertNull(CursorCodec.decode(null));
+        assertNull(CursorCodec.decode(" "));
+    }
+
+    @Test
+    void decode_TamperedCursor_ThrowsInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("not-a-cursor!"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("djE6YWJj")); // "v1:abc"
+    }
+
+    @Test
+    void of_HasNext_PointsCursorAtLastRow() {
+        SliceImpl<Long> slice = new SliceImpl<>(List.of(3L, 5L), PageRequest.of(0, 2), true);
+
+        CursorPageResponse<String> page = CursorPageResponse.of(slice, id -> id, String::valueOf, null);
+
+        assertEquals(List.of("3", "5"), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals(5L, CursorCodec.decode(page.getNextCursor()));
+        assertNull(page.getTotalElements());
+    }
+
+    @Test
+    void of_LastPage_HasNoCursor() {
+        SliceImpl<Long> slice = new SliceImpl<>(List.of(7L), PageRequest.of(0, 2), false);
+
+        CursorPageResponse<Long> page = CursorPageResponse.of(slice, id -> id, id -> id, 1L);
+
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        assertEquals(1L, page.getTotalElements());
+    }
+}
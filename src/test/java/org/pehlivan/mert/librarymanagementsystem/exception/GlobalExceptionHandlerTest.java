@@ -6,7 +6,10 @@ import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorAlreadyE
 import org.pehlivan.mert.librarymanagementsystem.exception.author.AuthorNotFoundException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.*;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.*;
+import org.pehlivan.mert.librarymanagementsystem.exception.page.InvalidCursorException;
 import org.pehlivan.mert.librarymanagementsystem.exception.rate.RateLimitExceededException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportJobNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportNotReadyException;
 import org.pehlivan.mert.librarymanagementsystem.exception.user.*;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -179,6 +182,35 @@ class GlobalExceptionHandlerTest {
         assertEquals(HttpStatus.NOT_FOUND.value(), response.getBody().getStatus());
     }
 
+    // Pagination Exception Test
+    @Test
+    void handleInvalidCursorException_ShouldReturnBadRequestStatus() {
+        InvalidCursorException ex = new InvalidCursorException("Invalid cursor: abc");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidCursorException(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid cursor: abc", response.getBody().getMessage());
+    }
+
+    // Report Exception Tests
+    @Test
+    void handleReportJobNotFoundException_ShouldReturnNotFoundStatus() {
+        ReportJobNotFoundException ex = new ReportJobNotFoundException("Report job not found with id: 1");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleReportJobNotFoundException(ex);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("Report job not found with id: 1", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleReportNotReadyException_ShouldReturnConflictStatus() {
+        ReportNotReadyException ex = new ReportNotReadyException("Report job 1 is RUNNING");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleReportNotReadyException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Report job 1 is RUNNING", response.getBody().getMessage());
+    }
+
     // Rate Limit Exception Test
     @Test
     void handleRateLimitExceededException_ShouldReturnTooManyRequestsStatus() {
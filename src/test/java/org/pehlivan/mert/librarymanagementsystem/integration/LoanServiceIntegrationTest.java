@@ -19,6 +19,8 @@ import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
 import org.pehlivan.mert.librarymanagementsystem.model.user.Role;
 import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus;
+import org.pehlivan.mert.librarymanagementsystem.repository.email.EmailOutboxRepository;
 import org.pehlivan.mert.librarymanagementsystem.repository.loan.LoanRepository;
 import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
 import org.pehlivan.mert.librarymanagementsystem.repository.book.BookRepository;
@@ -67,6 +69,9 @@ public class LoanServiceIntegrationTest {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
     @MockBean
     private EmailService emailService;
 
@@ -82,6 +87,7 @@ public class LoanServiceIntegrationTest {
         reset(emailService);
 
         // Clean up all related data
+        emailOutboxRepository.deleteAll();
         loanRepository.deleteAll();
         userRepository.deleteAll();
         bookRepository.deleteAll();
@@ -156,7 +162,8 @@ public class LoanServiceIntegrationTest {
         assertNull(borrowedLoan.getReturnDate());
         assertEquals(LoanStatus.BORROWED, borrowedLoan.getStatus());
 
-        verify(emailService).sendLoanNotification(
+        assertEquals(1, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        verify(emailService, never()).sendLoanNotification(
             anyString(),
             anyString(),
             anyString(),
@@ -189,6 +196,7 @@ public class LoanServiceIntegrationTest {
 
         // When & Then
         assertThrows(BookNotAvailableException.class, () -> loanService.borrowBook(limitedBookRequest));
+        assertEquals(0, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
         verify(emailService, never()).sendLoanNotification(
             anyString(),
             anyString(),
@@ -227,7 +235,8 @@ public class LoanServiceIntegrationTest {
 
         // When & Then
         assertThrows(LoanLimitExceededException.class, () -> loanService.borrowBook(loanRequestDto));
-        verify(emailService, times(3)).sendLoanNotification(
+        assertEquals(3, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        verify(emailService, never()).sendLoanNotification(
             anyString(),
             anyString(),
             anyString(),
@@ -258,8 +267,9 @@ public class LoanServiceIntegrationTest {
         assertNotNull(returnedLoan.getReturnDate());
         assertEquals(LoanStatus.RETURNED, returnedLoan.getStatus());
 
-        // Verify email service was called exactly once during the entire test
-        verify(emailService, times(1)).sendLoanNotification(
+        // Verify exactly one notification was queued during the entire test
+        assertEquals(1, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        verify(emailService, never()).sendLoanNotification(
             anyString(),
             anyString(),
             anyString(),
@@ -276,7 +286,8 @@ public class LoanServiceIntegrationTest {
 
         // When & Then
         assertThrows(LoanAlreadyReturnedException.class, () -> loanService.returnBook(borrowedLoan.getId()));
-        verify(emailService).sendLoanNotification(
+        assertEquals(1, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        verify(emailService, never()).sendLoanNotification(
             anyString(),
             anyString(),
             anyString(),
@@ -300,7 +311,8 @@ public class LoanServiceIntegrationTest {
         assertEquals(loan.getId(), userLoans.get(0).getId());
         assertEquals(userId, userLoans.get(0).getUserId());
 
-        verify(emailService).sendLoanNotification(
+        assertEquals(1, emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING));
+        verify(emailService, never()).sendLoanNotification(
             anyString(),
             anyString(),
             anyString(),
@@ -1,17 +1,22 @@
 package org.pehlivan.mert.librarymanagementsystem.integration;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRegistrationNotification;
+import org.pehlivan.mert.librarymanagementsystem.service.email.EmailService;
 import org.pehlivan.mert.librarymanagementsystem.service.notification.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -23,7 +28,10 @@ public class NotificationServiceIntegrationTest {
     private NotificationService notificationService;
 
     @MockBean
-    private Acknowledgment acknowledgment;
+    private EmailService emailService;
+
+    @MockBean
+    private DeadLetterPublishingRecoverer deadLetterPublishingRecoverer;
 
     private UserRegistrationNotification userRegistrationNotification;
 
@@ -38,8 +46,9 @@ public class NotificationServiceIntegrationTest {
     @Test
     void handleUserRegistration_Success() {
         // When & Then
-        assertDoesNotThrow(() -> notificationService.handleUserRegistration(userRegistrationNotification, acknowledgment));
-        verify(acknowledgment, times(1)).acknowledge();
+        assertDoesNotThrow(() -> notificationService.handleUserRegistrations(List.of(record())));
+        verify(emailService, times(1)).sendWelcomeEmail("test@example.com", "testuser");
+        verify(deadLetterPublishingRecoverer, never()).accept(any(), any());
     }
 
     @Test
@@ -48,8 +57,8 @@ public class NotificationServiceIntegrationTest {
         userRegistrationNotification.setEmail(null);
 
         // When & Then
-        assertDoesNotThrow(() -> notificationService.handleUserRegistration(userRegistrationNotification, acknowledgment));
-        verify(acknowledgment, times(1)).acknowledge();
+        assertDoesNotThrow(() -> notificationService.handleUserRegistrations(List.of(record())));
+        verify(deadLetterPublishingRecoverer, times(1)).accept(any(), any());
     }
 
     @Test
@@ -58,8 +67,8 @@ public class NotificationServiceIntegrationTest {
         userRegistrationNotification.setUsername(null);
 
         // When & Then
-        assertDoesNotThrow(() -> notificationService.handleUserRegistration(userRegistrationNotification, acknowledgment));
-        verify(acknowledgment, times(1)).acknowledge();
+        assertDoesNotThrow(() -> notificationService.handleUserRegistrations(List.of(record())));
+        verify(deadLetterPublishingRecoverer, times(1)).accept(any(), any());
     }
 
     @Test
@@ -68,8 +77,8 @@ public class NotificationServiceIntegrationTest {
         userRegistrationNotification.setEmail("");
 
         // When & Then
-        assertDoesNotThrow(() -> notificationService.handleUserRegistration(userRegistrationNotification, acknowledgment));
-        verify(acknowledgment, times(1)).acknowledge();
+        assertDoesNotThrow(() -> notificationService.handleUserRegistrations(List.of(record())));
+        verify(emailService, times(1)).sendWelcomeEmail("", "testuser");
     }
 
     @Test
@@ -78,7 +87,11 @@ public class NotificationServiceIntegrationTest {
         userRegistrationNotification.setUsername("");
 
         // When & Then
-        assertDoesNotThrow(() -> notificationService.handleUserRegistration(userRegistrationNotification, acknowledgment));
-        verify(acknowledgment, times(1)).acknowledge();
+        assertDoesNotThrow(() -> notificationService.handleUserRegistrations(List.of(record())));
+        verify(emailService, times(1)).sendWelcomeEmail("test@example.com", "");
+    }
+
+    private ConsumerRecord<String, UserRegistrationNotification> record() {
+        return new ConsumerRecord<>("user-registration", 0, 0L, null, userRegistrationNotification);
     }
-} 
\ No newline at end of file
+}
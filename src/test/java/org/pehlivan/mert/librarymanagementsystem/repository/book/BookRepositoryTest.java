@@ -0,0 +1,103 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.repository.author.AuthorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Eşzamanlı ödünçler gerçek işlemlerde çalışır; test işlemi satır kilidini tutmamalı
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookRepositoryTest {
+
+    private static final int STOCK = 5;
+    private static final int BORROWERS = 16;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Author author;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        author = authorRepository.save(Author.builder().name("Frank").surname("Herbert").build());
+        book = bookRepository.save(Book.builder()
+                .title("Dune").isbn("9780441013593").stock(STOCK).availableCount(STOCK).pageCount(400)
+                .publisher("Chilton").status(BookStatus.AVAILABLE).bookType(BookType.SCIENCE_FICTION)
+                .author(author)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+        authorRepository.deleteById(author.getId());
+    }
+
+    @Test
+    void decrementAvailableCount_ConcurrentBorrows_NeverOversells() throws Exception {
+        ExecutorService borrowers = Executors.newFixedThreadPool(BORROWERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < BORROWERS; i++) {
+                results.add(borrowers.submit(() -> {
+                    start.await();
+                    return transactionTemplate.execute(status -> bookRepository.decrementAvailableCount(book.getId()));
+                }));
+            }
+            start.countDown();
+
+            int borrowed = 0;
+            for (Future<Integer> result : results) {
+                borrowed += result.get(30, TimeUnit.SECONDS);
+            }
+
+            Book stored = bookRepository.findById(book.getId()).orElseThrow();
+            assertEquals(STOCK, borrowed);
+            assertEquals(0, stored.getAvailableCount());
+            assertEquals(BookStatus.UNAVAILABLE, stored.getStatus());
+        } finally {
+            borrowers.shutdownNow();
+        }
+    }
+
+    @Test
+    void incrementAvailableCount_AtFullStock_ChangesNothing() {
+        int updated = transactionTemplate.execute(status -> bookRepository.incrementAvailableCount(book.getId()));
+
+        assertEquals(0, updated);
+        assertEquals(STOCK, bookRepository.findById(book.getId()).orElseThrow().getAvailableCount());
+    }
+}
@@ -0,0 +1,127 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.book;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresBookSearchEngineTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private PostgresBookSearchEngine searchEngine;
+
+    private BookSearchCriteriaDTO criteria;
+
+    @BeforeEach
+    void setUp() {
+        criteria = new BookSearchCriteriaDTO();
+        criteria.setTitle("Ring");
+        criteria.setAuthorSurname("Tolkien");
+        criteria.setStatus(BookStatus.AVAILABLE);
+    }
+
+    @Test
+    void search_TextCriteria_ReturnsPageInRankOrder() {
+        Pageable pageable = PageRequest.of(0, 2);
+        Book first = Book.builder().id(7L).title("The Lord of the Rings").build();
+        Book second = Book.builder().id(3L).title("Ringworld").build();
+        when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Long.class))).thenReturn(5L);
+        when(jdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(7L, 3L));
+        // Veritabanı kitapları id sırasıyla döndürebilir; sonuç yine sıralamaya göre olmalı
+        when(bookRepository.findAllWithAuthorByIdIn(List.of(7L, 3L))).thenReturn(List.of(second, first));
+
+        Page<Book> result = searchEngine.search(criteria, pageable);
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals(List.of(first, second), result.getContent());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(sql.capture(), any(MapSqlParameterSource.class), eq(Long.class));
+        assertTrue(sql.getValue().contains("lower(b.title) LIKE :titlePattern"));
+        assertTrue(sql.getValue().contains("lower(a.surname) LIKE :authorSurnamePattern"));
+        assertTrue(sql.getValue().contains("b.status = :status"));
+        assertTrue(sql.getValue().contains(
+                "ORDER BY (similarity(lower(b.title), :title) + similarity(lower(a.surname), :authorSurname)) DESC, b.id"));
+    }
+
+    @Test
+    void search_NoTextCriteriaAndNoSort_OrdersByIdOnly() {
+        BookSearchCriteriaDTO statusOnly = new BookSearchCriteriaDTO();
+        statusOnly.setStatus(BookStatus.AVAILABLE);
+        Book book = Book.builder().id(4L).title("Dune").build();
+        when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Long.class))).thenReturn(1L);
+        when(jdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(4L));
+        when(bookRepository.findAllWithAuthorByIdIn(List.of(4L))).thenReturn(List.of(book));
+
+        Page<Book> result = searchEngine.search(statusOnly, PageRequest.of(0, 10));
+
+        assertEquals(List.of(book), result.getContent());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(sql.capture(), any(MapSqlParameterSource.class), eq(Long.class));
+        assertTrue(sql.getValue().contains(" ORDER BY b.id LIMIT :limit OFFSET :offset"));
+        assertFalse(sql.getValue().contains("DESC"));
+    }
+
+    @Test
+    void search_NoMatches_SkipsPageQuery() {
+        when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Long.class))).thenReturn(0L);
+
+        Page<Book> result = searchEngine.search(criteria, PageRequest.of(0, 10));
+
+        assertTrue(result.isEmpty());
+        verify(jdbcTemplate, never()).queryForList(anyString(), any(MapSqlParameterSource.class), eq(Long.class));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_ExplicitSort_UsesSpecificationQuery() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("title"));
+        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        searchEngine.search(criteria, pageable);
+
+        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void buildWhereClause_LowercasesTermsForIndexedColumns() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        searchEngine.buildWhereClause(criteria, params);
+
+        assertEquals("ring", params.getValue("title"));
+        assertEquals("%ring%", params.getValue("titlePattern"));
+        assertEquals("AVAILABLE", params.getValue("status"));
+    }
+}
@@ -0,0 +1,124 @@
+package org.pehlivan.mert.librarymanagementsystem.repository.loan;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.Loan;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class LoanRepositoryTest {
+
+    private static final int LOAN_COUNT = 5;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User reader;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        Author author = Author.builder().name("Frank").surname("Herbert").build();
+        entityManager.persist(author);
+        reader = User.builder().email("reader@example.com").password("pass123").name("Reader").username("reader").build();
+        other = User.builder().email("other@example.com").password("pass123").name("Other").username("other").build();
+        entityManager.persist(reader);
+        entityManager.persist(other);
+
+        // Her ödünç farklı kitap ve kullanıcıya bağlı; N+1 olsaydı kayıt sayısı kadar sorgu görülürdü
+        for (int i = 0; i < LOAN_COUNT; i++) {
+            Book book = Book.builder()
+                    .title("Dune " + i).isbn("978000000000" + i).stock(1).availableCount(0).pageCount(400)
+                    .publisher("Chilton").status(BookStatus.AVAILABLE).bookType(BookType.SCIENCE_FICTION)
+                    .author(author)
+                    .build();
+            entityManager.persist(book);
+            entityManager.persist(Loan.builder()
+                    .book(book).user(i % 2 == 0 ? reader : other)
+                    .borrowedDate(LocalDate.now()).dueDate(LocalDate.now().plusDays(14))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllResponses_LoadsBookAndUserColumnsInOneStatement() {
+        List<LoanResponseDto> loans = loanRepository.findAllResponses();
+
+        assertEquals(LOAN_COUNT, loans.size());
+        assertEquals("Dune 0", loans.get(0).getBookTitle());
+        assertEquals("reader", loans.get(0).getUserName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findResponsesByUserId_UsesOneStatement() {
+        List<LoanResponseDto> loans = loanRepository.findResponsesByUserId(reader.getId());
+
+        assertEquals(3, loans.size());
+        assertTrue(loans.stream().allMatch(loan -> reader.getId().equals(loan.getUserId())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findResponsesByStatus_UsesOneStatement() {
+        List<LoanResponseDto> loans = loanRepository.findResponsesByStatus(LoanStatus.BORROWED);
+
+        assertEquals(LOAN_COUNT, loans.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void countByUserIdsAndStatusesGrouped_CountsEveryUserInOneStatement() {
+        List<Object[]> rows = loanRepository.countByUserIdsAndStatusesGrouped(
+                List.of(reader.getId(), other.getId()), List.of(LoanStatus.BORROWED, LoanStatus.OVERDUE));
+
+        assertEquals(2, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> reader.getId().equals(row[0])
+                && row[1] == LoanStatus.BORROWED && Long.valueOf(3).equals(row[2])));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_ThenTouchingAssociations_IssuesExtraStatements() {
+        // Karşılaştırma: entity listesi üzerinden DTO'ya çevirmek kayıt başına ek sorgu üretir
+        List<String> titles = new ArrayList<>();
+        for (Loan loan : loanRepository.findAll()) {
+            titles.add(loan.getBook().getTitle() + loan.getUser().getUsername());
+        }
+
+        assertEquals(LOAN_COUNT, titles.size());
+        assertTrue(statistics.getPrepareStatementCount() > 1);
+    }
+}
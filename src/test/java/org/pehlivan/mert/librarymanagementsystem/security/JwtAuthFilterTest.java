@@ -0,0 +1,133 @@
+package org.pehlivan.mert.librarymanagementsystem.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.service.user.CustomUserDetailsService;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private UserTokenStampCache tokenStampCache;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private JwtHelper jwtHelper;
+    private JwtAuthFilter jwtAuthFilter;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        JwtHelper realHelper = new JwtHelper();
+        ReflectionTestUtils.setField(realHelper, "secret", "Yp/KI2jI5L7yM7xmcnVCGW4jO2smrdXknmXWeQ/rhaY=");
+        ReflectionTestUtils.setField(realHelper, "jwtExpiration", 3_600_000L);
+        realHelper.init();
+        jwtHelper = spy(realHelper);
+        jwtAuthFilter = new JwtAuthFilter(jwtHelper, userDetailsService, tokenStampCache);
+
+        userDetails = new User("test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_READER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidToken_ParsesTokenOnceAndAuthenticates() throws Exception {
+        String token = jwtHelper.generateToken(userDetails);
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(userDetails);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(jwtHelper, times(1)).parseClaims(token);
+        verify(jwtHelper, never()).getUsernameFromToken(anyString());
+        verify(jwtHelper, never()).validateToken(anyString(), any());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(userDetails, authentication.getPrincipal());
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_READER")));
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_InvalidToken_DoesNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(jwtHelper, never()).getAuthoritiesFromClaims(any(Claims.class));
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_NoHeader_SkipsParsing() throws Exception {
+        jwtAuthFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        verify(jwtHelper, never()).parseClaims(anyString());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_StatelessMode_BuildsPrincipalFromClaimsWithoutLoadingUser() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+        String token = jwtHelper.generateToken(userDetails, 3L);
+        when(tokenStampCache.isCurrent("test@example.com", 3L)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("test@example.com", ((UserDetails) authentication.getPrincipal()).getUsername());
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_READER")));
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_StatelessMode_StaleTokenVersion_DoesNotAuthenticate() throws Exception {
+        ReflectionTestUtils.setField(jwtAuthFilter, "statelessAuth", true);
+        String token = jwtHelper.generateToken(userDetails, 1L);
+        when(tokenStampCache.isCurrent("test@example.com", 1L)).thenReturn(false);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(filterChain).doFilter(any(), any());
+    }
+}
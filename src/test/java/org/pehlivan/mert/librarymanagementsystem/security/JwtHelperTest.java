@@ -0,0 +1,109 @@
+package org.pehlivan.mert.librarymanagementsystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtHelperTest {
+
+    private static final String SECRET = "Yp/KI2jI5L7yM7xmcnVCGW4jO2smrdXknmXWeQ/rhaY=";
+
+    private JwtHelper jwtHelper;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtHelper = newHelper(SECRET, 3_600_000L);
+        userDetails = new User("test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_READER")));
+    }
+
+    @Test
+    void parseClaims_ValidToken_ReturnsVerifiedClaims() {
+        String token = jwtHelper.generateToken(userDetails);
+
+        Claims claims = jwtHelper.parseClaims(token);
+
+        assertNotNull(claims);
+        assertEquals("test@example.com", claims.getSubject());
+        assertTrue(jwtHelper.validateClaims(claims, userDetails));
+        List<GrantedAuthority> authorities = jwtHelper.getAuthoritiesFromClaims(claims);
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_READER")), authorities);
+    }
+
+    @Test
+    void generateToken_WithTokenVersion_RoundTripsVersionClaim() {
+        Claims claims = jwtHelper.parseClaims(jwtHelper.generateToken(userDetails, 7L));
+
+        assertNotNull(claims);
+        assertEquals(7L, jwtHelper.getTokenVersionFromClaims(claims));
+    }
+
+    @Test
+    void parseClaims_TamperedToken_ReturnsNull() {
+        String token = jwtHelper.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertNull(jwtHelper.parseClaims(tampered));
+        assertFalse(jwtHelper.validateClaims(null, userDetails));
+    }
+
+    @Test
+    void parseClaims_TokenSignedWithOtherKey_ReturnsNull() {
+        JwtHelper other = newHelper("c2VjcmV0LWtleS1mb3ItdGVzdHMtdGhhdC1pcy0zMi1ieXRlcyE=", 3_600_000L);
+
+        assertNull(jwtHelper.parseClaims(other.generateToken(userDetails)));
+    }
+
+    @Test
+    void parseClaims_ExpiredToken_ReturnsNull() {
+        JwtHelper expiring = newHelper(SECRET, -1000L);
+
+        assertNull(jwtHelper.parseClaims(expiring.generateToken(userDetails)));
+    }
+
+    @Test
+    void validateClaims_DifferentUser_ReturnsFalse() {
+        Claims claims = jwtHelper.parseClaims(jwtHelper.generateToken(userDetails));
+        UserDetails otherUser = new User("other@example.com", "password", List.of());
+
+        assertFalse(jwtHelper.validateClaims(claims, otherUser));
+    }
+
+    @Test
+    void tokenBasedMethods_DelegateToSingleParse() {
+        String token = jwtHelper.generateToken(userDetails);
+
+        assertEquals("test@example.com", jwtHelper.getUsernameFromToken(token));
+        assertNotNull(jwtHelper.getExpirationDateFromToken(token));
+        assertTrue(jwtHelper.validateToken(token, userDetails));
+        assertEquals(1, jwtHelper.getAuthoritiesFromToken(token).size());
+    }
+
+    @Test
+    void tokenBasedMethods_ExpiredToken_ThrowJwtException() {
+        String token = newHelper(SECRET, -1000L).generateToken(userDetails);
+
+        assertThrows(JwtException.class, () -> jwtHelper.getUsernameFromToken(token));
+        assertThrows(JwtException.class, () -> jwtHelper.getAuthoritiesFromToken(token));
+        assertFalse(jwtHelper.validateToken(token, userDetails));
+    }
+
+    private JwtHelper newHelper(String secret, long expiration) {
+        JwtHelper helper = new JwtHelper();
+        ReflectionTestUtils.setField(helper, "secret", secret);
+        ReflectionTestUtils.setField(helper, "jwtExpiration", expiration);
+        helper.init();
+        return helper;
+    }
+}
@@ -0,0 +1,79 @@
+package org.pehlivan.mert.librarymanagementsystem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserTokenStampCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserTokenStampCache tokenStampCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenStampCache = new UserTokenStampCache(userRepository, meterRegistry);
+        ReflectionTestUtils.setField(tokenStampCache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(tokenStampCache, "maxEntries", 100);
+        tokenStampCache.init();
+    }
+
+    @Test
+    void isCurrent_WithinTtl_HitsDatabaseOnce() {
+        when(userRepository.findTokenVersionByEmail("test@example.com")).thenReturn(Optional.of(2));
+
+        assertTrue(tokenStampCache.isCurrent("test@example.com", 2L));
+        assertTrue(tokenStampCache.isCurrent("test@example.com", 2L));
+        assertFalse(tokenStampCache.isCurrent("test@example.com", 1L));
+
+        verify(userRepository, times(1)).findTokenVersionByEmail("test@example.com");
+        assertEquals(1.0, meterRegistry.counter("library.security.token.stamp.loads").count());
+    }
+
+    @Test
+    void isCurrent_DeletedUser_RejectsAnyVersion() {
+        when(userRepository.findTokenVersionByEmail("gone@example.com")).thenReturn(Optional.empty());
+
+        assertFalse(tokenStampCache.isCurrent("gone@example.com", 0L));
+        assertFalse(tokenStampCache.isCurrent("gone@example.com", 0L));
+
+        verify(userRepository, times(1)).findTokenVersionByEmail("gone@example.com");
+    }
+
+    @Test
+    void evict_ReloadsStampOnNextRequest() {
+        when(userRepository.findTokenVersionByEmail("test@example.com"))
+                .thenReturn(Optional.of(0), Optional.of(1));
+
+        assertTrue(tokenStampCache.isCurrent("test@example.com", 0L));
+        tokenStampCache.evict("test@example.com");
+
+        assertFalse(tokenStampCache.isCurrent("test@example.com", 0L));
+        assertTrue(tokenStampCache.isCurrent("test@example.com", 1L));
+    }
+
+    @Test
+    void isCurrent_ExpiredStamp_ReloadsFromDatabase() {
+        ReflectionTestUtils.setField(tokenStampCache, "ttlMs", 0L);
+        when(userRepository.findTokenVersionByEmail("test@example.com")).thenReturn(Optional.of(0));
+
+        tokenStampCache.isCurrent("test@example.com", 0L);
+        tokenStampCache.isCurrent("test@example.com", 0L);
+
+        verify(userRepository, times(2)).findTokenVersionByEmail("test@example.com");
+    }
+}
@@ -0,0 +1,61 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookAvailabilityEventListenerTest {
+
+    @Mock
+    private BookAvailabilityService bookAvailabilityService;
+
+    @InjectMocks
+    private BookAvailabilityEventListener listener;
+
+    @Test
+    void handleAvailabilityEvents_DeliversLatestEventPerBook() {
+        BookAvailabilityEvent firstBorrow = event(1L, false, "BORROWED");
+        BookAvailabilityEvent otherBook = event(2L, true, "RETURNED");
+        BookAvailabilityEvent laterReturn = event(1L, true, "RETURNED");
+
+        listener.handleAvailabilityEvents(List.of(record(0, firstBorrow), record(1, otherBook), record(2, laterReturn)));
+
+        ArgumentCaptor<BookAvailabilityEvent> captor = ArgumentCaptor.forClass(BookAvailabilityEvent.class);
+        verify(bookAvailabilityService, times(2)).publishLocally(captor.capture());
+        assertEquals(List.of(otherBook, laterReturn), captor.getAllValues());
+    }
+
+    @Test
+    void handleAvailabilityEvents_SkipsUnreadableRecords() {
+        BookAvailabilityEvent event = event(1L, true, "RETURNED");
+
+        listener.handleAvailabilityEvents(List.of(record(0, null), record(1, event)));
+
+        verify(bookAvailabilityService).publishLocally(event);
+        verifyNoMoreInteractions(bookAvailabilityService);
+    }
+
+    private static BookAvailabilityEvent event(Long bookId, boolean available, String eventType) {
+        return BookAvailabilityEvent.builder()
+                .bookId(bookId)
+                .bookTitle("Book " + bookId)
+                .available(available)
+                .eventType(eventType)
+                .build();
+    }
+
+    private static ConsumerRecord<String, BookAvailabilityEvent> record(long offset, BookAvailabilityEvent event) {
+        return new ConsumerRecord<>(BookAvailabilityService.TOPIC, 0, offset, null, event);
+    }
+}
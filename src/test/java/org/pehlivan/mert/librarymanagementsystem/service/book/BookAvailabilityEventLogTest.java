@@ -0,0 +1,66 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookAvailabilityEventLogTest {
+
+    private final BookAvailabilityEventLog eventLog = new BookAvailabilityEventLog(3);
+
+    @Test
+    void append_AssignsIncreasingSequences() {
+        BookAvailabilityEvent first = event(1L);
+        BookAvailabilityEvent second = event(2L);
+
+        eventLog.append(first);
+        eventLog.append(second);
+
+        assertEquals(1L, first.getSequence());
+        assertEquals(2L, second.getSequence());
+        assertEquals(2L, eventLog.getLastSequence());
+    }
+
+    @Test
+    void since_ReturnsEventsAfterSequence() {
+        IntStream.rangeClosed(1, 3).forEach(i -> eventLog.append(event((long) i)));
+
+        assertEquals(List.of(2L, 3L), bookIds(eventLog.since(1).orElseThrow()));
+        assertEquals(List.of(1L, 2L, 3L), bookIds(eventLog.since(0).orElseThrow()));
+        assertTrue(eventLog.since(3).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void since_EvictedOrFutureSequence_IsEmpty() {
+        IntStream.rangeClosed(1, 5).forEach(i -> eventLog.append(event((long) i)));
+
+        // Tampon son 3 olayı (3, 4, 5) tutar
+        assertEquals(List.of(3L, 4L, 5L), bookIds(eventLog.since(2).orElseThrow()));
+        assertTrue(eventLog.since(1).isEmpty());
+        assertTrue(eventLog.since(6).isEmpty());
+    }
+
+    @Test
+    void parseEventId_AcceptsOnlyOwnIds() {
+        String id = eventLog.eventId(42);
+
+        assertEquals(OptionalLong.of(42), eventLog.parseEventId(id));
+        assertTrue(eventLog.parseEventId(new BookAvailabilityEventLog(3).eventId(42)).isEmpty());
+        assertTrue(eventLog.parseEventId("42").isEmpty());
+        assertTrue(eventLog.parseEventId(id.substring(0, id.length() - 2) + "x").isEmpty());
+        assertTrue(eventLog.parseEventId(null).isEmpty());
+    }
+
+    private static BookAvailabilityEvent event(Long bookId) {
+        return BookAvailabilityEvent.builder().bookId(bookId).eventType("UPDATED").build();
+    }
+
+    private static List<Long> bookIds(List<BookAvailabilityEvent> events) {
+        return events.stream().map(BookAvailabilityEvent::getBookId).toList();
+    }
+}
@@ -0,0 +1,309 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookAvailabilityEvent;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.repository.book.BookRepository;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscription;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookAvailabilityServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, BookAvailabilityEvent> kafkaTemplate = mock(KafkaTemplate.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookAvailabilityService bookAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookAvailabilityService = newService(BookAvailabilityService.OverflowStrategy.DROP_OLDEST, 3);
+    }
+
+    @Test
+    void getAvailabilityStreamForBook_ReceivesOnlyThatBook() {
+        List<BookAvailabilityEvent> bookOne = new CopyOnWriteArrayList<>();
+        List<BookAvailabilityEvent> all = new CopyOnWriteArrayList<>();
+        Disposable bookOneSubscription = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe(bookOne::add);
+        Disposable allSubscription = bookAvailabilityService.getAvailabilityStream().subscribe(all::add);
+
+        notifyAndFlush(book(1L, 1), "BORROWED");
+        notifyAndFlush(book(2L, 0), "BORROWED");
+
+        assertEquals(1, bookOne.size());
+        assertEquals(1L, bookOne.get(0).getBookId());
+        assertEquals(2, all.size());
+        bookOneSubscription.dispose();
+        allSubscription.dispose();
+    }
+
+    @Test
+    void getAvailabilityStreamForBook_LastSubscriberLeaves_RemovesTopic() {
+        Disposable first = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe();
+        Disposable second = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe();
+        Disposable other = bookAvailabilityService.getAvailabilityStreamForBook(2L).subscribe();
+
+        assertEquals(3.0, meterRegistry.get("library.availability.subscribers").gauge().value());
+        assertEquals(2.0, meterRegistry.get("library.availability.topics").gauge().value());
+
+        first.dispose();
+        assertEquals(2, bookAvailabilityService.getTopicCount());
+        second.dispose();
+        other.dispose();
+
+        assertEquals(0, bookAvailabilityService.getTopicCount());
+        assertEquals(0, bookAvailabilityService.getSubscriberCount());
+    }
+
+    @Test
+    void slowSubscriber_DropOldest_KeepsNewestEventsWithoutStallingOthers() {
+        RecordingSubscriber slow = new RecordingSubscriber();
+        List<BookAvailabilityEvent> fast = new CopyOnWriteArrayList<>();
+        bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe(slow);
+        Disposable fastSubscription = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe(fast::add);
+
+        IntStream.rangeClosed(1, 10).forEach(i -> notifyAndFlush(book(1L, i), "RETURNED"));
+        slow.request(Long.MAX_VALUE);
+
+        assertEquals(10, fast.size());
+        assertEquals(List.of("8", "9", "10"), slow.titles());
+        slow.dispose();
+        fastSubscription.dispose();
+    }
+
+    @Test
+    void slowSubscriber_Latest_KeepsOnlyMostRecentEvent() {
+        bookAvailabilityService = newService(BookAvailabilityService.OverflowStrategy.LATEST, 3);
+        RecordingSubscriber slow = new RecordingSubscriber();
+        bookAvailabilityService.getAvailabilityStream().subscribe(slow);
+
+        IntStream.rangeClosed(1, 10).forEach(i -> notifyAndFlush(book(1L, i), "RETURNED"));
+        slow.request(Long.MAX_VALUE);
+
+        assertEquals(List.of("10"), slow.titles());
+        slow.dispose();
+    }
+
+    @Test
+    void notifyAvailabilityChange_WithoutSubscribers_DoesNotCreateTopic() {
+        notifyAndFlush(book(1L, 1), "UPDATED");
+
+        assertEquals(0, bookAvailabilityService.getTopicCount());
+    }
+
+    @Test
+    void notifyAvailabilityChange_BurstOnOneBook_IsCoalesced() {
+        bookAvailabilityService = newService(BookAvailabilityService.Fanout.KAFKA,
+                BookAvailabilityService.OverflowStrategy.DROP_OLDEST, 3);
+        when(kafkaTemplate.send(anyString(), anyString(), any(BookAvailabilityEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        IntStream.rangeClosed(1, 3).forEach(i -> bookAvailabilityService.notifyAvailabilityChange(book(1L, i), "BORROWED"));
+        bookAvailabilityService.notifyAvailabilityChange(book(2L, 1), "BORROWED");
+        bookAvailabilityService.flushPending();
+
+        ArgumentCaptor<BookAvailabilityEvent> captor = ArgumentCaptor.forClass(BookAvailabilityEvent.class);
+        verify(kafkaTemplate).send(eq(BookAvailabilityService.TOPIC), eq("1"), captor.capture());
+        verify(kafkaTemplate).send(eq(BookAvailabilityService.TOPIC), eq("2"), any(BookAvailabilityEvent.class));
+        assertEquals("3", captor.getValue().getBookTitle());
+        assertEquals(2.0, meterRegistry.counter("library.availability.coalesced").count());
+        assertEquals(2.0, meterRegistry.counter("library.availability.published").count());
+    }
+
+    @Test
+    void flushPending_KafkaFanout_DeliversThroughListenerOnly() {
+        bookAvailabilityService = newService(BookAvailabilityService.Fanout.KAFKA,
+                BookAvailabilityService.OverflowStrategy.DROP_OLDEST, 3);
+        when(kafkaTemplate.send(anyString(), anyString(), any(BookAvailabilityEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        List<BookAvailabilityEvent> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe(received::add);
+
+        notifyAndFlush(book(1L, 1), "BORROWED");
+
+        // Olay Kafka'dan geri okunduğunda (BookAvailabilityEventListener) iletilir
+        assertTrue(received.isEmpty());
+        subscription.dispose();
+    }
+
+    @Test
+    void flushPending_KafkaUnavailable_DeliversLocallyAndBacksOff() {
+        bookAvailabilityService = newService(BookAvailabilityService.Fanout.KAFKA,
+                BookAvailabilityService.OverflowStrategy.DROP_OLDEST, 3);
+        when(kafkaTemplate.send(anyString(), anyString(), any(BookAvailabilityEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        List<BookAvailabilityEvent> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe(received::add);
+
+        notifyAndFlush(book(1L, 1), "BORROWED");
+        notifyAndFlush(book(1L, 2), "RETURNED");
+
+        assertEquals(2, received.size());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(BookAvailabilityEvent.class));
+        assertEquals(1.0, meterRegistry.counter("library.availability.publish.failed").count());
+        subscription.dispose();
+    }
+
+    @Test
+    void resumeAvailabilityStream_KnownEventId_ReplaysMissedEventsThenLiveOnes() {
+        List<BookAvailabilityEvent> first = new CopyOnWriteArrayList<>();
+        Disposable subscription = bookAvailabilityService.getAvailabilityStream().subscribe(first::add);
+        notifyAndFlush(book(1L, 1), "BORROWED");
+        subscription.dispose();
+        String lastEventId = bookAvailabilityService.eventId(first.get(0));
+
+        // İstemci bağlı değilken gelen olaylar
+        notifyAndFlush(book(2L, 2), "RETURNED");
+        notifyAndFlush(book(1L, 3), "RETURNED");
+
+        List<BookAvailabilityEvent> resumed = new CopyOnWriteArrayList<>();
+        Disposable resumedSubscription = bookAvailabilityService.resumeAvailabilityStream(lastEventId).subscribe(resumed::add);
+        notifyAndFlush(book(1L, 4), "BORROWED");
+
+        assertEquals(List.of("2", "3", "4"), resumed.stream().map(BookAvailabilityEvent::getBookTitle).toList());
+        assertEquals(List.of(2L, 3L, 4L), resumed.stream().map(BookAvailabilityEvent::getSequence).toList());
+        assertEquals(1.0, meterRegistry.counter("library.availability.resume", "result", "replay").count());
+        verifyNoInteractions(bookRepository);
+        resumedSubscription.dispose();
+        assertEquals(0, bookAvailabilityService.getSubscriberCount());
+    }
+
+    @Test
+    void resumeAvailabilityStreamForBook_KnownEventId_ReplaysOnlyThatBook() {
+        List<BookAvailabilityEvent> first = new CopyOnWriteArrayList<>();
+        Disposable subscription = bookAvailabilityService.getAvailabilityStreamForBook(1L).subscribe(first::add);
+        notifyAndFlush(book(1L, 1), "BORROWED");
+        subscription.dispose();
+        notifyAndFlush(book(2L, 2), "RETURNED");
+        notifyAndFlush(book(1L, 3), "RETURNED");
+
+        List<BookAvailabilityEvent> resumed = new CopyOnWriteArrayList<>();
+        Disposable resumedSubscription = bookAvailabilityService
+                .resumeAvailabilityStreamForBook(1L, bookAvailabilityService.eventId(first.get(0)))
+                .subscribe(resumed::add);
+
+        assertEquals(List.of("3"), resumed.stream().map(BookAvailabilityEvent::getBookTitle).toList());
+        resumedSubscription.dispose();
+        assertEquals(0, bookAvailabilityService.getTopicCount());
+    }
+
+    @Test
+    void resumeAvailabilityStream_EvictedEventId_SendsSnapshot() throws InterruptedException {
+        List<BookAvailabilityEvent> first = new CopyOnWriteArrayList<>();
+        Disposable subscription = bookAvailabilityService.getAvailabilityStream().subscribe(first::add);
+        notifyAndFlush(book(1L, 1), "BORROWED");
+        subscription.dispose();
+        // Tampon 4 olay tutar; ilk olay artık yeniden oynatılamaz
+        IntStream.rangeClosed(2, 6).forEach(i -> notifyAndFlush(book(1L, i), "RETURNED"));
+        when(bookRepository.findAvailabilitySnapshot()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "Dune", 1}, new Object[]{2L, "Emma", 0}));
+
+        List<BookAvailabilityEvent> resumed = new CopyOnWriteArrayList<>();
+        CountDownLatch snapshotDone = new CountDownLatch(2);
+        Disposable resumedSubscription = bookAvailabilityService
+                .resumeAvailabilityStream(bookAvailabilityService.eventId(first.get(0)))
+                .subscribe(event -> {
+                    resumed.add(event);
+                    snapshotDone.countDown();
+                });
+
+        assertTrue(snapshotDone.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("SNAPSHOT", "SNAPSHOT"), resumed.stream().map(BookAvailabilityEvent::getEventType).toList());
+        assertTrue(resumed.get(0).isAvailable());
+        assertFalse(resumed.get(1).isAvailable());
+        assertEquals(6L, resumed.get(0).getSequence());
+        assertEquals(1.0, meterRegistry.counter("library.availability.resume", "result", "snapshot").count());
+        resumedSubscription.dispose();
+    }
+
+    @Test
+    void resumeAvailabilityStreamForBook_ForeignEventId_SendsSnapshotThenLiveEvents() throws InterruptedException {
+        when(bookRepository.findAvailabilitySnapshotById(1L)).thenReturn(List.<Object[]>of(new Object[]{1L, "Dune", 0}));
+
+        List<BookAvailabilityEvent> resumed = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(2);
+        Disposable subscription = bookAvailabilityService
+                .resumeAvailabilityStreamForBook(1L, "othernode-42")
+                .subscribe(event -> {
+                    resumed.add(event);
+                    received.countDown();
+                });
+        // Özet okunurken gelen canlı olay kaybolmaz, özetten sonra iletilir
+        notifyAndFlush(book(1L, 1), "RETURNED");
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("Dune", "1"), resumed.stream().map(BookAvailabilityEvent::getBookTitle).toList());
+        verify(bookRepository, never()).findAvailabilitySnapshot();
+        subscription.dispose();
+    }
+
+    private void notifyAndFlush(Book book, String eventType) {
+        bookAvailabilityService.notifyAvailabilityChange(book, eventType);
+        bookAvailabilityService.flushPending();
+    }
+
+    private BookAvailabilityService newService(BookAvailabilityService.OverflowStrategy strategy, int bufferSize) {
+        return newService(BookAvailabilityService.Fanout.LOCAL, strategy, bufferSize);
+    }
+
+    private BookAvailabilityService newService(BookAvailabilityService.Fanout fanout,
+                                               BookAvailabilityService.OverflowStrategy strategy, int bufferSize) {
+        meterRegistry = new SimpleMeterRegistry();
+        BookAvailabilityService service = new BookAvailabilityService(meterRegistry, kafkaTemplate,
+                new BookAvailabilityEventLog(4), bookRepository);
+        ReflectionTestUtils.setField(service, "fanout", fanout);
+        ReflectionTestUtils.setField(service, "overflowStrategy", strategy);
+        ReflectionTestUtils.setField(service, "bufferSize", bufferSize);
+        service.init();
+        return service;
+    }
+
+    // Başlık olarak sıra numarası kullanılır
+    private static Book book(Long id, int sequence) {
+        return Book.builder()
+                .id(id)
+                .title(String.valueOf(sequence))
+                .availableCount(sequence % 2)
+                .build();
+    }
+
+    private static class RecordingSubscriber extends BaseSubscriber<BookAvailabilityEvent> {
+        private final List<BookAvailabilityEvent> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            // Talep gönderilmez: istemci hiç okumuyormuş gibi davranır
+        }
+
+        @Override
+        protected void hookOnNext(BookAvailabilityEvent event) {
+            received.add(event);
+        }
+
+        List<String> titles() {
+            return received.stream().map(BookAvailabilityEvent::getBookTitle).toList();
+        }
+    }
+}
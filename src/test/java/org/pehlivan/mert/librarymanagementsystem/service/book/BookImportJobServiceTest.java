@@ -0,0 +1,243 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportJobResponse;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportRowError;
+import org.pehlivan.mert.librarymanagementsystem.exception.book.BookImportJobNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.CacheVersionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportJobServiceTest {
+
+    private static final String CSV_HEADER =
+            "Title,ISBN,Stock,PageCount,PublicationDate,Publisher,BookType,AuthorName,AuthorSurname\n";
+
+    @Mock
+    private BookImportWriter bookImportWriter;
+
+    @Mock
+    private CacheVersionService cacheVersionService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache authorCache;
+
+    @TempDir
+    Path directory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookImportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // İşler testte çağıran thread üzerinde hemen çalışır
+        jobService = new BookImportJobService(bookImportWriter, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                cacheVersionService, cacheManager, meterRegistry, Runnable::run);
+        ReflectionTestUtils.setField(jobService, "directory", directory);
+        ReflectionTestUtils.setField(jobService, "chunkSize", 2);
+        ReflectionTestUtils.setField(jobService, "maxErrors", 10);
+        ReflectionTestUtils.setField(jobService, "retention", Duration.ofHours(1));
+    }
+
+    @Test
+    void submit_Csv_WritesValidRowsInChunksAndReportsRowErrors() throws Exception {
+        when(bookImportWriter.write(anyList())).thenAnswer(invocation -> imported(invocation.getArgument(0), 1));
+        when(cacheManager.getCache("author")).thenReturn(authorCache);
+        String csv = CSV_HEADER
+                + "\"Dune, Part One\",9780441013593,5,412,1965-08-01,Chilton,FICTION,Frank,Herbert\n"
+                + "Broken,12345,1,100,2000-01-01,Publisher,FICTION,Jane,Doe\n"
+                + "\"The \"\"Left\"\" Hand\",9780441478125,2,304,1969-03-01,Ace,FICTION,Ursula,Le Guin\r\n"
+                + "\n"
+                + "Unknown Type,9780000000002,1,100,2000-01-01,Publisher,ZINE,Jane,Doe\n"
+                + "Foundation,9780553293357,4,255,1951-06-01,Gnome,FICTION,Isaac,Asimov\n";
+
+        BookImportJobResponse job = jobService.submit(file("books.csv", csv), null);
+
+        assertEquals(BookImportFormat.CSV, job.getFormat());
+        assertEquals(BookImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(5, job.getProcessedRows());
+        assertEquals(3, job.getImportedRows());
+        assertEquals(2, job.getFailedRows());
+        assertEquals(List.of(2L, 4L), job.getErrors().stream().map(BookImportRowError::getRow).toList());
+        assertEquals("ISBN must be a valid ISBN-13 number", job.getErrors().get(0).getMessage());
+        assertEquals("Invalid value for bookType: ZINE", job.getErrors().get(1).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookImportRow>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(bookImportWriter, times(2)).write(chunks.capture());
+        BookImportRow first = chunks.getAllValues().get(0).get(0);
+        assertEquals("Dune, Part One", first.book().getTitle());
+        assertEquals(BookType.FICTION, first.book().getBookType());
+        assertEquals("The \"Left\" Hand", chunks.getAllValues().get(0).get(1).book().getTitle());
+        assertEquals(1, chunks.getAllValues().get(1).size());
+
+        // Önbellekler parça başına değil, iş sonunda bir kez temizlenir
+        verify(cacheVersionService).bumpVersion("book");
+        verify(authorCache).clear();
+        assertEquals(3.0, meterRegistry.counter("library.books.total").count());
+        assertEmpty(directory);
+    }
+
+    @Test
+    void submit_JsonArray_ImportsEveryObject() throws Exception {
+        when(bookImportWriter.write(anyList())).thenAnswer(invocation -> imported(invocation.getArgument(0), 0));
+        String json = "[" + jsonBook("Dune", "9780441013593") + "," + jsonBook("Foundation", "9780553293357") + "]";
+
+        BookImportJobResponse job = jobService.submit(file("books.json", json), null);
+
+        assertEquals(BookImportFormat.JSON, job.getFormat());
+        assertEquals(BookImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getImportedRows());
+        assertNull(job.getErrors());
+        verify(cacheVersionService).bumpVersion("book");
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void submit_NewlineDelimitedJson_ReportsNonObjectRecords() throws Exception {
+        when(bookImportWriter.write(anyList())).thenAnswer(invocation -> imported(invocation.getArgument(0), 0));
+        String json = jsonBook("Dune", "9780441013593") + "\n42\n" + jsonBook("Foundation", "9780553293357") + "\n";
+
+        BookImportJobResponse job = jobService.submit(file("books.txt", json), BookImportFormat.JSON);
+
+        assertEquals(BookImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(2, job.getImportedRows());
+        assertEquals(1, job.getFailedRows());
+        assertEquals(2, job.getErrors().get(0).getRow());
+        assertEquals("Record must be an object", job.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void submit_WriterRejectsRows_CountsThemAsFailed() throws Exception {
+        when(bookImportWriter.write(anyList())).thenReturn(new BookImportWriter.ChunkResult(1, 0, 5, List.of(
+                BookImportRowError.builder().row(2).isbn("9780441013593").message("Duplicate ISBN 9780441013593 in upload").build())));
+        String csv = CSV_HEADER
+                + "Dune,9780441013593,5,412,1965-08-01,Chilton,FICTION,Frank,Herbert\n"
+                + "Dune Again,9780441013593,5,412,1965-08-01,Chilton,FICTION,Frank,Herbert\n";
+
+        BookImportJobResponse job = jobService.submit(file("books.csv", csv), null);
+
+        assertEquals(2, job.getProcessedRows());
+        assertEquals(1, job.getImportedRows());
+        assertEquals(1, job.getFailedRows());
+        assertEquals("9780441013593", job.getErrors().get(0).getIsbn());
+    }
+
+    @Test
+    void submit_ChunkFails_MarksItsRowsFailedAndContinues() throws Exception {
+        when(bookImportWriter.write(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> imported(invocation.getArgument(0), 0));
+        String csv = CSV_HEADER
+                + "Dune,9780441013593,5,412,1965-08-01,Chilton,FICTION,Frank,Herbert\n"
+                + "Foundation,9780553293357,4,255,1951-06-01,Gnome,FICTION,Isaac,Asimov\n"
+                + "Hyperion,9780553283686,3,482,1989-05-01,Doubleday,FICTION,Dan,Simmons\n";
+
+        BookImportJobResponse job = jobService.submit(file("books.csv", csv), null);
+
+        assertEquals(BookImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getImportedRows());
+        assertEquals(2, job.getFailedRows());
+        assertEquals("Chunk could not be written: duplicate key", job.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void submit_UnterminatedQuote_FailsJobAndKeepsProgress() throws Exception {
+        when(bookImportWriter.write(anyList())).thenAnswer(invocation -> imported(invocation.getArgument(0), 0));
+        String csv = CSV_HEADER
+                + "Dune,9780441013593,5,412,1965-08-01,Chilton,FICTION,Frank,Herbert\n"
+                + "Foundation,9780553293357,4,255,1951-06-01,Gnome,FICTION,Isaac,Asimov\n"
+                + "\"Broken,9780553283686,3,482,1989-05-01,Doubleday,FICTION,Dan,Simmons\n";
+
+        BookImportJobResponse job = jobService.submit(file("books.csv", csv), null);
+
+        assertEquals(BookImportJobStatus.FAILED, job.getStatus());
+        assertEquals("Unterminated quoted field in row 3", job.getError());
+        assertEquals(2, job.getImportedRows());
+        verify(cacheVersionService).bumpVersion("book");
+        assertEmpty(directory);
+    }
+
+    @Test
+    void submit_QueueFull_FailsJobAndDeletesUpload() throws Exception {
+        jobService = new BookImportJobService(bookImportWriter, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                cacheVersionService, cacheManager, meterRegistry, task -> {
+                    throw new TaskRejectedException("queue full");
+                });
+        ReflectionTestUtils.setField(jobService, "directory", directory);
+
+        BookImportJobResponse job = jobService.submit(file("books.csv", CSV_HEADER), null);
+
+        assertEquals(BookImportJobStatus.FAILED, job.getStatus());
+        assertEquals("Import queue is full, please try again later", job.getError());
+        assertEmpty(directory);
+        verifyNoInteractions(bookImportWriter);
+    }
+
+    @Test
+    void getJob_UnknownId_ThrowsNotFound() {
+        assertThrows(BookImportJobNotFoundException.class, () -> jobService.getJob("missing"));
+    }
+
+    @Test
+    void purgeExpiredJobs_RemovesFinishedJobsAfterRetention() {
+        BookImportJobResponse job = jobService.submit(file("books.csv", CSV_HEADER), null);
+        ReflectionTestUtils.setField(jobService, "retention", Duration.ZERO);
+
+        jobService.purgeExpiredJobs();
+
+        assertThrows(BookImportJobNotFoundException.class, () -> jobService.getJob(job.getId()));
+    }
+
+    private static BookImportWriter.ChunkResult imported(List<BookImportRow> rows, int authorsCreated) {
+        long stock = rows.stream().mapToLong(row -> row.book().getStock()).sum();
+        return new BookImportWriter.ChunkResult(rows.size(), authorsCreated, stock, List.of());
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String jsonBook(String title, String isbn) {
+        return "{\"title\":\"" + title + "\",\"isbn\":\"" + isbn + "\",\"stock\":3,\"pageCount\":300,"
+                + "\"publicationDate\":\"1970-01-02\",\"publisher\":\"Ace\",\"bookType\":\"FICTION\","
+                + "\"authorName\":\"Test\",\"authorSurname\":\"Author\",\"edition\":\"first\"}";
+    }
+
+    private static void assertEmpty(Path directory) throws Exception {
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.pehlivan.mert.librarymanagementsystem.service.book;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookImportRowError;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Author;
+import org.pehlivan.mert.librarymanagementsystem.model.book.Book;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.repository.author.AuthorRepository;
+import org.pehlivan.mert.librarymanagementsystem.repository.book.BookImportRepository;
+import org.pehlivan.mert.librarymanagementsystem.repository.book.BookRepository;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportWriterTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BookImportRepository bookImportRepository;
+
+    @InjectMocks
+    private BookImportWriter writer;
+
+    @Test
+    void write_ResolvesAuthorsInOneQueryAndCreatesMissingOnes() {
+        Author frank = Author.builder().id(1L).name("Frank").surname("Herbert").build();
+        Author brian = Author.builder().id(3L).name("Brian").surname("Herbert").build();
+        when(bookImportRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(authorRepository.findBySurnameIn(Set.of("Herbert", "Le Guin"))).thenReturn(List.of(frank, brian));
+        when(authorRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<Author> saved = new ArrayList<>(invocation.getArgument(0));
+            saved.forEach(author -> author.setId(2L));
+            return saved;
+        });
+        when(bookImportRepository.findExistingTitles(anyCollection(), anyCollection())).thenReturn(Set.of());
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookImportWriter.ChunkResult result = writer.write(List.of(
+                row(1, "Dune", "9780441013593", "Frank", "Herbert"),
+                row(2, "The Left Hand of Darkness", "9780441478125", "Ursula", "Le Guin")));
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.authorsCreated());
+        assertEquals(10, result.stock());
+        assertTrue(result.errors().isEmpty());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Author>> created = ArgumentCaptor.forClass(List.class);
+        verify(authorRepository).saveAll(created.capture());
+        assertEquals("Ursula", created.getValue().get(0).getName());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Book>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(bookRepository).saveAll(inserted.capture());
+        Book dune = inserted.getValue().get(0);
+        assertEquals(1L, dune.getAuthor().getId());
+        assertEquals(5, dune.getAvailableCount());
+        assertEquals(BookStatus.AVAILABLE, dune.getStatus());
+        assertEquals(2L, inserted.getValue().get(1).getAuthor().getId());
+    }
+
+    @Test
+    void write_SkipsExistingAndRepeatedIsbns() {
+        Author frank = Author.builder().id(1L).name("Frank").surname("Herbert").build();
+        when(bookImportRepository.findExistingIsbns(Set.of("9780441013593", "9780441172719")))
+                .thenReturn(Set.of("9780441013593"));
+        when(authorRepository.findBySurnameIn(anyCollection())).thenReturn(List.of(frank));
+        when(bookImportRepository.findExistingTitles(anyCollection(), anyCollection())).thenReturn(Set.of());
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookImportWriter.ChunkResult result = writer.write(List.of(
+                row(1, "Dune", "9780441013593", "Frank", "Herbert"),
+                row(2, "Dune Messiah", "9780441172719", "Frank", "Herbert"),
+                row(3, "Children of Dune", "9780441172719", "Frank", "Herbert")));
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(1L, 3L), result.errors().stream().map(BookImportRowError::getRow).toList());
+        assertEquals("Book with ISBN 9780441013593 already exists", result.errors().get(0).getMessage());
+        assertEquals("Duplicate ISBN 9780441172719 in upload", result.errors().get(1).getMessage());
+        verify(authorRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void write_SkipsTitleTheAuthorAlreadyHas() {
+        Author frank = Author.builder().id(1L).name("Frank").surname("Herbert").build();
+        when(bookImportRepository.findExistingIsbns(anyCollection())).thenReturn(Set.of());
+        when(authorRepository.findBySurnameIn(anyCollection())).thenReturn(List.of(frank));
+        when(bookImportRepository.findExistingTitles(Set.of(1L), Set.of("Dune", "Dune Messiah")))
+                .thenReturn(Set.of(BookImportRepository.titleKey(1L, "Dune")));
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BookImportWriter.ChunkResult result = writer.write(List.of(
+                row(1, "Dune", "9780441013593", "Frank", "Herbert"),
+                row(2, "Dune Messiah", "9780441172719", "Frank", "Herbert")));
+
+        assertEquals(1, result.imported());
+        assertEquals("Book with title Dune by author Frank Herbert already exists", result.errors().get(0).getMessage());
+    }
+
+    private static BookImportRow row(long row, String title, String isbn, String authorName, String authorSurname) {
+        return BookImportRow.of(row, BookRequestDto.builder()
+                .title(title)
+                .isbn(isbn)
+                .stock(5)
+                .pageCount(300)
+                .publicationDate(new Date())
+                .publisher("Ace")
+                .bookType(BookType.FICTION)
+                .authorName(authorName)
+                .authorSurname(authorSurname)
+                .build());
+    }
+}
@@ -2,15 +2,21 @@ package org.pehlivan.mert.librarymanagementsystem.service.book;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookRequestDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.book.BookSearchCriteriaDTO;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorCodec;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookAlreadyExistsException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotAvailableException;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotFoundException;
@@ -22,17 +28,25 @@ import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
 import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
 import org.pehlivan.mert.librarymanagementsystem.repository.author.AuthorRepository;
 import org.pehlivan.mert.librarymanagementsystem.repository.book.BookRepository;
+import org.pehlivan.mert.librarymanagementsystem.repository.book.BookSearchEngine;
+import org.pehlivan.mert.librarymanagementsystem.service.cache.CacheVersionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -53,6 +67,21 @@ class BookServiceTest {
     @Mock
     private MeterRegistry meterRegistry;
 
+    @Mock
+    private CacheVersionService cacheVersionService;
+
+    @Mock
+    private BookSearchEngine bookSearchEngine;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache bookCache;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManager entityManager;
+
     @Mock
     private Counter totalBooksCounter;
 
@@ -124,6 +153,13 @@ class BookServiceTest {
         lenient().doNothing().when(bookAvailabilityService).notifyAvailabilityChange(any(Book.class), anyString());
     }
 
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     // ----------------------------------------------------------------
     // createBook tests
     // ----------------------------------------------------------------
@@ -143,6 +179,7 @@ class BookServiceTest {
         verify(totalBooksCounter).increment();
         verify(categoryBooksCounter).increment();
         verify(stockChangeCounter).increment(10);
+        verify(cacheVersionService).bumpVersion("book");
     }
 
     @Test
@@ -213,7 +250,7 @@ class BookServiceTest {
     void searchBooks_ReturnsPage() {
         Pageable pageable = PageRequest.of(0, 10);
         Page<Book> page = new PageImpl<>(List.of(book), pageable, 1);
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(page);
+        when(bookSearchEngine.search(any(BookSearchCriteriaDTO.class), eq(pageable))).thenReturn(page);
         Page<BookResponseDto> result = bookService.searchBooks(new BookSearchCriteriaDTO(), pageable);
         assertEquals(1, result.getTotalElements());
     }
@@ -223,12 +260,12 @@ class BookServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         BookSearchCriteriaDTO criteria = new BookSearchCriteriaDTO();
         Page<Book> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(emptyPage);
+        when(bookSearchEngine.search(any(BookSearchCriteriaDTO.class), eq(pageable))).thenReturn(emptyPage);
         
         Page<BookResponseDto> result = bookService.searchBooks(criteria, pageable);
         
         assertTrue(result.isEmpty());
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verify(bookSearchEngine).search(criteria, pageable);
     }
 
     @Test
@@ -236,14 +273,30 @@ class BookServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
         BookSearchCriteriaDTO criteria = new BookSearchCriteriaDTO();
         Page<Book> bookPage = new PageImpl<>(List.of(book), pageable, 1);
-        when(bookRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(bookPage);
+        when(bookSearchEngine.search(any(BookSearchCriteriaDTO.class), eq(pageable))).thenReturn(bookPage);
         
         Page<BookResponseDto> result = bookService.searchBooks(criteria, pageable);
         
         assertFalse(result.isEmpty());
         assertEquals(1, result.getTotalElements());
         assertEquals(book.getTitle(), result.getContent().get(0).getTitle());
-        verify(bookRepository).findAll(any(Specification.class), eq(pageable));
+        verify(bookSearchEngine).search(criteria, pageable);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getBooksByCursor_ExtraRow_TrimsPageAndReturnsNextCursor() {
+        Book next = Book.builder().id(2L).title("Next Book").author(author).build();
+        when(bookRepository.findBy(any(Specification.class), any())).thenReturn(List.of(book, next));
+
+        CursorPageResponse<BookResponseDto> result =
+                bookService.getBooksByCursor(new BookSearchCriteriaDTO(), null, 1, false);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(book.getTitle(), result.getContent().get(0).getTitle());
+        assertTrue(result.isHasNext());
+        assertEquals(book.getId(), CursorCodec.decode(result.getNextCursor()));
+        verify(bookRepository, never()).count(any(Specification.class));
     }
 
     // ----------------------------------------------------------------
@@ -253,14 +306,31 @@ class BookServiceTest {
     @Test
     void deleteBook_Success() {
         when(bookRepository.existsById(1L)).thenReturn(true);
+        when(cacheManager.getCache("book")).thenReturn(bookCache);
         assertDoesNotThrow(() -> bookService.deleteBook(1L));
         verify(bookRepository).deleteById(1L);
+        verify(cacheVersionService).bumpVersion("book");
+        verify(bookCache).evict("id:1");
+    }
+
+    @Test
+    void deleteBook_InsideTransaction_EvictsIdKeyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(cacheManager.getCache("book")).thenReturn(bookCache);
+
+        bookService.deleteBook(1L);
+        verify(bookCache, never()).evict(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(bookCache).evict("id:1");
     }
 
     @Test
     void deleteBook_NotFound_Throws() {
         when(bookRepository.existsById(1L)).thenReturn(false);
         assertThrows(BookNotFoundException.class, () -> bookService.deleteBook(1L));
+        verify(cacheVersionService, never()).bumpVersion(anyString());
     }
 
     // ----------------------------------------------------------------
@@ -327,10 +397,13 @@ class BookServiceTest {
     void updateBook_Success() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(cacheManager.getCache("book")).thenReturn(bookCache);
 
         BookResponseDto result = bookService.updateBook(1L, bookRequestDto);
         assertEquals("Test Book", result.getTitle());
         verify(bookAvailabilityService).notifyAvailabilityChange(any(Book.class), eq("UPDATED"));
+        verify(cacheVersionService).bumpVersion("book");
+        verify(bookCache).evict("id:1");
     }
 
     // ----------------------------------------------------------------
@@ -339,27 +412,59 @@ class BookServiceTest {
 
     @Test
     void decreaseAvailableCount_Success() {
-        book.setAvailableCount(1);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(1);
 
-        bookService.decreaseAvailableCount(1L);
-        assertEquals(0, book.getAvailableCount());
-        assertEquals(BookStatus.UNAVAILABLE, book.getStatus());
+        Book result = bookService.decreaseAvailableCount(1L);
+
+        assertSame(book, result);
+        verify(bookRepository).decrementAvailableCount(1L);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookAvailabilityService).notifyAvailabilityChange(book, "BORROWED");
         verify(stockChangeCounter).increment(-1);
+        verify(cacheVersionService).bumpVersion("book");
+    }
+
+    @Test
+    void decreaseAvailableCount_BookAlreadyLoaded_RefreshesInsteadOfQuerying() {
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(1);
+        when(entityManager.getReference(Book.class, 1L)).thenReturn(book);
+        when(entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(book)).thenReturn(true);
+
+        Book result = bookService.decreaseAvailableCount(1L);
+
+        // UPDATE yönetilen kitabı güncellemez; olay yenilenmiş sayıyla yayınlanmalı
+        assertSame(book, result);
+        InOrder inOrder = inOrder(bookRepository, entityManager, bookAvailabilityService);
+        inOrder.verify(bookRepository).decrementAvailableCount(1L);
+        inOrder.verify(entityManager).refresh(book);
+        inOrder.verify(bookAvailabilityService).notifyAvailabilityChange(book, "BORROWED");
+        verify(bookRepository, never()).findByIdWithAuthor(anyLong());
+    }
+
+    @Test
+    void decreaseAvailableCount_BookNotLoaded_ReadsItOnceWithoutRefresh() {
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(1);
+
+        bookService.decreaseAvailableCount(1L);
+
+        verify(bookRepository).findByIdWithAuthor(1L);
+        verify(entityManager, never()).refresh(any());
     }
 
     @Test
     void decreaseAvailableCount_NotFound_Throws() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(false);
         assertThrows(BookNotFoundException.class, () -> bookService.decreaseAvailableCount(1L));
     }
 
     @Test
     void decreaseAvailableCount_NotAvailable_Throws() {
-        book.setAvailableCount(0);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.decrementAvailableCount(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(true);
         assertThrows(BookNotAvailableException.class, () -> bookService.decreaseAvailableCount(1L));
+        verify(bookAvailabilityService, never()).notifyAvailabilityChange(any(Book.class), anyString());
+        verify(cacheVersionService, never()).bumpVersion(anyString());
     }
 
     // ----------------------------------------------------------------
@@ -368,28 +473,86 @@ class BookServiceTest {
 
     @Test
     void increaseAvailableCount_Success() {
-        book.setAvailableCount(5);
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.incrementAvailableCount(1L)).thenReturn(1);
 
         bookService.increaseAvailableCount(1L);
-        assertEquals(6, book.getAvailableCount());
+
+        verify(bookRepository).incrementAvailableCount(1L);
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookAvailabilityService).notifyAvailabilityChange(book, "RETURNED");
         verify(stockChangeCounter).increment(1);
+        verify(cacheVersionService).bumpVersion("book");
     }
 
     @Test
     void increaseAvailableCount_NotFound_Throws() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.incrementAvailableCount(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(false);
         assertThrows(BookNotFoundException.class, () -> bookService.increaseAvailableCount(1L));
     }
 
     @Test
     void increaseAvailableCount_ExceedsStock_Throws() {
-        book.setAvailableCount(book.getStock());
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.incrementAvailableCount(1L)).thenReturn(0);
+        when(bookRepository.existsById(1L)).thenReturn(true);
         assertThrows(BookStockException.class, () -> bookService.increaseAvailableCount(1L));
     }
 
+    // ----------------------------------------------------------------
+    // batch stock tests
+    // ----------------------------------------------------------------
+
+    @Test
+    void decreaseAvailableCounts_TakesWhatIsLeft() {
+        Book other = Book.builder().id(2L).title("Other Book").availableCount(0).author(author).build();
+        when(cacheManager.getCache("book")).thenReturn(bookCache);
+        when(bookRepository.decrementAvailableCountBy(1L, 3)).thenReturn(1);
+        when(bookRepository.decrementAvailableCountBy(2L, 3)).thenReturn(0);
+        when(bookRepository.findAvailableCountById(2L)).thenReturn(2);
+        when(bookRepository.decrementAvailableCountBy(2L, 2)).thenReturn(1);
+        when(bookRepository.decrementAvailableCountBy(3L, 1)).thenReturn(0);
+        when(bookRepository.findAvailableCountById(3L)).thenReturn(null);
+        when(bookRepository.findAllWithAuthorByIdIn(anyCollection())).thenReturn(List.of(book, other));
+
+        Map<Long, Integer> taken = bookService.decreaseAvailableCounts(Map.of(1L, 3, 2L, 3, 3L, 1));
+
+        assertEquals(Map.of(1L, 3, 2L, 2), taken);
+        verify(stockChangeCounter).increment(-5);
+        verify(cacheVersionService).bumpVersion("book");
+        verify(bookCache).evict("id:1");
+        verify(bookCache).evict("id:2");
+        verify(bookAvailabilityService).notifyAvailabilityChange(book, "BORROWED");
+        verify(bookAvailabilityService).notifyAvailabilityChange(other, "BORROWED");
+    }
+
+    @Test
+    void decreaseAvailableCounts_NothingLeft_ChangesNothing() {
+        when(bookRepository.decrementAvailableCountBy(1L, 2)).thenReturn(0);
+        when(bookRepository.findAvailableCountById(1L)).thenReturn(0);
+
+        Map<Long, Integer> taken = bookService.decreaseAvailableCounts(Map.of(1L, 2));
+
+        assertEquals(Map.of(1L, 0), taken);
+        verify(cacheVersionService, never()).bumpVersion(anyString());
+        verify(bookAvailabilityService, never()).notifyAvailabilityChange(any(Book.class), anyString());
+    }
+
+    @Test
+    void increaseAvailableCounts_SkipsBooksOverStock() {
+        when(cacheManager.getCache("book")).thenReturn(bookCache);
+        when(bookRepository.incrementAvailableCountBy(1L, 2)).thenReturn(1);
+        when(bookRepository.incrementAvailableCountBy(2L, 1)).thenReturn(0);
+        when(bookRepository.findAllWithAuthorByIdIn(List.of(1L))).thenReturn(List.of(book));
+
+        Set<Long> updated = bookService.increaseAvailableCounts(Map.of(1L, 2, 2L, 1));
+
+        assertEquals(Set.of(1L), updated);
+        verify(stockChangeCounter).increment(2);
+        verify(bookCache).evict("id:1");
+        verify(bookAvailabilityService).notifyAvailabilityChange(book, "RETURNED");
+        verify(entityManager, never()).refresh(any());
+    }
+
     // ----------------------------------------------------------------
     // getBookEntity tests
     // ----------------------------------------------------------------
@@ -0,0 +1,179 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheLoadCoordinatorTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheLoadCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coordinator = new CacheLoadCoordinator(stringRedisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(coordinator, "lockTtl", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(coordinator, "lockWait", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(coordinator, "earlyRefreshBeta", 1.0);
+    }
+
+    @Test
+    void load_ConcurrentMisses_RunLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        AtomicReference<Object> stored = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> leader = executor.submit(() -> coordinator.load("book", "all", null, () -> null, () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                releaseLoader.await();
+                return "books";
+            }, stored::set));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            List<Future<Object>> followers = List.of(
+                    executor.submit(() -> coordinator.load("book", "all", null, () -> null, () -> "other", stored::set)),
+                    executor.submit(() -> coordinator.load("book", "all", null, () -> null, () -> "other", stored::set)));
+            // Takipçiler yükleyiciyi bekleyene kadar sayacın artmasına izin verilir
+            waitForCounter("library.cache.load.coalesced", 2);
+            releaseLoader.countDown();
+
+            assertEquals("books", leader.get(5, TimeUnit.SECONDS));
+            for (Future<Object> follower : followers) {
+                assertEquals("books", follower.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals("books", stored.get());
+    }
+
+    @Test
+    void load_RemoteHit_DoesNotRunLoader() {
+        Object value = coordinator.load("book", "all", null, () -> new SimpleValueWrapper("cached"),
+                () -> fail("loader must not run"), stored -> fail("nothing to store"));
+
+        assertEquals("cached", value);
+    }
+
+    @Test
+    void load_LoaderFails_WrapsCause() {
+        IllegalStateException failure = new IllegalStateException("db down");
+
+        Cache.ValueRetrievalException exception = assertThrows(Cache.ValueRetrievalException.class,
+                () -> coordinator.load("book", "all", null, () -> null, () -> {
+                    throw failure;
+                }, stored -> {
+                }));
+
+        assertSame(failure, exception.getCause());
+    }
+
+    @Test
+    void load_LockHeldByOtherNode_WaitsForItsValue() {
+        ReflectionTestUtils.setField(coordinator, "distributedLock", true);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("cache-lock:book::all"), anyString(), eq(Duration.ofSeconds(10))))
+                .thenReturn(false);
+        AtomicInteger lookups = new AtomicInteger();
+
+        Object value = coordinator.load("book", "all", null,
+                () -> lookups.incrementAndGet() < 3 ? null : new SimpleValueWrapper("loaded elsewhere"),
+                () -> fail("loader must not run"), stored -> fail("nothing to store"));
+
+        assertEquals("loaded elsewhere", value);
+    }
+
+    @Test
+    void load_EarlyRefreshWithoutLock_ReturnsStaleValue() {
+        ReflectionTestUtils.setField(coordinator, "distributedLock", true);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        Object value = coordinator.load("book", "all", "stale", () -> fail("stale refresh skips Redis"),
+                () -> fail("loader must not run"), stored -> fail("nothing to store"));
+
+        assertEquals("stale", value);
+    }
+
+    @Test
+    void load_LockUnavailable_LoadsLocally() {
+        ReflectionTestUtils.setField(coordinator, "distributedLock", true);
+        when(stringRedisTemplate.opsForValue()).thenThrow(new IllegalStateException("Connection refused"));
+
+        assertEquals("books", coordinator.load("book", "all", null, () -> null, () -> "books", stored -> {
+        }));
+    }
+
+    @Test
+    void shouldRefreshEarly_DependsOnLoadTimeAndRemainingTtl() {
+        Duration ttl = Duration.ofMinutes(30);
+        assertFalse(coordinator.shouldRefreshEarly("book", "all:v1", Duration.ofMinutes(29), ttl));
+
+        coordinator.load("book", "all:v1", null, () -> null, () -> {
+            Thread.sleep(20);
+            return "books";
+        }, stored -> {
+        });
+
+        assertFalse(coordinator.shouldRefreshEarly("book", "all:v2", Duration.ofMinutes(1), ttl));
+        assertTrue(coordinator.shouldRefreshEarly("book", "all:v2", ttl, ttl));
+
+        ReflectionTestUtils.setField(coordinator, "earlyRefreshBeta", 0.0);
+        assertFalse(coordinator.shouldRefreshEarly("book", "all:v2", ttl, ttl));
+    }
+
+    @Test
+    void shouldRefreshEarly_LoadTimeIsKeptPerKeyPrefix() {
+        Duration ttl = Duration.ofMinutes(30);
+        coordinator.load("book", "search:v1:title=dune", null, () -> null, () -> {
+            Thread.sleep(20);
+            return "page";
+        }, stored -> {
+        });
+
+        assertTrue(coordinator.shouldRefreshEarly("book", "search:v1:title=emma", ttl, ttl));
+        assertFalse(coordinator.shouldRefreshEarly("book", "id:1", ttl, ttl));
+        assertFalse(coordinator.shouldRefreshEarly("loan", "search:v1:title=dune", ttl, ttl));
+    }
+
+    private void waitForCounter(String name, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter(name, "cache", "book").count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
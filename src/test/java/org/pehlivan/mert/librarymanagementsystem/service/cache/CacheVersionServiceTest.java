@@ -0,0 +1,113 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheVersionServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private TwoLevelCacheManager cacheManager;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @InjectMocks
+    private CacheVersionService cacheVersionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void currentVersion_NoKey_ReturnsZero() {
+        when(valueOperations.get("cache-version:book")).thenReturn(null);
+        assertEquals(0L, cacheVersionService.currentVersion("book"));
+    }
+
+    @Test
+    void currentVersion_ExistingKey_ReturnsStoredVersion() {
+        when(valueOperations.get("cache-version:book")).thenReturn("7");
+        assertEquals(7L, cacheVersionService.currentVersion("book"));
+    }
+
+    @Test
+    void currentVersion_LocalReadsEnabled_ReadsRedisOnce() {
+        when(cacheManager.isLocalReadsEnabled()).thenReturn(true);
+        when(valueOperations.get("cache-version:book")).thenReturn("7");
+
+        assertEquals(7L, cacheVersionService.currentVersion("book"));
+        assertEquals(7L, cacheVersionService.currentVersion("book"));
+
+        verify(valueOperations, times(1)).get("cache-version:book");
+    }
+
+    @Test
+    void applyVersion_AnnouncedByOtherNode_OnlyMovesForward() {
+        when(cacheManager.isLocalReadsEnabled()).thenReturn(true);
+
+        cacheVersionService.applyVersion("book", 9L);
+        cacheVersionService.applyVersion("book", 8L);
+
+        assertEquals(9L, cacheVersionService.currentVersion("book"));
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    void clearLocalVersions_ReadsRedisAgain() {
+        when(cacheManager.isLocalReadsEnabled()).thenReturn(true);
+        when(valueOperations.get("cache-version:book")).thenReturn("3");
+        cacheVersionService.applyVersion("book", 2L);
+
+        cacheVersionService.clearLocalVersions();
+
+        assertEquals(3L, cacheVersionService.currentVersion("book"));
+    }
+
+    @Test
+    void bumpVersion_WithoutTransaction_IncrementsImmediately() {
+        when(valueOperations.increment("cache-version:book")).thenReturn(4L);
+
+        cacheVersionService.bumpVersion("book");
+
+        verify(valueOperations).increment("cache-version:book");
+        verify(invalidationPublisher).publishVersion("book", 4L);
+    }
+
+    @Test
+    void bumpVersion_InsideTransaction_IncrementsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cacheVersionService.bumpVersion("book");
+        verify(valueOperations, never()).increment(anyString());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(valueOperations).increment("cache-version:book");
+    }
+}
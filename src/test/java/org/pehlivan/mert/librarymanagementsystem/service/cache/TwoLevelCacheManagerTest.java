@@ -0,0 +1,135 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Mock
+    private CacheLoadCoordinator loadCoordinator;
+
+    @Mock
+    private CacheVersionService cacheVersionService;
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager("book", "overdueLoans");
+        Map<String, Duration> ttls = Map.of("book", Duration.ofMinutes(30), "overdueLoans", Duration.ofMinutes(5));
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, ttls::get,
+                (cacheName, key) -> Duration.ofMinutes(1), 100, invalidationPublisher, loadCoordinator);
+        cacheManager.setLocalReadsEnabled(true);
+    }
+
+    @Test
+    void getCache_LocalTtlFollowsCacheName() {
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+        TwoLevelCache overdue = (TwoLevelCache) cacheManager.getCache("overdueLoans");
+
+        book.put("id:1", "Dune");
+        overdue.put("id:1", "Dune");
+
+        assertTrue(localTtl(book, "id:1").compareTo(Duration.ofMinutes(29)) > 0);
+        assertTrue(localTtl(overdue, "id:1").compareTo(Duration.ofMinutes(5)) <= 0);
+        assertTrue(localTtl(overdue, "id:1").compareTo(Duration.ofMinutes(4)) > 0);
+        assertEquals(100, book.getLocalCache().policy().eviction().orElseThrow().getMaximum());
+        assertSame(book, cacheManager.getCache("book"));
+    }
+
+    @Test
+    void getCache_RemoteHitExpiresLocallyWithRedisCopy() {
+        remoteCacheManager.getCache("book").put("id:1", "Dune");
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+
+        book.get("id:1");
+
+        assertTrue(localTtl(book, "id:1").compareTo(Duration.ofMinutes(1)) <= 0);
+    }
+
+    @Test
+    void invalidationFromOtherNode_EvictsLocalEntryOnly() {
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+        book.put("id:1", "Dune");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, cacheVersionService, new ObjectMapper(), "node-a");
+
+        listener.onMessage(message("{\"origin\":\"node-b\",\"cacheName\":\"book\",\"key\":\"id:1\"}"), null);
+
+        assertNull(book.getLocalCache().getIfPresent("id:1"));
+        assertEquals("Dune", remoteCacheManager.getCache("book").get("id:1").get());
+    }
+
+    @Test
+    void invalidationFromSameNode_IsIgnored() {
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+        book.put("id:1", "Dune");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, cacheVersionService, new ObjectMapper(), "node-a");
+
+        listener.onMessage(message("{\"origin\":\"node-a\",\"cacheName\":\"book\",\"key\":\"id:1\"}"), null);
+        listener.onMessage(message("not json"), null);
+
+        assertEquals("Dune", book.getLocalCache().getIfPresent("id:1"));
+    }
+
+    @Test
+    void versionAnnouncement_UpdatesVersionAndKeepsLocalEntries() {
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+        book.put("id:1", "Dune");
+        CacheInvalidationListener listener = new CacheInvalidationListener(cacheManager, cacheVersionService, new ObjectMapper(), "node-a");
+
+        listener.onMessage(message("{\"origin\":\"node-b\",\"cacheName\":\"book\",\"key\":null,\"version\":8}"), null);
+
+        verify(cacheVersionService).applyVersion("book", 8L);
+        assertEquals("Dune", book.getLocalCache().getIfPresent("id:1"));
+    }
+
+    @Test
+    void invalidationWithoutKey_ClearsLocalCache() {
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+        book.put("id:1", "Dune");
+        book.put("id:2", "Emma");
+
+        cacheManager.evictLocal("book", null);
+        cacheManager.evictLocal("unknown", "id:1");
+
+        assertEquals(0, book.getLocalCache().estimatedSize());
+    }
+
+    @Test
+    void setLocalReadsEnabled_DropsEntriesCachedBeforeOutage() {
+        TwoLevelCache book = (TwoLevelCache) cacheManager.getCache("book");
+        book.put("id:1", "Dune");
+
+        cacheManager.setLocalReadsEnabled(false);
+        cacheManager.setLocalReadsEnabled(true);
+
+        assertNull(book.getLocalCache().getIfPresent("id:1"));
+    }
+
+    private Duration localTtl(TwoLevelCache cache, String key) {
+        return cache.getLocalCache().policy().expireVariably().orElseThrow().getExpiresAfter(key).orElseThrow();
+    }
+
+    private DefaultMessage message(String body) {
+        return new DefaultMessage("library:cache:invalidation".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
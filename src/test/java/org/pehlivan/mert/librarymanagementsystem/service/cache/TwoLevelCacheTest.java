@@ -0,0 +1,185 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Mock
+    private Cache remote;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    @Mock
+    private CacheLoadCoordinator loadCoordinator;
+
+    private final AtomicBoolean localReadsEnabled = new AtomicBoolean(true);
+    private final AtomicReference<Duration> remainingRedisTtl = new AtomicReference<>(Duration.ofMinutes(10));
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        Duration ttl = Duration.ofMinutes(30);
+        cache = new TwoLevelCache("book",
+                Caffeine.newBuilder().maximumSize(100).expireAfter(new TwoLevelCacheManager.WriteExpiry(ttl)).build(),
+                remote, ttl, key -> remainingRedisTtl.get(), invalidationPublisher, loadCoordinator,
+                localReadsEnabled::get);
+    }
+
+    @Test
+    void get_LocalHit_DoesNotReadRedis() {
+        when(remote.get("id:1")).thenReturn(new SimpleValueWrapper("Dune"));
+
+        assertEquals("Dune", cache.get("id:1").get());
+        assertEquals("Dune", cache.get("id:1").get());
+        assertEquals("Dune", cache.get("id:1", String.class));
+
+        verify(remote, times(1)).get("id:1");
+    }
+
+    @Test
+    void get_RemoteHit_LocalCopyExpiresWithRedisCopy() {
+        when(remote.get("id:1")).thenReturn(new SimpleValueWrapper("Dune"));
+
+        cache.get("id:1");
+
+        Duration localTtl = cache.getLocalCache().policy().expireVariably().orElseThrow()
+                .getExpiresAfter("id:1").orElseThrow();
+        assertTrue(localTtl.compareTo(Duration.ofMinutes(10)) <= 0);
+        assertTrue(localTtl.compareTo(Duration.ofMinutes(9)) > 0);
+    }
+
+    @Test
+    void get_RemoteHitWithUnknownRedisTtl_IsNotCachedLocally() {
+        remainingRedisTtl.set(null);
+        when(remote.get("id:1")).thenReturn(new SimpleValueWrapper("Dune"));
+
+        assertEquals("Dune", cache.get("id:1").get());
+        assertEquals("Dune", cache.get("id:1").get());
+
+        verify(remote, times(2)).get("id:1");
+    }
+
+    @Test
+    void put_LocalCopyGetsFullTtl() {
+        cache.put("id:1", "Dune");
+
+        Duration localTtl = cache.getLocalCache().policy().expireVariably().orElseThrow()
+                .getExpiresAfter("id:1").orElseThrow();
+        assertTrue(localTtl.compareTo(Duration.ofMinutes(29)) > 0);
+    }
+
+    @Test
+    void get_RemoteMiss_IsNotCachedLocally() {
+        assertNull(cache.get("id:1"));
+        assertNull(cache.get("id:1"));
+
+        verify(remote, times(2)).get("id:1");
+    }
+
+    @Test
+    void put_WritesBothLevelsAndNotifiesOtherNodes() {
+        cache.put("id:1", "Dune");
+
+        assertEquals("Dune", cache.get("id:1").get());
+        verify(remote).put("id:1", "Dune");
+        verify(remote, never()).get("id:1");
+        verify(invalidationPublisher).publishEvict("book", "id:1");
+    }
+
+    @Test
+    void evict_DropsLocalEntryAndNotifiesOtherNodes() {
+        cache.put("id:1", "Dune");
+
+        cache.evict("id:1");
+
+        assertNull(cache.get("id:1"));
+        verify(remote).evict("id:1");
+        verify(remote).get("id:1");
+        verify(invalidationPublisher, times(2)).publishEvict("book", "id:1");
+    }
+
+    @Test
+    void clear_DropsAllLocalEntries() {
+        cache.put("id:1", "Dune");
+        cache.put("id:2", "Emma");
+
+        cache.clear();
+
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+        verify(remote).clear();
+        verify(invalidationPublisher).publishClear("book");
+    }
+
+    @Test
+    void evictLocal_RemoteChange_NextReadGoesToRedis() {
+        when(remote.get("id:1"))
+                .thenReturn(new SimpleValueWrapper("Dune"))
+                .thenReturn(new SimpleValueWrapper("Dune Messiah"));
+        cache.get("id:1");
+
+        cache.evictLocal("id:1");
+
+        assertEquals("Dune Messiah", cache.get("id:1").get());
+        verify(remote, never()).evict(any());
+        verifyNoInteractions(invalidationPublisher);
+    }
+
+    @Test
+    void get_LocalReadsDisabled_AlwaysReadsRedis() {
+        localReadsEnabled.set(false);
+        when(remote.get("id:1")).thenReturn(new SimpleValueWrapper("Dune"));
+
+        cache.get("id:1");
+        cache.get("id:1");
+
+        verify(remote, times(2)).get("id:1");
+        assertEquals(0, cache.getLocalCache().estimatedSize());
+    }
+
+    @Test
+    void getWithLoader_FreshLocalEntry_SkipsLoader() {
+        cache.put("all", "books");
+        when(loadCoordinator.shouldRefreshEarly(eq("book"), eq("all"), any(Duration.class), eq(Duration.ofMinutes(30))))
+                .thenReturn(false);
+
+        assertEquals("books", cache.get("all", () -> "reloaded"));
+
+        verify(loadCoordinator, never()).load(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getWithLoader_EarlyRefresh_PassesCachedValueAsStale() {
+        cache.put("all", "books");
+        when(loadCoordinator.shouldRefreshEarly(eq("book"), eq("all"), any(Duration.class), eq(Duration.ofMinutes(30))))
+                .thenReturn(true);
+        when(loadCoordinator.load(eq("book"), eq("all"), eq("books"), any(), any(), any())).thenReturn("reloaded");
+
+        assertEquals("reloaded", cache.get("all", () -> "reloaded"));
+    }
+
+    @Test
+    void getWithLoader_LocalMiss_LoadsThroughCoordinator() {
+        when(loadCoordinator.load(eq("book"), eq("all"), isNull(), any(), any(), any())).thenReturn("loaded");
+
+        assertEquals("loaded", cache.get("all", () -> "loaded"));
+    }
+}
@@ -0,0 +1,145 @@
+package org.pehlivan.mert.librarymanagementsystem.service.cache.codec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pehlivan.mert.librarymanagementsystem.dto.author.AuthorResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.book.BookResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.user.UserResponseDto;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.book.BookType;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactCacheSerializerTest {
+
+    private static final List<CacheValueCodec<?>> CODECS = List.of(new BookResponseDtoCodec(),
+            new LoanResponseDtoCodec(), new UserResponseDtoCodec(), new AuthorResponseDtoCodec());
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private CompactCacheSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        serializer = new CompactCacheSerializer(CODECS, json, 1024);
+    }
+
+    @Test
+    void roundTrip_EachCachedDto() {
+        LoanResponseDto loan = LoanResponseDto.builder()
+                .id(5L).bookId(1L).bookTitle("Kar").userId(2L).userName("mert")
+                .borrowedDate(LocalDate.of(2026, 10, 1)).dueDate(LocalDate.of(2026, 10, 15))
+                .status(LoanStatus.OVERDUE).penaltyAmount(2.5)
+                .build();
+        UserResponseDto user = new UserResponseDto(2L, "Mert", "mert", "mert@example.com");
+        AuthorResponseDto author = new AuthorResponseDto(3L, "Orhan", "Pamuk");
+
+        assertEquals(book(1), serializer.deserialize(serializer.serialize(book(1))));
+        assertEquals(loan, serializer.deserialize(serializer.serialize(loan)));
+        assertEquals(user, serializer.deserialize(serializer.serialize(user)));
+        assertEquals(author, serializer.deserialize(serializer.serialize(author)));
+    }
+
+    @Test
+    void roundTrip_NullFieldsStayNull() {
+        BookResponseDto book = BookResponseDto.builder().id(1L).title("Kar").build();
+
+        assertEquals(book, serializer.deserialize(serializer.serialize(book)));
+    }
+
+    @Test
+    void roundTrip_PageKeepsPagingAndSort() {
+        Page<BookResponseDto> page = new PageImpl<>(List.of(book(1), book(2)),
+                PageRequest.of(3, 2, Sort.by(Sort.Order.desc("title"), Sort.Order.asc("id"))), 40);
+
+        Page<?> result = (Page<?>) serializer.deserialize(serializer.serialize(page));
+
+        assertEquals(page.getContent(), result.getContent());
+        assertEquals(page.getPageable(), result.getPageable());
+        assertEquals(40, result.getTotalElements());
+    }
+
+    @Test
+    void serialize_LargeList_IsCompressedAndSmallerThanJson() {
+        List<BookResponseDto> books = IntStream.rangeClosed(1, 100).mapToObj(this::book).toList();
+
+        byte[] binary = serializer.serialize(books);
+
+        assertEquals(CompactCacheSerializer.FORMAT_DEFLATED, binary[0] & 0xFF);
+        assertEquals(books, serializer.deserialize(binary));
+        assertTrue(binary.length * 5 < json.serialize(books).length);
+    }
+
+    @Test
+    void serialize_SmallValue_IsNotCompressed() {
+        byte[] binary = serializer.serialize(book(1));
+
+        assertEquals(CompactCacheSerializer.FORMAT_BINARY, binary[0] & 0xFF);
+        assertTrue(binary.length < json.serialize(book(1)).length / 3);
+    }
+
+    @Test
+    void unsupportedValues_FallBackToJson() {
+        List<Object> mixed = new ArrayList<>(List.of(book(1), new AuthorResponseDto(3L, "Orhan", "Pamuk")));
+
+        assertEquals('[', serializer.serialize(mixed)[0]);
+        assertEquals('[', serializer.serialize(List.of())[0]);
+        assertEquals(mixed, serializer.deserialize(serializer.serialize(mixed)));
+    }
+
+    @Test
+    void deserialize_ExistingJsonValue_IsStillRead() {
+        assertEquals(book(1), serializer.deserialize(json.serialize(book(1))));
+    }
+
+    @Test
+    void deserialize_OutdatedSchemaVersion_IsTreatedAsMiss() {
+        byte[] binary = serializer.serialize(book(1));
+        CacheValueCodec<BookResponseDto> newerBookCodec = new BookResponseDtoCodec() {
+            @Override
+            public int schemaVersion() {
+                return 2;
+            }
+        };
+        CompactCacheSerializer upgraded = new CompactCacheSerializer(List.of(newerBookCodec), json, 1024);
+
+        assertNull(upgraded.deserialize(binary));
+    }
+
+    @Test
+    void constructor_DuplicateTypeId_IsRejected() {
+        List<CacheValueCodec<?>> codecs = List.of(new BookResponseDtoCodec(), new BookResponseDtoCodec());
+
+        assertThrows(IllegalStateException.class, () -> new CompactCacheSerializer(codecs, json, 1024));
+    }
+
+    private BookResponseDto book(int id) {
+        return BookResponseDto.builder()
+                .id((long) id)
+                .title("Kar " + id)
+                .isbn("9789750507806")
+                .stock(10)
+                .availableCount(7)
+                .pageCount(432)
+                .publicationDate(new Date(1_700_000_000_000L))
+                .publisher("Yapı Kredi Yayınları")
+                .status(BookStatus.AVAILABLE)
+                .bookType(BookType.FICTION)
+                .authorId(1L)
+                .authorName("Orhan")
+                .authorSurname("Pamuk")
+                .build();
+    }
+}
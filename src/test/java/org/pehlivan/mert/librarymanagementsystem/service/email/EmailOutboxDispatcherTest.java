@@ -0,0 +1,172 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanSummaryNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.OverdueNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutbox;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private EmailService emailService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final LocalDate borrowedDate = LocalDate.of(2024, 1, 1);
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.initialize();
+        dispatcher = new EmailOutboxDispatcher(emailOutboxService, emailService, objectMapper, executor, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void dispatchPending_SendsAndMarksSent() throws Exception {
+        EmailOutbox entry = loanEntry(1L);
+        when(emailOutboxService.claimDue(10)).thenReturn(List.of(entry));
+
+        dispatcher.dispatchPending();
+
+        verify(emailService).sendLoanNotification("test@example.com", "testuser", "Test Book",
+                borrowedDate, borrowedDate.plusDays(14));
+        verify(emailOutboxService).markSent(1L);
+        verify(emailOutboxService, never()).markFailed(any(), anyString());
+        assertEquals(1.0, meterRegistry.counter("library.emails.outbox.sent").count());
+    }
+
+    @Test
+    void dispatchPending_SendFails_MarksFailed() throws Exception {
+        EmailOutbox entry = loanEntry(1L);
+        when(emailOutboxService.claimDue(10)).thenReturn(List.of(entry));
+        doThrow(new RuntimeException("Failed to send loan notification"))
+                .when(emailService).sendLoanNotification(anyString(), anyString(), anyString(), any(), any());
+
+        dispatcher.dispatchPending();
+
+        verify(emailOutboxService).markFailed(entry, "Failed to send loan notification");
+        verify(emailOutboxService, never()).markSent(anyLong());
+    }
+
+    @Test
+    void dispatchPending_OverdueNotification_SendsOneEmailWithAllBooks() throws Exception {
+        OverdueNotificationPayload payload = OverdueNotificationPayload.builder()
+                .username("testuser")
+                .overdueBooks(List.of(
+                        OverdueNotificationPayload.OverdueBook.builder()
+                                .title("Book A").borrowedDate(borrowedDate).dueDate(borrowedDate.plusDays(14))
+                                .overdueDays(3).penaltyAmount(15.0).build(),
+                        OverdueNotificationPayload.OverdueBook.builder()
+                                .title("Book B").borrowedDate(borrowedDate).dueDate(borrowedDate.plusDays(14))
+                                .overdueDays(3).penaltyAmount(15.0).build()))
+                .build();
+        EmailOutbox entry = EmailOutbox.builder()
+                .id(2L)
+                .type(EmailType.OVERDUE_NOTIFICATION)
+                .recipient("test@example.com")
+                .payload(objectMapper.writeValueAsString(payload))
+                .attempts(1)
+                .build();
+        when(emailOutboxService.claimDue(10)).thenReturn(List.of(entry));
+
+        dispatcher.dispatchPending();
+
+        verify(emailService).sendOverdueNotification(eq("test@example.com"), eq("testuser"), argThat(books ->
+                books.size() == 2 && "Book A".equals(books.get(0).get("title"))
+                        && "15.00 TL".equals(books.get(0).get("penaltyAmount"))
+                        && borrowedDate.equals(books.get(0).get("borrowedDate"))));
+        verify(emailOutboxService).markSent(2L);
+    }
+
+    @Test
+    void dispatchPending_LoanSummaryNotification_SendsOneEmailWithAllBooks() throws Exception {
+        LoanSummaryNotificationPayload payload = LoanSummaryNotificationPayload.builder()
+                .username("testuser")
+                .loanedBooks(List.of(
+                        LoanSummaryNotificationPayload.LoanedBook.builder()
+                                .title("Book A").borrowedDate(borrowedDate).dueDate(borrowedDate.plusDays(14)).build(),
+                        LoanSummaryNotificationPayload.LoanedBook.builder()
+                                .title("Book B").borrowedDate(borrowedDate).dueDate(borrowedDate.plusDays(14)).build()))
+                .build();
+        EmailOutbox entry = EmailOutbox.builder()
+                .id(3L)
+                .type(EmailType.LOAN_SUMMARY_NOTIFICATION)
+                .recipient("test@example.com")
+                .payload(objectMapper.writeValueAsString(payload))
+                .attempts(1)
+                .build();
+        when(emailOutboxService.claimDue(10)).thenReturn(List.of(entry));
+
+        dispatcher.dispatchPending();
+
+        verify(emailService).sendLoanSummaryNotification(eq("test@example.com"), eq("testuser"), argThat(books ->
+                books.size() == 2 && "Book B".equals(books.get(1).get("title"))
+                        && borrowedDate.plusDays(14).equals(books.get(1).get("dueDate"))));
+        verify(emailOutboxService).markSent(3L);
+    }
+
+    @Test
+    void dispatchPending_NothingClaimed_SendsNothing() {
+        when(emailOutboxService.claimDue(10)).thenReturn(Collections.emptyList());
+
+        dispatcher.dispatchPending();
+
+        verifyNoInteractions(emailService);
+    }
+
+    private EmailOutbox loanEntry(Long id) throws Exception {
+        LoanNotificationPayload payload = LoanNotificationPayload.builder()
+                .username("testuser")
+                .bookTitle("Test Book")
+                .borrowedDate(borrowedDate)
+                .dueDate(borrowedDate.plusDays(14))
+                .build();
+        return EmailOutbox.builder()
+                .id(id)
+                .type(EmailType.LOAN_NOTIFICATION)
+                .recipient("test@example.com")
+                .payload(objectMapper.writeValueAsString(payload))
+                .attempts(1)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
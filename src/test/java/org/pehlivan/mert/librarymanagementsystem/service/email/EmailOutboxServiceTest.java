@@ -0,0 +1,126 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.pehlivan.mert.librarymanagementsystem.dto.email.LoanNotificationPayload;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutbox;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailOutboxStatus;
+import org.pehlivan.mert.librarymanagementsystem.model.email.EmailType;
+import org.pehlivan.mert.librarymanagementsystem.repository.email.EmailOutboxRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        emailOutboxService = new EmailOutboxService(emailOutboxRepository, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(emailOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(emailOutboxService, "retryBackoffMs", 1000L);
+        ReflectionTestUtils.setField(emailOutboxService, "leaseMs", 60000L);
+        emailOutboxService.init();
+    }
+
+    @Test
+    void enqueueLoanNotification_SavesPendingRowWithPayload() throws Exception {
+        LocalDate borrowed = LocalDate.of(2024, 1, 1);
+
+        emailOutboxService.enqueueLoanNotification("test@example.com", "testuser", "Test Book",
+                borrowed, borrowed.plusDays(14));
+
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository).save(captor.capture());
+        EmailOutbox saved = captor.getValue();
+        assertEquals(EmailType.LOAN_NOTIFICATION, saved.getType());
+        assertEquals(EmailOutboxStatus.PENDING, saved.getStatus());
+        assertEquals("test@example.com", saved.getRecipient());
+        assertEquals(0, saved.getAttempts());
+        assertNotNull(saved.getNextAttemptAt());
+
+        LoanNotificationPayload payload = objectMapper.readValue(saved.getPayload(), LoanNotificationPayload.class);
+        assertEquals("testuser", payload.getUsername());
+        assertEquals("Test Book", payload.getBookTitle());
+        assertEquals(borrowed.plusDays(14), payload.getDueDate());
+        assertEquals(1.0, meterRegistry.counter("library.emails.outbox.enqueued").count());
+    }
+
+    @Test
+    void claimDue_ReturnsOnlyRowsClaimedByThisNode() {
+        when(emailOutboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(emailOutboxRepository.claim(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(emailOutboxRepository.claim(eq(2L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        EmailOutbox claimed = EmailOutbox.builder().id(1L).build();
+        when(emailOutboxRepository.findAllById(List.of(1L))).thenReturn(List.of(claimed));
+
+        List<EmailOutbox> result = emailOutboxService.claimDue(10);
+
+        assertEquals(List.of(claimed), result);
+    }
+
+    @Test
+    void claimDue_NothingDue_DoesNotClaim() {
+        when(emailOutboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        assertTrue(emailOutboxService.claimDue(10).isEmpty());
+        verify(emailOutboxRepository, never()).claim(anyLong(), any(), any());
+    }
+
+    @Test
+    void markFailed_BelowMaxAttempts_SchedulesRetry() {
+        EmailOutbox entry = EmailOutbox.builder().id(1L).recipient("test@example.com").attempts(2).build();
+        LocalDateTime before = LocalDateTime.now();
+
+        emailOutboxService.markFailed(entry, "SMTP down");
+
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).markAttemptFailed(eq(1L), eq(EmailOutboxStatus.PENDING), next.capture(),
+                eq("SMTP down"), any(LocalDateTime.class));
+        // İkinci denemeden sonra bekleme süresi 2 * backoff olmalı
+        assertFalse(next.getValue().isBefore(before.plusSeconds(2)));
+        assertEquals(1.0, meterRegistry.counter("library.emails.outbox.retried").count());
+    }
+
+    @Test
+    void markFailed_AtMaxAttempts_MarksFailed() {
+        EmailOutbox entry = EmailOutbox.builder().id(1L).recipient("test@example.com").attempts(3).build();
+
+        emailOutboxService.markFailed(entry, "SMTP down");
+
+        verify(emailOutboxRepository).markAttemptFailed(eq(1L), eq(EmailOutboxStatus.FAILED), any(LocalDateTime.class),
+                eq("SMTP down"), any(LocalDateTime.class));
+        assertEquals(1.0, meterRegistry.counter("library.emails.outbox.failed").count());
+    }
+
+    @Test
+    void markSent_DelegatesToRepository() {
+        emailOutboxService.markSent(5L);
+        verify(emailOutboxRepository).markSent(eq(5L), any(LocalDateTime.class));
+    }
+}
@@ -35,6 +35,9 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private MailSendQueue mailSendQueue;
+
     @Mock
     private TemplateEngine templateEngine;
 
@@ -92,7 +95,7 @@ class EmailServiceTest {
         emailService.sendWelcomeEmail(TEST_EMAIL, TEST_USERNAME);
 
         // Assert
-        verify(mailSender).send(any(MimeMessage.class));
+        verify(mailSendQueue).send(mimeMessage);
         verify(welcomeEmailsSentCounter).increment();
         verify(emailErrorsCounter, never()).increment();
     }
@@ -103,7 +106,7 @@ class EmailServiceTest {
         when(templateEngine.process(eq("welcome-notification"), any(Context.class)))
                 .thenReturn("<html>Welcome email content</html>");
         doThrow(new RuntimeException("Failed to send email"))
-                .when(mailSender).send(any(MimeMessage.class));
+                .when(mailSendQueue).send(any(MimeMessage.class));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> 
@@ -126,7 +129,7 @@ class EmailServiceTest {
         emailService.sendLoanNotification(TEST_EMAIL, TEST_USERNAME, TEST_BOOK_TITLE, borrowedDate, dueDate);
 
         // Assert
-        verify(mailSender).send(any(MimeMessage.class));
+        verify(mailSendQueue).send(mimeMessage);
         verify(loanNotificationsSentCounter).increment();
         verify(emailErrorsCounter, never()).increment();
     }
@@ -139,7 +142,7 @@ class EmailServiceTest {
         when(templateEngine.process(eq("loan-notification"), any(Context.class)))
                 .thenReturn("<html>Loan notification content</html>");
         doThrow(new RuntimeException("Failed to send email"))
-                .when(mailSender).send(any(MimeMessage.class));
+                .when(mailSendQueue).send(any(MimeMessage.class));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> 
@@ -164,7 +167,7 @@ class EmailServiceTest {
         emailService.sendOverdueNotification(TEST_EMAIL, TEST_USERNAME, overdueBooks);
 
         // Assert
-        verify(mailSender).send(any(MimeMessage.class));
+        verify(mailSendQueue).send(mimeMessage);
         verify(overdueNotificationsSentCounter).increment();
         verify(emailErrorsCounter, never()).increment();
     }
@@ -178,7 +181,7 @@ class EmailServiceTest {
         when(templateEngine.process(eq("overdue-notification"), any(Context.class)))
                 .thenReturn("<html>Overdue notification content</html>");
         doThrow(new RuntimeException("Failed to send email"))
-                .when(mailSender).send(any(MimeMessage.class));
+                .when(mailSendQueue).send(any(MimeMessage.class));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> 
@@ -0,0 +1,110 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for tests: accepts every command except recipients
+ * containing {@code reject}, counts connections and delivered messages and discards the
+ * content.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger messages = new AtomicInteger();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        sessions.execute(this::acceptLoop);
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    int getMessages() {
+        return messages.get();
+    }
+
+    // Sunucunun boştaki bağlantıları kapatmasını taklit eder
+    void dropConnections() throws IOException {
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                openSockets.add(socket);
+                sessions.execute(() -> session(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost fake SMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // içerik atılır
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> reply(out, line.contains("reject") ? "550 Mailbox unavailable" : "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        } catch (IOException ignored) {
+            // istemci bağlantıyı kapattı
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+}
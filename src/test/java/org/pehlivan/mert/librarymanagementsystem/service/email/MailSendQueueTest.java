@@ -0,0 +1,216 @@
+package org.pehlivan.mert.librarymanagementsystem.service.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MailSendQueueTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private MailSendQueue mailSendQueue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (mailSendQueue != null) {
+            mailSendQueue.stop();
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void send_ReusesSmtpConnectionsUnderLoad() throws Exception {
+        int total = 400;
+        try (FakeSmtpServer smtp = new FakeSmtpServer()) {
+            JavaMailSenderImpl mailSender = mailSender(smtp);
+            mailSendQueue = newQueue(mailSender, 2, 500);
+
+            ExecutorService callers = Executors.newFixedThreadPool(8);
+            long start = System.nanoTime();
+            try {
+                CompletableFuture.allOf(IntStream.range(0, total)
+                                .mapToObj(i -> CompletableFuture.runAsync(
+                                        () -> mailSendQueue.send(message(mailSender, "user" + i + "@example.com")), callers))
+                                .toArray(CompletableFuture[]::new))
+                        .join();
+            } finally {
+                callers.shutdown();
+            }
+            double perSecond = total / ((System.nanoTime() - start) / 1_000_000_000.0);
+            assertEquals(total, smtp.getMessages());
+            assertEquals(total, meterRegistry.counter("library.emails.smtp.sent").count());
+            // Her işçi tek bir bağlantı kullanır
+            assertEquals(2, smtp.getConnections());
+            assertTrue(perSecond > 50, "throughput too low: " + perSecond + " messages/s");
+        }
+    }
+
+    @Test
+    void send_RejectedRecipient_OnlyFailsThatMessage() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer()) {
+            JavaMailSenderImpl mailSender = mailSender(smtp);
+            mailSendQueue = newQueue(mailSender, 1, 10);
+
+            mailSendQueue.send(message(mailSender, "first@example.com"));
+            assertThrows(MailSendException.class,
+                    () -> mailSendQueue.send(message(mailSender, "reject@example.com")));
+            mailSendQueue.send(message(mailSender, "second@example.com"));
+
+            assertEquals(2, smtp.getMessages());
+            assertEquals(1, smtp.getConnections());
+        }
+    }
+
+    @Test
+    void send_ConnectionDroppedByServer_Reconnects() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer()) {
+            JavaMailSenderImpl mailSender = mailSender(smtp);
+            mailSendQueue = newQueue(mailSender, 1, 10);
+
+            mailSendQueue.send(message(mailSender, "first@example.com"));
+            smtp.dropConnections();
+            mailSendQueue.send(message(mailSender, "second@example.com"));
+
+            assertEquals(2, smtp.getMessages());
+            assertEquals(2, smtp.getConnections());
+        }
+    }
+
+    @Test
+    void send_ServerUnavailable_Fails() throws Exception {
+        JavaMailSenderImpl mailSender;
+        try (FakeSmtpServer smtp = new FakeSmtpServer()) {
+            mailSender = mailSender(smtp);
+        }
+        mailSendQueue = newQueue(mailSender, 1, 10);
+
+        assertThrows(MailSendException.class, () -> mailSendQueue.send(message(mailSender, "user@example.com")));
+        assertEquals(0.0, meterRegistry.counter("library.emails.smtp.sent").count());
+    }
+
+    @Test
+    void deliver_WithoutMailSenderImpl_SendsBatchAndFailsOnlyRejectedMessages() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        MimeMessage ok = mock(MimeMessage.class);
+        MimeMessage rejected = mock(MimeMessage.class);
+        doThrow(new MailSendException(Map.of(rejected, new MessagingException("550 mailbox unavailable"))))
+                .when(mailSender).send(any(MimeMessage[].class));
+        mailSendQueue = newQueue(mailSender, 0, 10);
+        CompletableFuture<Void> okDelivery = new CompletableFuture<>();
+        CompletableFuture<Void> rejectedDelivery = new CompletableFuture<>();
+
+        mailSendQueue.deliver(List.of(
+                new MailSendQueue.PendingMail(ok, okDelivery),
+                new MailSendQueue.PendingMail(rejected, rejectedDelivery)), null);
+
+        verify(mailSender).send(ok, rejected);
+        assertTrue(okDelivery.isDone() && !okDelivery.isCompletedExceptionally());
+        assertTrue(rejectedDelivery.isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.counter("library.emails.smtp.sent").count());
+    }
+
+    @Test
+    void submit_QueueFull_RejectsMessage() {
+        // İşçi yok: kuyruk boşalmaz
+        mailSendQueue = newQueue(mock(JavaMailSender.class), 0, 1);
+        mailSendQueue.submit(mock(MimeMessage.class));
+
+        assertThrows(MailSendException.class, () -> mailSendQueue.submit(mock(MimeMessage.class)));
+        assertEquals(1.0, meterRegistry.counter("library.emails.queue.rejected").count());
+        assertEquals(1.0, meterRegistry.get("library.emails.queue.size").gauge().value());
+    }
+
+    @Test
+    void send_TimedOut_CancelsQueuedMessage() {
+        JavaMailSender mailSender = mock(JavaMailSender.class);
+        // İşçi yok: mesaj kuyrukta bekler
+        mailSendQueue = newQueue(mailSender, 0, 10);
+        ReflectionTestUtils.setField(mailSendQueue, "sendTimeoutMs", 10L);
+        MimeMessage message = mock(MimeMessage.class);
+
+        assertThrows(MailSendException.class, () -> mailSendQueue.send(message));
+
+        @SuppressWarnings("unchecked")
+        BlockingQueue<MailSendQueue.PendingMail> queued =
+                (BlockingQueue<MailSendQueue.PendingMail>) ReflectionTestUtils.getField(mailSendQueue, "queue");
+        MailSendQueue.PendingMail pending = queued.poll();
+        assertTrue(pending.delivery().isCancelled());
+        mailSendQueue.deliver(List.of(pending), null);
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+        assertEquals(0.0, meterRegistry.counter("library.emails.smtp.sent").count());
+    }
+
+    @Test
+    void submit_AfterStop_RejectsMessage() {
+        mailSendQueue = newQueue(mock(JavaMailSender.class), 0, 10);
+        mailSendQueue.stop();
+
+        assertThrows(MailSendException.class, () -> mailSendQueue.submit(mock(MimeMessage.class)));
+        assertEquals(1.0, meterRegistry.counter("library.emails.queue.rejected").count());
+        assertEquals(0.0, meterRegistry.get("library.emails.queue.size").gauge().value());
+    }
+
+    private MailSendQueue newQueue(JavaMailSender mailSender, int workers, int capacity) {
+        MailSendQueue queue = new MailSendQueue(mailSender, executor, meterRegistry);
+        ReflectionTestUtils.setField(queue, "workers", workers);
+        ReflectionTestUtils.setField(queue, "queueCapacity", capacity);
+        ReflectionTestUtils.setField(queue, "batchSize", 50);
+        ReflectionTestUtils.setField(queue, "enqueueTimeoutMs", 10L);
+        ReflectionTestUtils.setField(queue, "sendTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(queue, "idleTimeoutMs", 30000L);
+        queue.start();
+        return queue;
+    }
+
+    private static JavaMailSenderImpl mailSender(FakeSmtpServer smtp) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getPort());
+        return mailSender;
+    }
+
+    private static MimeMessage message(JavaMailSender mailSender, String to) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("library@example.com");
+            helper.setTo(to);
+            helper.setSubject("Book Loan Notification");
+            helper.setText("<html><body>Loan notification</body></html>", true);
+            return message;
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
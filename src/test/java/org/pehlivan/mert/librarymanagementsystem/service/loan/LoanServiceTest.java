@@ -10,9 +10,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchItemResultDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanBatchResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.OverdueLoanSummary;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanResponseDto;
 import org.pehlivan.mert.librarymanagementsystem.dto.loan.UserLoanRequestDto;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorCodec;
+import org.pehlivan.mert.librarymanagementsystem.dto.page.CursorPageResponse;
 import org.pehlivan.mert.librarymanagementsystem.exception.book.BookNotAvailableException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanLimitExceededException;
 import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanNotFoundException;
@@ -25,13 +30,24 @@ import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
 import org.pehlivan.mert.librarymanagementsystem.repository.loan.LoanRepository;
 import org.pehlivan.mert.librarymanagementsystem.service.book.BookService;
+import org.pehlivan.mert.librarymanagementsystem.service.email.EmailOutboxService;
 import org.pehlivan.mert.librarymanagementsystem.service.email.EmailService;
 import org.pehlivan.mert.librarymanagementsystem.service.user.UserService;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,6 +61,8 @@ class LoanServiceTest {
     @Mock private BookService bookService;
     @Mock private UserService userService;
     @Mock private EmailService emailService;
+    @Mock private EmailOutboxService emailOutboxService;
+    @Mock private TransactionTemplate transactionTemplate;
     @Mock private MeterRegistry meterRegistry;
     @Mock private Counter loanCounter;
     @Mock private Counter overdueCounter;
@@ -93,6 +111,9 @@ class LoanServiceTest {
 
         when(meterRegistry.counter("library.loans.total")).thenReturn(loanCounter);
         when(meterRegistry.counter("library.loans.overdue")).thenReturn(overdueCounter);
+        when(bookService.decreaseAvailableCount(anyLong())).thenReturn(testBook);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         loanService.init();
     }
 
@@ -114,7 +135,7 @@ class LoanServiceTest {
         assertEquals(LoanStatus.BORROWED, response.getStatus());
 
         verify(bookService).decreaseAvailableCount(testBook.getId());
-        verify(emailService).sendLoanNotification(
+        verify(emailOutboxService).enqueueLoanNotification(
             eq(testUser.getEmail()),
             eq(testUser.getUsername()),
             eq(testBook.getTitle()),
@@ -126,13 +147,13 @@ class LoanServiceTest {
 
     @Test
     void borrowBook_BookNotAvailable() {
-        testBook.setAvailableCount(0);
         when(userService.getUserEntity(1L)).thenReturn(testUser);
-        when(bookService.getBookEntity(1L)).thenReturn(testBook);
+        when(bookService.decreaseAvailableCount(1L))
+                .thenThrow(new BookNotAvailableException("Book is not available for loan"));
 
         assertThrows(BookNotAvailableException.class, () -> loanService.borrowBook(loanRequestDto));
-        verify(bookService, never()).decreaseAvailableCount(anyLong());
-        verify(emailService, never()).sendLoanNotification(anyString(), anyString(), anyString(), any(), any());
+        verify(loanRepository, never()).save(any(Loan.class));
+        verify(emailOutboxService, never()).enqueueLoanNotification(anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -143,7 +164,7 @@ class LoanServiceTest {
 
         assertThrows(LoanLimitExceededException.class, () -> loanService.borrowBook(loanRequestDto));
         verify(bookService, never()).decreaseAvailableCount(anyLong());
-        verify(emailService, never()).sendLoanNotification(anyString(), anyString(), anyString(), any(), any());
+        verify(emailOutboxService, never()).enqueueLoanNotification(anyString(), anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -217,7 +238,7 @@ class LoanServiceTest {
         assertNotNull(response);
         assertEquals(testLoan.getId(), response.getId());
         verify(bookService).decreaseAvailableCount(testBook.getId());
-        verify(emailService).sendLoanNotification(
+        verify(emailOutboxService).enqueueLoanNotification(
             eq(testUser.getEmail()),
             eq(testUser.getUsername()),
             eq(testBook.getTitle()),
@@ -227,40 +248,10 @@ class LoanServiceTest {
         verify(loanCounter).increment();
     }
 
-    @Test
-    void checkAndUpdateOverdueLoans_UpdatesOverdueStatusAndSendsEmail() {
-        LocalDate pastDueDate = LocalDate.now().minusDays(5);
-        Loan overdueLoan = Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDueDate.minusDays(14))
-                .dueDate(pastDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        when(loanRepository.findByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class)))
-                .thenReturn(List.of(overdueLoan));
-        when(loanRepository.save(any(Loan.class))).thenAnswer(i -> i.getArgument(0));
-
-        loanService.checkAndUpdateOverdueLoans();
-
-        verify(loanRepository).save(argThat(loan ->
-                loan.getStatus() == LoanStatus.OVERDUE &&
-                loan.getPenaltyAmount() == 5 * 5.0
-        ));
-        verify(emailService).sendOverdueNotification(
-            eq(testUser.getEmail()),
-            eq(testUser.getUsername()),
-            anyList()
-        );
-        verify(overdueCounter).increment();
-    }
-
     @Test
     void getLoanHistoryByUser_Success() {
         List<Loan> loans = Arrays.asList(testLoan);
-        when(loanRepository.findByUser_Id(1L)).thenReturn(loans);
+        when(loanRepository.findResponsesByUserId(1L)).thenReturn(toResponses(loans));
 
         List<LoanResponseDto> response = loanService.getLoanHistoryByUser(1L);
 
@@ -284,7 +275,7 @@ class LoanServiceTest {
                 .build();
 
         List<Loan> loans = Arrays.asList(overdueLoan);
-        when(loanRepository.findByStatus(LoanStatus.OVERDUE)).thenReturn(loans);
+        when(loanRepository.findResponsesByStatus(LoanStatus.OVERDUE)).thenReturn(toResponses(loans));
 
         List<LoanResponseDto> response = loanService.getLateLoans();
 
@@ -295,78 +286,6 @@ class LoanServiceTest {
         assertEquals(25.0, response.get(0).getPenaltyAmount());
     }
 
-    @Test
-    void generateLoanReport_EmptyLoans() {
-        // Arrange
-        when(loanRepository.findAll()).thenReturn(List.of());
-        when(loanRepository.findByStatus(LoanStatus.OVERDUE)).thenReturn(List.of());
-        when(loanRepository.findByStatus(LoanStatus.BORROWED)).thenReturn(List.of());
-        when(loanRepository.findByStatus(LoanStatus.RETURNED)).thenReturn(List.of());
-
-        // Act & Assert
-        assertThrows(LoanNotFoundException.class, () -> loanService.generateLoanReport());
-    }
-
-    @Test
-    void generateLoanReport_Success() {
-        // Arrange
-        LocalDate today = LocalDate.now();
-        LocalDate pastDate = today.minusDays(20);
-        LocalDate futureDate = today.plusDays(5);
-        
-        // Overdue loan
-        Loan overdueLoan = Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDate)
-                .dueDate(pastDate.plusDays(14))
-                .status(LoanStatus.OVERDUE)
-                .penaltyAmount(30.0)
-                .build();
-
-        // Upcoming due loan
-        Loan upcomingLoan = Loan.builder()
-                .id(2L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(today)
-                .dueDate(futureDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        // Returned loan
-        Loan returnedLoan = Loan.builder()
-                .id(3L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDate)
-                .dueDate(pastDate.plusDays(14))
-                .returnDate(pastDate.plusDays(15))
-                .status(LoanStatus.RETURNED)
-                .build();
-
-        List<Loan> allLoans = Arrays.asList(overdueLoan, upcomingLoan, returnedLoan);
-        when(loanRepository.findAll()).thenReturn(allLoans);
-        when(loanRepository.findByStatus(LoanStatus.OVERDUE)).thenReturn(List.of(overdueLoan));
-        when(loanRepository.findByStatus(LoanStatus.BORROWED)).thenReturn(List.of(upcomingLoan));
-        when(loanRepository.findByStatus(LoanStatus.RETURNED)).thenReturn(List.of(returnedLoan));
-
-        // Act
-        String report = loanService.generateLoanReport();
-
-        // Assert
-        assertNotNull(report);
-        assertTrue(report.contains("KÜTÜPHANE ÖDÜNÇ KİTAP RAPORU"));
-        assertTrue(report.contains("Toplam Ödünç Kitap Sayısı: 3"));
-        assertTrue(report.contains("Geciken Kitap Sayısı: 1"));
-        assertTrue(report.contains("Yaklaşan Son Tarihli Kitap Sayısı: 1"));
-        assertTrue(report.contains("İade Edilen Kitap Sayısı: 1"));
-        assertTrue(report.contains("AKTİF ÖDÜNÇ KİTAPLAR"));
-        assertTrue(report.contains("GECİKEN KİTAPLAR"));
-        assertTrue(report.contains("SON İADE EDİLEN KİTAPLAR"));
-    }
-
     @Test
     void borrowBook_WithCustomBorrowDate() {
         // Arrange
@@ -426,7 +345,7 @@ class LoanServiceTest {
     void getLoanHistoryByUser_NoHistory() {
         // Arrange
         when(userService.getUser(1L)).thenReturn(null);
-        when(loanRepository.findByUser_Id(1L)).thenReturn(List.of());
+        when(loanRepository.findResponsesByUserId(1L)).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(UserLoanHistoryNotFoundException.class, () -> loanService.getLoanHistoryByUser(1L));
@@ -446,54 +365,10 @@ class LoanServiceTest {
         assertThrows(UserNotFoundException.class, () -> loanService.borrowBookForUser(requestDto, 1L));
     }
 
-    @Test
-    void checkAndUpdateOverdueLoans_NoOverdueLoans() {
-        // Arrange
-        when(loanRepository.findByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class)))
-                .thenReturn(List.of());
-
-        // Act
-        loanService.checkAndUpdateOverdueLoans();
-
-        // Assert
-        verify(loanRepository, never()).save(any(Loan.class));
-        verify(emailService, never()).sendOverdueNotification(anyString(), anyString(), anyList());
-        verify(overdueCounter, never()).increment();
-    }
-
-    @Test
-    void checkAndUpdateOverdueLoans_ExceedsMaxEmailDays() {
-        // Arrange
-        LocalDate pastDueDate = LocalDate.now().minusDays(31);
-        Loan overdueLoan = Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDueDate.minusDays(14))
-                .dueDate(pastDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        when(loanRepository.findByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class)))
-                .thenReturn(List.of(overdueLoan));
-        when(loanRepository.save(any(Loan.class))).thenAnswer(i -> i.getArgument(0));
-
-        // Act
-        loanService.checkAndUpdateOverdueLoans();
-
-        // Assert
-        verify(loanRepository).save(argThat(loan ->
-                loan.getStatus() == LoanStatus.OVERDUE &&
-                loan.getPenaltyAmount() == 31 * 5.0
-        ));
-        verify(emailService, never()).sendOverdueNotification(anyString(), anyString(), anyList());
-        verify(overdueCounter).increment();
-    }
-
     @Test
     void getAllLoanHistory_EmptyList() {
         // Arrange
-        when(loanRepository.findAll()).thenReturn(List.of());
+        when(loanRepository.findAllResponses()).thenReturn(List.of());
 
         // Act & Assert
         assertThrows(LoanNotFoundException.class, () -> loanService.getAllLoanHistory());
@@ -506,56 +381,12 @@ class LoanServiceTest {
         when(bookService.getBookEntity(1L)).thenReturn(testBook);
         when(loanRepository.countByUser_IdAndStatus(1L, LoanStatus.BORROWED)).thenReturn(0L);
         when(loanRepository.save(any(Loan.class))).thenReturn(testLoan);
-        doThrow(new BookNotAvailableException("Book is not available"))
-                .when(bookService).decreaseAvailableCount(anyLong());
+        when(bookService.decreaseAvailableCount(anyLong()))
+                .thenThrow(new BookNotAvailableException("Book is not available"));
 
         // Act & Assert
         assertThrows(BookNotAvailableException.class, () -> loanService.borrowBook(loanRequestDto));
-        verify(loanRepository).delete(testLoan);
-    }
-
-    @Test
-    void checkAndUpdateOverdueLoans_WithMultipleOverdueLoans() {
-        // Arrange
-        LocalDate pastDueDate = LocalDate.now().minusDays(5);
-        LocalDate olderDueDate = LocalDate.now().minusDays(15);
-        
-        Loan overdueLoan1 = Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDueDate.minusDays(14))
-                .dueDate(pastDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        Loan overdueLoan2 = Loan.builder()
-                .id(2L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(olderDueDate.minusDays(14))
-                .dueDate(olderDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        when(loanRepository.findByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class)))
-                .thenReturn(Arrays.asList(overdueLoan1, overdueLoan2));
-        when(loanRepository.save(any(Loan.class))).thenAnswer(i -> i.getArgument(0));
-
-        // Act
-        loanService.checkAndUpdateOverdueLoans();
-
-        // Assert
-        verify(loanRepository, times(2)).save(argThat(loan ->
-                loan.getStatus() == LoanStatus.OVERDUE &&
-                loan.getPenaltyAmount() > 0
-        ));
-        verify(emailService, times(2)).sendOverdueNotification(
-            eq(testUser.getEmail()),
-            eq(testUser.getUsername()),
-            anyList()
-        );
-        verify(overdueCounter, times(2)).increment();
+        verify(loanRepository, never()).save(any(Loan.class));
     }
 
     @Test
@@ -642,7 +473,7 @@ class LoanServiceTest {
         );
 
         when(userService.getUserEntity(1L)).thenReturn(testUser);
-        when(loanRepository.findByUser_Id(1L)).thenReturn(loans);
+        when(loanRepository.findResponsesByUserId(1L)).thenReturn(toResponses(loans));
 
         // Act
         List<LoanResponseDto> response = loanService.getLoanHistoryByUser(1L);
@@ -672,101 +503,6 @@ class LoanServiceTest {
         });
     }
 
-    @Test
-    void generateLoanReport_WithAllLoanTypes() {
-        // Arrange
-        LocalDate today = LocalDate.now();
-        LocalDate pastDate = today.minusDays(20);
-        LocalDate futureDate = today.plusDays(5);
-        
-        List<Loan> loans = Arrays.asList(
-            // Overdue loan
-            Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDate)
-                .dueDate(pastDate.plusDays(14))
-                .status(LoanStatus.OVERDUE)
-                .penaltyAmount(30.0)
-                .build(),
-            // Upcoming due loan
-            Loan.builder()
-                .id(2L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(today)
-                .dueDate(futureDate)
-                .status(LoanStatus.BORROWED)
-                .build(),
-            // Returned loan
-            Loan.builder()
-                .id(3L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDate)
-                .dueDate(pastDate.plusDays(14))
-                .returnDate(pastDate.plusDays(15))
-                .status(LoanStatus.RETURNED)
-                .build(),
-            // Active loan
-            Loan.builder()
-                .id(4L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(today.minusDays(5))
-                .dueDate(today.plusDays(9))
-                .status(LoanStatus.BORROWED)
-                .build()
-        );
-
-        when(loanRepository.findAll()).thenReturn(loans);
-        when(loanRepository.findByStatus(LoanStatus.OVERDUE)).thenReturn(List.of(loans.get(0)));
-        when(loanRepository.findByStatus(LoanStatus.BORROWED)).thenReturn(Arrays.asList(loans.get(1), loans.get(3)));
-        when(loanRepository.findByStatus(LoanStatus.RETURNED)).thenReturn(List.of(loans.get(2)));
-
-        // Act
-        String report = loanService.generateLoanReport();
-
-        // Assert
-        assertNotNull(report);
-        assertTrue(report.contains("Toplam Ödünç Kitap Sayısı: 4"));
-        assertTrue(report.contains("Aktif Ödünç Kitap Sayısı: 2"));
-        assertTrue(report.contains("Geciken Kitap Sayısı: 1"));
-        assertTrue(report.contains("İade Edilen Kitap Sayısı: 1"));
-        assertTrue(report.contains("AKTİF ÖDÜNÇ KİTAPLAR"));
-        assertTrue(report.contains("GECİKEN KİTAPLAR"));
-        assertTrue(report.contains("SON İADE EDİLEN KİTAPLAR"));
-    }
-
-    @Test
-    void checkAndUpdateOverdueLoans_WithEmailNotification() {
-        // Arrange
-        LocalDate pastDueDate = LocalDate.now().minusDays(5);
-        Loan overdueLoan = Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDueDate.minusDays(14))
-                .dueDate(pastDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        when(loanRepository.findByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class)))
-                .thenReturn(List.of(overdueLoan));
-        when(loanRepository.save(any(Loan.class))).thenReturn(overdueLoan);
-
-        // Act
-        loanService.checkAndUpdateOverdueLoans();
-
-        // Assert
-        verify(emailService).sendOverdueNotification(
-            eq(testUser.getEmail()),
-            eq(testUser.getUsername()),
-            anyList()
-        );
-    }
-
     @Test
     void borrowBook_WithEmailNotification() {
         // Arrange
@@ -779,7 +515,7 @@ class LoanServiceTest {
         loanService.borrowBook(loanRequestDto);
 
         // Assert
-        verify(emailService).sendLoanNotification(
+        verify(emailOutboxService).enqueueLoanNotification(
             eq(testUser.getEmail()),
             eq(testUser.getUsername()),
             eq(testBook.getTitle()),
@@ -833,7 +569,8 @@ class LoanServiceTest {
         // Arrange
         testBook.setAvailableCount(0);
         when(userService.getUserEntity(1L)).thenReturn(testUser);
-        when(bookService.getBookEntity(1L)).thenReturn(testBook);
+        when(bookService.decreaseAvailableCount(1L))
+                .thenThrow(new BookNotAvailableException("Book is not available for loan"));
 
         // Act & Assert
         assertThrows(BookNotAvailableException.class, () -> loanService.borrowBook(loanRequestDto));
@@ -844,7 +581,8 @@ class LoanServiceTest {
         // Arrange
         testBook.setAvailableCount(-1);
         when(userService.getUserEntity(1L)).thenReturn(testUser);
-        when(bookService.getBookEntity(1L)).thenReturn(testBook);
+        when(bookService.decreaseAvailableCount(1L))
+                .thenThrow(new BookNotAvailableException("Book is not available for loan"));
 
         // Act & Assert
         assertThrows(BookNotAvailableException.class, () -> loanService.borrowBook(loanRequestDto));
@@ -872,49 +610,6 @@ class LoanServiceTest {
         assertEquals(500.0, response.getPenaltyAmount());
     }
 
-    @Test
-    void checkAndUpdateOverdueLoans_WithMultipleUsers() {
-        // Arrange
-        User user2 = User.builder()
-                .id(2L)
-                .username("testuser2")
-                .email("test2@example.com")
-                .build();
-
-        LocalDate pastDueDate = LocalDate.now().minusDays(5);
-        Loan overdueLoan1 = Loan.builder()
-                .id(1L)
-                .book(testBook)
-                .user(testUser)
-                .borrowedDate(pastDueDate.minusDays(14))
-                .dueDate(pastDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        Loan overdueLoan2 = Loan.builder()
-                .id(2L)
-                .book(testBook)
-                .user(user2)
-                .borrowedDate(pastDueDate.minusDays(14))
-                .dueDate(pastDueDate)
-                .status(LoanStatus.BORROWED)
-                .build();
-
-        when(loanRepository.findByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class)))
-                .thenReturn(Arrays.asList(overdueLoan1, overdueLoan2));
-        when(loanRepository.save(any(Loan.class))).thenAnswer(i -> i.getArgument(0));
-
-        // Act
-        loanService.checkAndUpdateOverdueLoans();
-
-        // Assert
-        verify(emailService, times(2)).sendOverdueNotification(
-            anyString(),
-            anyString(),
-            anyList()
-        );
-    }
-
     @Test
     void borrowBook_WithCustomBorrowDateAndDueDate() {
         // Arrange
@@ -941,4 +636,305 @@ class LoanServiceTest {
         assertEquals(customBorrowDate, response.getBorrowedDate());
         assertEquals(customDueDate, response.getDueDate());
     }
+    @Test
+    void checkAndUpdateOverdueLoans_UpdatesOverdueStatusAndSendsEmail() {
+        LocalDate pastDueDate = LocalDate.now().minusDays(5);
+        when(loanRepository.findUserIdsByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(loanRepository.findSummariesByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(List.of(1L))))
+                .thenReturn(List.of(overdueSummary(1L, testUser, pastDueDate)));
+        when(loanRepository.markOverdueByDueDate(eq(List.of(1L)), eq(pastDueDate), anyDouble(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        loanService.checkAndUpdateOverdueLoans();
+
+        verify(loanRepository).markOverdueByDueDate(eq(List.of(1L)), eq(pastDueDate), eq(5 * 5.0), any(LocalDateTime.class));
+        verify(loanRepository, never()).save(any(Loan.class));
+        verify(emailOutboxService).enqueueOverdueNotification(
+            eq(testUser.getEmail()),
+            eq(testUser.getUsername()),
+            argThat(books -> books.size() == 1 && books.get(0).getPenaltyAmount() == 5 * 5.0)
+        );
+        verify(emailService, never()).sendOverdueNotification(anyString(), anyString(), anyList());
+        verify(overdueCounter).increment(1.0);
+    }
+
+    @Test
+    void checkAndUpdateOverdueLoans_NoOverdueLoans() {
+        // Arrange
+        when(loanRepository.findUserIdsByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // Act
+        loanService.checkAndUpdateOverdueLoans();
+
+        // Assert
+        verify(transactionTemplate, never()).execute(any());
+        verify(loanRepository, never()).markOverdueByDueDate(anyCollection(), any(), anyDouble(), any());
+        verify(emailOutboxService, never()).enqueueOverdueNotification(anyString(), anyString(), anyList());
+        verify(overdueCounter, never()).increment(anyDouble());
+    }
+
+    @Test
+    void checkAndUpdateOverdueLoans_ExceedsMaxEmailDays() {
+        // Arrange
+        LocalDate pastDueDate = LocalDate.now().minusDays(31);
+        when(loanRepository.findUserIdsByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(loanRepository.findSummariesByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(List.of(1L))))
+                .thenReturn(List.of(overdueSummary(1L, testUser, pastDueDate)));
+        when(loanRepository.markOverdueByDueDate(anyCollection(), any(LocalDate.class), anyDouble(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        // Act
+        loanService.checkAndUpdateOverdueLoans();
+
+        // Assert
+        verify(loanRepository).markOverdueByDueDate(eq(List.of(1L)), eq(pastDueDate), eq(31 * 5.0), any(LocalDateTime.class));
+        verify(emailOutboxService, never()).enqueueOverdueNotification(anyString(), anyString(), anyList());
+        verify(overdueCounter).increment(1.0);
+    }
+
+    @Test
+    void checkAndUpdateOverdueLoans_WithMultipleOverdueLoans() {
+        // Arrange
+        LocalDate pastDueDate = LocalDate.now().minusDays(5);
+        LocalDate olderDueDate = LocalDate.now().minusDays(15);
+        when(loanRepository.findUserIdsByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(loanRepository.findSummariesByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(List.of(1L))))
+                .thenReturn(List.of(
+                        overdueSummary(1L, testUser, pastDueDate),
+                        overdueSummary(2L, testUser, olderDueDate)));
+        when(loanRepository.markOverdueByDueDate(anyCollection(), any(LocalDate.class), anyDouble(), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        // Act
+        loanService.checkAndUpdateOverdueLoans();
+
+        // Assert: son tarih başına bir UPDATE, kullanıcı başına tek e-posta
+        verify(loanRepository).markOverdueByDueDate(eq(List.of(1L)), eq(pastDueDate), eq(5 * 5.0), any(LocalDateTime.class));
+        verify(loanRepository).markOverdueByDueDate(eq(List.of(1L)), eq(olderDueDate), eq(15 * 5.0), any(LocalDateTime.class));
+        verify(emailOutboxService, times(1)).enqueueOverdueNotification(
+            eq(testUser.getEmail()),
+            eq(testUser.getUsername()),
+            argThat(books -> books.size() == 2)
+        );
+        verify(overdueCounter).increment(2.0);
+    }
+
+    @Test
+    void checkAndUpdateOverdueLoans_WithMultipleUsers() {
+        // Arrange
+        User user2 = User.builder()
+                .id(2L)
+                .username("testuser2")
+                .email("test2@example.com")
+                .build();
+
+        LocalDate pastDueDate = LocalDate.now().minusDays(5);
+        when(loanRepository.findUserIdsByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(loanRepository.findSummariesByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(List.of(1L, 2L))))
+                .thenReturn(List.of(
+                        overdueSummary(1L, testUser, pastDueDate),
+                        overdueSummary(2L, user2, pastDueDate)));
+        when(loanRepository.markOverdueByDueDate(anyCollection(), any(LocalDate.class), anyDouble(), any(LocalDateTime.class)))
+                .thenReturn(2);
+
+        // Act
+        loanService.checkAndUpdateOverdueLoans();
+
+        // Assert
+        verify(loanRepository, times(1)).markOverdueByDueDate(eq(List.of(1L, 2L)), eq(pastDueDate), eq(5 * 5.0), any(LocalDateTime.class));
+        verify(emailOutboxService).enqueueOverdueNotification(eq(testUser.getEmail()), eq(testUser.getUsername()), anyList());
+        verify(emailOutboxService).enqueueOverdueNotification(eq(user2.getEmail()), eq(user2.getUsername()), anyList());
+        // Bir sonraki parça son kullanıcı id'sinden devam eder
+        verify(loanRepository).findUserIdsByStatusAndDueDateBefore(eq(LoanStatus.BORROWED), any(LocalDate.class), eq(2L), any(Pageable.class));
+    }
+
+    private OverdueLoanSummary overdueSummary(Long loanId, User user, LocalDate dueDate) {
+        return OverdueLoanSummary.builder()
+                .loanId(loanId)
+                .userId(user.getId())
+                .email(user.getEmail())
+                .username(user.getUsername())
+                .bookTitle(testBook.getTitle())
+                .borrowedDate(dueDate.minusDays(14))
+                .dueDate(dueDate)
+                .build();
+    }
+
+    @Test
+    void getAllLoanHistoryByCursor_FirstPage_StartsFromNewestLoan() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"));
+        when(loanRepository.findByIdLessThan(Long.MAX_VALUE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(testLoan), pageable, true));
+
+        CursorPageResponse<LoanResponseDto> response = loanService.getAllLoanHistoryByCursor(null, 1, false);
+
+        assertEquals(1, response.getContent().size());
+        assertTrue(response.isHasNext());
+        assertEquals(testLoan.getId(), CursorCodec.decode(response.getNextCursor()));
+        assertNull(response.getTotalElements());
+        verify(loanRepository, never()).count();
+    }
+
+    @Test
+    void getLoanHistoryByUserCursor_NextPage_SeeksBeforeCursorAndCounts() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id"));
+        when(loanRepository.findByUser_IdAndIdLessThan(1L, 9L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(loanRepository.countByUser_Id(1L)).thenReturn(3L);
+
+        CursorPageResponse<LoanResponseDto> response =
+                loanService.getLoanHistoryByUserCursor(1L, CursorCodec.encode(9L), 20, true);
+
+        // Boş sayfa hata değil, son sayfadır
+        assertTrue(response.getContent().isEmpty());
+        assertFalse(response.isHasNext());
+        assertNull(response.getNextCursor());
+        assertEquals(3L, response.getTotalElements());
+    }
+
+    @Test
+    void borrowBooks_ReportsEachItemAndSendsOneEmailPerUser() {
+        User otherUser = User.builder().id(2L).username("other").email("other@example.com").build();
+        Book secondBook = Book.builder().id(2L).title("Second Book").availableCount(1).stock(1).build();
+        List<LoanRequestDto> requests = List.of(
+                LoanRequestDto.builder().userId(1L).bookId(1L).borrowedDate(fixedDate).build(),
+                LoanRequestDto.builder().userId(1L).bookId(2L).borrowedDate(fixedDate).build(),
+                LoanRequestDto.builder().userId(2L).bookId(1L).borrowedDate(fixedDate).build(),
+                LoanRequestDto.builder().userId(9L).bookId(1L).borrowedDate(fixedDate).build());
+
+        when(userService.getUserEntities(anyCollection())).thenReturn(Map.of(1L, testUser, 2L, otherUser));
+        when(loanRepository.countByUserIdsAndStatusesGrouped(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LoanStatus.BORROWED, 1L}));
+        // Kitap 1'den iki kopya istenir, yalnızca bir kopya kalmıştır
+        when(bookService.decreaseAvailableCounts(Map.of(1L, 2, 2L, 1))).thenReturn(Map.of(1L, 1, 2L, 1));
+        when(bookService.getBookEntities(anyCollection())).thenReturn(Map.of(1L, testBook, 2L, secondBook));
+        when(loanRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoanBatchResponseDto response = loanService.borrowBooks(requests);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        List<LoanBatchItemResultDto> results = response.getResults();
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(fixedDate.plusDays(14), results.get(0).getLoan().getDueDate());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(2L, results.get(1).getLoan().getBookId());
+        assertEquals(400, results.get(2).getErrorStatus());
+        assertEquals("Book is not available for loan", results.get(2).getError());
+        assertEquals(404, results.get(3).getErrorStatus());
+
+        verify(loanCounter).increment(2.0);
+        verify(emailOutboxService).enqueueLoanSummaryNotification(eq(testUser.getEmail()), eq(testUser.getUsername()),
+                argThat(books -> books.size() == 2));
+        verify(emailOutboxService, never()).enqueueLoanNotification(anyString(), anyString(), anyString(), any(), any());
+        verify(bookService, never()).decreaseAvailableCount(anyLong());
+    }
+
+    @Test
+    void borrowBooks_LoanLimitCountsEarlierItemsOfTheBatch() {
+        List<LoanRequestDto> requests = List.of(
+                LoanRequestDto.builder().userId(1L).bookId(1L).borrowedDate(fixedDate).build(),
+                LoanRequestDto.builder().userId(1L).bookId(1L).borrowedDate(fixedDate).build());
+
+        when(userService.getUserEntities(anyCollection())).thenReturn(Map.of(1L, testUser));
+        when(loanRepository.countByUserIdsAndStatusesGrouped(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LoanStatus.BORROWED, 2L}));
+        when(bookService.decreaseAvailableCounts(Map.of(1L, 1))).thenReturn(Map.of(1L, 1));
+        when(bookService.getBookEntities(anyCollection())).thenReturn(Map.of(1L, testBook));
+        when(loanRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoanBatchResponseDto response = loanService.borrowBooks(requests);
+
+        assertTrue(response.getResults().get(0).isSuccess());
+        assertEquals("User has reached maximum loan limit of 3", response.getResults().get(1).getError());
+        verify(emailOutboxService).enqueueLoanNotification(testUser.getEmail(), testUser.getUsername(),
+                testBook.getTitle(), fixedDate, fixedDate.plusDays(14));
+    }
+
+    @Test
+    void borrowBooks_OutOfStockItemDoesNotUseLoanLimitSlot() {
+        Book secondBook = Book.builder().id(2L).title("Second Book").availableCount(1).stock(1).build();
+        List<LoanRequestDto> requests = List.of(
+                LoanRequestDto.builder().userId(1L).bookId(1L).borrowedDate(fixedDate).build(),
+                LoanRequestDto.builder().userId(1L).bookId(2L).borrowedDate(fixedDate).build());
+
+        when(userService.getUserEntities(anyCollection())).thenReturn(Map.of(1L, testUser));
+        when(loanRepository.countByUserIdsAndStatusesGrouped(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LoanStatus.BORROWED, 2L}));
+        // Kitap 1'de kopya kalmamıştır; boşalan hak kitap 2 için kullanılır
+        when(bookService.decreaseAvailableCounts(Map.of(1L, 1))).thenReturn(Map.of(1L, 0));
+        when(bookService.decreaseAvailableCounts(Map.of(2L, 1))).thenReturn(Map.of(2L, 1));
+        when(bookService.getBookEntities(anyCollection())).thenReturn(Map.of(2L, secondBook));
+        when(loanRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoanBatchResponseDto response = loanService.borrowBooks(requests);
+
+        assertEquals("Book is not available for loan", response.getResults().get(0).getError());
+        assertTrue(response.getResults().get(1).isSuccess());
+        assertEquals(2L, response.getResults().get(1).getLoan().getBookId());
+        verify(emailOutboxService).enqueueLoanNotification(testUser.getEmail(), testUser.getUsername(),
+                secondBook.getTitle(), fixedDate, fixedDate.plusDays(14));
+    }
+
+    @Test
+    void borrowBooks_UserWithOverdueLoans_TouchesNoStock() {
+        when(userService.getUserEntities(anyCollection())).thenReturn(Map.of(1L, testUser));
+        when(loanRepository.countByUserIdsAndStatusesGrouped(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, LoanStatus.OVERDUE, 1L}));
+        when(bookService.getBookEntities(anyCollection())).thenReturn(Map.of());
+        when(loanRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LoanBatchResponseDto response = loanService.borrowBooks(List.of(loanRequestDto));
+
+        assertEquals(0, response.getSucceeded());
+        assertEquals(400, response.getResults().get(0).getErrorStatus());
+        verify(bookService, never()).decreaseAvailableCounts(anyMap());
+        verifyNoInteractions(emailOutboxService);
+    }
+
+    @Test
+    void returnBooks_ReportsEachItemAndUpdatesStockOncePerBook() {
+        LocalDate dueDate = LocalDate.now().minusDays(4);
+        Loan overdueLoan = Loan.builder().id(2L).book(testBook).user(testUser)
+                .borrowedDate(dueDate.minusDays(14)).dueDate(dueDate).status(LoanStatus.OVERDUE).penaltyAmount(15.0).build();
+        Loan returnedLoan = Loan.builder().id(3L).book(testBook).user(testUser)
+                .borrowedDate(fixedDate).dueDate(fixedDate.plusDays(14)).status(LoanStatus.RETURNED).build();
+
+        when(loanRepository.findByIdIn(anyCollection())).thenReturn(List.of(testLoan, overdueLoan, returnedLoan));
+        when(bookService.increaseAvailableCounts(Map.of(1L, 2))).thenReturn(Set.of(1L));
+
+        LoanBatchResponseDto response = loanService.returnBooks(Arrays.asList(1L, 2L, 3L, 1L, 99L));
+
+        List<LoanBatchItemResultDto> results = response.getResults();
+        assertEquals(2, response.getSucceeded());
+        assertEquals(LoanStatus.RETURNED, results.get(0).getLoan().getStatus());
+        assertEquals(15.0, results.get(1).getLoan().getPenaltyAmount());
+        assertEquals("Loan with id 3 is already returned", results.get(2).getError());
+        assertEquals(400, results.get(3).getErrorStatus());
+        assertEquals(404, results.get(4).getErrorStatus());
+        verify(loanRepository).saveAll(List.of(testLoan, overdueLoan));
+        verify(bookService, never()).increaseAvailableCount(anyLong());
+    }
+
+    @Test
+    void returnBooks_StockCannotBeIncreased_LeavesLoanOpen() {
+        when(loanRepository.findByIdIn(anyCollection())).thenReturn(List.of(testLoan));
+        when(bookService.increaseAvailableCounts(Map.of(1L, 1))).thenReturn(Set.of());
+
+        LoanBatchResponseDto response = loanService.returnBooks(List.of(1L));
+
+        assertEquals(1, response.getFailed());
+        assertEquals("Available count cannot exceed stock", response.getResults().get(0).getError());
+        assertEquals(LoanStatus.BORROWED, testLoan.getStatus());
+    }
+
+    // Repository projeksiyonu ile aynı alanlar
+    private List<LoanResponseDto> toResponses(List<Loan> loans) {
+        return loans.stream().map(loanService::convertToDto).toList();
+    }
 }
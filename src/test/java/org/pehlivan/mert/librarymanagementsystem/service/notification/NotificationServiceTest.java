@@ -1,22 +1,29 @@
 package org.pehlivan.mert.librarymanagementsystem.service.notification;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.pehlivan.mert.librarymanagementsystem.dto.user.UserRegistrationNotification;
 import org.pehlivan.mert.librarymanagementsystem.service.email.EmailService;
-import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -27,141 +34,163 @@ class NotificationServiceTest {
     private EmailService emailService;
 
     @Mock
-    private MeterRegistry meterRegistry;
-
-    @Mock
-    private Counter notificationsReceivedCounter;
-
-    @Mock
-    private Counter notificationsProcessedCounter;
+    private ConsumerRecordRecoverer deadLetterRecoverer;
 
-    @Mock
-    private Counter notificationErrorsCounter;
-
-    @Mock
-    private Acknowledgment acknowledgment;
-
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
     private NotificationService notificationService;
 
     private UserRegistrationNotification validNotification;
-    private UserRegistrationNotification invalidNotification;
 
     @BeforeEach
     void setUp() {
-        // Setup valid notification
         validNotification = UserRegistrationNotification.builder()
                 .email("test@example.com")
                 .username("testuser")
                 .build();
 
-        // Setup invalid notification
-        invalidNotification = UserRegistrationNotification.builder()
-                .email(null)
-                .username(null)
-                .build();
-
-        // Setup meter registry mocks
-        when(meterRegistry.counter("library.notifications.received")).thenReturn(notificationsReceivedCounter);
-        when(meterRegistry.counter("library.notifications.processed")).thenReturn(notificationsProcessedCounter);
-        when(meterRegistry.counter("library.notifications.errors")).thenReturn(notificationErrorsCounter);
-
-        // Initialize counters
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.initialize();
+        notificationService = new NotificationService(emailService, meterRegistry, executor, deadLetterRecoverer);
+        ReflectionTestUtils.setField(notificationService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(notificationService, "retryBackoffMs", 1L);
         notificationService.init();
     }
 
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
     @Test
-    void handleUserRegistration_Success() {
-        // Act
-        notificationService.handleUserRegistration(validNotification, acknowledgment);
+    void handleUserRegistrations_Success() {
+        notificationService.handleUserRegistrations(List.of(record(0, validNotification)));
 
-        // Assert
         verify(emailService).sendWelcomeEmail(validNotification.getEmail(), validNotification.getUsername());
-        verify(notificationsReceivedCounter).increment();
-        verify(notificationsProcessedCounter).increment();
-        verify(notificationErrorsCounter, never()).increment();
-        verify(acknowledgment).acknowledge();
+        verifyNoInteractions(deadLetterRecoverer);
+        assertEquals(1.0, counter("library.notifications.received"));
+        assertEquals(1.0, counter("library.notifications.processed"));
+        assertEquals(0.0, counter("library.notifications.errors"));
+    }
+
+    @Test
+    void handleUserRegistrations_ProcessesWholeBatch() {
+        List<ConsumerRecord<String, UserRegistrationNotification>> records = IntStream.range(0, 50)
+                .mapToObj(i -> record(i, UserRegistrationNotification.builder()
+                        .email("user" + i + "@example.com").username("user" + i).build()))
+                .toList();
+
+        notificationService.handleUserRegistrations(records);
+
+        verify(emailService, times(50)).sendWelcomeEmail(anyString(), anyString());
+        verify(emailService).sendWelcomeEmail("user49@example.com", "user49");
+        assertEquals(50.0, counter("library.notifications.processed"));
     }
 
     @Test
-    void handleUserRegistration_InvalidData() {
-        // Act
-        notificationService.handleUserRegistration(invalidNotification, acknowledgment);
+    void handleUserRegistrations_InvalidData_GoesToDeadLetterTopic() {
+        UserRegistrationNotification invalidNotification = UserRegistrationNotification.builder().build();
+        ConsumerRecord<String, UserRegistrationNotification> invalid = record(1, invalidNotification);
+
+        notificationService.handleUserRegistrations(List.of(record(0, validNotification), invalid));
+
+        verify(emailService, times(1)).sendWelcomeEmail(anyString(), anyString());
+        verify(deadLetterRecoverer).accept(eq(invalid), any(IllegalArgumentException.class));
+        assertEquals(1.0, counter("library.notifications.errors"));
+        assertEquals(1.0, counter("library.notifications.dead.lettered"));
+    }
+
+    @Test
+    void handleUserRegistrations_NullNotification_GoesToDeadLetterTopic() {
+        ConsumerRecord<String, UserRegistrationNotification> unreadable = record(0, null);
+
+        notificationService.handleUserRegistrations(List.of(unreadable));
 
-        // Assert
         verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
-        verify(notificationsReceivedCounter).increment();
-        verify(notificationsProcessedCounter, never()).increment();
-        verify(notificationErrorsCounter).increment();
-        verify(acknowledgment).acknowledge();
+        verify(deadLetterRecoverer).accept(eq(unreadable), any(IllegalArgumentException.class));
     }
 
     @Test
-    void handleUserRegistration_NullNotification() {
-        // Act
-        notificationService.handleUserRegistration(null, acknowledgment);
+    void handleUserRegistrations_NullEmailOrUsername_GoesToDeadLetterTopic() {
+        ConsumerRecord<String, UserRegistrationNotification> nullEmail =
+                record(0, UserRegistrationNotification.builder().username("testuser").build());
+        ConsumerRecord<String, UserRegistrationNotification> nullUsername =
+                record(1, UserRegistrationNotification.builder().email("test@example.com").build());
+
+        notificationService.handleUserRegistrations(List.of(nullEmail, nullUsername));
 
-        // Assert
         verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
-        verify(notificationsReceivedCounter).increment();
-        verify(notificationsProcessedCounter, never()).increment();
-        verify(notificationErrorsCounter).increment();
-        verify(acknowledgment).acknowledge();
+        verify(deadLetterRecoverer).accept(eq(nullEmail), any());
+        verify(deadLetterRecoverer).accept(eq(nullUsername), any());
+        assertEquals(2.0, counter("library.notifications.errors"));
     }
 
     @Test
-    void handleUserRegistration_EmailServiceThrowsException() {
-        // Arrange
-        doThrow(new RuntimeException("Email service error"))
-                .when(emailService)
-                .sendWelcomeEmail(anyString(), anyString());
+    void handleUserRegistrations_EmailFailsTransiently_IsRetried() {
+        doThrow(new RuntimeException("SMTP timeout"))
+                .doNothing()
+                .when(emailService).sendWelcomeEmail(anyString(), anyString());
 
-        // Act
-        notificationService.handleUserRegistration(validNotification, acknowledgment);
+        notificationService.handleUserRegistrations(List.of(record(0, validNotification)));
 
-        // Assert
-        verify(emailService).sendWelcomeEmail(validNotification.getEmail(), validNotification.getUsername());
-        verify(notificationsReceivedCounter).increment();
-        verify(notificationsProcessedCounter, never()).increment();
-        verify(notificationErrorsCounter).increment();
-        verify(acknowledgment).acknowledge();
+        verify(emailService, times(2)).sendWelcomeEmail(validNotification.getEmail(), validNotification.getUsername());
+        verifyNoInteractions(deadLetterRecoverer);
+        assertEquals(1.0, counter("library.notifications.processed"));
     }
 
     @Test
-    void handleUserRegistration_NullEmail() {
-        // Arrange
-        UserRegistrationNotification notificationWithNullEmail = UserRegistrationNotification.builder()
-                .email(null)
-                .username("testuser")
-                .build();
+    void handleUserRegistrations_EmailKeepsFailing_GoesToDeadLetterTopic() {
+        RuntimeException failure = new RuntimeException("Email service error");
+        doThrow(failure).when(emailService).sendWelcomeEmail(anyString(), anyString());
+        ConsumerRecord<String, UserRegistrationNotification> record = record(0, validNotification);
 
-        // Act
-        notificationService.handleUserRegistration(notificationWithNullEmail, acknowledgment);
+        notificationService.handleUserRegistrations(List.of(record));
 
-        // Assert
-        verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
-        verify(notificationsReceivedCounter).increment();
-        verify(notificationsProcessedCounter, never()).increment();
-        verify(notificationErrorsCounter).increment();
-        verify(acknowledgment).acknowledge();
+        verify(emailService, times(3)).sendWelcomeEmail(validNotification.getEmail(), validNotification.getUsername());
+        verify(deadLetterRecoverer).accept(record, failure);
+        assertEquals(0.0, counter("library.notifications.processed"));
+        assertEquals(1.0, counter("library.notifications.errors"));
     }
 
     @Test
-    void handleUserRegistration_NullUsername() {
-        // Arrange
-        UserRegistrationNotification notificationWithNullUsername = UserRegistrationNotification.builder()
-                .email("test@example.com")
-                .username(null)
-                .build();
+    void handleUserRegistrations_DeadLetterTopicUnavailable_FailsBatch() {
+        doThrow(new IllegalStateException("DLT unavailable")).when(deadLetterRecoverer).accept(any(), any());
 
-        // Act
-        notificationService.handleUserRegistration(notificationWithNullUsername, acknowledgment);
+        // Parti commit edilmemeli; hata konteynerin hata yöneticisine kaydın sırasıyla iletilir
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> notificationService.handleUserRegistrations(List.of(record(0, null))));
+        assertEquals(0, failure.getIndex());
+    }
 
-        // Assert
-        verify(emailService, never()).sendWelcomeEmail(anyString(), anyString());
-        verify(notificationsReceivedCounter).increment();
-        verify(notificationsProcessedCounter, never()).increment();
-        verify(notificationErrorsCounter).increment();
-        verify(acknowledgment).acknowledge();
+    @Test
+    void handleUserRegistrations_RedeliveredAfterDeadLetterFailure_SkipsAlreadySentEmails() {
+        ConsumerRecord<String, UserRegistrationNotification> first = record(0, validNotification);
+        ConsumerRecord<String, UserRegistrationNotification> unreadable = record(1, null);
+        ConsumerRecord<String, UserRegistrationNotification> last = record(2, UserRegistrationNotification.builder()
+                .email("last@example.com").username("last").build());
+        doThrow(new IllegalStateException("DLT unavailable")).doNothing()
+                .when(deadLetterRecoverer).accept(any(), any());
+
+        BatchListenerFailedException failure = assertThrows(BatchListenerFailedException.class,
+                () -> notificationService.handleUserRegistrations(List.of(first, unreadable, last)));
+        assertEquals(1, failure.getIndex());
+
+        // Hata yöneticisi 0'ı commit eder, partiyi başarısız kayıttan itibaren yeniden teslim eder
+        notificationService.handleUserRegistrations(List.of(unreadable, last));
+
+        verify(emailService, times(1)).sendWelcomeEmail("last@example.com", "last");
+        verify(emailService, times(1)).sendWelcomeEmail(validNotification.getEmail(), validNotification.getUsername());
+        verify(deadLetterRecoverer, times(2)).accept(eq(unreadable), any());
+    }
+
+    private ConsumerRecord<String, UserRegistrationNotification> record(long offset, UserRegistrationNotification value) {
+        return new ConsumerRecord<>("user-registration", 0, offset, null, value);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package org.pehlivan.mert.librarymanagementsystem.service.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private ObjectProvider<ProxyManager<String>> proxyManagerProvider;
+
+    @Mock
+    private ProxyManager<String> proxyManager;
+
+    @Mock
+    private RemoteBucketBuilder<String> remoteBucketBuilder;
+
+    @Mock
+    private BucketProxy bucketProxy;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        Map<RateLimitGroup, BucketConfiguration> configurations = new EnumMap<>(RateLimitGroup.class);
+        configurations.put(RateLimitGroup.AUTH, configuration(2));
+        configurations.put(RateLimitGroup.WRITE, configuration(3));
+        configurations.put(RateLimitGroup.READ, configuration(5));
+
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService(proxyManagerProvider, configurations, meterRegistry);
+        ReflectionTestUtils.setField(rateLimitService, "localIdleTimeout", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(rateLimitService, "localMaxEntries", 1000L);
+        ReflectionTestUtils.setField(rateLimitService, "redisRetryInterval", Duration.ofSeconds(30));
+        rateLimitService.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tryConsume_RedisAvailable_ReusesProxyPerClientAndGroup() {
+        ConsumptionProbe probe = ConsumptionProbe.consumed(4, 0);
+        when(proxyManagerProvider.getObject()).thenReturn(proxyManager);
+        when(proxyManager.builder()).thenReturn(remoteBucketBuilder);
+        when(remoteBucketBuilder.build(anyString(), any(Supplier.class))).thenReturn(bucketProxy);
+        when(bucketProxy.tryConsumeAndReturnRemaining(1)).thenReturn(probe);
+
+        assertSame(probe, rateLimitService.tryConsume("ip:10.0.0.1", RateLimitGroup.READ));
+        assertSame(probe, rateLimitService.tryConsume("ip:10.0.0.1", RateLimitGroup.READ));
+
+        verify(remoteBucketBuilder, times(1)).build(eq("rate-limit:read:ip:10.0.0.1"), any(Supplier.class));
+        verify(bucketProxy, times(2)).tryConsumeAndReturnRemaining(1);
+    }
+
+    @Test
+    void tryConsume_RedisUnavailable_FallsBackToLocalBucketsPerClient() {
+        when(proxyManagerProvider.getObject()).thenThrow(new IllegalStateException("Connection refused"));
+
+        assertTrue(rateLimitService.tryConsume("ip:10.0.0.1", RateLimitGroup.AUTH).isConsumed());
+        assertTrue(rateLimitService.tryConsume("ip:10.0.0.1", RateLimitGroup.AUTH).isConsumed());
+        assertFalse(rateLimitService.tryConsume("ip:10.0.0.1", RateLimitGroup.AUTH).isConsumed());
+
+        // Başka bir istemcinin ve başka bir grubun bütçesi etkilenmez
+        assertTrue(rateLimitService.tryConsume("ip:10.0.0.2", RateLimitGroup.AUTH).isConsumed());
+        assertTrue(rateLimitService.tryConsume("ip:10.0.0.1", RateLimitGroup.READ).isConsumed());
+
+        // Redis yeniden deneme süresi dolana kadar tekrar denenmez
+        verify(proxyManagerProvider, times(1)).getObject();
+        assertEquals(1.0, meterRegistry.counter("library.ratelimit.rejected").count());
+        assertEquals(5.0, meterRegistry.counter("library.ratelimit.fallback").count());
+    }
+
+    @Test
+    void resolveGroup_MapsAuthWriteAndReadEndpoints() {
+        assertEquals(RateLimitGroup.AUTH, RateLimitGroup.resolve(new MockHttpServletRequest("POST", "/api/v1/auth/login")));
+        assertEquals(RateLimitGroup.WRITE, RateLimitGroup.resolve(new MockHttpServletRequest("POST", "/api/v1/loans")));
+        assertEquals(RateLimitGroup.READ, RateLimitGroup.resolve(new MockHttpServletRequest("GET", "/api/v1/books")));
+    }
+
+    private BucketConfiguration configuration(long capacity) {
+        return BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(capacity).refillGreedy(capacity, Duration.ofMinutes(15)).build())
+                .build();
+    }
+}
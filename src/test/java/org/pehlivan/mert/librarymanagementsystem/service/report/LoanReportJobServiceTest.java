@@ -0,0 +1,122 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.dto.report.LoanReportJobResponse;
+import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportJobNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.exception.report.ReportNotReadyException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanReportJobServiceTest {
+
+    @Mock
+    private LoanReportService loanReportService;
+
+    @TempDir
+    Path directory;
+
+    private LoanReportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        // İşler testte çağıran thread üzerinde hemen çalışır
+        jobService = new LoanReportJobService(loanReportService, Runnable::run);
+        ReflectionTestUtils.setField(jobService, "directory", directory);
+        ReflectionTestUtils.setField(jobService, "retention", Duration.ofHours(1));
+    }
+
+    @Test
+    void submit_WritesReportFileAndReturnsDownloadHandle() throws Exception {
+        LoanReportSummary summary = LoanReportSummary.builder().date(LocalDate.now()).total(1).build();
+        when(loanReportService.summarize(any(LocalDate.class))).thenReturn(summary);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("section\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(loanReportService).writeReport(eq(summary), eq(LoanReportFormat.CSV), any(OutputStream.class));
+
+        LoanReportJobResponse job = jobService.submit(LoanReportFormat.CSV);
+
+        assertEquals(LoanReportJobStatus.COMPLETED, job.getStatus());
+        assertEquals("/api/v1/loans/report/jobs/" + job.getId() + "/download", job.getDownloadUrl());
+        Path file = jobService.getReportFile(job.getId());
+        assertEquals(directory.resolve(job.getId() + ".csv"), file);
+        assertEquals("section\n", Files.readString(file));
+    }
+
+    @Test
+    void submit_ReportFails_MarksJobFailedWithoutFile() throws Exception {
+        when(loanReportService.summarize(any(LocalDate.class)))
+                .thenThrow(new LoanNotFoundException("No loans found to generate report"));
+
+        LoanReportJobResponse job = jobService.submit(LoanReportFormat.TEXT);
+
+        assertEquals(LoanReportJobStatus.FAILED, job.getStatus());
+        assertEquals("No loans found to generate report", job.getError());
+        assertNull(job.getDownloadUrl());
+        assertThrows(ReportNotReadyException.class, () -> jobService.getReportFile(job.getId()));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submit_QueueFull_ReturnsFailedJob() {
+        jobService = new LoanReportJobService(loanReportService, task -> {
+            throw new TaskRejectedException("queue full");
+        });
+
+        LoanReportJobResponse job = jobService.submit(LoanReportFormat.TEXT);
+
+        assertEquals(LoanReportJobStatus.FAILED, job.getStatus());
+        verifyNoInteractions(loanReportService);
+    }
+
+    @Test
+    void getReportFile_PendingJob_ThrowsReportNotReadyException() {
+        jobService = new LoanReportJobService(loanReportService, task -> { });
+
+        LoanReportJobResponse job = jobService.submit(LoanReportFormat.TEXT);
+
+        assertEquals(LoanReportJobStatus.PENDING, jobService.getJob(job.getId()).getStatus());
+        assertThrows(ReportNotReadyException.class, () -> jobService.getReportFile(job.getId()));
+    }
+
+    @Test
+    void getJob_UnknownId_ThrowsReportJobNotFoundException() {
+        assertThrows(ReportJobNotFoundException.class, () -> jobService.getJob("missing"));
+    }
+
+    @Test
+    void purgeExpiredJobs_RemovesFinishedJobsAndFiles() throws Exception {
+        when(loanReportService.summarize(any(LocalDate.class)))
+                .thenReturn(LoanReportSummary.builder().date(LocalDate.now()).total(1).build());
+        LoanReportJobResponse job = jobService.submit(LoanReportFormat.TEXT);
+        Path file = jobService.getReportFile(job.getId());
+        assertTrue(Files.exists(file));
+
+        ReflectionTestUtils.setField(jobService, "retention", Duration.ZERO);
+        jobService.purgeExpiredJobs();
+
+        assertFalse(Files.exists(file));
+        assertThrows(ReportJobNotFoundException.class, () -> jobService.getJob(job.getId()));
+    }
+}
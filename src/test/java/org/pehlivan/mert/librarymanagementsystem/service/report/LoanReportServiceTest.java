@@ -0,0 +1,160 @@
+package org.pehlivan.mert.librarymanagementsystem.service.report;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.pehlivan.mert.librarymanagementsystem.dto.loan.LoanReportRow;
+import org.pehlivan.mert.librarymanagementsystem.exception.loan.LoanNotFoundException;
+import org.pehlivan.mert.librarymanagementsystem.model.loan.LoanStatus;
+import org.pehlivan.mert.librarymanagementsystem.repository.loan.LoanRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoanReportServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @InjectMocks
+    private LoanReportService loanReportService;
+
+    private final LocalDate today = LocalDate.of(2024, 3, 10);
+
+    private LoanReportRow overdueRow;
+    private LoanReportRow activeRow;
+    private LoanReportRow returnedRow;
+
+    @BeforeEach
+    void setUp() {
+        overdueRow = LoanReportRow.builder()
+                .loanId(1L).bookTitle("Test Book").username("testuser")
+                .borrowedDate(today.minusDays(20)).dueDate(today.minusDays(6))
+                .status(LoanStatus.OVERDUE).penaltyAmount(30.0)
+                .build();
+        activeRow = LoanReportRow.builder()
+                .loanId(2L).bookTitle("Clean Code, 2nd \"Edition\"").username("testuser")
+                .borrowedDate(today).dueDate(today.plusDays(5))
+                .status(LoanStatus.BORROWED)
+                .build();
+        returnedRow = LoanReportRow.builder()
+                .loanId(3L).bookTitle("Test Book").username("testuser")
+                .borrowedDate(today.minusDays(20)).dueDate(today.minusDays(6)).returnDate(today.minusDays(5))
+                .status(LoanStatus.RETURNED)
+                .build();
+    }
+
+    @Test
+    void summarize_NoLoans_ThrowsLoanNotFoundException() {
+        when(loanRepository.countGroupedByStatus()).thenReturn(List.of());
+
+        assertThrows(LoanNotFoundException.class, () -> loanReportService.summarize(today));
+    }
+
+    @Test
+    void summarize_CountsByStatusWithoutLoadingLoans() {
+        stubCounts();
+
+        LoanReportSummary summary = loanReportService.summarize(today);
+
+        assertEquals(4, summary.getTotal());
+        assertEquals(2, summary.getActive());
+        assertEquals(1, summary.getOverdue());
+        assertEquals(1, summary.getUpcoming());
+        assertEquals(1, summary.getReturned());
+        verify(loanRepository, never()).findAll();
+    }
+
+    @Test
+    void writeReport_Text_WritesEverySection() throws Exception {
+        stubCounts();
+        stubRows(new AtomicBoolean());
+
+        String report = write(LoanReportFormat.TEXT);
+
+        assertTrue(report.contains("KÜTÜPHANE ÖDÜNÇ KİTAP RAPORU"));
+        assertTrue(report.contains("Oluşturulma Tarihi: 10/03/2024"));
+        assertTrue(report.contains("Toplam Ödünç Kitap Sayısı: 4"));
+        assertTrue(report.contains("Aktif Ödünç Kitap Sayısı: 2"));
+        assertTrue(report.contains("Geciken Kitap Sayısı: 1"));
+        assertTrue(report.contains("Yaklaşan Son Tarihli Kitap Sayısı: 1"));
+        assertTrue(report.contains("İade Edilen Kitap Sayısı: 1"));
+        assertTrue(report.contains("AKTİF ÖDÜNÇ KİTAPLAR"));
+        assertTrue(report.contains("GECİKEN KİTAPLAR"));
+        assertTrue(report.contains("YAKLAŞAN SON TARİHLİ KİTAPLAR"));
+        assertTrue(report.contains("SON İADE EDİLEN KİTAPLAR"));
+        assertTrue(report.contains("05/03/2024"));
+    }
+
+    @Test
+    void writeReport_EmptySection_WritesEmptyMessage() throws Exception {
+        stubCounts();
+        when(loanRepository.streamReportRowsByStatus(LoanStatus.BORROWED)).thenReturn(Stream.empty());
+        when(loanRepository.streamReportRowsByStatus(LoanStatus.OVERDUE)).thenReturn(Stream.empty());
+        when(loanRepository.streamReportRowsByStatusAndDueDateBetween(LoanStatus.BORROWED, today, today.plusDays(7)))
+                .thenReturn(Stream.empty());
+        when(loanRepository.streamReportRowsByStatusOrderByReturnDateDesc(LoanStatus.RETURNED))
+                .thenReturn(Stream.empty());
+
+        String report = write(LoanReportFormat.TEXT);
+
+        assertTrue(report.contains("Aktif ödünç kitap bulunmamaktadır."));
+        assertTrue(report.contains("Geciken kitap bulunmamaktadır."));
+        assertTrue(report.contains("İade edilen kitap bulunmamaktadır."));
+    }
+
+    @Test
+    void writeReport_Csv_EscapesFieldsAndClosesStreams() throws Exception {
+        stubCounts();
+        AtomicBoolean closed = new AtomicBoolean();
+        stubRows(closed);
+
+        String report = write(LoanReportFormat.CSV);
+
+        String[] lines = report.split("\n");
+        assertEquals("section,loan_id,book_title,username,borrowed_date,due_date,return_date,status,penalty_amount",
+                lines[0]);
+        assertEquals("ACTIVE,2,\"Clean Code, 2nd \"\"Edition\"\"\",testuser,2024-03-10,2024-03-15,,BORROWED,",
+                lines[1]);
+        assertTrue(report.contains("OVERDUE,1,Test Book,testuser,2024-02-19,2024-03-04,,OVERDUE,30.0"));
+        assertTrue(report.contains("RETURNED,3,Test Book,testuser,2024-02-19,2024-03-04,2024-03-05,RETURNED,"));
+        // Veritabanı cursor'ı bölüm bitince kapatılır
+        assertTrue(closed.get());
+    }
+
+    private void stubCounts() {
+        when(loanRepository.countGroupedByStatus()).thenReturn(List.of(
+                new Object[]{LoanStatus.BORROWED, 2L},
+                new Object[]{LoanStatus.OVERDUE, 1L},
+                new Object[]{LoanStatus.RETURNED, 1L}));
+        when(loanRepository.countByStatusAndDueDateAfterAndDueDateBefore(
+                LoanStatus.BORROWED, today, today.plusDays(7))).thenReturn(1L);
+    }
+
+    private void stubRows(AtomicBoolean closed) {
+        when(loanRepository.streamReportRowsByStatus(LoanStatus.BORROWED))
+                .thenReturn(Stream.of(activeRow).onClose(() -> closed.set(true)));
+        when(loanRepository.streamReportRowsByStatus(LoanStatus.OVERDUE)).thenReturn(Stream.of(overdueRow));
+        when(loanRepository.streamReportRowsByStatusAndDueDateBetween(LoanStatus.BORROWED, today, today.plusDays(7)))
+                .thenReturn(Stream.of(activeRow));
+        when(loanRepository.streamReportRowsByStatusOrderByReturnDateDesc(LoanStatus.RETURNED))
+                .thenReturn(Stream.of(returnedRow));
+    }
+
+    private String write(LoanReportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        loanReportService.writeReport(loanReportService.summarize(today), format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
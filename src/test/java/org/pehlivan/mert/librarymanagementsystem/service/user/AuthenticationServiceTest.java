@@ -18,6 +18,7 @@ import org.pehlivan.mert.librarymanagementsystem.model.user.Role;
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
 import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
 import org.pehlivan.mert.librarymanagementsystem.security.JwtHelper;
+import org.pehlivan.mert.librarymanagementsystem.security.UserTokenStampCache;
 import org.pehlivan.mert.librarymanagementsystem.service.authentication.AuthenticationService;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
@@ -48,6 +49,7 @@ class AuthenticationServiceTest {
     @Mock private UserDetails userDetails;
     @Mock private SendResult<String, UserRegistrationNotification> sendResult;
     @Mock private ModelMapper modelMapper;
+    @Mock private UserTokenStampCache tokenStampCache;
 
     @InjectMocks private AuthenticationService authenticationService;
 
@@ -94,14 +96,16 @@ class AuthenticationServiceTest {
                 .thenReturn(authentication);
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getPrincipal()).thenReturn(userDetails);
-        when(jwtHelper.generateToken(userDetails)).thenReturn("test.jwt.token");
+        when(userDetails.getUsername()).thenReturn("test@example.com");
+        when(tokenStampCache.currentVersion("test@example.com")).thenReturn(2L);
+        when(jwtHelper.generateToken(userDetails, 2L)).thenReturn("test.jwt.token");
 
         AuthenticationResponseDto response = authenticationService.login(authRequestDto);
 
         assertNotNull(response);
         assertEquals("test.jwt.token", response.getToken());
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtHelper).generateToken(userDetails);
+        verify(jwtHelper).generateToken(userDetails, 2L);
     }
 
     @Test
@@ -112,7 +116,7 @@ class AuthenticationServiceTest {
 
         assertThrows(UnauthorizedException.class, () -> authenticationService.login(authRequestDto));
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtHelper, never()).generateToken(any(UserDetails.class));
+        verify(jwtHelper, never()).generateToken(any(UserDetails.class), anyLong());
     }
 
     @Test
@@ -20,6 +20,7 @@ import org.pehlivan.mert.librarymanagementsystem.exception.user.UserNotFoundExce
 import org.pehlivan.mert.librarymanagementsystem.model.user.Role;
 import org.pehlivan.mert.librarymanagementsystem.model.user.User;
 import org.pehlivan.mert.librarymanagementsystem.repository.user.UserRepository;
+import org.pehlivan.mert.librarymanagementsystem.security.UserTokenStampCache;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.security.core.Authentication;
@@ -52,6 +53,7 @@ class UserServiceTest {
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
     @Mock private SendResult<String, UserRegistrationNotification> sendResult;
+    @Mock private UserTokenStampCache tokenStampCache;
 
     @InjectMocks private UserService userService;
 
@@ -180,6 +182,29 @@ class UserServiceTest {
         verify(userRepository).save(any(User.class));
     }
 
+    @Test
+    void updateUser_PasswordChange_BumpsTokenVersion() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updateUser(1L, userRequestDto);
+
+        assertEquals(1, testUser.getTokenVersion());
+        verify(tokenStampCache).evict("test@example.com");
+    }
+
+    @Test
+    void updateUser_WithoutPasswordOrRoleChange_KeepsTokenVersion() {
+        userRequestDto.setPassword(null);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.updateUser(1L, userRequestDto);
+
+        assertEquals(0, testUser.getTokenVersion());
+        verify(tokenStampCache, never()).evict(anyString());
+    }
+
     @Test
     void deleteUser_Success() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
@@ -188,6 +213,7 @@ class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository).delete(testUser);
+        verify(tokenStampCache).evict("test@example.com");
         verify(totalUsersCounter).increment(-1);
         verify(activeUsersCounter).increment(-1);
     }